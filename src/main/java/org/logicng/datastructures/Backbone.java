@@ -0,0 +1,168 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.datastructures;
+
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * The backbone of a formula wrt. a set of variables.
+ * <p>
+ * A variable is in the positive backbone if it is true in every model of the formula and in the negative backbone if
+ * it is false in every model.  All other variables are optional.  An unsatisfiable formula has no backbone.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class Backbone {
+
+  private final boolean sat;
+  private final SortedSet<Variable> positiveBackbone;
+  private final SortedSet<Variable> negativeBackbone;
+  private final SortedSet<Variable> optionalVariables;
+
+  /**
+   * Constructs a new backbone.
+   * @param sat               {@code true} if the formula is satisfiable
+   * @param positiveBackbone  the variables of the positive backbone
+   * @param negativeBackbone  the variables of the negative backbone
+   * @param optionalVariables the optional variables
+   */
+  private Backbone(boolean sat, final Collection<Variable> positiveBackbone,
+                   final Collection<Variable> negativeBackbone, final Collection<Variable> optionalVariables) {
+    this.sat = sat;
+    this.positiveBackbone = Collections.unmodifiableSortedSet(new TreeSet<Variable>(positiveBackbone));
+    this.negativeBackbone = Collections.unmodifiableSortedSet(new TreeSet<Variable>(negativeBackbone));
+    this.optionalVariables = Collections.unmodifiableSortedSet(new TreeSet<Variable>(optionalVariables));
+  }
+
+  /**
+   * Returns the backbone of a satisfiable formula.
+   * @param positiveBackbone  the variables of the positive backbone
+   * @param negativeBackbone  the variables of the negative backbone
+   * @param optionalVariables the optional variables
+   * @return the backbone
+   */
+  public static Backbone satBackbone(final Collection<Variable> positiveBackbone,
+                                     final Collection<Variable> negativeBackbone,
+                                     final Collection<Variable> optionalVariables) {
+    return new Backbone(true, positiveBackbone, negativeBackbone, optionalVariables);
+  }
+
+  /**
+   * Returns the (empty) backbone of an unsatisfiable formula.
+   * @return the backbone
+   */
+  public static Backbone unsatBackbone() {
+    final SortedSet<Variable> empty = new TreeSet<Variable>();
+    return new Backbone(false, empty, empty, empty);
+  }
+
+  /**
+   * Returns {@code true} if the formula is satisfiable, {@code false} otherwise.
+   * @return {@code true} if the formula is satisfiable
+   */
+  public boolean isSat() {
+    return this.sat;
+  }
+
+  /**
+   * Returns the variables which are true in every model.
+   * @return the positive backbone
+   */
+  public SortedSet<Variable> positiveBackbone() {
+    return this.positiveBackbone;
+  }
+
+  /**
+   * Returns the variables which are false in every model.
+   * @return the negative backbone
+   */
+  public SortedSet<Variable> negativeBackbone() {
+    return this.negativeBackbone;
+  }
+
+  /**
+   * Returns the variables which are neither in the positive nor in the negative backbone.
+   * @return the optional variables
+   */
+  public SortedSet<Variable> optionalVariables() {
+    return this.optionalVariables;
+  }
+
+  /**
+   * Returns the literals of the positive and the negative backbone.
+   * @return the backbone literals
+   */
+  public SortedSet<Literal> completeBackbone() {
+    final SortedSet<Literal> backbone = new TreeSet<Literal>(this.positiveBackbone);
+    for (final Variable var : this.negativeBackbone)
+      backbone.add(var.negate());
+    return backbone;
+  }
+
+  /**
+   * Returns the backbone as conjunction of its literals or the constant false if the formula is unsatisfiable.
+   * @param f the formula factory
+   * @return the backbone as formula
+   */
+  public Formula toFormula(final FormulaFactory f) {
+    return this.sat ? f.and(this.completeBackbone()) : f.falsum();
+  }
+
+  @Override
+  public int hashCode() {
+    int result = this.sat ? 1 : 0;
+    result = 31 * result + this.positiveBackbone.hashCode();
+    result = 31 * result + this.negativeBackbone.hashCode();
+    return 31 * result + this.optionalVariables.hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other)
+      return true;
+    if (!(other instanceof Backbone))
+      return false;
+    final Backbone o = (Backbone) other;
+    return this.sat == o.sat && this.positiveBackbone.equals(o.positiveBackbone)
+            && this.negativeBackbone.equals(o.negativeBackbone) && this.optionalVariables.equals(o.optionalVariables);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Backbone{sat=%s, positive=%s, negative=%s, optional=%s}", this.sat, this.positiveBackbone,
+            this.negativeBackbone, this.optionalVariables);
+  }
+}
@@ -0,0 +1,442 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.modelcounting;
+
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Literal;
+import org.logicng.handlers.SATHandler;
+import org.logicng.solvers.MiniSat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.logicng.datastructures.Tristate.TRUE;
+
+/**
+ * A projected model counter for a set of clauses based on DPLL with connected-component decomposition and component
+ * caching.
+ * <p>
+ * Literals are encoded like in MiniSAT: the literal of variable {@code v} is {@code 2v} if it is positive and
+ * {@code 2v+1} if it is negative.  After each decision the counter propagates unit clauses on its own and splits the
+ * residual clauses into components which share no variables and are counted independently.  Only projected variables
+ * are decided.
+ * <p>
+ * A SAT solver over the same clauses is only asked before a component is counted which is not in the cache, and at
+ * most once per residual: since the components share no variables, the current assignment can be extended to a model
+ * if and only if every component has a model.  Hence every counted component has a model and a component without
+ * projected variables counts as exactly one.  If the SAT solver finds no model, the residual counts as zero and none
+ * of its components is cached.
+ * <p>
+ * A component is identified by its unassigned variables and its unsatisfied clauses.  The counts of components are
+ * stored in a cache of bounded size which evicts the least recently used component.
+ * <p>
+ * The counting can be aborted by interrupting the current thread.
+ * @version 1.2
+ * @since 1.2
+ */
+final class ComponentCounter {
+
+  private static final int UNDEF = -1;
+
+  private static final SATHandler INTERRUPTION_HANDLER = new SATHandler() {
+    @Override
+    public boolean detectedConflict() {
+      return !Thread.currentThread().isInterrupted();
+    }
+
+    @Override
+    public void startedSolving() {
+      // nothing to do
+    }
+
+    @Override
+    public void finishedSolving() {
+      // nothing to do
+    }
+  };
+
+  private final int[][] clauses;
+  private final boolean[] projected;
+  private final int[][] occurrences;
+  private final int[] values;
+  private final LNGIntVector trail;
+  private final MiniSat solver;
+  private final Literal[] literals;
+  private final List<Literal> decisionLiterals;
+  private final ComponentCache cache;
+  private final int[] varStamps;
+  private final int[] scores;
+  private final int[] clauseStamps;
+  private int stamp;
+
+  long decisions;
+  long cacheHits;
+  long cacheMisses;
+  long satCalls;
+
+  /**
+   * Constructs a new component counter.
+   * @param clauses   the clauses
+   * @param projected the projected variables
+   * @param solver    a SAT solver which contains exactly the given clauses
+   * @param literals  the literals of the solver for the literals of the clauses
+   * @param cacheSize the maximal number of cached components
+   */
+  ComponentCounter(final int[][] clauses, final boolean[] projected, final MiniSat solver, final Literal[] literals,
+                   int cacheSize) {
+    this.clauses = clauses;
+    this.projected = projected;
+    this.solver = solver;
+    this.literals = literals;
+    final int numVars = projected.length;
+    final int[] numOccurrences = new int[2 * numVars];
+    for (final int[] clause : clauses)
+      for (final int lit : clause)
+        numOccurrences[lit]++;
+    this.occurrences = new int[2 * numVars][];
+    for (int lit = 0; lit < 2 * numVars; lit++)
+      this.occurrences[lit] = new int[numOccurrences[lit]];
+    Arrays.fill(numOccurrences, 0);
+    for (int c = 0; c < clauses.length; c++)
+      for (final int lit : clauses[c])
+        this.occurrences[lit][numOccurrences[lit]++] = c;
+    this.values = new int[numVars];
+    Arrays.fill(this.values, UNDEF);
+    this.trail = new LNGIntVector();
+    this.decisionLiterals = new ArrayList<Literal>();
+    this.cache = new ComponentCache(cacheSize);
+    this.varStamps = new int[numVars];
+    this.scores = new int[numVars];
+    this.clauseStamps = new int[clauses.length];
+    this.stamp = 0;
+  }
+
+  /**
+   * Counts the models of the clauses projected to the projected variables.
+   * @return the number of models
+   */
+  BigInteger count() {
+    for (final int[] clause : this.clauses) {
+      if (clause.length == 0)
+        return BigInteger.ZERO;
+      if (clause.length == 1 && !this.assign(clause[0]))
+        return BigInteger.ZERO;
+    }
+    if (!this.propagate(0))
+      return BigInteger.ZERO;
+    final int[] allVars = new int[this.values.length];
+    for (int v = 0; v < allVars.length; v++)
+      allVars[v] = v;
+    final int[] allClauses = new int[this.clauses.length];
+    for (int c = 0; c < allClauses.length; c++)
+      allClauses[c] = c;
+    return this.countResidual(allVars, allClauses);
+  }
+
+  /**
+   * Counts the models of the residual of a set of variables and clauses under the current assignment.  Satisfied
+   * clauses and assigned variables are removed, the remaining clauses are split into components and each free
+   * projected variable doubles the count.  The SAT solver is asked before the first component which is not cached.
+   * @param vars    the variables
+   * @param clauses the clauses
+   * @return the number of models of the residual
+   */
+  private BigInteger countResidual(final int[] vars, final int[] clauses) {
+    final int componentStamp = ++this.stamp;
+    for (final int c : clauses)
+      if (!this.satisfied(c))
+        this.clauseStamps[c] = componentStamp;
+    final List<int[]> componentVarSets = new ArrayList<int[]>();
+    final List<int[]> componentClauseSets = new ArrayList<int[]>();
+    int numFree = 0;
+    for (final int root : vars) {
+      if (this.values[root] != UNDEF || this.varStamps[root] == componentStamp)
+        continue;
+      final LNGIntVector componentVars = new LNGIntVector();
+      final LNGIntVector componentClauses = new LNGIntVector();
+      this.varStamps[root] = componentStamp;
+      componentVars.push(root);
+      for (int i = 0; i < componentVars.size(); i++) {
+        final int v = componentVars.get(i);
+        for (int sign = 0; sign < 2; sign++)
+          for (final int c : this.occurrences[2 * v + sign]) {
+            if (this.clauseStamps[c] != componentStamp)
+              continue;
+            this.clauseStamps[c] = -componentStamp;
+            componentClauses.push(c);
+            for (final int lit : this.clauses[c]) {
+              final int w = lit >> 1;
+              if (this.values[w] == UNDEF && this.varStamps[w] != componentStamp) {
+                this.varStamps[w] = componentStamp;
+                componentVars.push(w);
+              }
+            }
+          }
+      }
+      if (componentClauses.empty()) {
+        if (this.projected[root])
+          numFree++;
+      } else {
+        componentVarSets.add(toSortedArray(componentVars));
+        componentClauseSets.add(toSortedArray(componentClauses));
+      }
+    }
+    BigInteger count = BigInteger.ONE.shiftLeft(numFree);
+    boolean satisfiable = false;
+    for (int i = 0; i < componentVarSets.size(); i++) {
+      final int[] componentVars = componentVarSets.get(i);
+      final int[] componentClauses = componentClauseSets.get(i);
+      final ComponentKey key = new ComponentKey(componentVars, componentClauses);
+      BigInteger componentCount = this.cache.get(key);
+      if (componentCount != null)
+        this.cacheHits++;
+      else {
+        if (!satisfiable && !(satisfiable = this.satisfiable()))
+          return BigInteger.ZERO;
+        componentCount = this.countComponent(componentVars, componentClauses, key);
+      }
+      count = count.multiply(componentCount);
+    }
+    return count;
+  }
+
+  /**
+   * Counts the models of a component which is not cached.  All variables of the component are unassigned and all
+   * clauses are unsatisfied, and the component has at least one model under the current assignment.
+   * @param vars    the sorted variables of the component
+   * @param clauses the sorted clauses of the component
+   * @param key     the key of the component in the cache
+   * @return the number of models of the component
+   */
+  private BigInteger countComponent(final int[] vars, final int[] clauses, final ComponentKey key) {
+    final int branchVar = this.branchingVariable(vars, clauses);
+    if (branchVar == UNDEF)
+      return BigInteger.ONE;
+    if (Thread.currentThread().isInterrupted())
+      throw new IllegalStateException("The model counting was interrupted.");
+    this.cacheMisses++;
+    BigInteger count = BigInteger.ZERO;
+    for (int sign = 0; sign < 2; sign++) {
+      final int lit = 2 * branchVar + sign;
+      final int level = this.trail.size();
+      this.decisions++;
+      this.decisionLiterals.add(this.literals[lit]);
+      if (this.assign(lit) && this.propagate(level))
+        count = count.add(this.countResidual(vars, clauses));
+      this.decisionLiterals.remove(this.decisionLiterals.size() - 1);
+      this.undo(level);
+    }
+    this.cache.put(key, count);
+    return count;
+  }
+
+  /**
+   * Returns {@code true} if the current decisions can be extended to a model of the clauses, {@code false} otherwise.
+   * @return {@code true} if the current decisions can be extended to a model
+   * @throws IllegalStateException if the current thread was interrupted
+   */
+  private boolean satisfiable() {
+    this.satCalls++;
+    final Tristate result = this.solver.sat(INTERRUPTION_HANDLER, this.decisionLiterals);
+    if (result == Tristate.UNDEF)
+      throw new IllegalStateException("The model counting was interrupted.");
+    return result == TRUE;
+  }
+
+  /**
+   * Returns the projected variable of a component with the most occurrences in the clauses of the component.
+   * @param vars    the variables of the component
+   * @param clauses the clauses of the component
+   * @return the variable or {@code UNDEF} if the component contains no projected variable
+   */
+  private int branchingVariable(final int[] vars, final int[] clauses) {
+    boolean hasProjected = false;
+    for (int i = 0; i < vars.length && !hasProjected; i++)
+      hasProjected = this.projected[vars[i]];
+    if (!hasProjected)
+      return UNDEF;
+    for (final int v : vars)
+      this.scores[v] = 0;
+    int best = UNDEF;
+    int bestScore = -1;
+    for (final int c : clauses)
+      for (final int lit : this.clauses[c]) {
+        final int v = lit >> 1;
+        if (!this.projected[v] || this.values[v] != UNDEF)
+          continue;
+        final int score = ++this.scores[v];
+        if (score > bestScore) {
+          best = v;
+          bestScore = score;
+        }
+      }
+    return best;
+  }
+
+  /**
+   * Assigns a literal.
+   * @param lit the literal
+   * @return {@code false} if the literal is already false, {@code true} otherwise
+   */
+  private boolean assign(int lit) {
+    final int value = this.values[lit >> 1];
+    if (value != UNDEF)
+      return value != (lit & 1);
+    this.values[lit >> 1] = 1 - (lit & 1);
+    this.trail.push(lit);
+    return true;
+  }
+
+  /**
+   * Propagates all literals on the trail from a given position on.
+   * @param from the position on the trail
+   * @return {@code false} if a conflict occurred, {@code true} otherwise
+   */
+  private boolean propagate(int from) {
+    for (int i = from; i < this.trail.size(); i++) {
+      final int falseLit = this.trail.get(i) ^ 1;
+      for (final int c : this.occurrences[falseLit]) {
+        int unit = UNDEF;
+        int numUnassigned = 0;
+        boolean satisfied = false;
+        for (final int lit : this.clauses[c]) {
+          final int value = this.values[lit >> 1];
+          if (value == UNDEF) {
+            unit = lit;
+            numUnassigned++;
+          } else if (value != (lit & 1)) {
+            satisfied = true;
+            break;
+          }
+        }
+        if (satisfied || numUnassigned > 1)
+          continue;
+        if (numUnassigned == 0)
+          return false;
+        this.assign(unit);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Undoes all assignments after a given position on the trail.
+   * @param level the position on the trail
+   */
+  private void undo(int level) {
+    for (int i = level; i < this.trail.size(); i++)
+      this.values[this.trail.get(i) >> 1] = UNDEF;
+    this.trail.shrinkTo(level);
+  }
+
+  /**
+   * Returns {@code true} if a clause is satisfied by the current assignment, {@code false} otherwise.
+   * @param c the clause
+   * @return {@code true} if the clause is satisfied
+   */
+  private boolean satisfied(int c) {
+    for (final int lit : this.clauses[c]) {
+      final int value = this.values[lit >> 1];
+      if (value != UNDEF && value != (lit & 1))
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the number of evicted components.
+   * @return the number of evicted components
+   */
+  long evictions() {
+    return this.cache.evictions;
+  }
+
+  private static int[] toSortedArray(final LNGIntVector vector) {
+    final int[] array = Arrays.copyOf(vector.toArray(), vector.size());
+    Arrays.sort(array);
+    return array;
+  }
+
+  /**
+   * The key of a component in the cache.
+   */
+  private static final class ComponentKey {
+    private final int[] vars;
+    private final int[] clauses;
+    private final int hashCode;
+
+    private ComponentKey(final int[] vars, final int[] clauses) {
+      this.vars = vars;
+      this.clauses = clauses;
+      this.hashCode = 31 * Arrays.hashCode(vars) + Arrays.hashCode(clauses);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other)
+        return true;
+      if (!(other instanceof ComponentKey))
+        return false;
+      final ComponentKey o = (ComponentKey) other;
+      return this.hashCode == o.hashCode && Arrays.equals(this.vars, o.vars) && Arrays.equals(this.clauses, o.clauses);
+    }
+  }
+
+  /**
+   * A component cache with a bounded number of entries which evicts the least recently used component.
+   */
+  private static final class ComponentCache extends LinkedHashMap<ComponentKey, BigInteger> {
+    private static final long serialVersionUID = 1L;
+    private final int capacity;
+    private long evictions;
+
+    private ComponentCache(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+      this.evictions = 0;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<ComponentKey, BigInteger> eldest) {
+      if (this.size() <= this.capacity)
+        return false;
+      this.evictions++;
+      return true;
+    }
+  }
+}
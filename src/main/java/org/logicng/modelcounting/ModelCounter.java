@@ -0,0 +1,242 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.modelcounting;
+
+import org.logicng.configurations.ConfigurationType;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.solvers.MiniSat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * An exact model counter (#SAT) for sets of formulas with projection.
+ * <p>
+ * The formulas are transformed into CNF with the CNF encoder of the formula factory.  Auxiliary variables of the
+ * encoding are never counted since the count is always projected to a given set of variables or to the variables of
+ * the original formulas.  The clauses are counted by a DPLL search with connected-component decomposition and a
+ * component cache of bounded size (cf. {@link ModelCounterConfig}).  The counting can be aborted by interrupting the
+ * current thread.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class ModelCounter {
+
+  private final FormulaFactory f;
+  private final ModelCounterConfig config;
+  private long decisions;
+  private long cacheHits;
+  private long cacheMisses;
+  private long evictions;
+  private long satCalls;
+
+  /**
+   * Constructs a new model counter which uses the configuration of the formula factory or the default configuration
+   * if the formula factory has no model counter configuration.
+   * @param f the formula factory
+   */
+  public ModelCounter(final FormulaFactory f) {
+    this(f, null);
+  }
+
+  /**
+   * Constructs a new model counter with a given configuration.
+   * @param f      the formula factory
+   * @param config the configuration
+   */
+  public ModelCounter(final FormulaFactory f, final ModelCounterConfig config) {
+    this.f = f;
+    this.config = config;
+  }
+
+  /**
+   * Counts the models of a set of formulas wrt. their variables.
+   * @param formulas the formulas
+   * @return the number of models
+   */
+  public BigInteger count(final Collection<? extends Formula> formulas) {
+    return this.count(formulas, null);
+  }
+
+  /**
+   * Counts the models of a set of formulas projected to a given set of variables, i.e. the number of assignments of
+   * the variables which can be extended to a model of the formulas.  Variables of the set which do not occur in the
+   * formulas can be assigned arbitrarily.  If the set is {@code null}, the variables of the formulas are used.
+   * @param formulas  the formulas
+   * @param variables the set of variables
+   * @return the number of models
+   * @throws IllegalStateException if the current thread was interrupted during the counting
+   */
+  public BigInteger count(final Collection<? extends Formula> formulas, final Collection<Variable> variables) {
+    final SortedSet<Variable> projection = new TreeSet<Variable>();
+    if (variables == null) {
+      for (final Formula formula : formulas)
+        projection.addAll(formula.variables());
+    } else
+      projection.addAll(variables);
+    final List<Formula> cnf = new ArrayList<Formula>(formulas.size());
+    for (final Formula formula : formulas)
+      cnf.add(formula.cnf());
+    final Map<Variable, Integer> indices = new HashMap<Variable, Integer>();
+    final List<Variable> vars = new ArrayList<Variable>();
+    final List<int[]> clauses = new ArrayList<int[]>();
+    for (final Formula formula : cnf)
+      if (!this.addClauses(formula, indices, vars, clauses))
+        return BigInteger.ZERO;
+    int numFree = 0;
+    final boolean[] projected = new boolean[vars.size()];
+    for (final Variable var : projection) {
+      final Integer index = indices.get(var);
+      if (index == null)
+        numFree++;
+      else
+        projected[index] = true;
+    }
+    final Literal[] literals = new Literal[2 * vars.size()];
+    for (int v = 0; v < vars.size(); v++) {
+      literals[2 * v] = vars.get(v);
+      literals[2 * v + 1] = vars.get(v).negate();
+    }
+    final MiniSat solver = MiniSat.miniSat(this.f);
+    solver.add(cnf);
+    final ComponentCounter counter = new ComponentCounter(clauses.toArray(new int[clauses.size()][]), projected, solver,
+            literals, this.config().cacheSize);
+    final BigInteger count = counter.count();
+    this.decisions = counter.decisions;
+    this.cacheHits = counter.cacheHits;
+    this.cacheMisses = counter.cacheMisses;
+    this.evictions = counter.evictions();
+    this.satCalls = counter.satCalls;
+    return count.shiftLeft(numFree);
+  }
+
+  /**
+   * Adds the clauses of a formula in CNF.
+   * @param formula the formula in CNF
+   * @param indices the mapping from variables to indices
+   * @param vars    the variables
+   * @param clauses the clauses
+   * @return {@code false} if the formula is the constant false, {@code true} otherwise
+   */
+  private boolean addClauses(final Formula formula, final Map<Variable, Integer> indices, final List<Variable> vars,
+                             final List<int[]> clauses) {
+    switch (formula.type()) {
+      case TRUE:
+        return true;
+      case FALSE:
+        return false;
+      case LITERAL:
+      case OR:
+        final int[] clause = new int[formula.numberOfOperands() == 0 ? 1 : formula.numberOfOperands()];
+        int i = 0;
+        for (final Literal lit : formula.literals()) {
+          Integer index = indices.get(lit.variable());
+          if (index == null) {
+            index = vars.size();
+            indices.put(lit.variable(), index);
+            vars.add(lit.variable());
+          }
+          clause[i++] = 2 * index + (lit.phase() ? 0 : 1);
+        }
+        clauses.add(clause);
+        return true;
+      case AND:
+        for (final Formula op : formula)
+          this.addClauses(op, indices, vars, clauses);
+        return true;
+      default:
+        throw new IllegalArgumentException("Input formula ist not a valid CNF: " + formula);
+    }
+  }
+
+  /**
+   * Returns the configuration of this model counter.
+   * @return the configuration
+   */
+  private ModelCounterConfig config() {
+    if (this.config != null)
+      return this.config;
+    final ModelCounterConfig factoryConfig = (ModelCounterConfig) this.f.configurationFor(ConfigurationType.MODEL_COUNTER);
+    return factoryConfig != null ? factoryConfig : new ModelCounterConfig.Builder().build();
+  }
+
+  /**
+   * Returns the number of decisions of the last count.
+   * @return the number of decisions
+   */
+  public long decisions() {
+    return this.decisions;
+  }
+
+  /**
+   * Returns the number of cache hits of the last count.
+   * @return the number of cache hits
+   */
+  public long cacheHits() {
+    return this.cacheHits;
+  }
+
+  /**
+   * Returns the number of cache misses of the last count.
+   * @return the number of cache misses
+   */
+  public long cacheMisses() {
+    return this.cacheMisses;
+  }
+
+  /**
+   * Returns the number of components which were evicted from the cache during the last count.
+   * @return the number of evicted components
+   */
+  public long evictions() {
+    return this.evictions;
+  }
+
+  /**
+   * Returns the number of calls of the SAT solver during the last count.
+   * @return the number of SAT calls
+   */
+  public long satCalls() {
+    return this.satCalls;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ModelCounter{decisions=%d, cacheHits=%d, cacheMisses=%d, evictions=%d, satCalls=%d}",
+            this.decisions, this.cacheHits, this.cacheMisses, this.evictions, this.satCalls);
+  }
+}
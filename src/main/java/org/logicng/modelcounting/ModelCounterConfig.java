@@ -0,0 +1,88 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.modelcounting;
+
+import org.logicng.configurations.Configuration;
+import org.logicng.configurations.ConfigurationType;
+
+/**
+ * The configuration object for the model counter.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class ModelCounterConfig extends Configuration {
+
+  final int cacheSize;
+
+  /**
+   * Constructs a new configuration with a given type.
+   * @param builder the builder
+   */
+  public ModelCounterConfig(final Builder builder) {
+    super(ConfigurationType.MODEL_COUNTER);
+    this.cacheSize = builder.cacheSize;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("ModelCounterConfig{\n");
+    sb.append("cacheSize=").append(this.cacheSize).append("\n");
+    sb.append("}\n");
+    return sb.toString();
+  }
+
+  /**
+   * The builder for a model counter configuration.
+   */
+  public static class Builder {
+
+    private int cacheSize = 100000;
+
+    /**
+     * Sets the maximal number of components in the component cache.  If the cache is full, the least recently used
+     * component is evicted.  A size of 0 disables the cache.  The default value is 100000.
+     * @param cacheSize the maximal number of cached components
+     * @return the builder
+     * @throws IllegalArgumentException if the size is negative
+     */
+    public Builder cacheSize(int cacheSize) {
+      if (cacheSize < 0)
+        throw new IllegalArgumentException("The cache size must not be negative: " + cacheSize);
+      this.cacheSize = cacheSize;
+      return this;
+    }
+
+    /**
+     * Builds the configuration.
+     * @return the configuration.
+     */
+    public ModelCounterConfig build() {
+      return new ModelCounterConfig(this);
+    }
+  }
+}
@@ -31,6 +31,7 @@ package org.logicng.solvers;
 import org.logicng.cardinalityconstraints.CCEncoder;
 import org.logicng.cardinalityconstraints.CCIncrementalData;
 import org.logicng.collections.LNGBooleanVector;
+import org.logicng.collections.LNGIntVector;
 import org.logicng.datastructures.Assignment;
 import org.logicng.datastructures.EncodingResult;
 import org.logicng.datastructures.Tristate;
@@ -46,10 +47,14 @@ import org.logicng.solvers.sat.CleaneLingConfig;
 import org.logicng.solvers.sat.CleaneLingMinimalisticSolver;
 import org.logicng.solvers.sat.CleaneLingSolver;
 import org.logicng.solvers.sat.CleaneLingStyleSolver;
+import org.logicng.solvers.sat.SolverStatistics;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -60,7 +65,7 @@ import static org.logicng.datastructures.Tristate.UNDEF;
 
 /**
  * Wrapper for the CleaneLing-style SAT solvers.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public final class CleaneLing extends SATSolver {
@@ -71,9 +76,12 @@ public final class CleaneLing extends SATSolver {
   private final CCEncoder ccEncoder;
   private final CleaneLingStyleSolver solver;
   private SolverStyle solverStyle;
-  private boolean plain;
   private SortedMap<String, Integer> name2idx;
   private SortedMap<Integer, String> idx2name;
+  private final LNGIntVector validStates;
+  private final LNGIntVector stateClauses;
+  private int nextStateId;
+  private int addedClauses;
 
   /**
    * Constructs a new SAT solver instance.
@@ -97,9 +105,12 @@ public final class CleaneLing extends SATSolver {
     }
     this.result = UNDEF;
     this.solverStyle = solverStyle;
-    this.plain = config.plain();
     this.name2idx = new TreeMap<String, Integer>();
     this.idx2name = new TreeMap<Integer, String>();
+    this.validStates = new LNGIntVector();
+    this.stateClauses = new LNGIntVector();
+    this.nextStateId = 0;
+    this.addedClauses = 0;
     this.ccEncoder = new CCEncoder(f);
   }
 
@@ -146,7 +157,7 @@ public final class CleaneLing extends SATSolver {
     if (formula.type() == FType.PBC) {
       final PBConstraint constraint = (PBConstraint) formula;
       this.result = UNDEF;
-      if (constraint.isCC()) {
+      if (constraint.isCC() && this.scopes.isEmpty()) {
         final EncodingResult result = EncodingResult.resultForCleaneLing(this.f, this);
         ccEncoder.encode(constraint, result);
       } else
@@ -159,6 +170,8 @@ public final class CleaneLing extends SATSolver {
   public CCIncrementalData addIncrementalCC(PBConstraint cc) {
     if (!cc.isCC())
       throw new IllegalArgumentException("Cannot generate an incremental cardinality constraint on a pseudo-Boolean constraint");
+    if (!this.scopes.isEmpty())
+      throw new IllegalStateException("Incremental cardinality constraints cannot be added within a scope");
     final EncodingResult result = EncodingResult.resultForCleaneLing(this.f, this);
     return ccEncoder.encodeIncremental(cc, result);
   }
@@ -166,12 +179,14 @@ public final class CleaneLing extends SATSolver {
   @Override
   protected void addClause(final Formula formula) {
     this.result = UNDEF;
+    this.addedClauses++;
     addClause(formula.literals());
   }
 
   @Override
   protected void addClauseWithRelaxation(Variable relaxationVar, Formula formula) {
     this.result = UNDEF;
+    this.addedClauses++;
     final SortedSet<Literal> literals = new TreeSet<Literal>(formula.literals());
     literals.add(relaxationVar);
     addClause(literals);
@@ -181,26 +196,53 @@ public final class CleaneLing extends SATSolver {
   public Tristate sat(final SATHandler handler) {
     if (this.result != UNDEF)
       return this.result;
-    this.result = this.solver.solve(handler);
+    if (this.scopes.isEmpty())
+      this.result = this.solver.solve(handler);
+    else
+      this.result = this.solver.solve(handler, generateAssumptionVector(Collections.<Literal>emptyList()));
     return result;
   }
 
   @Override
   public Tristate sat(final SATHandler handler, final Literal literal) {
-    throw new UnsupportedOperationException("CleaneLing does not support assumed literal solving.");
+    this.result = this.solver.solve(handler, generateAssumptionVector(Collections.singletonList(literal)));
+    return this.result;
   }
 
   @Override
   public Tristate sat(final SATHandler handler, final Collection<? extends Literal> assumptions) {
-    throw new UnsupportedOperationException("CleaneLing does not support solving with assumptions.");
+    this.result = this.solver.solve(handler, generateAssumptionVector(assumptions));
+    return this.result;
   }
 
   @Override
   public void reset() {
     this.solver.reset();
+    this.clearScopes();
     this.result = UNDEF;
   }
 
+  /**
+   * Freezes a variable.  A frozen variable is never eliminated by the simplifications of the full CleaneLing solver.
+   * Freezing variables which are used in later clauses or assumptions avoids the restoration of eliminated clauses.
+   * For the minimalistic CleaneLing solver this method has no effect.
+   * @param var the variable
+   */
+  public void freeze(final Variable var) {
+    if (this.solverStyle == SolverStyle.FULL)
+      ((CleaneLingSolver) this.solver).freeze(getOrCreateVarIndex(var));
+  }
+
+  /**
+   * Melts a variable which was frozen before.  For the minimalistic CleaneLing solver this method has no effect.
+   * @param var the variable
+   * @throws IllegalStateException if the variable is not frozen
+   */
+  public void melt(final Variable var) {
+    if (this.solverStyle == SolverStyle.FULL)
+      ((CleaneLingSolver) this.solver).melt(getOrCreateVarIndex(var));
+  }
+
   @Override
   public Assignment model(final Collection<Variable> variables) {
     if (this.result == UNDEF)
@@ -210,8 +252,6 @@ public final class CleaneLing extends SATSolver {
 
   @Override
   public List<Assignment> enumerateAllModels(final Collection<Variable> variables) {
-    if (this.solverStyle == SolverStyle.FULL && !this.plain)
-      throw new UnsupportedOperationException("Model enumeration is not available if simplifications are turned on");
     List<Assignment> models = new LinkedList<Assignment>();
     while (this.sat((SATHandler) null) == TRUE) {
       final Assignment model = this.model(variables);
@@ -224,8 +264,6 @@ public final class CleaneLing extends SATSolver {
 
   @Override
   public List<Assignment> enumerateAllModels(final Collection<Variable> literals, final ModelEnumerationHandler handler) {
-    if (this.solverStyle == SolverStyle.FULL && !this.plain)
-      throw new UnsupportedOperationException("Model enumeration is not available if simplifications are turned on");
     List<Assignment> models = new LinkedList<Assignment>();
     boolean proceed = true;
     while (proceed && this.sat((SATHandler) null) == TRUE) {
@@ -238,14 +276,59 @@ public final class CleaneLing extends SATSolver {
     return models;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * A state of the CleaneLing solver is realized by opening a new scope (cf. {@link #push()}).  Therefore states and
+   * manually opened scopes have to be used in a nested fashion.  Loading a state only replaces the scope of the state
+   * by a new one if clauses were added since the state was saved or loaded the last time.  Otherwise, the scope and
+   * its activation literal are kept.
+   */
   @Override
   public SolverState saveState() {
-    throw new UnsupportedOperationException("The CleaneLing solver does not support state loading/saving");
+    this.push();
+    final int id = this.nextStateId++;
+    this.validStates.push(id);
+    this.stateClauses.push(this.addedClauses);
+    return new SolverState(id, new int[]{this.scopeLevel()});
   }
 
   @Override
-  public void loadState(SolverState state) {
-    throw new UnsupportedOperationException("The CleaneLing solver does not support state loading/saving");
+  public void loadState(final SolverState state) {
+    int index = -1;
+    for (int i = validStates.size() - 1; i >= 0 && index == -1; i--)
+      if (validStates.get(i) == state.id())
+        index = i;
+    if (index == -1 || state.state()[0] > this.scopeLevel())
+      throw new IllegalArgumentException("The given solver state is not valid anymore.");
+    this.validStates.shrinkTo(index + 1);
+    this.stateClauses.shrinkTo(index + 1);
+    if (this.addedClauses == this.stateClauses.get(index)) {
+      while (this.scopeLevel() > state.state()[0])
+        this.pop();
+    } else {
+      while (this.scopeLevel() >= state.state()[0])
+        this.pop();
+      this.push();
+    }
+    this.stateClauses.set(index, this.addedClauses);
+    this.result = UNDEF;
+  }
+
+  /**
+   * Generates the vector of assumptions for the solver from the given literals and the open scopes.
+   * @param assumptions the assumed literals
+   * @return the assumption vector
+   */
+  private LNGIntVector generateAssumptionVector(final Collection<? extends Literal> assumptions) {
+    final Set<Literal> assumptionSet = new LinkedHashSet<Literal>(assumptions);
+    assumptionSet.addAll(this.scopeAssumptions());
+    final LNGIntVector assumptionVec = new LNGIntVector(assumptionSet.size());
+    for (final Literal lit : assumptionSet) {
+      final int index = getOrCreateVarIndex(lit.variable());
+      assumptionVec.push(lit.phase() ? index : -index);
+    }
+    return assumptionVec;
   }
 
   /**
@@ -277,6 +360,8 @@ public final class CleaneLing extends SATSolver {
     if (!vec.empty()) {
       for (int i = 1; i < vec.size(); i++) {
         final Variable var = f.variable(this.idx2name.get(i));
+        if (this.isScopeSelector(var))
+          continue;
         if (vec.get(i)) {
           if (variables == null || variables.contains(var))
             model.addLiteral(var);
@@ -334,6 +419,11 @@ public final class CleaneLing extends SATSolver {
     return result;
   }
 
+  @Override
+  public SolverStatistics statistics() {
+    return this.solver.statistics();
+  }
+
   @Override
   public String toString() {
     return String.format("CleaneLing{result=%s, idx2name=%s}", this.result, this.idx2name);
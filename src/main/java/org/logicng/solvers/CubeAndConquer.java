@@ -0,0 +1,343 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers;
+
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.SATHandler;
+import org.logicng.solvers.sat.MiniSatStyleSolver;
+import org.logicng.util.Pair;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.logicng.datastructures.Tristate.FALSE;
+import static org.logicng.datastructures.Tristate.TRUE;
+import static org.logicng.datastructures.Tristate.UNDEF;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.LIT_UNDEF;
+
+/**
+ * The cube-and-conquer mode of a {@link SATPortfolio}.
+ * <p>
+ * The problem is split by a lookahead on the most active variables into cubes, i.e. conjunctions of literals.  The
+ * cubes are solved in parallel as assumptions of the MiniSAT-style solvers of the portfolio.  The solvers take the
+ * cubes from a shared blocking queue and wait on the queue while it is empty.  A cube which cannot be solved within its
+ * conflict budget is split again and its two sub-cubes with the doubled budget are appended to the queue.
+ * Thus all cubes are tried with a small budget before a single cube is examined in depth.  The formula is satisfiable
+ * as soon as one cube is satisfiable and unsatisfiable if all cubes are unsatisfiable.
+ * @version 1.2
+ * @since 1.2
+ */
+final class CubeAndConquer {
+
+  private static final int NUM_CANDIDATES = 16;
+  private static final Cube POISON = new Cube(null, 0);
+
+  private final FormulaFactory f;
+  private final List<MiniSat> solvers;
+  private final int initialDepth;
+  private final int conflictBudget;
+
+  private Map<String, Variable> variables;
+  private List<? extends Literal> assumptions;
+  private LinkedBlockingQueue<Cube> queue;
+  private AtomicInteger openCubes;
+  private AtomicBoolean canceled;
+  private AtomicBoolean stopped;
+  private AtomicReference<MiniSat> winner;
+  private SATHandler handler;
+
+  /**
+   * Constructs a new cube-and-conquer mode.
+   * @param f              the formula factory
+   * @param solvers        the solvers
+   * @param initialDepth   the depth of the initial split
+   * @param conflictBudget the initial conflict budget of a cube
+   */
+  CubeAndConquer(final FormulaFactory f, final List<MiniSat> solvers, int initialDepth, int conflictBudget) {
+    this.f = f;
+    this.solvers = solvers;
+    this.initialDepth = initialDepth;
+    this.conflictBudget = conflictBudget;
+  }
+
+  /**
+   * Solves the formula of the solvers under the given assumptions.
+   * @param satHandler      the SAT handler
+   * @param assumptionList the assumptions or {@code null} if there are none
+   * @return the solver which found a model or {@code null} and the result
+   */
+  Pair<MiniSat, Tristate> solve(final SATHandler satHandler, final List<? extends Literal> assumptionList) {
+    this.handler = satHandler;
+    this.assumptions = assumptionList == null ? new ArrayList<Literal>() : assumptionList;
+    this.canceled = new AtomicBoolean(false);
+    this.winner = new AtomicReference<MiniSat>();
+    this.stopped = new AtomicBoolean(false);
+    this.openCubes = new AtomicInteger(0);
+    this.queue = new LinkedBlockingQueue<Cube>();
+    this.initializeVariables();
+    final MiniSat splitter = this.solvers.get(0);
+    final CubeHandler warmUp = new CubeHandler(this.conflictBudget, new SATPortfolio.PortfolioHandler(satHandler, this.canceled));
+    final Tristate res = splitter.sat(warmUp, this.cube(new LinkedList<Literal>()));
+    if (res != UNDEF)
+      return new Pair<MiniSat, Tristate>(res == TRUE ? splitter : null, res);
+    if (this.canceled.get())
+      return new Pair<MiniSat, Tristate>(null, UNDEF);
+    final List<LinkedList<Literal>> cubes = new ArrayList<LinkedList<Literal>>();
+    this.split(splitter, new LinkedList<Literal>(), this.initialDepth, cubes);
+    for (final LinkedList<Literal> cube : cubes)
+      this.queue.add(new Cube(cube, doubled(this.conflictBudget)));
+    this.openCubes.set(cubes.size());
+    if (cubes.isEmpty())
+      return new Pair<MiniSat, Tristate>(null, FALSE);
+    final ExecutorService executor = Executors.newFixedThreadPool(this.solvers.size());
+    try {
+      final List<Future<?>> futures = new ArrayList<Future<?>>(this.solvers.size());
+      for (int i = 0; i < this.solvers.size(); i++) {
+        final int worker = i;
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws InterruptedException {
+            conquer(worker);
+            return null;
+          }
+        }));
+      }
+      for (final Future<?> future : futures)
+        future.get();
+    } catch (final InterruptedException e) {
+      this.canceled.set(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("The cube-and-conquer solver was interrupted while solving", e);
+    } catch (final ExecutionException e) {
+      this.canceled.set(true);
+      throw new IllegalStateException("A solver of the cube-and-conquer solver failed", e.getCause());
+    } finally {
+      executor.shutdown();
+    }
+    if (this.winner.get() != null)
+      return new Pair<MiniSat, Tristate>(this.winner.get(), TRUE);
+    return new Pair<MiniSat, Tristate>(null, this.openCubes.get() == 0 ? FALSE : UNDEF);
+  }
+
+  /**
+   * Collects the variables of the solvers.  Since the formula factory is not thread-safe, the variables and their
+   * negations have to be created before the solvers are started.
+   */
+  private void initializeVariables() {
+    this.variables = new HashMap<String, Variable>();
+    for (final MiniSat solver : this.solvers)
+      for (final String name : solver.underlyingSolver().names())
+        if (!this.variables.containsKey(name)) {
+          final Variable var = this.f.variable(name);
+          var.negate();
+          this.variables.put(name, var);
+        }
+  }
+
+  /**
+   * The main loop of a single worker.  It takes cubes from the shared queue and solves them until a model is found, all
+   * cubes are solved or the computation is canceled.  A worker which leaves the loop stops all other workers.
+   * @param worker the index of the worker
+   * @throws InterruptedException if the worker was interrupted
+   */
+  private void conquer(int worker) throws InterruptedException {
+    final MiniSat solver = this.solvers.get(worker);
+    try {
+      Cube cube;
+      while (!this.canceled.get() && (cube = this.queue.take()) != POISON) {
+        final CubeHandler cubeHandler = new CubeHandler(cube.budget, new SATPortfolio.PortfolioHandler(this.handler, this.canceled));
+        final Tristate res = solver.sat(cubeHandler, this.cube(cube.literals));
+        if (res == TRUE) {
+          this.winner.compareAndSet(null, solver);
+          return;
+        } else if (res == FALSE) {
+          if (this.openCubes.decrementAndGet() == 0)
+            return;
+        } else if (cubeHandler.exhausted) {
+          final List<LinkedList<Literal>> subCubes = new ArrayList<LinkedList<Literal>>(2);
+          this.split(solver, cube.literals, 1, subCubes);
+          if (this.openCubes.addAndGet(subCubes.size() - 1) == 0)
+            return;
+          for (final LinkedList<Literal> subCube : subCubes)
+            this.queue.add(new Cube(subCube, doubled(cube.budget)));
+        } else
+          return;
+      }
+    } finally {
+      this.stop();
+    }
+  }
+
+  /**
+   * Stops all workers.  The remaining cubes are dropped and every worker receives a poison pill which wakes it up if
+   * it is waiting for a cube.
+   */
+  private void stop() {
+    if (this.stopped.getAndSet(true))
+      return;
+    this.canceled.set(true);
+    this.queue.clear();
+    for (int i = 0; i < this.solvers.size(); i++)
+      this.queue.add(POISON);
+  }
+
+  /**
+   * Splits a cube recursively by lookahead up to a given depth.  Sub-cubes which are refuted by the lookahead are
+   * dropped.
+   * @param solver the solver for the lookahead
+   * @param cube   the cube
+   * @param depth  the remaining depth
+   * @param result the list for the resulting cubes
+   */
+  private void split(final MiniSat solver, final LinkedList<Literal> cube, int depth, final List<LinkedList<Literal>> result) {
+    final MiniSatStyleSolver underlying = solver.underlyingSolver();
+    final int var = underlying.lookahead(this.assumptionVector(solver, cube), NUM_CANDIDATES);
+    if (var == -2)
+      return;
+    final Variable variable = var == LIT_UNDEF ? null : this.variables.get(underlying.nameForIdx(var));
+    if (depth == 0 || variable == null) {
+      result.add(cube);
+      return;
+    }
+    final LinkedList<Literal> positive = new LinkedList<Literal>(cube);
+    positive.add(variable);
+    this.split(solver, positive, depth - 1, result);
+    final LinkedList<Literal> negative = new LinkedList<Literal>(cube);
+    negative.add(variable.negate());
+    this.split(solver, negative, depth - 1, result);
+  }
+
+  /**
+   * Returns the doubled conflict budget without exceeding the integer range.
+   * @param budget the conflict budget
+   * @return the doubled conflict budget
+   */
+  private static int doubled(int budget) {
+    return budget > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : 2 * budget;
+  }
+
+  /**
+   * Returns the assumptions for a given cube.
+   * @param literals the literals of the cube
+   * @return the assumptions for the cube
+   */
+  private List<Literal> cube(final List<Literal> literals) {
+    final List<Literal> result = new ArrayList<Literal>(this.assumptions.size() + literals.size());
+    result.addAll(this.assumptions);
+    result.addAll(literals);
+    return result;
+  }
+
+  /**
+   * Translates the assumptions of a cube and the open scopes of a solver to a vector of solver literals.  Literals of
+   * unknown variables are ignored since they cannot influence the propagation.
+   * @param solver   the solver
+   * @param literals the literals of the cube
+   * @return the vector of solver literals
+   */
+  private LNGIntVector assumptionVector(final MiniSat solver, final List<Literal> literals) {
+    final MiniSatStyleSolver underlying = solver.underlyingSolver();
+    final List<Literal> all = this.cube(literals);
+    all.addAll(solver.scopeAssumptions());
+    final LNGIntVector vector = new LNGIntVector(all.size());
+    for (final Literal lit : all) {
+      final int index = underlying.idxForName(lit.name());
+      if (index != -1)
+        vector.push(MiniSatStyleSolver.mkLit(index, !lit.phase()));
+    }
+    return vector;
+  }
+
+  /**
+   * A cube together with its conflict budget.
+   */
+  private static final class Cube {
+    private final LinkedList<Literal> literals;
+    private final int budget;
+
+    private Cube(final LinkedList<Literal> literals, int budget) {
+      this.literals = literals;
+      this.budget = budget;
+    }
+  }
+
+  /**
+   * A SAT handler which cancels the solver after a given number of conflicts.
+   */
+  private static final class CubeHandler implements SATHandler {
+
+    private final int budget;
+    private final SATHandler handler;
+    private int conflicts;
+    private boolean exhausted;
+
+    /**
+     * Constructs a new handler.
+     * @param budget  the conflict budget
+     * @param handler the handler of the portfolio
+     */
+    private CubeHandler(int budget, final SATHandler handler) {
+      this.budget = budget;
+      this.handler = handler;
+    }
+
+    @Override
+    public boolean detectedConflict() {
+      if (!this.handler.detectedConflict())
+        return false;
+      this.exhausted = ++this.conflicts >= this.budget;
+      return !this.exhausted;
+    }
+
+    @Override
+    public void startedSolving() {
+      // the handler of the portfolio is started by the portfolio itself
+    }
+
+    @Override
+    public void finishedSolving() {
+      // the handler of the portfolio is finished by the portfolio itself
+    }
+  }
+}
@@ -0,0 +1,388 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers;
+
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.Formula;
+import org.logicng.handlers.MaxSATHandler;
+import org.logicng.handlers.SATHandler;
+import org.logicng.solvers.maxsat.algorithms.MaxSAT;
+import org.logicng.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.logicng.solvers.maxsat.algorithms.MaxSAT.MaxSATResult.OPTIMUM;
+import static org.logicng.solvers.maxsat.algorithms.MaxSAT.MaxSATResult.UNDEF;
+
+/**
+ * A parallel portfolio of MaxSAT solvers.
+ * <p>
+ * All formulas are added to each solver of the portfolio.  On a call of {@code solve} all solvers which support the
+ * problem type (weighted or unweighted) are started on separate threads.  The solvers share their bounds: the best
+ * upper bound, e.g. of the SAT-UNSAT search of LinearSU, and the best lower bound, e.g. of the core-guided search of
+ * MSU3.  The portfolio stops as soon as one solver found the optimum or the shared bounds meet.  In the latter case
+ * the last model of the solver with the best upper bound is the optimal model.
+ * <p>
+ * A single MaxSAT handler controls all solvers: its SAT handler is asked by the SAT calls of all solvers and it is
+ * informed whenever a solver improves the shared bounds.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class MaxSATPortfolio {
+
+  private final List<MaxSATSolver> solvers;
+  private MaxSAT.MaxSATResult result;
+  private MaxSATSolver winner;
+
+  /**
+   * Constructs a new portfolio.
+   * @param solvers the solvers of the portfolio
+   * @throws IllegalArgumentException if no solver is given
+   */
+  private MaxSATPortfolio(final List<MaxSATSolver> solvers) {
+    if (solvers.isEmpty())
+      throw new IllegalArgumentException("A portfolio requires at least one solver");
+    this.solvers = solvers;
+    this.result = UNDEF;
+    this.winner = null;
+  }
+
+  /**
+   * Returns a new portfolio of LinearSU, MSU3, incremental WBO and OLL with their default configurations.  MSU3 is
+   * only used for unweighted problems.
+   * @return the portfolio
+   */
+  public static MaxSATPortfolio portfolio() {
+    return portfolio(MaxSATSolver.linearSU(), MaxSATSolver.msu3(), MaxSATSolver.incWBO(), MaxSATSolver.oll());
+  }
+
+  /**
+   * Returns a new portfolio with the given solvers.  Formulas must only be added to the solvers via the portfolio.
+   * Solvers which do not support the problem type are not started.
+   * @param solvers the solvers of the portfolio
+   * @return the portfolio
+   * @throws IllegalArgumentException if no solver is given
+   */
+  public static MaxSATPortfolio portfolio(final MaxSATSolver... solvers) {
+    return new MaxSATPortfolio(new ArrayList<MaxSATSolver>(Arrays.asList(solvers)));
+  }
+
+  /**
+   * Resets the portfolio and all of its solvers.
+   */
+  public void reset() {
+    for (final MaxSATSolver solver : this.solvers)
+      solver.reset();
+    this.result = UNDEF;
+    this.winner = null;
+  }
+
+  /**
+   * Adds a new hard formula to all solvers of the portfolio.
+   * @param formula the formula
+   */
+  public void addHardFormula(final Formula formula) {
+    this.result = UNDEF;
+    for (final MaxSATSolver solver : this.solvers)
+      solver.addHardFormula(formula);
+  }
+
+  /**
+   * Adds a new soft formula to all solvers of the portfolio.
+   * @param formula the formula
+   * @param weight  the weight
+   * @throws IllegalArgumentException if the weight is &lt;1
+   */
+  public void addSoftFormula(final Formula formula, int weight) {
+    if (weight < 1)
+      throw new IllegalArgumentException("The weight of a formula must be > 0");
+    this.result = UNDEF;
+    for (final MaxSATSolver solver : this.solvers)
+      solver.addSoftFormula(formula, weight);
+  }
+
+  /**
+   * Solves the formula with all solvers of the portfolio and returns the result.
+   * @return the result (UNSAT or Optimum found)
+   */
+  public MaxSAT.MaxSATResult solve() {
+    return this.solve(null);
+  }
+
+  /**
+   * Solves the formula with all solvers of the portfolio and returns the result.
+   * @param handler a MaxSAT handler for all solvers
+   * @return the result (UNSAT, Optimum found, or UNDEF if canceled by the handler)
+   * @throws IllegalStateException if no solver supports the problem type, the portfolio was interrupted or a solver
+   *                               failed
+   */
+  public MaxSAT.MaxSATResult solve(final MaxSATHandler handler) {
+    if (this.result != UNDEF)
+      return this.result;
+    this.winner = null;
+    final List<MaxSATSolver> active = new ArrayList<MaxSATSolver>(this.solvers.size());
+    for (final MaxSATSolver solver : this.solvers)
+      if (solver.supportsProblemType())
+        active.add(solver);
+    if (active.isEmpty())
+      throw new IllegalStateException("No solver of the portfolio supports the problem type");
+    if (handler != null)
+      handler.startedSolving();
+    final SharedBounds bounds = new SharedBounds(handler);
+    final ExecutorService executor = Executors.newFixedThreadPool(active.size());
+    final CompletionService<Pair<MaxSATSolver, MaxSAT.MaxSATResult>> completion =
+            new ExecutorCompletionService<Pair<MaxSATSolver, MaxSAT.MaxSATResult>>(executor);
+    try {
+      for (final MaxSATSolver solver : active)
+        completion.submit(new Callable<Pair<MaxSATSolver, MaxSAT.MaxSATResult>>() {
+          @Override
+          public Pair<MaxSATSolver, MaxSAT.MaxSATResult> call() {
+            return new Pair<MaxSATSolver, MaxSAT.MaxSATResult>(solver, solver.solve(new PortfolioHandler(bounds, solver)));
+          }
+        });
+      for (int i = 0; i < active.size(); i++) {
+        final Pair<MaxSATSolver, MaxSAT.MaxSATResult> res = completion.take().get();
+        if (this.winner == null && res.second() != UNDEF) {
+          this.winner = res.first();
+          this.result = res.second();
+          bounds.canceled.set(true);
+        }
+      }
+    } catch (final InterruptedException e) {
+      bounds.canceled.set(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("The portfolio was interrupted while solving", e);
+    } catch (final ExecutionException e) {
+      bounds.canceled.set(true);
+      throw new IllegalStateException("A solver of the portfolio failed", e.getCause());
+    } finally {
+      executor.shutdown();
+    }
+    if (this.winner == null && bounds.met())
+      this.acceptBounds(bounds, active);
+    if (handler != null)
+      handler.finishedSolving();
+    return this.result;
+  }
+
+  /**
+   * Accepts the optimum if the shared bounds met.  The model of the solver with the best upper bound is preferred,
+   * but the last models of all solvers are checked.
+   * @param bounds the shared bounds
+   * @param active the solvers which were started
+   */
+  private void acceptBounds(final SharedBounds bounds, final List<MaxSATSolver> active) {
+    final List<MaxSATSolver> candidates = new ArrayList<MaxSATSolver>(active.size());
+    if (bounds.provider != null)
+      candidates.add(bounds.provider);
+    candidates.addAll(active);
+    for (final MaxSATSolver solver : candidates) {
+      if (solver.acceptOptimum(bounds.upperBound)) {
+        this.winner = solver;
+        this.result = OPTIMUM;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the minimum weight (or number of clauses if unweighted) of clauses which have to be unsatisfied.
+   * @return the minimum weight of clauses which have to be unsatisfied
+   * @throws IllegalStateException if the formula is not yet solved or the result exceeds the integer range, see
+   *                               {@link #longResult()}
+   */
+  public int result() {
+    if (this.result == UNDEF)
+      throw new IllegalStateException("Cannot get a result as long as the formula is not solved.  Call 'solve' first.");
+    return this.winner.result();
+  }
+
+  /**
+   * Returns the minimum weight (or number of clauses if unweighted) of clauses which have to be unsatisfied as long
+   * value.
+   * @return the minimum weight of clauses which have to be unsatisfied
+   * @throws IllegalStateException if the formula is not yet solved
+   */
+  public long longResult() {
+    if (this.result == UNDEF)
+      throw new IllegalStateException("Cannot get a result as long as the formula is not solved.  Call 'solve' first.");
+    return this.winner.longResult();
+  }
+
+  /**
+   * Returns the model of the current result.
+   * @return the model of the current result
+   * @throws IllegalStateException if the formula is not yet solved
+   */
+  public Assignment model() {
+    if (this.result == UNDEF)
+      throw new IllegalStateException("Cannot get a model as long as the formula is not solved.  Call 'solve' first.");
+    return this.winner.model();
+  }
+
+  /**
+   * Returns the solvers of the portfolio.
+   * @return the solvers of the portfolio
+   */
+  public List<MaxSATSolver> solvers() {
+    return this.solvers;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("MaxSATPortfolio{result=%s, solvers=%d}", this.result, this.solvers.size());
+  }
+
+  /**
+   * The bounds shared by the solvers of a portfolio.
+   */
+  private static final class SharedBounds {
+    private final MaxSATHandler handler;
+    private final AtomicBoolean canceled;
+    private int lowerBound;
+    private int upperBound;
+    private MaxSATSolver provider;
+
+    /**
+     * Constructs new shared bounds.
+     * @param handler the handler of the portfolio (may be {@code null})
+     */
+    SharedBounds(final MaxSATHandler handler) {
+      this.handler = handler;
+      this.canceled = new AtomicBoolean(false);
+      this.lowerBound = -1;
+      this.upperBound = -1;
+      this.provider = null;
+    }
+
+    synchronized boolean foundLowerBound(int lb) {
+      if (lb > this.lowerBound) {
+        this.lowerBound = lb;
+        if (this.handler != null && !this.handler.foundLowerBound(lb, null))
+          this.canceled.set(true);
+      }
+      return this.proceed();
+    }
+
+    synchronized boolean foundUpperBound(int ub, final MaxSATSolver solver) {
+      if (this.upperBound == -1 || ub < this.upperBound) {
+        this.upperBound = ub;
+        this.provider = solver;
+        if (this.handler != null && !this.handler.foundUpperBound(ub, null))
+          this.canceled.set(true);
+      }
+      return this.proceed();
+    }
+
+    /**
+     * Returns whether the bounds met.  Since the bounds reported to handlers are clamped to the integer range, an
+     * upper bound of {@link Integer#MAX_VALUE} is never considered as met.
+     * @return {@code true} if the bounds met, {@code false} otherwise
+     */
+    synchronized boolean met() {
+      return this.upperBound != -1 && this.upperBound != Integer.MAX_VALUE && this.lowerBound >= this.upperBound;
+    }
+
+    private boolean proceed() {
+      if (this.met())
+        this.canceled.set(true);
+      return !this.canceled.get();
+    }
+  }
+
+  /**
+   * The handler of a single solver of a portfolio.  It reports bounds to the shared bounds and cancels the solver
+   * if another solver finished, the bounds met or the handler of the portfolio canceled the search.
+   */
+  private static final class PortfolioHandler implements MaxSATHandler {
+    private final SharedBounds bounds;
+    private final MaxSATSolver solver;
+    private final SATHandler satHandler;
+
+    /**
+     * Constructs a new handler.
+     * @param bounds the shared bounds
+     * @param solver the solver of this handler
+     */
+    PortfolioHandler(final SharedBounds bounds, final MaxSATSolver solver) {
+      this.bounds = bounds;
+      this.solver = solver;
+      this.satHandler = new SATPortfolio.PortfolioHandler(bounds.handler == null ? null : bounds.handler.satHandler(),
+              bounds.canceled);
+    }
+
+    @Override
+    public SATHandler satHandler() {
+      return this.satHandler;
+    }
+
+    @Override
+    public boolean foundLowerBound(int lowerBound, final Assignment model) {
+      return this.bounds.foundLowerBound(lowerBound);
+    }
+
+    @Override
+    public boolean foundUpperBound(int upperBound, final Assignment model) {
+      return this.bounds.foundUpperBound(upperBound, this.solver);
+    }
+
+    @Override
+    public void startedSolving() {
+      // the handler of the portfolio is started by the portfolio itself
+    }
+
+    @Override
+    public void finishedSolving() {
+      // the handler of the portfolio is finished by the portfolio itself
+    }
+
+    @Override
+    public int lowerBoundApproximation() {
+      synchronized (this.bounds) {
+        return this.bounds.lowerBound;
+      }
+    }
+
+    @Override
+    public int upperBoundApproximation() {
+      synchronized (this.bounds) {
+        return this.bounds.upperBound;
+      }
+    }
+  }
+}
@@ -30,20 +30,25 @@ package org.logicng.solvers;
 
 import org.logicng.collections.LNGBooleanVector;
 import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGLongVector;
 import org.logicng.datastructures.Assignment;
 import org.logicng.formulas.Formula;
 import org.logicng.formulas.Literal;
 import org.logicng.formulas.Variable;
 import org.logicng.handlers.MaxSATHandler;
+import org.logicng.solvers.datastructures.MSClauseStore;
 import org.logicng.solvers.maxsat.algorithms.IncWBO;
 import org.logicng.solvers.maxsat.algorithms.LinearSU;
 import org.logicng.solvers.maxsat.algorithms.LinearUS;
 import org.logicng.solvers.maxsat.algorithms.MSU3;
 import org.logicng.solvers.maxsat.algorithms.MaxSAT;
 import org.logicng.solvers.maxsat.algorithms.MaxSATConfig;
+import org.logicng.solvers.maxsat.algorithms.OLL;
 import org.logicng.solvers.maxsat.algorithms.WBO;
 import org.logicng.solvers.maxsat.algorithms.WMSU3;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -53,12 +58,24 @@ import static org.logicng.solvers.maxsat.algorithms.MaxSAT.MaxSATResult.UNSATISF
 
 /**
  * A wrapper for the OpenWBO solver.
- * @version 1.1
+ * <p>
+ * The solver is incremental: hard and soft formulas can be added after a call to {@link #solve()}.  If the algorithm
+ * can resume its search (see {@link MaxSAT#canResume()}), the new clauses are added to the algorithm and the next call
+ * continues on its SAT solver with the lower bound of the previous search.  Otherwise, the algorithm is rebuilt from the
+ * clauses added so far.  In both cases the previous result is used as a warm start: an unsatisfiable instance stays
+ * unsatisfiable, the previous optimum is a lower bound for the new optimum and is returned immediately if the previous
+ * model is still optimal, and otherwise the previous model is the initial upper bound of the new search if it still
+ * satisfies the hard clauses and is used as phase hint.
+ * <p>
+ * Soft formulas can be added on different levels for lexicographic optimization.  The soft formulas on level 0 are
+ * optimized first, then the soft formulas on level 1 with the optimum of level 0 fixed, and so on.  Lexicographic
+ * optimization is only supported by LinearSU, which optimizes all levels on the same SAT solver.
+ * @version 1.2
  * @since 1.0
  */
 public final class MaxSATSolver {
 
-  private enum Algorithm {WBO, INC_WBO, LINEAR_SU, LINEAR_US, MSU3, WMSU3}
+  private enum Algorithm {WBO, INC_WBO, LINEAR_SU, LINEAR_US, MSU3, WMSU3, OLL}
 
   private MaxSAT.MaxSATResult result;
   private MaxSAT solver;
@@ -66,6 +83,13 @@ public final class MaxSATSolver {
   private SortedMap<Integer, Variable> index2var;
   private MaxSATConfig configuration;
   private Algorithm algorithm;
+  private MSClauseStore clauses;
+  private boolean searched;
+  private MaxSAT.MaxSATResult lastResult;
+  private LNGBooleanVector lastModel;
+  private long lastOptimum;
+  private LNGLongVector lastLevelCosts;
+  private LNGBooleanVector incumbent;
 
   /**
    * Constructs a new MaxSAT solver with a given configuration.
@@ -97,11 +121,13 @@ public final class MaxSATSolver {
   }
 
   /**
-   * Returns a new MaxSAT solver using LinearSU as algorithm with the default configuration.
+   * Returns a new MaxSAT solver using LinearSU as algorithm with the default configuration.  The default configuration
+   * uses the iterative incremental strategy, i.e. a single SAT solver is used for the whole search, and hardening.
    * @return the MaxSAT solver
    */
   public static MaxSATSolver linearSU() {
-    return new MaxSATSolver(new MaxSATConfig.Builder().cardinality(MaxSATConfig.CardinalityEncoding.MTOTALIZER).build(), Algorithm.LINEAR_SU);
+    return new MaxSATSolver(new MaxSATConfig.Builder().cardinality(MaxSATConfig.CardinalityEncoding.MTOTALIZER)
+            .incremental(MaxSATConfig.IncrementalStrategy.ITERATIVE).hardening(true).build(), Algorithm.LINEAR_SU);
   }
 
   /**
@@ -114,11 +140,12 @@ public final class MaxSATSolver {
   }
 
   /**
-   * Returns a new MaxSAT solver using LinearUS as algorithm with the default configuration.
+   * Returns a new MaxSAT solver using LinearUS as algorithm with the default configuration.  The default configuration
+   * uses the iterative incremental strategy, i.e. a single SAT solver is used for the whole search.
    * @return the MaxSAT solver
    */
   public static MaxSATSolver linearUS() {
-    return new MaxSATSolver(new MaxSATConfig.Builder().build(), Algorithm.LINEAR_US);
+    return new MaxSATSolver(new MaxSATConfig.Builder().incremental(MaxSATConfig.IncrementalStrategy.ITERATIVE).build(), Algorithm.LINEAR_US);
   }
 
   /**
@@ -131,11 +158,12 @@ public final class MaxSATSolver {
   }
 
   /**
-   * Returns a new MaxSAT solver using MSU3 as algorithm with the default configuration.
+   * Returns a new MaxSAT solver using MSU3 as algorithm with the default configuration.  The default configuration
+   * uses the iterative incremental strategy, i.e. a single SAT solver is used for the whole search.
    * @return the MaxSAT solver
    */
   public static MaxSATSolver msu3() {
-    return new MaxSATSolver(new MaxSATConfig.Builder().build(), Algorithm.MSU3);
+    return new MaxSATSolver(new MaxSATConfig.Builder().incremental(MaxSATConfig.IncrementalStrategy.ITERATIVE).build(), Algorithm.MSU3);
   }
 
   /**
@@ -181,6 +209,25 @@ public final class MaxSATSolver {
     return new MaxSATSolver(config, Algorithm.WMSU3);
   }
 
+  /**
+   * Returns a new MaxSAT solver using OLL as algorithm with the default configuration.  The default configuration
+   * uses diversity-based stratification and hardening for weighted instances.
+   * @return the MaxSAT solver
+   */
+  public static MaxSATSolver oll() {
+    return new MaxSATSolver(new MaxSATConfig.Builder().weight(MaxSATConfig.WeightStrategy.DIVERSIFY).hardening(true).build(),
+            Algorithm.OLL);
+  }
+
+  /**
+   * Returns a new MaxSAT solver using OLL as algorithm with the given configuration.
+   * @param config the configuration
+   * @return the MaxSAT solver
+   */
+  public static MaxSATSolver oll(final MaxSATConfig config) {
+    return new MaxSATSolver(config, Algorithm.OLL);
+  }
+
   /**
    * Resets the solver.
    * @throws IllegalArgumentException if the algorithm was unknown
@@ -189,73 +236,113 @@ public final class MaxSATSolver {
     this.result = UNDEF;
     this.var2index = new TreeMap<Variable, Integer>();
     this.index2var = new TreeMap<Integer, Variable>();
+    this.clauses = new MSClauseStore();
+    this.searched = false;
+    this.lastResult = UNDEF;
+    this.lastModel = null;
+    this.lastOptimum = -1;
+    this.lastLevelCosts = null;
+    this.incumbent = null;
+    this.solver = this.createAlgorithm();
+  }
+
+  /**
+   * Creates a new instance of the MaxSAT algorithm of this solver.
+   * @return the new algorithm
+   * @throws IllegalArgumentException if the algorithm was unknown
+   */
+  private MaxSAT createAlgorithm() {
     switch (this.algorithm) {
       case WBO:
-        this.solver = new WBO(this.configuration);
-        break;
+        return new WBO(this.configuration);
       case INC_WBO:
-        this.solver = new IncWBO(this.configuration);
-        break;
+        return new IncWBO(this.configuration);
       case LINEAR_SU:
-        this.solver = new LinearSU(this.configuration);
-        break;
+        return new LinearSU(this.configuration);
       case LINEAR_US:
-        this.solver = new LinearUS(this.configuration);
-        break;
+        return new LinearUS(this.configuration);
       case MSU3:
-        this.solver = new MSU3(this.configuration);
-        break;
+        return new MSU3(this.configuration);
       case WMSU3:
-        this.solver = new WMSU3(this.configuration);
-        break;
+        return new WMSU3(this.configuration);
+      case OLL:
+        return new OLL(this.configuration);
       default:
         throw new IllegalArgumentException("Unknown MaxSAT algorithm: " + this.algorithm);
     }
   }
 
   /**
-   * Adds a new hard formula to the solver.  Hard formulas must always be true.
+   * Rebuilds the MaxSAT algorithm from the variables and clauses added so far.  This is required after a search if the
+   * algorithm cannot resume its search, since the algorithms modify their state (e.g. by relaxing soft clauses) during
+   * the search.
+   */
+  private void rebuild() {
+    this.solver = this.createAlgorithm();
+    for (int i = 0; i < this.nbIndices(); i++)
+      this.solver.newLiteral(false);
+    for (int i = 0; i < this.clauses.size(); i++)
+      this.addClauseToAlgorithm(this.clauses.clause(i), (int) this.clauses.weight(i), this.clauses.level(i));
+    this.searched = false;
+  }
+
+  /**
+   * Adds a new hard formula to the solver.  Hard formulas must always be true.  Formulas can also be added after the
+   * solver was solved, the next call to {@link #solve()} then takes the new formula into account.
    * @param formula the formula
-   * @throws IllegalStateException if a formula is added to a solver which is already solved.
    */
   public void addHardFormula(final Formula formula) {
-    if (this.result != UNDEF)
-      throw new IllegalStateException("The MaxSAT solver does currently not support an incremental interface.  Reset the solver.");
-    this.addCNF(formula.cnf(), -1);
+    this.addCNF(formula.cnf(), -1, 0);
   }
 
   /**
-   * Adds a new soft formula to the solver.
+   * Adds a new soft formula to the solver.  Formulas can also be added after the solver was solved, the next call to
+   * {@link #solve()} then takes the new formula into account.
    * @param formula the formula
    * @param weight  the weight
-   * @throws IllegalStateException    if a formula is added to a solver which is already solved.
    * @throws IllegalArgumentException if the weight is &lt;1
    */
   public void addSoftFormula(final Formula formula, int weight) {
-    if (this.result != UNDEF)
-      throw new IllegalStateException("The MaxSAT solver does currently not support an incremental interface.  Reset the solver.");
+    this.addSoftFormula(formula, weight, 0);
+  }
+
+  /**
+   * Adds a new soft formula on a given level for lexicographic optimization to the solver.  Level 0 is the most
+   * important level.
+   * @param formula the formula
+   * @param weight  the weight
+   * @param level   the level
+   * @throws IllegalArgumentException if the weight is &lt;1, the level is &lt;0, or the level is &gt;0 and the
+   *                                  algorithm of this solver is not LinearSU
+   */
+  public void addSoftFormula(final Formula formula, int weight, int level) {
     if (weight < 1)
       throw new IllegalArgumentException("The weight of a formula must be > 0");
-    this.addCNF(formula.cnf(), weight);
+    if (level < 0)
+      throw new IllegalArgumentException("The level of a formula must be >= 0");
+    if (level > 0 && this.algorithm != Algorithm.LINEAR_SU)
+      throw new IllegalArgumentException("Lexicographic optimization is only supported by LinearSU");
+    this.addCNF(formula.cnf(), weight, level);
   }
 
   /**
    * Adds a formula which is already in CNF to the solver.
    * @param formula the formula in CNF
    * @param weight  the weight of this CNF (or -1 for a hard constraint)
+   * @param level   the level of this CNF
    */
-  private void addCNF(final Formula formula, int weight) {
+  private void addCNF(final Formula formula, int weight, int level) {
     switch (formula.type()) {
       case TRUE:
         break;
       case FALSE:
       case LITERAL:
       case OR:
-        this.addClause(formula, weight);
+        this.addClause(formula, weight, level);
         break;
       case AND:
         for (Formula op : formula)
-          this.addClause(op, weight);
+          this.addClause(op, weight, level);
         break;
       default:
         throw new IllegalArgumentException("Input formula ist not a valid CNF: " + formula);
@@ -266,9 +353,13 @@ public final class MaxSATSolver {
    * Adds a clause to the solver.
    * @param formula the clause
    * @param weight  the weight of the clause (or -1 for a hard clause)
+   * @param level   the level of the clause
    */
-  private void addClause(final Formula formula, int weight) {
+  private void addClause(final Formula formula, int weight, int level) {
     this.result = UNDEF;
+    this.incumbent = null;
+    if (this.searched && !this.solver.canResume())
+      this.rebuild();
     final LNGIntVector clauseVec = new LNGIntVector((int) formula.numberOfAtoms());
     for (Literal lit : formula.literals()) {
       Integer index = this.var2index.get(lit.variable());
@@ -280,12 +371,23 @@ public final class MaxSATSolver {
       int litNum = lit.phase() ? index * 2 : (index * 2) ^ 1;
       clauseVec.push(litNum);
     }
+    this.clauses.setLevel(this.clauses.add(clauseVec, weight), level);
+    this.addClauseToAlgorithm(clauseVec, weight, level);
+  }
+
+  /**
+   * Adds a clause to the current MaxSAT algorithm.
+   * @param clauseVec the literals of the clause
+   * @param weight    the weight of the clause (or -1 for a hard clause)
+   * @param level     the level of the clause
+   */
+  private void addClauseToAlgorithm(final LNGIntVector clauseVec, int weight, int level) {
     if (weight == -1) {
       this.solver.addHardClause(clauseVec);
     } else {
       this.solver.setCurrentWeight(weight);
       this.solver.updateSumWeights(weight);
-      this.solver.addSoftClause(weight, clauseVec);
+      this.solver.addSoftClause(weight, clauseVec, level);
     }
   }
 
@@ -298,42 +400,195 @@ public final class MaxSATSolver {
   }
 
   /**
-   * Solves the formula on the solver and returns the result.
+   * Solves the formula on the solver and returns the result.  If formulas were added after a previous call, the
+   * previous result is used as warm start for the new search.
    * @param handler a MaxSAT handler
    * @return the result (SAT, UNSAT, Optimum found, or UNDEF if canceled by the handler)
    */
   public MaxSAT.MaxSATResult solve(final MaxSATHandler handler) {
     if (this.result != UNDEF)
       return this.result;
+    if (this.lastResult == UNSATISFIABLE) {
+      this.result = UNSATISFIABLE;
+      return this.result;
+    }
+    if (this.searched && !this.solver.canResume())
+      this.rebuild();
+    if (this.lastModel != null) {
+      while (this.lastModel.size() < this.nbIndices())
+        this.lastModel.push(false);
+      if (this.lastResult == OPTIMUM && this.solver.nLevels() == 1 && this.isOptimal(this.lastModel, this.lastOptimum)) {
+        this.result = OPTIMUM;
+        return this.result;
+      }
+      this.solver.setPhaseHints(this.lastModel);
+      this.solver.setInitialModel(this.lastModel);
+    }
     if (this.solver.currentWeight() == 1)
       this.solver.setProblemType(MaxSAT.ProblemType.UNWEIGHTED);
     else
       this.solver.setProblemType(MaxSAT.ProblemType.WEIGHTED);
+    this.searched = true;
+    this.solver.setVariableMapping(this.index2var);
     this.result = this.solver.search(handler);
+    final boolean canceledWithModel = this.result == UNDEF && !this.solver.model().empty();
+    this.incumbent = canceledWithModel ? new LNGBooleanVector(this.solver.model()) : null;
+    if (this.result != UNDEF) {
+      this.lastResult = this.result;
+      this.lastModel = this.result == OPTIMUM ? new LNGBooleanVector(this.solver.model()) : null;
+      this.lastOptimum = this.result == OPTIMUM ? this.solver.longResult() : -1;
+      this.lastLevelCosts = this.result == OPTIMUM ? new LNGLongVector(this.solver.levelCosts()) : null;
+    }
     return this.result;
   }
 
+  /**
+   * Returns whether the algorithm of this solver supports the current problem type.  MSU3 and LinearUS only support
+   * unweighted problems, weighted MSU3 only supports weighted problems.
+   * @return {@code true} if the algorithm supports the current problem type, {@code false} otherwise
+   */
+  boolean supportsProblemType() {
+    final boolean weighted = this.solver.currentWeight() != 1;
+    switch (this.algorithm) {
+      case MSU3:
+      case LINEAR_US:
+        return !weighted;
+      case WMSU3:
+        return weighted;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Accepts the last model of the algorithm as optimal model if it satisfies all hard clauses and has the given cost.
+   * This is used by the {@link MaxSATPortfolio} if the search of this solver was stopped because the lower bound of
+   * another solver met the upper bound of this solver.
+   * @param optimum the optimum
+   * @return {@code true} if the model was accepted, {@code false} otherwise
+   */
+  boolean acceptOptimum(final long optimum) {
+    if (this.solver.model().empty())
+      return false;
+    final LNGBooleanVector candidate = new LNGBooleanVector(this.solver.model());
+    while (candidate.size() < this.nbIndices())
+      candidate.push(false);
+    if (!this.isOptimal(candidate, optimum))
+      return false;
+    this.result = OPTIMUM;
+    this.lastResult = OPTIMUM;
+    this.lastModel = candidate;
+    this.lastOptimum = optimum;
+    this.lastLevelCosts = null;
+    return true;
+  }
+
+  /**
+   * Returns the number of variable indices used by the clauses of this solver.  If the algorithm resumed its search,
+   * the variables of its encodings are interleaved with the variables of this solver, so this can be larger than the
+   * number of variables.
+   * @return the number of variable indices
+   */
+  private int nbIndices() {
+    return this.index2var.isEmpty() ? 0 : this.index2var.lastKey() + 1;
+  }
+
+  /**
+   * Returns whether a model satisfies all hard clauses and has the given cost.  Since adding clauses can never
+   * decrease the optimum, a previous optimum is a lower bound and a model with this cost is optimal.
+   * @param model      the model
+   * @param lowerBound the lower bound on the cost
+   * @return {@code true} if the model is an optimal model, {@code false} otherwise
+   */
+  private boolean isOptimal(final LNGBooleanVector model, final long lowerBound) {
+    long cost = 0;
+    for (int i = 0; i < this.clauses.size(); i++) {
+      if (!this.satisfies(model, i)) {
+        if (this.clauses.weight(i) == -1)
+          return false;
+        cost += this.clauses.weight(i);
+        if (cost > lowerBound)
+          return false;
+      }
+    }
+    return cost == lowerBound;
+  }
+
+  /**
+   * Returns whether a model satisfies a clause.
+   * @param model the model
+   * @param index the index of the clause
+   * @return {@code true} if the model satisfies the clause, {@code false} otherwise
+   */
+  private boolean satisfies(final LNGBooleanVector model, final int index) {
+    for (int i = 0; i < this.clauses.clauseSize(index); i++) {
+      final int lit = this.clauses.literal(index, i);
+      if (model.get(lit >> 1) == ((lit & 1) == 0))
+        return true;
+    }
+    return false;
+  }
+
   /**
    * Returns the minimum weight (or number of clauses if unweighted) of clauses which have to be unsatisfied.
-   * Therefore, if the minimum number of weights is 0, the formula is satisfiable.
+   * Therefore, if the minimum number of weights is 0, the formula is satisfiable.  For a lexicographic problem, this is
+   * the weight of all unsatisfied soft clauses of the lexicographically optimal model, see {@link #levelResults()}.
    * @return the minimum weight of clauses which have to be unsatisfied
-   * @throws IllegalStateException if the formula is not yet solved
+   * @throws IllegalStateException if the formula is not yet solved or the result exceeds the integer range, see
+   *                               {@link #longResult()}
    */
   public int result() {
+    final long result = this.longResult();
+    if (result > Integer.MAX_VALUE)
+      throw new IllegalStateException("The result " + result + " exceeds the integer range, use 'longResult' instead.");
+    return (int) result;
+  }
+
+  /**
+   * Returns the minimum weight (or number of clauses if unweighted) of clauses which have to be unsatisfied as long
+   * value.  Use this method if the sum of the weights of the soft formulas can exceed the integer range.
+   * @return the minimum weight of clauses which have to be unsatisfied
+   * @throws IllegalStateException if the formula is not yet solved
+   */
+  public long longResult() {
     if (this.result == UNDEF)
       throw new IllegalStateException("Cannot get a result as long as the formula is not solved.  Call 'solve' first.");
-    return this.result == OPTIMUM ? this.solver.result() : -1;
+    return this.result == OPTIMUM ? this.lastOptimum : -1;
   }
 
   /**
-   * Returns the model of the current result.
-   * @return the model of the current result
+   * Returns the minimum weight of clauses which have to be unsatisfied on each level of a lexicographic problem.  For
+   * a problem without levels, the result is a single value.
+   * @return the minimum weight of clauses which have to be unsatisfied on each level or an empty list if the formula
+   * is unsatisfiable
    * @throws IllegalStateException if the formula is not yet solved
    */
+  public List<Long> levelResults() {
+    if (this.result == UNDEF)
+      throw new IllegalStateException("Cannot get a result as long as the formula is not solved.  Call 'solve' first.");
+    final List<Long> levelResults = new ArrayList<Long>();
+    if (this.result != OPTIMUM)
+      return levelResults;
+    if (this.lastLevelCosts == null || this.lastLevelCosts.empty())
+      levelResults.add(this.lastOptimum);
+    else
+      for (int i = 0; i < this.lastLevelCosts.size(); i++)
+        levelResults.add(this.lastLevelCosts.get(i));
+    return levelResults;
+  }
+
+  /**
+   * Returns the model of the current result.  If the last search was canceled by the handler, the best model found
+   * so far is returned.
+   * @return the model of the current result
+   * @throws IllegalStateException if the formula is not yet solved and no model was found by a canceled search
+   */
   public Assignment model() {
+    if (this.result == UNDEF && this.incumbent != null)
+      return this.createAssignment(this.incumbent);
     if (this.result == UNDEF)
       throw new IllegalStateException("Cannot get a model as long as the formula is not solved.  Call 'solve' first.");
-    return this.result != UNSATISFIABLE ? this.createAssignment(this.solver.model()) : null;
+    return this.result != UNSATISFIABLE ? this.createAssignment(this.lastModel) : null;
   }
 
   /**
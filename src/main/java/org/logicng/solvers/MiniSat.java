@@ -33,6 +33,7 @@ import org.logicng.cardinalityconstraints.CCIncrementalData;
 import org.logicng.collections.LNGBooleanVector;
 import org.logicng.collections.LNGIntVector;
 import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Backbone;
 import org.logicng.datastructures.EncodingResult;
 import org.logicng.datastructures.Tristate;
 import org.logicng.formulas.CType;
@@ -50,9 +51,13 @@ import org.logicng.solvers.sat.MiniCard;
 import org.logicng.solvers.sat.MiniSat2Solver;
 import org.logicng.solvers.sat.MiniSatConfig;
 import org.logicng.solvers.sat.MiniSatStyleSolver;
+import org.logicng.solvers.sat.SolverStatistics;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -65,13 +70,16 @@ import static org.logicng.datastructures.Tristate.UNDEF;
 
 /**
  * Wrapper for the MiniSAT-style SAT solvers.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public final class MiniSat extends SATSolver {
 
   private enum SolverStyle {MINISAT, GLUCOSE, MINICARD}
 
+  private static final int BACKBONE_CHUNK_SIZE = 16;
+  private static final int RETIRED_ACTIVATION_LITERALS_THRESHOLD = 64;
+
   private final MiniSatStyleSolver solver;
   private final CCEncoder ccEncoder;
   private final SolverStyle style;
@@ -79,6 +87,7 @@ public final class MiniSat extends SATSolver {
   private boolean incremental;
   private boolean initialPhase;
   private int nextStateId;
+  private int retiredActivationLiterals;
 
   /**
    * Constructs a new SAT solver instance.
@@ -108,9 +117,30 @@ public final class MiniSat extends SATSolver {
     this.incremental = miniSatConfig.incremental();
     this.validStates = new LNGIntVector();
     this.nextStateId = 0;
+    this.retiredActivationLiterals = 0;
     this.ccEncoder = new CCEncoder(f);
   }
 
+  /**
+   * Constructs a deep copy of a given solver.
+   * @param other the solver
+   */
+  private MiniSat(final MiniSat other) {
+    super(other.f);
+    this.style = other.style;
+    this.initialPhase = other.initialPhase;
+    this.solver = other.solver.copy();
+    this.result = other.result;
+    this.incremental = other.incremental;
+    this.validStates = new LNGIntVector(other.validStates);
+    this.nextStateId = other.nextStateId;
+    this.retiredActivationLiterals = other.retiredActivationLiterals;
+    this.ccEncoder = new CCEncoder(other.f);
+    this.scopes.addAll(other.scopes);
+    this.scopeLiterals.addAll(other.scopeLiterals);
+    this.scopeCounter = other.scopeCounter;
+  }
+
   /**
    * Returns a new MiniSat solver.
    * @param f the formula factory
@@ -175,7 +205,7 @@ public final class MiniSat extends SATSolver {
     if (formula.type() == FType.PBC) {
       final PBConstraint constraint = (PBConstraint) formula;
       this.result = UNDEF;
-      if (constraint.isCC()) {
+      if (constraint.isCC() && this.scopes.isEmpty()) {
         if (this.style == SolverStyle.MINICARD) {
           if (constraint.comparator() == CType.LE)
             ((MiniCard) this.solver).addAtMost(generateClauseVector(Arrays.asList(constraint.operands())), constraint.rhs());
@@ -200,6 +230,8 @@ public final class MiniSat extends SATSolver {
   public CCIncrementalData addIncrementalCC(PBConstraint cc) {
     if (!cc.isCC())
       throw new IllegalArgumentException("Cannot generate an incremental cardinality constraint on a pseudo-Boolean constraint");
+    if (!this.scopes.isEmpty())
+      throw new IllegalStateException("Incremental cardinality constraints cannot be added within a scope");
     final EncodingResult result = EncodingResult.resultForMiniSat(this.f, this);
     return ccEncoder.encodeIncremental(cc, result);
   }
@@ -222,7 +254,10 @@ public final class MiniSat extends SATSolver {
   public Tristate sat(final SATHandler handler) {
     if (this.result != UNDEF)
       return this.result;
-    this.result = this.solver.solve(handler);
+    if (this.scopes.isEmpty())
+      this.result = this.solver.solve(handler);
+    else
+      this.result = this.solver.solve(handler, generateClauseVector(this.scopeAssumptions()));
     return result;
   }
 
@@ -236,6 +271,11 @@ public final class MiniSat extends SATSolver {
     }
     int litNum = literal.phase() ? index * 2 : (index * 2) ^ 1;
     clauseVec.push(litNum);
+    if (!this.scopes.isEmpty()) {
+      final LNGIntVector scopeVec = generateClauseVector(this.scopeAssumptions());
+      for (int i = 0; i < scopeVec.size(); i++)
+        clauseVec.push(scopeVec.get(i));
+    }
     this.result = this.solver.solve(handler, clauseVec);
     return this.result;
   }
@@ -243,6 +283,7 @@ public final class MiniSat extends SATSolver {
   @Override
   public Tristate sat(final SATHandler handler, final Collection<? extends Literal> assumptions) {
     final Set<Literal> assumptionSet = new LinkedHashSet<Literal>(assumptions);
+    assumptionSet.addAll(this.scopeAssumptions());
     final LNGIntVector assumptionVec = new LNGIntVector(assumptionSet.size());
     for (final Literal literal : assumptionSet) {
       int index = this.solver.idxForName(literal.name());
@@ -260,9 +301,56 @@ public final class MiniSat extends SATSolver {
   @Override
   public void reset() {
     this.solver.reset();
+    this.clearScopes();
+    this.retiredActivationLiterals = 0;
     this.result = UNDEF;
   }
 
+  /**
+   * Loads an internal solver state which is not needed afterwards and removes it from the valid states, so it does not
+   * prevent the removal of satisfied clauses (cf. {@link #pop()}).
+   * @param state the solver state
+   */
+  private void discardState(final SolverState state) {
+    this.loadState(state);
+    this.validStates.pop();
+  }
+
+  @Override
+  public void pop() {
+    super.pop();
+    this.retiredActivationLiteral();
+  }
+
+  /**
+   * Counts a fixed activation literal.  The clauses guarded by fixed activation literals are satisfied, but the
+   * incremental mode of the solver never removes satisfied original clauses.  Therefore, all satisfied clauses are
+   * removed once a number of activation literals was fixed and no saved state can be loaded anymore.
+   */
+  private void retiredActivationLiteral() {
+    if (++this.retiredActivationLiterals >= RETIRED_ACTIVATION_LITERALS_THRESHOLD && this.validStates.empty()) {
+      this.solver.removeSatisfiedClauses();
+      this.retiredActivationLiterals = 0;
+    }
+  }
+
+  /**
+   * Returns a deep copy of this solver.  The copy contains all clauses, learnt clauses, open scopes and the variable
+   * activities of this solver, but shares no data with it.  Solver states saved on this solver are also valid for
+   * the copy.  Copying a solver is much faster than adding all formulas to a new solver, so a solver with a large
+   * base formula can serve as template for several workers which solve independent problems under different
+   * assumptions on separate threads.
+   * <p>
+   * The copy uses the same formula factory as this solver.  Since formula factories are not thread-safe, the copies
+   * must only be used with literals which already exist in the factory if they are used on separate threads, and
+   * models must not be computed while another thread uses the factory.  A copy is never connected to a clause
+   * exchange.
+   * @return the copy of this solver
+   */
+  public MiniSat copy() {
+    return new MiniSat(this);
+  }
+
   @Override
   public Assignment model(final Collection<Variable> variables) {
     if (this.result == UNDEF)
@@ -274,7 +362,7 @@ public final class MiniSat extends SATSolver {
   public List<Assignment> enumerateAllModels(final Collection<Variable> variables) {
     List<Assignment> models = new LinkedList<Assignment>();
     SolverState stateBeforeEnumeration = null;
-    if (this.style == SolverStyle.MINISAT && incremental)
+    if (incremental)
       stateBeforeEnumeration = this.saveState();
     while (this.sat((SATHandler) null) == TRUE) {
       final Assignment model = this.model(variables);
@@ -282,8 +370,8 @@ public final class MiniSat extends SATSolver {
       models.add(model);
       this.add(model.blockingClause(this.f, variables));
     }
-    if (this.style == SolverStyle.MINISAT && incremental)
-      this.loadState(stateBeforeEnumeration);
+    if (incremental)
+      this.discardState(stateBeforeEnumeration);
     return models;
   }
 
@@ -291,7 +379,7 @@ public final class MiniSat extends SATSolver {
   public List<Assignment> enumerateAllModels(final Collection<Variable> literals, final ModelEnumerationHandler handler) {
     List<Assignment> models = new LinkedList<Assignment>();
     SolverState stateBeforeEnumeration = null;
-    if (this.style == SolverStyle.MINISAT && incremental)
+    if (incremental)
       stateBeforeEnumeration = this.saveState();
     boolean proceed = true;
     while (proceed && this.sat((SATHandler) null) == TRUE) {
@@ -301,11 +389,215 @@ public final class MiniSat extends SATSolver {
       proceed = handler.foundModel(model);
       this.add(model.blockingClause(this.f, literals));
     }
-    if (this.style == SolverStyle.MINISAT && incremental)
-      this.loadState(stateBeforeEnumeration);
+    if (incremental)
+      this.discardState(stateBeforeEnumeration);
     return models;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The models are read directly from the underlying solver and blocked by clauses on the solver level, so no
+   * formulas are created during the enumeration.
+   */
+  @Override
+  public ModelIterator modelIterator(final Collection<Variable> variables) {
+    final List<Variable> projection = this.projection(variables);
+    this.push();
+    return new SolverModelIterator(projection);
+  }
+
+  /**
+   * Enumerates all models of the current formula wrt. a given set of variables as cubes with don't-cares.  If the set
+   * is {@code null}, all variables are considered relevant.
+   * <p>
+   * Each model found by the solver is shrunk to an implicant of the original clauses (cf.
+   * {@link MiniSatStyleSolver#implicant(LNGIntVector)}) and only this implicant is blocked.  A returned cube contains
+   * only the literals of the implicant, the remaining variables of the set are don't-cares: every assignment of them
+   * extends the cube to a model.  The cubes are pairwise disjoint, so the number of models is the sum of
+   * {@code 2^(n-k)} over all cubes with {@code k} literals and {@code n} relevant variables.  On loosely constrained
+   * formulas this requires far less SAT calls than the enumeration of single models.
+   * <p>
+   * The blocking clauses are added in a new scope which is closed after the enumeration, so the solver remains
+   * unchanged.
+   * @param variables the set of variables
+   * @return the list of cubes
+   */
+  public List<Assignment> enumerateAllCubes(final Collection<Variable> variables) {
+    return this.enumerateAllCubes(variables, null);
+  }
+
+  /**
+   * Enumerates all models of the current formula wrt. a given set of variables as cubes with don't-cares and passes
+   * them to a model enumeration handler (cf. {@link #enumerateAllCubes(Collection)}).  If the set is {@code null}, all
+   * variables are considered relevant.
+   * @param variables the set of variables
+   * @param handler   the model enumeration handler or {@code null} if all cubes should be enumerated
+   * @return the list of cubes
+   */
+  public List<Assignment> enumerateAllCubes(final Collection<Variable> variables,
+                                            final ModelEnumerationHandler handler) {
+    final List<Variable> projection = this.projection(variables);
+    final LNGIntVector indices = new LNGIntVector(projection.size());
+    for (final Variable var : projection)
+      indices.push(this.solver.idxForName(var.name()));
+    final List<Assignment> cubes = new LinkedList<Assignment>();
+    this.push();
+    final Variable scope = this.scopes.get(this.scopes.size() - 1);
+    final int selector = this.generateClauseVector(Collections.<Literal>singletonList(scope)).get(0);
+    final LNGIntVector assumptions = this.generateClauseVector(this.scopeAssumptions());
+    boolean proceed = true;
+    while (proceed && this.solver.solve(null, assumptions) == TRUE) {
+      final LNGIntVector implicant = this.solver.implicant(indices);
+      final List<Literal> literals = new ArrayList<Literal>(implicant.size());
+      final LNGIntVector blockingClause = new LNGIntVector(implicant.size() + 1);
+      blockingClause.push(selector);
+      for (int i = 0; i < implicant.size(); i++) {
+        final int lit = implicant.get(i);
+        final Variable var = this.f.variable(this.solver.nameForIdx(MiniSatStyleSolver.var(lit)));
+        literals.add(MiniSatStyleSolver.sign(lit) ? var.negate() : var);
+        blockingClause.push(MiniSatStyleSolver.not(lit));
+      }
+      final Assignment cube = new Assignment(literals);
+      cubes.add(cube);
+      proceed = handler == null || handler.foundModel(cube);
+      this.solver.addClause(blockingClause);
+    }
+    this.pop();
+    return cubes;
+  }
+
+  /**
+   * Computes the backbone of the current formula wrt. a given set of variables with the default chunk size (cf.
+   * {@link #backbone(Collection, int)}).  If the set is {@code null}, all variables of the solver are considered.
+   * @param variables the set of variables
+   * @return the backbone
+   */
+  public Backbone backbone(final Collection<Variable> variables) {
+    return this.backbone(variables, BACKBONE_CHUNK_SIZE);
+  }
+
+  /**
+   * Computes the backbone of the current formula wrt. a given set of variables.  If the set is {@code null}, all
+   * variables of the solver are considered.  Variables which are not known by the solver are optional.
+   * <p>
+   * The backbone is computed on this solver with a first model as candidate set.  Literals which are assigned on
+   * decision level 0 are backbone literals without further checks.  The remaining candidates are checked in chunks:
+   * the solver is called once with a clause which demands that at least one literal of the chunk is false.  If this
+   * is unsatisfiable, all literals of the chunk are backbone literals.  Otherwise, all candidates which are false in the
+   * new model are removed.  Chunks of size one are checked by a single assumption.  Found backbone literals are assumed
+   * in all further calls.  The clause of a chunk is guarded by an activation literal which is assumed for the call
+   * and fixed afterwards, so the formula of the solver remains unchanged.
+   * @param variables the set of variables
+   * @param chunkSize the maximal number of candidates which are checked at once
+   * @return the backbone
+   * @throws IllegalArgumentException if the chunk size is not positive
+   */
+  public Backbone backbone(final Collection<Variable> variables, int chunkSize) {
+    if (chunkSize < 1)
+      throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+    final SortedSet<Variable> relevant = new TreeSet<Variable>(variables == null ? this.projection(null) : variables);
+    final LNGIntVector baseAssumptions = this.generateClauseVector(this.scopeAssumptions());
+    this.result = UNDEF;
+    if (this.solver.solve(null, baseAssumptions) != TRUE)
+      return Backbone.unsatBackbone();
+    final List<Variable> positive = new ArrayList<Variable>();
+    final List<Variable> negative = new ArrayList<Variable>();
+    final List<Variable> optional = new ArrayList<Variable>();
+    final LNGBooleanVector upZero = new LNGBooleanVector(this.solver.nVars(), false);
+    final LNGIntVector upZeroLiterals = this.solver.upZeroLiterals();
+    for (int i = 0; i < upZeroLiterals.size(); i++)
+      upZero.set(MiniSatStyleSolver.var(upZeroLiterals.get(i)), true);
+    final LNGBooleanVector model = this.solver.model();
+    LNGIntVector candidates = new LNGIntVector();
+    for (final Variable var : relevant) {
+      final int index = this.solver.idxForName(var.name());
+      if (index == -1)
+        optional.add(var);
+      else if (upZero.get(index))
+        (model.get(index) ? positive : negative).add(var);
+      else
+        candidates.push(MiniSatStyleSolver.mkLit(index, !model.get(index)));
+    }
+    final LNGIntVector backboneLiterals = new LNGIntVector();
+    while (!candidates.empty()) {
+      final int size = Math.min(chunkSize, candidates.size());
+      final LNGIntVector assumptions = new LNGIntVector(baseAssumptions);
+      for (int i = 0; i < backboneLiterals.size(); i++)
+        assumptions.push(backboneLiterals.get(i));
+      final Tristate chunkResult;
+      if (size == 1) {
+        assumptions.push(MiniSatStyleSolver.not(candidates.back()));
+        chunkResult = this.solver.solve(null, assumptions);
+      } else {
+        final int activation = this.newActivationLiteral();
+        final LNGIntVector chunk = new LNGIntVector(size + 1);
+        chunk.push(activation);
+        for (int i = candidates.size() - size; i < candidates.size(); i++)
+          chunk.push(MiniSatStyleSolver.not(candidates.get(i)));
+        this.solver.addClause(chunk);
+        assumptions.push(MiniSatStyleSolver.not(activation));
+        chunkResult = this.solver.solve(null, assumptions);
+        this.solver.addClause(activation);
+        this.retiredActivationLiteral();
+      }
+      if (chunkResult == TRUE) {
+        final LNGBooleanVector newModel = this.solver.model();
+        final LNGIntVector remaining = new LNGIntVector(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+          final int lit = candidates.get(i);
+          if (newModel.get(MiniSatStyleSolver.var(lit)) != MiniSatStyleSolver.sign(lit))
+            remaining.push(lit);
+          else
+            optional.add(this.f.variable(this.solver.nameForIdx(MiniSatStyleSolver.var(lit))));
+        }
+        candidates = remaining;
+      } else {
+        for (int i = 0; i < size; i++) {
+          final int lit = candidates.back();
+          candidates.pop();
+          backboneLiterals.push(lit);
+          final Variable var = this.f.variable(this.solver.nameForIdx(MiniSatStyleSolver.var(lit)));
+          (MiniSatStyleSolver.sign(lit) ? negative : positive).add(var);
+        }
+      }
+    }
+    this.result = UNDEF;
+    return Backbone.satBackbone(positive, negative, optional);
+  }
+
+  /**
+   * Creates a new activation literal on the underlying solver.  It is named like the activation literals of scopes
+   * and therefore never appears in models, but it does not open a scope.
+   * @return the positive activation literal
+   */
+  private int newActivationLiteral() {
+    final int index = this.solver.newVar(!this.initialPhase, true);
+    this.solver.addName(SCOPE_PREFIX + this.scopeCounter++, index);
+    return MiniSatStyleSolver.mkLit(index, false);
+  }
+
+  /**
+   * Enumerates all models of the current formula on several threads.
+   * <p>
+   * The search space is split into disjoint cubes over the first variables, which are enumerated on copies of this
+   * solver.  Therefore this solver remains unchanged.  The models are passed to the handler as soon as they are found,
+   * but in no particular order.  The calls of the handler are serialized and no model is passed to the handler after
+   * it returned {@code false}.
+   * @param variables  the variables of the models or {@code null} if all variables should be enumerated
+   * @param handler    the model enumeration handler or {@code null} if the models should only be counted
+   * @param numThreads the number of threads
+   * @return the number of models which were passed to the handler
+   * @throws IllegalArgumentException if the number of threads is not positive
+   * @throws IllegalStateException    if the enumeration was interrupted or a thread failed
+   */
+  public long enumerateAllModelsInParallel(final Collection<Variable> variables, final ModelEnumerationHandler handler,
+                                           int numThreads) {
+    if (numThreads < 1)
+      throw new IllegalArgumentException("The number of threads must be positive: " + numThreads);
+    return new ParallelModelEnumeration(this, variables, handler, numThreads).enumerate();
+  }
+
   @Override
   public SolverState saveState() {
     final int id = this.nextStateId++;
@@ -356,6 +648,8 @@ public final class MiniSat extends SATSolver {
     final Assignment model = new Assignment();
     for (int i = 0; i < vec.size(); i++) {
       final Variable var = this.f.variable(this.solver.nameForIdx(i));
+      if (this.isScopeSelector(var))
+        continue;
       if (vec.get(i)) {
         if (variables == null || variables.contains(var))
           model.addLiteral(var);
@@ -392,8 +686,61 @@ public final class MiniSat extends SATSolver {
     return result;
   }
 
+  @Override
+  public SolverStatistics statistics() {
+    return this.solver.statistics();
+  }
+
   @Override
   public String toString() {
     return String.format("MiniSat{result=%s, incremental=%s}", this.result, this.incremental);
   }
+
+  /**
+   * A model iterator which works directly on the underlying solver.
+   */
+  private final class SolverModelIterator extends ModelIterator {
+
+    private final int[] indices;
+    private final int selector;
+    private final LNGIntVector assumptions;
+
+    /**
+     * Constructs a new model iterator.  The scope for the blocking clauses must already be opened.
+     * @param variables the projection variables
+     */
+    private SolverModelIterator(final List<Variable> variables) {
+      super(variables);
+      this.indices = new int[variables.size()];
+      for (int i = 0; i < this.indices.length; i++)
+        this.indices[i] = solver.idxForName(variables.get(i).name());
+      final Variable scope = scopes.get(scopes.size() - 1);
+      this.selector = generateClauseVector(Collections.<Literal>singletonList(scope)).get(0);
+      this.assumptions = generateClauseVector(scopeAssumptions());
+    }
+
+    @Override
+    protected boolean computeNext(final BitSet values) {
+      result = solver.solve(null, this.assumptions);
+      if (result != TRUE)
+        return false;
+      final LNGBooleanVector model = solver.model();
+      final LNGIntVector blockingClause = new LNGIntVector(this.indices.length + 1);
+      blockingClause.push(this.selector);
+      for (int i = 0; i < this.indices.length; i++) {
+        final boolean value = model.get(this.indices[i]);
+        if (value)
+          values.set(i);
+        blockingClause.push(MiniSatStyleSolver.mkLit(this.indices[i], value));
+      }
+      solver.addClause(blockingClause);
+      result = UNDEF;
+      return true;
+    }
+
+    @Override
+    protected void restore() {
+      pop();
+    }
+  }
 }
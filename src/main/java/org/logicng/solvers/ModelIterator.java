@@ -0,0 +1,168 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers;
+
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A lazy iterator over the models of a SAT solver.
+ * <p>
+ * In contrast to {@code enumerateAllModels} the models are not collected in a list.  The next model is only computed
+ * when it is requested by {@link #hasNext()}, {@link #next()} or {@link #nextValues()}, and the blocking clause for a
+ * model is added to the solver as soon as the model is computed.  So the consumer controls the pace of the enumeration
+ * and only one model is held in memory at a time.
+ * <p>
+ * A model is stored as a bit set over the projection variables (cf. {@link #variables()}) where bit {@code i} holds
+ * the value of the {@code i}-th variable.  {@link #nextValues()} returns the bit set without creating any formulas,
+ * {@link #next()} converts it into an assignment.  Bit sets can later be converted with {@link #assignment(BitSet)}.
+ * <p>
+ * The solver must not be modified or used otherwise as long as the iterator is not closed.  The iterator is closed
+ * automatically when all models are enumerated or explicitly by {@link #close()}, which restores the original state
+ * of the solver if the solver supports this.
+ * @version 1.2
+ * @since 1.2
+ */
+public abstract class ModelIterator implements Iterator<Assignment> {
+
+  protected final List<Variable> variables;
+  private BitSet pending;
+  private boolean closed;
+
+  /**
+   * Constructs a new model iterator.  The negations of the variables are created here, so converting a model
+   * into an assignment does not create new formulas.
+   * @param variables the projection variables
+   */
+  protected ModelIterator(final List<Variable> variables) {
+    this.variables = Collections.unmodifiableList(new ArrayList<Variable>(variables));
+    for (final Variable var : this.variables)
+      var.negate();
+    this.pending = null;
+    this.closed = false;
+  }
+
+  /**
+   * Computes the next model and blocks it for the following calls.
+   * @param values the bit set which should be filled with the values of the projection variables
+   * @return {@code true} if there was another model, {@code false} otherwise
+   */
+  protected abstract boolean computeNext(final BitSet values);
+
+  /**
+   * Restores the state of the solver after the enumeration.  This method is called exactly once.
+   */
+  protected abstract void restore();
+
+  /**
+   * Returns the projection variables of the models in the order of the bits.
+   * @return the projection variables
+   */
+  public List<Variable> variables() {
+    return this.variables;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (this.pending == null && !this.closed) {
+      final BitSet values = new BitSet(this.variables.size());
+      if (this.computeNext(values))
+        this.pending = values;
+      else
+        this.close();
+    }
+    return this.pending != null;
+  }
+
+  @Override
+  public Assignment next() {
+    return this.assignment(this.nextValues());
+  }
+
+  /**
+   * Returns the next model as bit set over the projection variables.
+   * @return the values of the projection variables in the next model
+   * @throws NoSuchElementException if there are no more models
+   */
+  public BitSet nextValues() {
+    if (!this.hasNext())
+      throw new NoSuchElementException("There are no more models.");
+    final BitSet values = this.pending;
+    this.pending = null;
+    return values;
+  }
+
+  /**
+   * Converts a bit set over the projection variables into an assignment.
+   * @param values the values of the projection variables
+   * @return the assignment
+   */
+  public Assignment assignment(final BitSet values) {
+    final List<Literal> literals = new ArrayList<Literal>(this.variables.size());
+    for (int i = 0; i < this.variables.size(); i++)
+      literals.add(values.get(i) ? this.variables.get(i) : this.variables.get(i).negate());
+    return new Assignment(literals);
+  }
+
+  /**
+   * The iterator does not support the removal of models.
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("Models cannot be removed from a model iterator.");
+  }
+
+  /**
+   * Closes this iterator and restores the solver.  Further calls of {@link #hasNext()} return {@code false}.  Closing
+   * an iterator twice has no effect.
+   */
+  public void close() {
+    if (!this.closed) {
+      this.closed = true;
+      this.pending = null;
+      this.restore();
+    }
+  }
+
+  /**
+   * Returns {@code true} if this iterator is closed, {@code false} otherwise.
+   * @return {@code true} if this iterator is closed
+   */
+  public boolean isClosed() {
+    return this.closed;
+  }
+}
@@ -0,0 +1,217 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers;
+
+import org.logicng.collections.LNGBooleanVector;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.ModelEnumerationHandler;
+import org.logicng.handlers.SATHandler;
+import org.logicng.solvers.sat.MiniSatStyleSolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.logicng.datastructures.Tristate.TRUE;
+
+/**
+ * A parallel model enumeration for MiniSAT-style solvers.
+ * <p>
+ * The search space is partitioned by the first projection variables into disjoint prefix cubes.  Each thread works on
+ * its own copy of the solver and enumerates the models of the cubes it takes from a shared queue.  Since each model
+ * lies in exactly one cube, the blocking clauses of one cube never exclude models of another cube and a thread can
+ * enumerate all its cubes on the same copy.  All models are passed to the model enumeration handler, but the calls of
+ * the handler are serialized, so the handler does not have to be thread-safe.
+ * @version 1.2
+ * @since 1.2
+ */
+final class ParallelModelEnumeration {
+
+  private static final int CUBES_PER_THREAD_BITS = 3;
+
+  private final MiniSat solver;
+  private final int numThreads;
+  private final ModelEnumerationHandler handler;
+  private final List<Variable> variables;
+  private final Queue<List<Literal>> cubes;
+  private final AtomicBoolean stopped;
+  private long numModels;
+
+  /**
+   * Constructs a new parallel model enumeration.  The variables and their negations are created here, since the
+   * formula factory is not thread-safe.
+   * @param solver     the solver
+   * @param variables  the variables of the models or {@code null} if all variables should be enumerated
+   * @param handler    the model enumeration handler or {@code null} if the models should only be counted
+   * @param numThreads the number of threads
+   */
+  ParallelModelEnumeration(final MiniSat solver, final Collection<Variable> variables,
+                           final ModelEnumerationHandler handler, int numThreads) {
+    this.solver = solver;
+    this.numThreads = numThreads;
+    this.handler = handler;
+    this.variables = new ArrayList<Variable>();
+    final MiniSatStyleSolver underlying = solver.underlyingSolver();
+    if (variables == null) {
+      for (int i = 0; i < underlying.nVars(); i++) {
+        final Variable var = solver.f.variable(underlying.nameForIdx(i));
+        if (!solver.isScopeSelector(var))
+          this.variables.add(var);
+      }
+    } else
+      for (final Variable var : variables)
+        if (underlying.idxForName(var.name()) != -1 && !this.variables.contains(var))
+          this.variables.add(var);
+    for (final Variable var : this.variables)
+      var.negate().negate();
+    this.cubes = new ConcurrentLinkedQueue<List<Literal>>();
+    this.stopped = new AtomicBoolean(false);
+    this.numModels = 0;
+  }
+
+  /**
+   * Enumerates all models.
+   * @return the number of models
+   */
+  long enumerate() {
+    final int prefixBits = 32 - Integer.numberOfLeadingZeros(this.numThreads - 1) + CUBES_PER_THREAD_BITS;
+    this.generateCubes(new ArrayList<Literal>(), Math.min(prefixBits, this.variables.size()));
+    final List<MiniSat> copies = new ArrayList<MiniSat>(this.numThreads);
+    for (int i = 0; i < this.numThreads; i++)
+      copies.add(this.solver.copy());
+    final ExecutorService executor = Executors.newFixedThreadPool(this.numThreads);
+    try {
+      final List<Future<Void>> futures = new ArrayList<Future<Void>>(this.numThreads);
+      for (final MiniSat copy : copies)
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            enumerate(copy);
+            return null;
+          }
+        }));
+      for (final Future<Void> future : futures)
+        future.get();
+    } catch (final InterruptedException e) {
+      this.stopped.set(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("The model enumeration was interrupted", e);
+    } catch (final ExecutionException e) {
+      this.stopped.set(true);
+      throw new IllegalStateException("A thread of the model enumeration failed", e.getCause());
+    } finally {
+      executor.shutdown();
+    }
+    return this.numModels;
+  }
+
+  /**
+   * Generates all prefix cubes over the given number of first variables.
+   * @param prefix the current prefix
+   * @param length the remaining length of the prefix
+   */
+  private void generateCubes(final List<Literal> prefix, int length) {
+    if (length == 0) {
+      this.cubes.add(prefix);
+      return;
+    }
+    final Variable var = this.variables.get(prefix.size());
+    final List<Literal> positive = new ArrayList<Literal>(prefix);
+    positive.add(var);
+    this.generateCubes(positive, length - 1);
+    final List<Literal> negative = new ArrayList<Literal>(prefix);
+    negative.add(var.negate());
+    this.generateCubes(negative, length - 1);
+  }
+
+  /**
+   * Enumerates the models of the cubes in the queue on a given copy of the solver.
+   * @param copy the copy of the solver
+   */
+  private void enumerate(final MiniSat copy) {
+    final MiniSatStyleSolver underlying = copy.underlyingSolver();
+    final int[] indices = new int[this.variables.size()];
+    for (int i = 0; i < indices.length; i++)
+      indices[i] = underlying.idxForName(this.variables.get(i).name());
+    final LNGIntVector scopes = new LNGIntVector();
+    for (final Literal lit : copy.scopeAssumptions())
+      scopes.push(literal(underlying, lit));
+    final SATHandler satHandler = new SATPortfolio.PortfolioHandler(null, this.stopped);
+    List<Literal> cube;
+    while (!this.stopped.get() && (cube = this.cubes.poll()) != null) {
+      final LNGIntVector assumptions = new LNGIntVector(scopes);
+      for (final Literal lit : cube)
+        assumptions.push(literal(underlying, lit));
+      while (!this.stopped.get() && underlying.solve(satHandler, assumptions) == TRUE) {
+        final LNGBooleanVector model = underlying.model();
+        final List<Literal> literals = new ArrayList<Literal>(indices.length);
+        final LNGIntVector blockingClause = new LNGIntVector(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+          final boolean value = model.get(indices[i]);
+          literals.add(value ? this.variables.get(i) : this.variables.get(i).negate());
+          blockingClause.push(MiniSatStyleSolver.mkLit(indices[i], value));
+        }
+        this.foundModel(new Assignment(literals));
+        underlying.addClause(blockingClause);
+      }
+    }
+  }
+
+  /**
+   * Passes a model to the handler and stops the enumeration if the handler wants no more models.
+   * @param model the model
+   */
+  private synchronized void foundModel(final Assignment model) {
+    if (this.stopped.get())
+      return;
+    this.numModels++;
+    if (this.handler != null && !this.handler.foundModel(model))
+      this.stopped.set(true);
+  }
+
+  /**
+   * Returns the solver literal for a given literal.
+   * @param solver the solver
+   * @param lit    the literal
+   * @return the solver literal
+   */
+  private static int literal(final MiniSatStyleSolver solver, final Literal lit) {
+    return MiniSatStyleSolver.mkLit(solver.idxForName(lit.name()), !lit.phase());
+  }
+}
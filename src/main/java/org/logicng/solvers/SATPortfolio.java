@@ -0,0 +1,527 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers;
+
+import org.logicng.cardinalityconstraints.CCIncrementalData;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.PBConstraint;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.ModelEnumerationHandler;
+import org.logicng.handlers.SATHandler;
+import org.logicng.solvers.sat.ClauseExchange;
+import org.logicng.solvers.sat.CleaneLingConfig;
+import org.logicng.solvers.sat.GlucoseConfig;
+import org.logicng.solvers.sat.MiniSatConfig;
+import org.logicng.solvers.sat.SolverStatistics;
+import org.logicng.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.logicng.datastructures.Tristate.TRUE;
+import static org.logicng.datastructures.Tristate.UNDEF;
+import static org.logicng.solvers.sat.MiniSatConfig.ClauseMinimization.BASIC;
+
+/**
+ * A parallel portfolio of SAT solvers.
+ * <p>
+ * All formulas are added to each solver of the portfolio.  On a call of {@code sat} all solvers are started on
+ * separate threads.  The first definite answer is returned and all other solvers are canceled.  The solvers must
+ * all be constructed with the formula factory of the portfolio.
+ * <p>
+ * The MiniSAT-style solvers of the portfolio can share their short learnt clauses via a {@link ClauseExchange}.  The
+ * clauses are exported after conflict analysis and imported by the other solvers at their restarts.
+ * <p>
+ * In the cube-and-conquer mode, the solvers do not solve the same problem, but the problem is split into cubes which
+ * are solved in parallel (cf. {@link #cubeAndConquer(FormulaFactory, int)}).
+ * <p>
+ * Note that formula factories are not thread-safe.  Therefore the formula factory of the portfolio must not be
+ * used by other threads while a {@code sat} call is running.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class SATPortfolio extends SATSolver {
+
+  private static final int CUBE_CONFLICT_BUDGET = 2000;
+
+  private final List<SATSolver> solvers;
+  private final ClauseExchange exchange;
+  private final CubeAndConquer cubeAndConquer;
+  private final Map<Integer, List<SolverState>> states;
+  private SATSolver winner;
+  private int nextStateId;
+
+  /**
+   * Constructs a new portfolio.
+   * @param f        the formula factory
+   * @param solvers  the solvers of the portfolio
+   * @param exchange       the clause exchange or {@code null} if no clauses should be shared
+   * @param cubeAndConquer the cube-and-conquer mode or {@code null} if all solvers should solve the same problem
+   * @throws IllegalArgumentException if no solver is given or a solver uses a different formula factory
+   */
+  private SATPortfolio(final FormulaFactory f, final List<SATSolver> solvers, final ClauseExchange exchange,
+                       final CubeAndConquer cubeAndConquer) {
+    super(f);
+    if (solvers.isEmpty())
+      throw new IllegalArgumentException("A portfolio requires at least one solver");
+    for (final SATSolver solver : solvers)
+      if (solver.f != f)
+        throw new IllegalArgumentException("All solvers of a portfolio must use the same formula factory");
+    this.solvers = solvers;
+    this.exchange = exchange;
+    this.cubeAndConquer = cubeAndConquer;
+    if (exchange != null)
+      for (final SATSolver solver : solvers)
+        if (solver instanceof MiniSat)
+          ((MiniSat) solver).underlyingSolver().setClauseExchange(exchange);
+    this.states = new HashMap<Integer, List<SolverState>>();
+    this.result = UNDEF;
+    this.winner = null;
+    this.nextStateId = 0;
+  }
+
+  /**
+   * Returns a new portfolio with one solver per available processor (but at least two and at most eight solvers).
+   * The solvers share their short learnt clauses.
+   * @param f the formula factory
+   * @return the portfolio
+   */
+  public static SATPortfolio portfolio(final FormulaFactory f) {
+    return portfolio(f, Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors())));
+  }
+
+  /**
+   * Returns a new portfolio with a given number of differently configured solvers.  The solvers vary in the solver
+   * style (MiniSat, Glucose, MiniCard and CleaneLing), in the restart strategy, the initial phase, the variable decay
+   * and the clause minimization.  The MiniSAT-style solvers share their short learnt clauses.
+   * @param f          the formula factory
+   * @param numSolvers the number of solvers (between 1 and 8)
+   * @return the portfolio
+   * @throws IllegalArgumentException if the number of solvers is not between 1 and 8
+   */
+  public static SATPortfolio portfolio(final FormulaFactory f, int numSolvers) {
+    if (numSolvers < 1 || numSolvers > 8)
+      throw new IllegalArgumentException("The number of solvers must be between 1 and 8: " + numSolvers);
+    final List<SATSolver> solvers = new ArrayList<SATSolver>(8);
+    solvers.add(MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build()));
+    solvers.add(MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(true).build(), new GlucoseConfig.Builder().build()));
+    solvers.add(MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(true).initialPhase(true).build()));
+    solvers.add(CleaneLing.full(f));
+    solvers.add(MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).initialPhase(true)
+            .restartFirst(50).restartInc(1.5).varDecay(0.9).clMinimization(BASIC).build()));
+    solvers.add(MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(true).initialPhase(true).build(),
+            new GlucoseConfig.Builder().inprocessing(true).tieredLearnts(true).build()));
+    solvers.add(CleaneLing.full(f, new CleaneLingConfig.Builder().restartInterval(100).reuseTrail(true).build()));
+    solvers.add(MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(true).build(),
+            new GlucoseConfig.Builder().factorK(0.7).reduceOnSize(true).build()));
+    return new SATPortfolio(f, new ArrayList<SATSolver>(solvers.subList(0, numSolvers)), new ClauseExchange(), null);
+  }
+
+  /**
+   * Returns a new portfolio with the given solvers.  The solvers do not share learnt clauses.
+   * @param f       the formula factory
+   * @param solvers the solvers of the portfolio
+   * @return the portfolio
+   * @throws IllegalArgumentException if no solver is given or a solver uses a different formula factory
+   */
+  public static SATPortfolio portfolio(final FormulaFactory f, final SATSolver... solvers) {
+    return new SATPortfolio(f, new ArrayList<SATSolver>(Arrays.asList(solvers)), null, null);
+  }
+
+  /**
+   * Returns a new portfolio with the given solvers whose MiniSAT-style solvers share their short learnt clauses via
+   * the given clause exchange.  The solvers must not be connected to another clause exchange.
+   * @param f        the formula factory
+   * @param exchange the clause exchange or {@code null} if no clauses should be shared
+   * @param solvers  the solvers of the portfolio
+   * @return the portfolio
+   * @throws IllegalArgumentException if no solver is given or a solver uses a different formula factory
+   */
+  public static SATPortfolio portfolio(final FormulaFactory f, final ClauseExchange exchange, final SATSolver... solvers) {
+    return new SATPortfolio(f, new ArrayList<SATSolver>(Arrays.asList(solvers)), exchange, null);
+  }
+
+  /**
+   * Returns a new portfolio in cube-and-conquer mode with a given number of incremental Glucose solvers which share
+   * their short learnt clauses.
+   * <p>
+   * The problem is split by a lookahead on the most active variables into cubes which are solved in parallel as
+   * assumptions of the solvers.  The solvers take the cubes from a shared queue and wait on it while it is empty.
+   * Cubes which cannot be solved within their conflict budget are split again.
+   * @param f          the formula factory
+   * @param numSolvers the number of solvers
+   * @return the portfolio
+   * @throws IllegalArgumentException if the number of solvers is not positive
+   */
+  public static SATPortfolio cubeAndConquer(final FormulaFactory f, int numSolvers) {
+    if (numSolvers < 1)
+      throw new IllegalArgumentException("The number of solvers must be positive: " + numSolvers);
+    final MiniSat[] solvers = new MiniSat[numSolvers];
+    for (int i = 0; i < numSolvers; i++)
+      solvers[i] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(true).build(), new GlucoseConfig.Builder().build());
+    return cubeAndConquer(f, new ClauseExchange(), CUBE_CONFLICT_BUDGET, solvers);
+  }
+
+  /**
+   * Returns a new portfolio in cube-and-conquer mode with the given solvers.  The first solver is also used for the
+   * initial split of the problem which yields about eight cubes per solver.
+   * @param f              the formula factory
+   * @param exchange       the clause exchange or {@code null} if no clauses should be shared
+   * @param conflictBudget the number of conflicts after which a cube is split again (the budget is doubled for the
+   *                       resulting cubes)
+   * @param solvers        the solvers of the portfolio
+   * @return the portfolio
+   * @throws IllegalArgumentException if no solver is given, a solver uses a different formula factory or the
+   *                                  conflict budget is not positive
+   */
+  public static SATPortfolio cubeAndConquer(final FormulaFactory f, final ClauseExchange exchange, int conflictBudget,
+                                            final MiniSat... solvers) {
+    if (conflictBudget < 1)
+      throw new IllegalArgumentException("The conflict budget must be positive: " + conflictBudget);
+    final List<MiniSat> solverList = Arrays.asList(solvers);
+    final int initialDepth = 35 - Integer.numberOfLeadingZeros(solvers.length - 1);
+    return new SATPortfolio(f, new ArrayList<SATSolver>(solverList), exchange,
+            new CubeAndConquer(f, solverList, initialDepth, conflictBudget));
+  }
+
+  @Override
+  public void add(final Formula formula) {
+    this.result = UNDEF;
+    for (final SATSolver solver : this.solvers)
+      solver.add(formula);
+  }
+
+  @Override
+  public void addWithRelaxation(final Variable relaxationVar, final Formula formula) {
+    this.result = UNDEF;
+    for (final SATSolver solver : this.solvers)
+      solver.addWithRelaxation(relaxationVar, formula);
+  }
+
+  /**
+   * {@inheritDoc}
+   * @throws UnsupportedOperationException since the incremental data cannot be shared between the solvers
+   */
+  @Override
+  public CCIncrementalData addIncrementalCC(final PBConstraint cc) {
+    throw new UnsupportedOperationException("A portfolio does not support incremental cardinality constraints");
+  }
+
+  @Override
+  protected void addClause(final Formula formula) {
+    this.result = UNDEF;
+    for (final SATSolver solver : this.solvers)
+      solver.addClause(formula);
+  }
+
+  @Override
+  protected void addClauseWithRelaxation(final Variable relaxationVar, final Formula formula) {
+    this.result = UNDEF;
+    for (final SATSolver solver : this.solvers)
+      solver.addClauseWithRelaxation(relaxationVar, formula);
+  }
+
+  @Override
+  public void push() {
+    this.result = UNDEF;
+    for (final SATSolver solver : this.solvers)
+      solver.push();
+  }
+
+  @Override
+  public void pop() {
+    this.result = UNDEF;
+    for (final SATSolver solver : this.solvers)
+      solver.pop();
+  }
+
+  @Override
+  public int scopeLevel() {
+    return this.solvers.get(0).scopeLevel();
+  }
+
+  @Override
+  public Tristate sat(final SATHandler handler) {
+    if (this.result != UNDEF)
+      return this.result;
+    return this.solve(handler, null);
+  }
+
+  @Override
+  public Tristate sat(final SATHandler handler, final Literal literal) {
+    return this.solve(handler, Collections.singletonList(literal));
+  }
+
+  @Override
+  public Tristate sat(final SATHandler handler, final Collection<? extends Literal> assumptions) {
+    return this.solve(handler, new ArrayList<Literal>(assumptions));
+  }
+
+  /**
+   * Starts all solvers of the portfolio on separate threads and waits for the first definite answer.  All other
+   * solvers are canceled afterwards.
+   * @param handler     the SAT handler
+   * @param assumptions the assumptions or {@code null} if there are none
+   * @return the result of the first solver which finished
+   */
+  private Tristate solve(final SATHandler handler, final List<? extends Literal> assumptions) {
+    this.winner = null;
+    this.result = UNDEF;
+    if (this.exchange != null)
+      this.exchange.clear();
+    if (handler != null)
+      handler.startedSolving();
+    if (this.cubeAndConquer != null) {
+      final Pair<MiniSat, Tristate> res = this.cubeAndConquer.solve(handler, assumptions);
+      this.winner = res.first();
+      this.result = res.second();
+      if (handler != null)
+        handler.finishedSolving();
+      return this.result;
+    }
+    final AtomicBoolean canceled = new AtomicBoolean(false);
+    final ExecutorService executor = Executors.newFixedThreadPool(this.solvers.size());
+    final CompletionService<Pair<SATSolver, Tristate>> completion = new ExecutorCompletionService<Pair<SATSolver, Tristate>>(executor);
+    try {
+      for (final SATSolver solver : this.solvers)
+        completion.submit(new Callable<Pair<SATSolver, Tristate>>() {
+          @Override
+          public Pair<SATSolver, Tristate> call() {
+            final SATHandler portfolioHandler = new PortfolioHandler(handler, canceled);
+            final Tristate res = assumptions == null ? solver.sat(portfolioHandler) : solver.sat(portfolioHandler, assumptions);
+            return new Pair<SATSolver, Tristate>(solver, res);
+          }
+        });
+      for (int i = 0; i < this.solvers.size(); i++) {
+        final Pair<SATSolver, Tristate> res = completion.take().get();
+        if (this.winner == null && res.second() != UNDEF) {
+          this.winner = res.first();
+          this.result = res.second();
+          canceled.set(true);
+        }
+      }
+    } catch (final InterruptedException e) {
+      canceled.set(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("The portfolio was interrupted while solving", e);
+    } catch (final ExecutionException e) {
+      canceled.set(true);
+      throw new IllegalStateException("A solver of the portfolio failed", e.getCause());
+    } finally {
+      executor.shutdown();
+    }
+    if (handler != null)
+      handler.finishedSolving();
+    return this.result;
+  }
+
+  @Override
+  public void reset() {
+    for (final SATSolver solver : this.solvers)
+      solver.reset();
+    this.states.clear();
+    this.winner = null;
+    this.result = UNDEF;
+  }
+
+  @Override
+  public Assignment model(final Collection<Variable> variables) {
+    if (this.result == UNDEF)
+      throw new IllegalStateException("Cannot get a model as long as the formula is not solved.  Call 'sat' first.");
+    return this.result == TRUE ? this.winner.model(variables) : null;
+  }
+
+  @Override
+  public List<Assignment> enumerateAllModels(final Collection<Variable> variables) {
+    final List<Assignment> models = new LinkedList<Assignment>();
+    this.push();
+    while (this.sat((SATHandler) null) == TRUE) {
+      final Assignment model = this.model(variables);
+      assert model != null;
+      models.add(model);
+      this.add(model.blockingClause(this.f, variables));
+    }
+    this.pop();
+    return models;
+  }
+
+  @Override
+  public List<Assignment> enumerateAllModels(final Collection<Variable> variables, final ModelEnumerationHandler handler) {
+    final List<Assignment> models = new LinkedList<Assignment>();
+    this.push();
+    boolean proceed = true;
+    while (proceed && this.sat((SATHandler) null) == TRUE) {
+      final Assignment model = this.model(variables);
+      assert model != null;
+      models.add(model);
+      proceed = handler.foundModel(model);
+      this.add(model.blockingClause(this.f, variables));
+    }
+    this.pop();
+    return models;
+  }
+
+  /**
+   * {@inheritDoc}
+   * @throws IllegalStateException if one of the solvers is not in incremental mode
+   */
+  @Override
+  public SolverState saveState() {
+    final List<SolverState> solverStates = new ArrayList<SolverState>(this.solvers.size());
+    for (final SATSolver solver : this.solvers)
+      solverStates.add(solver.saveState());
+    final int id = this.nextStateId++;
+    this.states.put(id, solverStates);
+    return new SolverState(id, new int[0]);
+  }
+
+  @Override
+  public void loadState(final SolverState state) {
+    final List<SolverState> solverStates = this.states.get(state.id());
+    if (solverStates == null)
+      throw new IllegalArgumentException("The given solver state is not valid anymore.");
+    for (int i = 0; i < this.solvers.size(); i++)
+      this.solvers.get(i).loadState(solverStates.get(i));
+    for (final Integer id : new ArrayList<Integer>(this.states.keySet()))
+      if (id > state.id())
+        this.states.remove(id);
+    this.result = UNDEF;
+  }
+
+  @Override
+  public SortedSet<Variable> knownVariables() {
+    return this.solvers.get(0).knownVariables();
+  }
+
+  /**
+   * Returns the sum of the statistics of all solvers of the portfolio.
+   * @return the sum of the statistics of all solvers of the portfolio
+   */
+  @Override
+  public SolverStatistics statistics() {
+    SolverStatistics statistics = SolverStatistics.empty();
+    for (final SATSolver solver : this.solvers)
+      statistics = statistics.add(solver.statistics());
+    return statistics;
+  }
+
+  /**
+   * Returns the solvers of this portfolio.
+   * <p>
+   * ATTENTION: by influencing the solvers directly, you can mess things up completely!  You should really know,
+   * what you are doing.
+   * @return the solvers of this portfolio
+   */
+  public List<SATSolver> solvers() {
+    return Collections.unmodifiableList(this.solvers);
+  }
+
+  /**
+   * Returns the clause exchange of this portfolio or {@code null} if the solvers do not share learnt clauses.
+   * @return the clause exchange of this portfolio
+   */
+  public ClauseExchange exchange() {
+    return this.exchange;
+  }
+
+  /**
+   * Returns the solver which computed the last result or {@code null} if there is none.
+   * @return the solver which computed the last result
+   */
+  public SATSolver winner() {
+    return this.winner;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("SATPortfolio{result=%s, solvers=%d}", this.result, this.solvers.size());
+  }
+
+  /**
+   * The SAT handler for a single solver of the portfolio.  It cancels the solver as soon as another solver has found
+   * a result or the handler of the portfolio cancels the computation.
+   */
+  static final class PortfolioHandler implements SATHandler {
+
+    private final SATHandler handler;
+    private final AtomicBoolean canceled;
+
+    /**
+     * Constructs a new handler.
+     * @param handler  the handler of the portfolio (may be {@code null})
+     * @param canceled the shared cancellation flag
+     */
+    PortfolioHandler(final SATHandler handler, final AtomicBoolean canceled) {
+      this.handler = handler;
+      this.canceled = canceled;
+    }
+
+    @Override
+    public boolean detectedConflict() {
+      if (this.canceled.get())
+        return false;
+      if (this.handler != null) {
+        synchronized (this.handler) {
+          if (!this.handler.detectedConflict()) {
+            this.canceled.set(true);
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public void startedSolving() {
+      // the handler of the portfolio is started by the portfolio itself
+    }
+
+    @Override
+    public void finishedSolving() {
+      // the handler of the portfolio is finished by the portfolio itself
+    }
+  }
+}
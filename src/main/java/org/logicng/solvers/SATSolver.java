@@ -32,6 +32,7 @@ import org.logicng.cardinalityconstraints.CCIncrementalData;
 import org.logicng.collections.ImmutableFormulaList;
 import org.logicng.datastructures.Assignment;
 import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.FType;
 import org.logicng.formulas.Formula;
 import org.logicng.formulas.FormulaFactory;
 import org.logicng.formulas.Literal;
@@ -40,21 +41,42 @@ import org.logicng.formulas.Variable;
 import org.logicng.handlers.ModelEnumerationHandler;
 import org.logicng.handlers.SATHandler;
 import org.logicng.propositions.Proposition;
+import org.logicng.solvers.sat.SolverStatistics;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 
+import static org.logicng.datastructures.Tristate.UNDEF;
+
 /**
  * A generic interface for LogicNG's SAT solvers.
- * @version 1.1
+ * <p>
+ * Besides solver states, all solvers support a stack of scopes via {@link #push()} and {@link #pop()}.  Each scope
+ * is guarded by an activation literal which is assumed in every call of {@code sat} as long as the scope is open.
+ * Popping a scope fixes its activation literal and thereby retracts all formulas added within the scope.
+ * @version 1.2
  * @since 1.0
  */
 public abstract class SATSolver {
 
+  /**
+   * The name prefix of the activation literals of scopes.  Variables with this prefix are reserved for the solver and
+   * never appear in models or projections.
+   */
+  public static final String SCOPE_PREFIX = "@RESERVED_SCOPE_";
+
   protected final FormulaFactory f;
   protected Tristate result;
+  protected final List<Variable> scopes;
+  protected final List<Literal> scopeLiterals;
+  protected int scopeCounter;
 
   /**
    * Constructor.
@@ -62,6 +84,9 @@ public abstract class SATSolver {
    */
   protected SATSolver(final FormulaFactory f) {
     this.f = f;
+    this.scopes = new ArrayList<Variable>();
+    this.scopeLiterals = new ArrayList<Literal>();
+    this.scopeCounter = 0;
   }
 
   /**
@@ -151,7 +176,70 @@ public abstract class SATSolver {
 
 
   /**
-   * Adds a formula which is already in CNF to the solver.
+   * Opens a new scope on the solver.  All formulas added until the matching {@link #pop()} belong to this scope.
+   * Scopes can be nested arbitrarily.
+   */
+  public void push() {
+    final Variable selector = this.f.variable(SCOPE_PREFIX + this.scopeCounter++);
+    this.scopes.add(selector);
+    this.scopeLiterals.add(selector.negate());
+    this.result = UNDEF;
+  }
+
+  /**
+   * Closes the innermost scope and retracts all formulas which were added since the matching {@link #push()}.
+   * <p>
+   * The retracted clauses (and learnt clauses derived from them) are not physically removed but permanently
+   * satisfied by fixing the activation literal of the scope.
+   * @throws IllegalStateException if there is no open scope
+   */
+  public void pop() {
+    if (this.scopes.isEmpty())
+      throw new IllegalStateException("There is no open scope which could be closed.");
+    final Variable selector = this.scopes.remove(this.scopes.size() - 1);
+    this.scopeLiterals.remove(this.scopeLiterals.size() - 1);
+    this.addClause(selector);
+    this.result = UNDEF;
+  }
+
+  /**
+   * Returns the number of currently open scopes.
+   * @return the number of currently open scopes
+   */
+  public int scopeLevel() {
+    return this.scopes.size();
+  }
+
+  /**
+   * Returns the assumptions which activate all currently open scopes, i.e. the negated activation literals.
+   * @return the assumptions of the open scopes
+   */
+  protected List<Literal> scopeAssumptions() {
+    return new ArrayList<Literal>(this.scopeLiterals);
+  }
+
+  /**
+   * Returns {@code true} if the given variable is the activation literal of a (current or former) scope of this
+   * solver, {@code false} otherwise.
+   * @param var the variable
+   * @return {@code true} if the variable is an activation literal of a scope
+   */
+  protected boolean isScopeSelector(final Variable var) {
+    return this.scopeCounter > 0 && var.name().startsWith(SCOPE_PREFIX);
+  }
+
+  /**
+   * Removes all scopes.  Has to be called when the solver is reset.
+   */
+  protected void clearScopes() {
+    this.scopes.clear();
+    this.scopeLiterals.clear();
+    this.scopeCounter = 0;
+  }
+
+  /**
+   * Adds a formula which is already in CNF to the solver.  If a scope is open, each clause is guarded by the
+   * activation literal of the innermost scope.
    * @param formula the formula in CNF
    */
   protected void addClauseSet(final Formula formula) {
@@ -161,11 +249,11 @@ public abstract class SATSolver {
       case FALSE:
       case LITERAL:
       case OR:
-        this.addClause(formula);
+        this.addScopedClause(formula);
         break;
       case AND:
         for (Formula op : formula)
-          this.addClause(op);
+          this.addScopedClause(op);
         break;
       default:
         throw new IllegalArgumentException("Input formula ist not a valid CNF: " + formula);
@@ -173,7 +261,8 @@ public abstract class SATSolver {
   }
 
   /**
-   * Adds a formula which is already in CNF with a given relaxation to the solver.
+   * Adds a formula which is already in CNF with a given relaxation to the solver.  If a scope is open, each clause
+   * is additionally guarded by the activation literal of the innermost scope.
    * @param relaxationVar the relaxation variable
    * @param formula       the formula in CNF
    */
@@ -184,17 +273,43 @@ public abstract class SATSolver {
       case FALSE:
       case LITERAL:
       case OR:
-        this.addClauseWithRelaxation(relaxationVar, formula);
+        this.addScopedClauseWithRelaxation(relaxationVar, formula);
         break;
       case AND:
         for (Formula op : formula)
-          this.addClauseWithRelaxation(relaxationVar, op);
+          this.addScopedClauseWithRelaxation(relaxationVar, op);
         break;
       default:
         throw new IllegalArgumentException("Input formula ist not a valid CNF: " + formula);
     }
   }
 
+  /**
+   * Adds a clause to the solver which is guarded by the innermost scope (if any).
+   * @param clause the clause
+   */
+  private void addScopedClause(final Formula clause) {
+    if (this.scopes.isEmpty())
+      this.addClause(clause);
+    else
+      this.addClauseWithRelaxation(this.scopes.get(this.scopes.size() - 1), clause);
+  }
+
+  /**
+   * Adds a relaxed clause to the solver which is guarded by the innermost scope (if any).
+   * @param relaxationVar the relaxation variable
+   * @param clause        the clause
+   */
+  private void addScopedClauseWithRelaxation(final Variable relaxationVar, final Formula clause) {
+    if (this.scopes.isEmpty())
+      this.addClauseWithRelaxation(relaxationVar, clause);
+    else {
+      final Formula relaxedClause = this.f.or(clause, relaxationVar);
+      if (relaxedClause.type() != FType.TRUE)
+        this.addClauseWithRelaxation(this.scopes.get(this.scopes.size() - 1), relaxedClause);
+    }
+  }
+
   /**
    * Adds a formula which must be a clause to the solver.
    * @param formula the clause
@@ -356,6 +471,49 @@ public abstract class SATSolver {
    */
   public abstract List<Assignment> enumerateAllModels(final Collection<Variable> variables, final ModelEnumerationHandler handler);
 
+  /**
+   * Returns a lazy iterator over all models of the current formula.
+   * @return the model iterator
+   */
+  public ModelIterator modelIterator() {
+    return this.modelIterator(null);
+  }
+
+  /**
+   * Returns a lazy iterator over all models of the current formula wrt. a given set of variables.  If the set is
+   * {@code null}, all variables known by the solver are considered relevant.  Variables which are not known by the
+   * solver are ignored.
+   * <p>
+   * The blocking clauses are added in a new scope (cf. {@link #push()}) which is closed when the iterator is closed.
+   * @param variables the set of variables
+   * @return the model iterator
+   */
+  public ModelIterator modelIterator(final Collection<Variable> variables) {
+    final List<Variable> projection = this.projection(variables);
+    this.push();
+    return new FormulaModelIterator(projection);
+  }
+
+  /**
+   * Returns the relevant variables for a model enumeration in a fixed order.
+   * @param variables the set of variables or {@code null} if all variables are relevant
+   * @return the variables which are known by the solver and no activation literals of scopes (of this solver or
+   * its underlying solvers)
+   */
+  protected List<Variable> projection(final Collection<Variable> variables) {
+    final SortedSet<Variable> known = this.knownVariables();
+    final List<Variable> projection = new ArrayList<Variable>();
+    if (variables == null) {
+      for (final Variable var : known)
+        if (!var.name().startsWith(SCOPE_PREFIX))
+          projection.add(var);
+    } else
+      for (final Variable var : new LinkedHashSet<Variable>(variables))
+        if (known.contains(var))
+          projection.add(var);
+    return projection;
+  }
+
   /**
    * Saves the current solver state.
    * @return the current solver state
@@ -388,4 +546,49 @@ public abstract class SATSolver {
    * @return the set of variables currently known by the solver
    */
   public abstract SortedSet<Variable> knownVariables();
+
+  /**
+   * Returns the statistics of the solver.  The statistics are accumulated over all calls since the creation or the
+   * last reset of the solver.
+   * @return the statistics of the solver
+   */
+  public abstract SolverStatistics statistics();
+
+  /**
+   * A model iterator which works on the formula interface of the solver.
+   */
+  private final class FormulaModelIterator extends ModelIterator {
+
+    private final Map<Variable, Integer> indices;
+
+    /**
+     * Constructs a new model iterator.
+     * @param variables the projection variables
+     */
+    private FormulaModelIterator(final List<Variable> variables) {
+      super(variables);
+      this.indices = new HashMap<Variable, Integer>();
+      for (int i = 0; i < variables.size(); i++)
+        this.indices.put(variables.get(i), i);
+    }
+
+    @Override
+    protected boolean computeNext(final BitSet values) {
+      if (sat((SATHandler) null) != Tristate.TRUE)
+        return false;
+      final Assignment model = model(this.variables);
+      final List<Literal> blockingClause = new ArrayList<Literal>(this.variables.size());
+      for (final Variable var : model.positiveLiterals())
+        values.set(this.indices.get(var));
+      for (int i = 0; i < this.variables.size(); i++)
+        blockingClause.add(values.get(i) ? this.variables.get(i).negate() : this.variables.get(i));
+      add(f.or(blockingClause));
+      return true;
+    }
+
+    @Override
+    protected void restore() {
+      pop();
+    }
+  }
 }
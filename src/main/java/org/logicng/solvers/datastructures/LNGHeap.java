@@ -49,7 +49,7 @@ import org.logicng.solvers.sat.MiniSatStyleSolver;
 
 /**
  * A minimalistic heap implementation.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public final class LNGHeap {
@@ -69,6 +69,17 @@ public final class LNGHeap {
     this.indices = new LNGIntVector(1000);
   }
 
+  /**
+   * Constructs a copy of a given heap for a given solver.
+   * @param solver the solver
+   * @param other  the heap
+   */
+  public LNGHeap(final MiniSatStyleSolver solver, final LNGHeap other) {
+    this.s = solver;
+    this.heap = new LNGIntVector(other.heap);
+    this.indices = new LNGIntVector(other.indices);
+  }
+
   /**
    * Returns the left position on the heap for a given position.
    * @param pos the position
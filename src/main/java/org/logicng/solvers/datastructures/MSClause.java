@@ -50,11 +50,18 @@ import java.util.Comparator;
 
 /**
  * A clause of the SAT solver for MiniSAT-style solvers.
- * @version 1.0.1
+ * @version 1.2
  * @since 1.0
  */
 public class MSClause {
 
+  /**
+   * The tiers of a learnt clause in the three-tier learnt clause database.
+   */
+  public enum Tier {
+    CORE, TIER2, LOCAL
+  }
+
   /**
    * A comparator for clauses based on LBD and activity (used for the Glucose solver).
    */
@@ -95,6 +102,9 @@ public class MSClause {
   private boolean oneWatched;
   private boolean isAtMost;
   private int atMostWatchers;
+  private Tier tier;
+  private boolean used;
+  private int stamp;
 
   /**
    * Constructs a new clause
@@ -123,6 +133,29 @@ public class MSClause {
     this.oneWatched = false;
     this.isAtMost = isAtMost;
     this.atMostWatchers = -1;
+    this.tier = Tier.LOCAL;
+    this.used = false;
+    this.stamp = 0;
+  }
+
+  /**
+   * Constructs a copy of a given clause.
+   * @param other the clause
+   */
+  public MSClause(final MSClause other) {
+    this.data = new LNGIntVector(other.data);
+    this.activity = other.activity;
+    this.learnt = other.learnt;
+    this.szWithoutSelectors = other.szWithoutSelectors;
+    this.seen = other.seen;
+    this.lbd = other.lbd;
+    this.canBeDel = other.canBeDel;
+    this.oneWatched = other.oneWatched;
+    this.isAtMost = other.isAtMost;
+    this.atMostWatchers = other.atMostWatchers;
+    this.tier = other.tier;
+    this.used = other.used;
+    this.stamp = other.stamp;
   }
 
   /**
@@ -288,6 +321,55 @@ public class MSClause {
     this.atMostWatchers = atMostWatchers;
   }
 
+  /**
+   * Returns the tier of this learnt clause.
+   * @return the tier of this learnt clause
+   */
+  public Tier tier() {
+    return this.tier;
+  }
+
+  /**
+   * Sets the tier of this learnt clause.
+   * @param tier the tier
+   */
+  public void setTier(final Tier tier) {
+    this.tier = tier;
+  }
+
+  /**
+   * Returns {@code true} if this clause was used in a conflict analysis since the last reduction, {@code false}
+   * otherwise.
+   * @return {@code true} if this clause was used recently
+   */
+  public boolean used() {
+    return this.used;
+  }
+
+  /**
+   * Sets whether this clause was used in a conflict analysis since the last reduction.
+   * @param used {@code true} if it was used, {@code false} otherwise
+   */
+  public void setUsed(boolean used) {
+    this.used = used;
+  }
+
+  /**
+   * Returns the creation stamp of this learnt clause.
+   * @return the creation stamp of this learnt clause
+   */
+  public int stamp() {
+    return this.stamp;
+  }
+
+  /**
+   * Sets the creation stamp of this learnt clause.  Learnt clauses with a larger stamp were learnt later.
+   * @param stamp the creation stamp
+   */
+  public void setStamp(int stamp) {
+    this.stamp = stamp;
+  }
+
   /**
    * Pops (removes) the last literal of this clause.
    */
@@ -0,0 +1,348 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.datastructures;
+
+import org.logicng.collections.LNGIntVector;
+
+import java.util.Arrays;
+
+import static org.logicng.solvers.sat.MiniSatStyleSolver.LIT_UNDEF;
+
+/**
+ * A compact store for the weighted clauses of a MaxSAT formula.
+ * <p>
+ * The literals of all clauses are kept in a single array, the clause with index {@code i} spans the literals from
+ * {@code starts[i]} to {@code starts[i + 1]}.  The weights are kept in a {@code long} array, the levels, assumption
+ * variables, and relaxation literals in {@code int} arrays.  The latter arrays are only allocated once the first value
+ * is set.  A clause usually has at most one relaxation literal, further relaxation literals are chained in a second
+ * pair of arrays.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class MSClauseStore {
+
+  private int[] literals;
+  private int nbLiterals;
+  private int[] starts;
+  private long[] weights;
+  private int[] levels;
+  private int[] assumptionVars;
+  private int[] firstRelaxation;
+  private int[] lastRelaxation;
+  private int[] relaxationLits;
+  private int[] nextRelaxation;
+  private int nbRelaxationLits;
+  private int size;
+
+  /**
+   * Constructs a new empty clause store.
+   */
+  public MSClauseStore() {
+    this(16);
+  }
+
+  /**
+   * Constructs a new empty clause store with a given capacity.
+   * @param capacity the initial number of clauses which can be stored without growing the arrays
+   */
+  public MSClauseStore(int capacity) {
+    final int cap = Math.max(capacity, 1);
+    this.literals = new int[2 * cap];
+    this.nbLiterals = 0;
+    this.starts = new int[cap + 1];
+    this.weights = new long[cap];
+    this.levels = null;
+    this.assumptionVars = null;
+    this.firstRelaxation = null;
+    this.lastRelaxation = null;
+    this.relaxationLits = null;
+    this.nextRelaxation = null;
+    this.nbRelaxationLits = 0;
+    this.size = 0;
+  }
+
+  /**
+   * Returns the number of clauses in this store.
+   * @return the number of clauses
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the number of literals of all clauses in this store.
+   * @return the number of literals
+   */
+  public int nbLiterals() {
+    return this.nbLiterals;
+  }
+
+  /**
+   * Adds a new clause.  The clause has level 0, no assumption variable, and no relaxation literals.
+   * @param lits   the literals of the clause
+   * @param weight the weight of the clause
+   * @return the index of the new clause
+   */
+  public int add(final LNGIntVector lits, long weight) {
+    if (this.size + 1 == this.starts.length)
+      this.grow(2 * this.size);
+    if (this.nbLiterals + lits.size() > this.literals.length)
+      this.literals = Arrays.copyOf(this.literals, Math.max(this.nbLiterals + lits.size(), 2 * this.literals.length));
+    for (int i = 0; i < lits.size(); i++)
+      this.literals[this.nbLiterals++] = lits.get(i);
+    this.weights[this.size] = weight;
+    if (this.levels != null)
+      this.levels[this.size] = 0;
+    if (this.assumptionVars != null)
+      this.assumptionVars[this.size] = LIT_UNDEF;
+    if (this.firstRelaxation != null) {
+      this.firstRelaxation[this.size] = -1;
+      this.lastRelaxation[this.size] = -1;
+    }
+    this.size++;
+    this.starts[this.size] = this.nbLiterals;
+    return this.size - 1;
+  }
+
+  /**
+   * Returns the number of literals of a clause.
+   * @param index the index of the clause
+   * @return the number of literals
+   */
+  public int clauseSize(int index) {
+    return this.starts[index + 1] - this.starts[index];
+  }
+
+  /**
+   * Returns a literal of a clause.
+   * @param index    the index of the clause
+   * @param position the position of the literal in the clause
+   * @return the literal
+   */
+  public int literal(int index, int position) {
+    return this.literals[this.starts[index] + position];
+  }
+
+  /**
+   * Returns the literals of a clause as a new vector.
+   * @param index the index of the clause
+   * @return the literals of the clause
+   */
+  public LNGIntVector clause(int index) {
+    final LNGIntVector clause = new LNGIntVector(this.clauseSize(index));
+    for (int i = this.starts[index]; i < this.starts[index + 1]; i++)
+      clause.unsafePush(this.literals[i]);
+    return clause;
+  }
+
+  /**
+   * Returns the literals of a clause followed by its relaxation literals as a new vector.
+   * @param index the index of the clause
+   * @return the relaxed clause
+   */
+  public LNGIntVector relaxedClause(int index) {
+    final LNGIntVector clause = this.clause(index);
+    if (this.firstRelaxation != null)
+      for (int k = this.firstRelaxation[index]; k != -1; k = this.nextRelaxation[k])
+        clause.push(this.relaxationLits[k]);
+    return clause;
+  }
+
+  /**
+   * Returns the weight of a clause.
+   * @param index the index of the clause
+   * @return the weight
+   */
+  public long weight(int index) {
+    return this.weights[index];
+  }
+
+  /**
+   * Sets the weight of a clause.
+   * @param index  the index of the clause
+   * @param weight the weight
+   */
+  public void setWeight(int index, long weight) {
+    this.weights[index] = weight;
+  }
+
+  /**
+   * Returns the level of a clause for lexicographic optimization.  Level 0 is the most important level.
+   * @param index the index of the clause
+   * @return the level
+   */
+  public int level(int index) {
+    return this.levels == null ? 0 : this.levels[index];
+  }
+
+  /**
+   * Sets the level of a clause for lexicographic optimization.
+   * @param index the index of the clause
+   * @param level the level
+   */
+  public void setLevel(int index, int level) {
+    if (this.levels == null) {
+      if (level == 0)
+        return;
+      this.levels = new int[this.weights.length];
+    }
+    this.levels[index] = level;
+  }
+
+  /**
+   * Returns the assumption variable of a clause.
+   * @param index the index of the clause
+   * @return the assumption variable or {@code LIT_UNDEF} if the clause has none
+   */
+  public int assumptionVar(int index) {
+    return this.assumptionVars == null ? LIT_UNDEF : this.assumptionVars[index];
+  }
+
+  /**
+   * Sets the assumption variable of a clause.
+   * @param index         the index of the clause
+   * @param assumptionVar the assumption variable
+   */
+  public void setAssumptionVar(int index, int assumptionVar) {
+    if (this.assumptionVars == null) {
+      this.assumptionVars = new int[this.weights.length];
+      Arrays.fill(this.assumptionVars, LIT_UNDEF);
+    }
+    this.assumptionVars[index] = assumptionVar;
+  }
+
+  /**
+   * Returns the first relaxation literal of a clause.
+   * @param index the index of the clause
+   * @return the first relaxation literal or {@code LIT_UNDEF} if the clause has none
+   */
+  public int relaxationVar(int index) {
+    if (this.firstRelaxation == null || this.firstRelaxation[index] == -1)
+      return LIT_UNDEF;
+    return this.relaxationLits[this.firstRelaxation[index]];
+  }
+
+  /**
+   * Returns the last relaxation literal of a clause.
+   * @param index the index of the clause
+   * @return the last relaxation literal or {@code LIT_UNDEF} if the clause has none
+   */
+  public int lastRelaxationVar(int index) {
+    if (this.lastRelaxation == null || this.lastRelaxation[index] == -1)
+      return LIT_UNDEF;
+    return this.relaxationLits[this.lastRelaxation[index]];
+  }
+
+  /**
+   * Returns the relaxation literals of a clause as a new vector.
+   * @param index the index of the clause
+   * @return the relaxation literals
+   */
+  public LNGIntVector relaxationVars(int index) {
+    final LNGIntVector vars = new LNGIntVector();
+    if (this.firstRelaxation == null)
+      return vars;
+    for (int k = this.firstRelaxation[index]; k != -1; k = this.nextRelaxation[k])
+      vars.push(this.relaxationLits[k]);
+    return vars;
+  }
+
+  /**
+   * Adds a relaxation literal to a clause.
+   * @param index the index of the clause
+   * @param lit   the relaxation literal
+   */
+  public void addRelaxationVar(int index, int lit) {
+    if (this.firstRelaxation == null) {
+      this.firstRelaxation = new int[this.weights.length];
+      this.lastRelaxation = new int[this.weights.length];
+      Arrays.fill(this.firstRelaxation, -1);
+      Arrays.fill(this.lastRelaxation, -1);
+      this.relaxationLits = new int[this.weights.length];
+      this.nextRelaxation = new int[this.weights.length];
+    }
+    if (this.nbRelaxationLits == this.relaxationLits.length) {
+      this.relaxationLits = Arrays.copyOf(this.relaxationLits, 2 * this.nbRelaxationLits);
+      this.nextRelaxation = Arrays.copyOf(this.nextRelaxation, 2 * this.nbRelaxationLits);
+    }
+    final int node = this.nbRelaxationLits++;
+    this.relaxationLits[node] = lit;
+    this.nextRelaxation[node] = -1;
+    if (this.lastRelaxation[index] == -1)
+      this.firstRelaxation[index] = node;
+    else
+      this.nextRelaxation[this.lastRelaxation[index]] = node;
+    this.lastRelaxation[index] = node;
+  }
+
+  /**
+   * Grows the arrays of the clauses to a new capacity.
+   * @param capacity the new capacity
+   */
+  private void grow(int capacity) {
+    final int oldCapacity = this.weights.length;
+    this.starts = Arrays.copyOf(this.starts, capacity + 1);
+    this.weights = Arrays.copyOf(this.weights, capacity);
+    if (this.levels != null)
+      this.levels = Arrays.copyOf(this.levels, capacity);
+    if (this.assumptionVars != null) {
+      this.assumptionVars = Arrays.copyOf(this.assumptionVars, capacity);
+      Arrays.fill(this.assumptionVars, oldCapacity, capacity, LIT_UNDEF);
+    }
+    if (this.firstRelaxation != null) {
+      this.firstRelaxation = Arrays.copyOf(this.firstRelaxation, capacity);
+      this.lastRelaxation = Arrays.copyOf(this.lastRelaxation, capacity);
+      Arrays.fill(this.firstRelaxation, oldCapacity, capacity, -1);
+      Arrays.fill(this.lastRelaxation, oldCapacity, capacity, -1);
+    }
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("MSClauseStore{");
+    for (int i = 0; i < this.size; i++) {
+      sb.append(String.format("weight=%d, assumption=%d lits=[", this.weights[i], this.assumptionVar(i)));
+      appendLiterals(sb, this.clause(i));
+      sb.append("] relax[");
+      appendLiterals(sb, this.relaxationVars(i));
+      sb.append(i != this.size - 1 ? "]; " : "]");
+    }
+    sb.append("}");
+    return sb.toString();
+  }
+
+  private static void appendLiterals(final StringBuilder sb, final LNGIntVector lits) {
+    for (int i = 0; i < lits.size(); i++) {
+      final int lit = lits.get(i);
+      sb.append((lit & 1) == 1 ? "-" : "").append(lit >> 1);
+      if (i != lits.size() - 1)
+        sb.append(", ");
+    }
+  }
+}
@@ -50,7 +50,7 @@ import java.util.Locale;
 
 /**
  * A variable of the SAT solver for MiniSAT-style solvers.
- * @version 1.0
+ * @version 1.2
  * @since 1.0
  */
 public class MSVariable {
@@ -74,6 +74,19 @@ public class MSVariable {
     this.decision = false;
   }
 
+  /**
+   * Constructs a copy of a given variable.  The reason of the copy is the reason of the given variable.
+   * @param other the variable
+   */
+  public MSVariable(final MSVariable other) {
+    this.assignment = other.assignment;
+    this.level = other.level;
+    this.reason = other.reason;
+    this.activity = other.activity;
+    this.polarity = other.polarity;
+    this.decision = other.decision;
+  }
+
   /**
    * Sets the decision level of this variable.
    * @param level the decision level
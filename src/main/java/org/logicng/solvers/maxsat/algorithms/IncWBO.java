@@ -148,12 +148,10 @@ public final class IncWBO extends WBO {
     LNGIntVector clause;
     nbCurrentSoft = 0;
     for (int i = 0; i < nSoft(); i++) {
-      if (softClauses.get(i).weight() >= currentWeight && softClauses.get(i).weight() != 0) {
+      if (softClauses.weight(i) >= currentWeight && softClauses.weight(i) != 0) {
         nbCurrentSoft++;
-        clause = new LNGIntVector(softClauses.get(i).clause());
-        for (int j = 0; j < softClauses.get(i).relaxationVars().size(); j++)
-          clause.push(softClauses.get(i).relaxationVars().get(j));
-        clause.push(softClauses.get(i).assumptionVar());
+        clause = softClauses.relaxedClause(i);
+        clause.push(softClauses.assumptionVar(i));
         solver.addClause(clause);
       }
     }
@@ -165,9 +163,9 @@ public final class IncWBO extends WBO {
     LNGIntVector lits = new LNGIntVector();
     for (int i = 0; i < conflict.size(); i++) {
       int indexSoft = coreMapping.get(conflict.get(i));
-      if (softClauses.get(indexSoft).weight() == weightCore) {
-        LNGIntVector clause = new LNGIntVector(softClauses.get(indexSoft).clause());
-        LNGIntVector vars = new LNGIntVector(softClauses.get(indexSoft).relaxationVars());
+      if (softClauses.weight(indexSoft) == weightCore) {
+        LNGIntVector clause = softClauses.clause(indexSoft);
+        LNGIntVector vars = softClauses.relaxationVars(indexSoft);
         final int p = newLiteral(false);
         newSATVariable(solver);
         vars.push(p);
@@ -175,7 +173,7 @@ public final class IncWBO extends WBO {
         addSoftClause(weightCore, clause, vars);
         final int l = newLiteral(false);
         newSATVariable(solver);
-        softClauses.get(nSoft() - 1).setAssumptionVar(l);
+        softClauses.setAssumptionVar(nSoft() - 1, l);
         coreMapping.put(l, nSoft() - 1);
         this.incSoft.set(indexSoft, true);
         this.incSoft.push(false);
@@ -184,7 +182,7 @@ public final class IncWBO extends WBO {
         clause.push(l);
         solver.addClause(clause);
         clause.clear();
-        clause.push(softClauses.get(indexSoft).assumptionVar());
+        clause.push(softClauses.assumptionVar(indexSoft));
         solver.addClause(clause);
         if (symmetryStrategy) {
           softMapping.push(new LNGIntVector(softMapping.get(indexSoft)));
@@ -194,11 +192,11 @@ public final class IncWBO extends WBO {
           symmetryLog(nSoft() - 1);
         }
       } else {
-        assert softClauses.get(indexSoft).weight() - weightCore > 0;
-        softClauses.get(indexSoft).setWeight(softClauses.get(indexSoft).weight() - weightCore);
-        LNGIntVector clause = new LNGIntVector(softClauses.get(indexSoft).clause());
-        LNGIntVector vars = new LNGIntVector(softClauses.get(indexSoft).relaxationVars());
-        addSoftClause(softClauses.get(indexSoft).weight(), clause, vars);
+        assert softClauses.weight(indexSoft) - weightCore > 0;
+        softClauses.setWeight(indexSoft, softClauses.weight(indexSoft) - weightCore);
+        LNGIntVector clause = softClauses.clause(indexSoft);
+        LNGIntVector vars = softClauses.relaxationVars(indexSoft);
+        addSoftClause((int) softClauses.weight(indexSoft), clause, vars);
         if (symmetryStrategy) {
           softMapping.push(new LNGIntVector(softMapping.get(indexSoft)));
           softMapping.get(indexSoft).clear();
@@ -208,7 +206,7 @@ public final class IncWBO extends WBO {
         this.incSoft.set(indexSoft, true);
         int l = newLiteral(false);
         newSATVariable(solver);
-        softClauses.get(nSoft() - 1).setAssumptionVar(l);
+        softClauses.setAssumptionVar(nSoft() - 1, l);
         coreMapping.put(l, nSoft() - 1);
         this.incSoft.push(false);
         for (int j = 0; j < vars.size(); j++)
@@ -217,8 +215,8 @@ public final class IncWBO extends WBO {
         solver.addClause(clause);
         clause.clear();
         vars.clear();
-        clause = new LNGIntVector(softClauses.get(indexSoft).clause());
-        vars = new LNGIntVector(softClauses.get(indexSoft).relaxationVars());
+        clause = softClauses.clause(indexSoft);
+        vars = softClauses.relaxationVars(indexSoft);
         l = newLiteral(false);
         newSATVariable(solver);
         vars.push(l);
@@ -226,7 +224,7 @@ public final class IncWBO extends WBO {
         addSoftClause(weightCore, clause, vars);
         l = newLiteral(false);
         newSATVariable(solver);
-        softClauses.get(nSoft() - 1).setAssumptionVar(l);
+        softClauses.setAssumptionVar(nSoft() - 1, l);
         coreMapping.put(l, nSoft() - 1);
         this.incSoft.push(false);
         for (int j = 0; j < vars.size(); j++)
@@ -234,7 +232,7 @@ public final class IncWBO extends WBO {
         clause.push(l);
         solver.addClause(clause);
         clause.clear();
-        clause.push(softClauses.get(indexSoft).assumptionVar());
+        clause.push(softClauses.assumptionVar(indexSoft));
         solver.addClause(clause);
         if (symmetryStrategy) {
           softMapping.push(new LNGIntVector());
@@ -323,20 +321,21 @@ public final class IncWBO extends WBO {
       assumptions.clear();
       for (int i = 0; i < this.incSoft.size(); i++)
         if (!this.incSoft.get(i))
-          assumptions.push(not(softClauses.get(i).assumptionVar()));
-      final Tristate res = searchSATSolver(solver, satHandler(), assumptions);
+          assumptions.push(not(softClauses.assumptionVar(i)));
+      final Tristate res = searchWithHints(solver, satHandler(), assumptions);
       if (res == UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == FALSE) {
         nbCores++;
-        assert solver.conflict().size() > 0;
-        int coreCost = computeCostCore(solver.conflict());
+        final LNGIntVector core = reduceCore(solver);
+        assert core.size() > 0;
+        int coreCost = computeCostCore(core);
         lbCost += coreCost;
         if (verbosity != Verbosity.NONE)
-          this.output.println(String.format("c LB : %d CS : %d W : %d", lbCost, solver.conflict().size(), coreCost));
+          this.output.println(String.format("c LB : %d CS : %d W : %d", lbCost, core.size(), coreCost));
         if (!foundLowerBound(lbCost, null))
           return MaxSATResult.UNDEF;
-        this.relaxCore(solver.conflict(), coreCost);
+        this.relaxCore(core, coreCost);
         this.incrementalBuildWeightSolver(weightStrategy);
       } else {
         nbSatisfiable++;
@@ -353,7 +352,7 @@ public final class IncWBO extends WBO {
           return MaxSATResult.OPTIMUM;
         } else {
           updateCurrentWeight(weightStrategy);
-          int cost = this.incComputeCostModel(solver.model());
+          long cost = this.incComputeCostModel(solver.model());
           if (cost < ubCost) {
             ubCost = cost;
             saveModel(solver.model());
@@ -372,25 +371,25 @@ public final class IncWBO extends WBO {
     }
   }
 
-  private int incComputeCostModel(final LNGBooleanVector currentModel) {
+  private long incComputeCostModel(final LNGBooleanVector currentModel) {
     assert currentModel.size() != 0;
-    int currentCost = 0;
+    long currentCost = 0;
     for (int i = 0; i < nSoft(); i++) {
       boolean unsatisfied = true;
-      for (int j = 0; j < softClauses.get(i).clause().size(); j++) {
+      for (int j = 0; j < softClauses.clauseSize(i); j++) {
         if (this.incSoft.get(i)) {
           unsatisfied = false;
           continue;
         }
-        assert var(softClauses.get(i).clause().get(j)) < currentModel.size();
-        if ((sign(softClauses.get(i).clause().get(j)) && !currentModel.get(var(softClauses.get(i).clause().get(j)))) ||
-                (!sign(softClauses.get(i).clause().get(j)) && currentModel.get(var(softClauses.get(i).clause().get(j))))) {
+        assert var(softClauses.literal(i, j)) < currentModel.size();
+        if ((sign(softClauses.literal(i, j)) && !currentModel.get(var(softClauses.literal(i, j)))) ||
+                (!sign(softClauses.literal(i, j)) && currentModel.get(var(softClauses.literal(i, j))))) {
           unsatisfied = false;
           break;
         }
       }
       if (unsatisfied)
-        currentCost += softClauses.get(i).weight();
+        currentCost += softClauses.weight(i);
     }
     return currentCost;
   }
@@ -408,17 +407,18 @@ public final class IncWBO extends WBO {
       assumptions.clear();
       for (int i = 0; i < this.incSoft.size(); i++)
         if (!this.incSoft.get(i))
-          assumptions.push(not(softClauses.get(i).assumptionVar()));
-      final Tristate res = searchSATSolver(solver, satHandler(), assumptions);
+          assumptions.push(not(softClauses.assumptionVar(i)));
+      final Tristate res = searchWithHints(solver, satHandler(), assumptions);
       if (res == UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == FALSE) {
         nbCores++;
-        assert solver.conflict().size() > 0;
-        int coreCost = computeCostCore(solver.conflict());
+        final LNGIntVector core = reduceCore(solver);
+        assert core.size() > 0;
+        int coreCost = computeCostCore(core);
         lbCost += coreCost;
         if (verbosity != Verbosity.NONE)
-          this.output.println(String.format("c LB : %d CS : %d W : %d", lbCost, solver.conflict().size(), coreCost));
+          this.output.println(String.format("c LB : %d CS : %d W : %d", lbCost, core.size(), coreCost));
         if (lbCost == ubCost) {
           if (verbosity != Verbosity.NONE)
             this.output.println("c LB = UB");
@@ -426,7 +426,7 @@ public final class IncWBO extends WBO {
         }
         if (!foundLowerBound(lbCost, null))
           return MaxSATResult.UNDEF;
-        this.relaxCore(solver.conflict(), coreCost);
+        this.relaxCore(core, coreCost);
       } else {
         nbSatisfiable++;
         ubCost = this.incComputeCostModel(solver.model());
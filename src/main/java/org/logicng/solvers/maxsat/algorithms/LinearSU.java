@@ -53,24 +53,40 @@ import org.logicng.collections.LNGBooleanVector;
 import org.logicng.collections.LNGIntVector;
 import org.logicng.collections.LNGVector;
 import org.logicng.datastructures.Tristate;
-import org.logicng.solvers.datastructures.MSSoftClause;
 import org.logicng.solvers.maxsat.encodings.Encoder;
 import org.logicng.solvers.sat.MiniSatStyleSolver;
 
 import java.io.PrintStream;
 
 import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.CardinalityEncoding;
+import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.IncrementalStrategy;
+import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.PBEncoding;
 import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.Verbosity;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.not;
 
 /**
  * Linear search solver with Boolean Multilevel Optimization (BMO)
- * @version 1.0
+ * <p>
+ * With the iterative incremental strategy, the BMO search keeps a single SAT solver for all levels.  The bound of the
+ * current level is given by assumptions on an iterative totalizer and the optimum of a finished level is fixed by unit
+ * clauses.  Otherwise, the solver is rebuilt for each level.
+ * <p>
+ * Lexicographic problems with explicit levels are always solved on a single SAT solver.  The optimum of each level is
+ * fixed by a cardinality or pseudo-Boolean constraint before the next level is optimized, so the learned clauses of
+ * all levels are kept.  The pseudo-Boolean constraint of a level is encoded once by an adder and only its bound is
+ * updated.  The upper bounds reported to the handler during a lexicographic search are the costs of the current
+ * level, since the total cost of the models may increase from one level to the next.
+ * <p>
+ * If the sum of the weights of the soft clauses exceeds the integer range, the pseudo-Boolean constraints of the
+ * weighted search are encoded by the adder encoding instead of the configured encoding.
+ * @version 1.2
  * @since 1.0
  */
 public final class LinearSU extends MaxSAT {
 
   private MiniSatStyleSolver solver;
   private Encoder encoder;
+  private IncrementalStrategy incrementalStrategy;
   private boolean bmoMode;  // Enables BMO mode.
   private LNGIntVector objFunction; // Literals to be used in the constraint that excludes models.
   private LNGIntVector coeffs; // Coefficients of the literals that are used in the constraint that excludes models.
@@ -78,10 +94,10 @@ public final class LinearSU extends MaxSAT {
   private PrintStream output;
 
   /**
-   * Constructs a new solver with default values.
+   * Constructs a new solver with default values.  The default values use the iterative incremental strategy.
    */
   public LinearSU() {
-    this(new MaxSATConfig.Builder().cardinality(CardinalityEncoding.MTOTALIZER).build());
+    this(new MaxSATConfig.Builder().cardinality(CardinalityEncoding.MTOTALIZER).incremental(IncrementalStrategy.ITERATIVE).build());
   }
 
   /**
@@ -94,6 +110,7 @@ public final class LinearSU extends MaxSAT {
     this.encoder = new Encoder(config.cardinalityEncoding);
     this.encoder.setPBEncoding(config.pbEncoding);
     this.verbosity = config.verbosity;
+    this.incrementalStrategy = config.incrementalStrategy;
     this.bmoMode = config.bmo;
     this.isBmo = false;
     this.objFunction = new LNGIntVector();
@@ -103,6 +120,8 @@ public final class LinearSU extends MaxSAT {
 
   @Override
   public MaxSATResult search() {
+    if (nbLevels > 1)
+      return this.lexicographicSearch();
     nbInitialVariables = nVars();
     if (currentWeight == 1)
       problemType = ProblemType.UNWEIGHTED;
@@ -110,13 +129,72 @@ public final class LinearSU extends MaxSAT {
       this.isBmo = isBMO(true);
     if (problemType == ProblemType.WEIGHTED) {
       if (this.bmoMode && this.isBmo)
-        return this.bmoSearch();
+        return this.incrementalStrategy == IncrementalStrategy.ITERATIVE ? this.incrementalBMOSearch() : this.bmoSearch();
       else
         return this.normalSearch();
     } else
       return this.normalSearch();
   }
 
+  @Override
+  public boolean supportsLexicographic() {
+    return true;
+  }
+
+  /**
+   * The lexicographic MaxSAT solving method.  The levels of the soft clauses are optimized one after another, starting
+   * with level 0, and the optimum of each level is fixed before the next level is optimized.  Each model reports the
+   * cost of the current level as upper bound.
+   * @return the result of the solving process
+   */
+  private MaxSATResult lexicographicSearch() {
+    nbInitialVariables = nVars();
+    this.initRelaxation();
+    this.solver = this.rebuildSolver(1);
+    this.levelCosts.clear();
+    for (int level = 0; level < nbLevels; level++) {
+      this.initLexicographicLevel(level);
+      final int levelWeight = this.uniformWeight();
+      final Encoder levelEncoder = this.newLevelEncoder();
+      final LNGIntVector assumptions = new LNGIntVector();
+      long levelCost = -1;
+      while (true) {
+        final Tristate res = searchWithHints(this.solver, satHandler(), assumptions);
+        if (res == Tristate.UNDEF)
+          return MaxSATResult.UNDEF;
+        if (res == Tristate.TRUE) {
+          nbSatisfiable++;
+          saveModel(this.solver.model());
+          levelCost = computeLevelCost(this.solver.model(), level);
+          ubCost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
+          if (verbosity != Verbosity.NONE)
+            this.output.println(String.format("c Level %d : %d", level, levelCost));
+          if (!foundUpperBound(levelCost, null))
+            return MaxSATResult.UNDEF;
+          if (levelCost == 0)
+            break;
+          if (levelWeight != -1)
+            this.boundLevel(levelEncoder, (int) (levelCost / levelWeight - 1), assumptions);
+          else
+            this.boundLevelPB(levelEncoder, levelCost - 1, assumptions);
+        } else {
+          nbCores++;
+          if (levelCost == -1) {
+            assert level == 0 && nbSatisfiable == 0;
+            return MaxSATResult.UNSATISFIABLE;
+          }
+          break;
+        }
+      }
+      if (levelWeight != -1)
+        this.fixLevel(levelEncoder, (int) (levelCost / levelWeight));
+      else
+        this.fixLevelPB(levelEncoder, levelCost);
+      this.levelCosts.push(levelCost);
+    }
+    return MaxSATResult.OPTIMUM;
+  }
+
   private MaxSATResult bmoSearch() {
     assert orderWeights.size() > 0;
     Tristate res;
@@ -127,20 +205,21 @@ public final class LinearSU extends MaxSAT {
     LNGVector<LNGIntVector> functions = new LNGVector<LNGIntVector>();
     LNGIntVector weights = new LNGIntVector();
     this.solver = this.rebuildBMO(functions, weights, currentWeight);
-    int localCost = 0;
-    ubCost = 0;
+    long localCost = 0;
     while (true) {
-      res = searchSATSolver(this.solver, satHandler());
+      res = searchWithHints(this.solver, satHandler());
       if (res == Tristate.UNDEF)
         return MaxSATResult.UNDEF;
       if (res == Tristate.TRUE) {
         nbSatisfiable++;
-        int newCost = computeCostModel(this.solver.model(), currentWeight);
+        long newCost = computeLongCostModel(this.solver.model(), currentWeight);
         if (currentWeight == minWeight) {
-          saveModel(this.solver.model());
+          if (model.empty() || newCost + lbCost < ubCost) {
+            saveModel(this.solver.model());
+            ubCost = newCost + lbCost;
+          }
           if (verbosity != Verbosity.NONE)
-            this.output.println("o " + (newCost + lbCost));
-          ubCost = newCost + lbCost;
+            this.output.println("o " + ubCost);
           if (newCost > 0 && !foundUpperBound(ubCost, null))
             return MaxSATResult.UNDEF;
         } else if (verbosity != Verbosity.NONE)
@@ -151,7 +230,7 @@ public final class LinearSU extends MaxSAT {
           if (newCost == 0) {
             functions.push(new LNGIntVector(this.objFunction));
             localCost = newCost;
-            weights.push(localCost / currentWeight);
+            weights.push((int) (localCost / currentWeight));
             posWeight++;
             currentWeight = orderWeights.get(posWeight);
             localCost = 0;
@@ -160,9 +239,9 @@ public final class LinearSU extends MaxSAT {
               this.output.println("c LB : " + lbCost);
           } else {
             if (localCost == 0)
-              this.encoder.encodeCardinality(this.solver, this.objFunction, newCost / currentWeight - 1);
+              this.encoder.encodeCardinality(this.solver, this.objFunction, (int) (newCost / currentWeight - 1));
             else
-              this.encoder.updateCardinality(this.solver, newCost / currentWeight - 1);
+              this.encoder.updateCardinality(this.solver, (int) (newCost / currentWeight - 1));
             localCost = newCost;
           }
         }
@@ -176,7 +255,7 @@ public final class LinearSU extends MaxSAT {
             return MaxSATResult.OPTIMUM;
         } else {
           functions.push(new LNGIntVector(this.objFunction));
-          weights.push(localCost / currentWeight);
+          weights.push((int) (localCost / currentWeight));
           lbCost += localCost;
           posWeight++;
           currentWeight = orderWeights.get(posWeight);
@@ -191,18 +270,95 @@ public final class LinearSU extends MaxSAT {
     }
   }
 
+  private MaxSATResult incrementalBMOSearch() {
+    assert orderWeights.size() > 0;
+    Tristate res;
+    this.initRelaxation();
+    int currentWeight = orderWeights.get(0);
+    int minWeight = orderWeights.get(orderWeights.size() - 1);
+    int posWeight = 0;
+    this.solver = this.rebuildSolver(minWeight);
+    this.initLevel(currentWeight);
+    Encoder levelEncoder = this.newLevelEncoder();
+    final LNGIntVector assumptions = new LNGIntVector();
+    long localCost = 0;
+    while (true) {
+      res = searchWithHints(this.solver, satHandler(), assumptions);
+      if (res == Tristate.UNDEF)
+        return MaxSATResult.UNDEF;
+      if (res == Tristate.TRUE) {
+        nbSatisfiable++;
+        long newCost = computeLongCostModel(this.solver.model(), currentWeight);
+        if (currentWeight == minWeight) {
+          if (model.empty() || newCost + lbCost < ubCost) {
+            saveModel(this.solver.model());
+            ubCost = newCost + lbCost;
+          }
+          if (verbosity != Verbosity.NONE)
+            this.output.println("o " + ubCost);
+          if (newCost > 0 && !foundUpperBound(ubCost, null))
+            return MaxSATResult.UNDEF;
+        } else if (verbosity != Verbosity.NONE)
+          this.output.println(String.format("c BMO-UB : %d (Function %d/%d)", newCost, posWeight + 1, orderWeights.size()));
+        if (newCost == 0 && currentWeight == minWeight)
+          return MaxSATResult.OPTIMUM;
+        else if (newCost == 0) {
+          this.fixLevel(levelEncoder, 0);
+          posWeight++;
+          currentWeight = orderWeights.get(posWeight);
+          localCost = 0;
+          this.initLevel(currentWeight);
+          levelEncoder = this.newLevelEncoder();
+          assumptions.clear();
+          if (verbosity != Verbosity.NONE)
+            this.output.println("c LB : " + lbCost);
+        } else {
+          this.boundLevel(levelEncoder, (int) (newCost / currentWeight - 1), assumptions);
+          localCost = newCost;
+        }
+      } else {
+        nbCores++;
+        if (currentWeight == minWeight) {
+          if (model.size() == 0) {
+            assert nbSatisfiable == 0;
+            return MaxSATResult.UNSATISFIABLE;
+          } else
+            return MaxSATResult.OPTIMUM;
+        } else {
+          this.fixLevel(levelEncoder, (int) (localCost / currentWeight));
+          lbCost += localCost;
+          posWeight++;
+          currentWeight = orderWeights.get(posWeight);
+          localCost = 0;
+          this.initLevel(currentWeight);
+          levelEncoder = this.newLevelEncoder();
+          assumptions.clear();
+          if (!foundLowerBound(lbCost, null))
+            return MaxSATResult.UNDEF;
+          if (verbosity != Verbosity.NONE)
+            this.output.println("c LB : " + lbCost);
+        }
+      }
+    }
+  }
+
   private MaxSATResult normalSearch() {
     Tristate res;
+    if (problemType == ProblemType.WEIGHTED && hasLargeCosts())
+      this.encoder.setPBEncoding(PBEncoding.ADDER);
     this.initRelaxation();
     this.solver = this.rebuildSolver(1);
     while (true) {
-      res = searchSATSolver(this.solver, satHandler());
+      res = searchWithHints(this.solver, satHandler());
       if (res == Tristate.UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == Tristate.TRUE) {
         nbSatisfiable++;
-        int newCost = computeCostModel(this.solver.model(), Integer.MAX_VALUE);
-        saveModel(this.solver.model());
+        long newCost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
+        if (model.empty() || newCost < ubCost)
+          saveModel(this.solver.model());
+        else
+          newCost = ubCost;
         if (verbosity != Verbosity.NONE)
           this.output.println("o " + newCost);
         if (newCost == 0) {
@@ -216,13 +372,16 @@ public final class LinearSU extends MaxSAT {
               this.encoder.updatePB(this.solver, newCost - 1);
           } else {
             if (!this.encoder.hasCardEncoding())
-              this.encoder.encodeCardinality(this.solver, this.objFunction, newCost - 1);
+              this.encoder.encodeCardinality(this.solver, this.objFunction, (int) (newCost - 1));
             else
-              this.encoder.updateCardinality(this.solver, newCost - 1);
+              this.encoder.updateCardinality(this.solver, (int) (newCost - 1));
           }
           ubCost = newCost;
           if (!foundUpperBound(ubCost, null))
             return MaxSATResult.UNDEF;
+          final int nbHardenedLits = harden(this.solver, this.objFunction, this.coeffs, newCost - 1).size();
+          if (nbHardenedLits > 0 && verbosity != Verbosity.NONE)
+            this.output.println("c hardened : " + nbHardenedLits);
         }
       } else {
         nbCores++;
@@ -249,11 +408,9 @@ public final class LinearSU extends MaxSAT {
     for (int i = 0; i < nHard(); i++)
       s.addClause(hardClauses.get(i).clause());
     for (int i = 0; i < nSoft(); i++) {
-      if (softClauses.get(i).weight() < minWeight)
+      if (softClauses.weight(i) < minWeight)
         continue;
-      final LNGIntVector clause = new LNGIntVector(softClauses.get(i).clause());
-      for (int j = 0; j < softClauses.get(i).relaxationVars().size(); j++)
-        clause.push(softClauses.get(i).relaxationVars().get(j));
+      final LNGIntVector clause = softClauses.relaxedClause(i);
       s.addClause(clause);
     }
     return s;
@@ -272,9 +429,9 @@ public final class LinearSU extends MaxSAT {
     this.objFunction.clear();
     this.coeffs.clear();
     for (int i = 0; i < nSoft(); i++) {
-      if (softClauses.get(i).weight() == currentWeight) {
-        this.objFunction.push(softClauses.get(i).relaxationVars().get(0));
-        this.coeffs.push(softClauses.get(i).weight());
+      if (softClauses.weight(i) == currentWeight) {
+        this.objFunction.push(softClauses.relaxationVar(i));
+        this.coeffs.push((int) softClauses.weight(i));
       }
     }
     for (int i = 0; i < functions.size(); i++)
@@ -283,14 +440,139 @@ public final class LinearSU extends MaxSAT {
   }
 
   /**
-   * Initializes the relaxation variables by adding a fresh variable to the 'relaxationVars' of each soft clause.
+   * Sets the objective function to the relaxation literals of the soft clauses with the given weight.
+   * @param currentWeight the weight of the current level
+   */
+  private void initLevel(int currentWeight) {
+    this.objFunction.clear();
+    this.coeffs.clear();
+    for (int i = 0; i < nSoft(); i++) {
+      if (softClauses.weight(i) == currentWeight) {
+        this.objFunction.push(softClauses.relaxationVar(i));
+        this.coeffs.push((int) softClauses.weight(i));
+      }
+    }
+  }
+
+  /**
+   * Sets the objective function to the relaxation literals of the soft clauses on the given lexicographic level.
+   * @param level the level
+   */
+  private void initLexicographicLevel(final int level) {
+    this.objFunction.clear();
+    this.coeffs.clear();
+    for (int i = 0; i < nSoft(); i++) {
+      if (softClauses.level(i) == level) {
+        this.objFunction.push(softClauses.relaxationVar(i));
+        this.coeffs.push((int) softClauses.weight(i));
+      }
+    }
+  }
+
+  /**
+   * Returns the weight of the soft clauses of the current objective function if all have the same weight.
+   * @return the common weight or -1 if the weights differ
+   */
+  private int uniformWeight() {
+    if (this.coeffs.empty())
+      return 1;
+    for (int i = 1; i < this.coeffs.size(); i++)
+      if (this.coeffs.get(i) != this.coeffs.get(0))
+        return -1;
+    return this.coeffs.get(0);
+  }
+
+  /**
+   * Bounds the weighted sum of the relaxed soft clauses of the current level by assumptions.  The pseudo-Boolean
+   * constraint is encoded at the first bound of the level, later bounds only replace its right hand side.
+   * @param levelEncoder the encoder of the current level
+   * @param rhs          the new right hand side
+   * @param assumptions  the assumptions which are replaced by the assumptions for the new bound
+   */
+  private void boundLevelPB(final Encoder levelEncoder, long rhs, final LNGIntVector assumptions) {
+    assumptions.clear();
+    if (!levelEncoder.hasPBEncoding())
+      levelEncoder.incEncodePB(this.solver, this.objFunction, this.coeffs, rhs, assumptions, this.objFunction.size());
+    else {
+      levelEncoder.incUpdatePB(this.solver, new LNGIntVector(), new LNGIntVector(), rhs);
+      levelEncoder.incUpdatePBAssumptions(assumptions);
+    }
+  }
+
+  /**
+   * Fixes the optimum of the weighted sum of the relaxed soft clauses of the current level.
+   * @param levelEncoder the encoder of the current level
+   * @param rhs          the optimal weighted sum of the relaxed soft clauses of the current level
+   */
+  private void fixLevelPB(final Encoder levelEncoder, long rhs) {
+    if (rhs == 0) {
+      for (int i = 0; i < this.objFunction.size(); i++)
+        this.solver.addClause(not(this.objFunction.get(i)));
+    } else if (!levelEncoder.hasPBEncoding())
+      levelEncoder.encodePB(this.solver, this.objFunction, this.coeffs, rhs);
+    else
+      levelEncoder.updatePB(this.solver, rhs);
+  }
+
+  /**
+   * Returns a new encoder for the bounds of a single level.  Pseudo-Boolean bounds are encoded by an adder, which
+   * supports decreasing bounds under assumptions.
+   * @return the encoder
+   */
+  private Encoder newLevelEncoder() {
+    final Encoder levelEncoder = new Encoder(CardinalityEncoding.TOTALIZER);
+    levelEncoder.setIncremental(IncrementalStrategy.ITERATIVE);
+    levelEncoder.setPBEncoding(PBEncoding.ADDER);
+    return levelEncoder;
+  }
+
+  /**
+   * Bounds the number of relaxed soft clauses of the current level by assumptions.
+   * @param levelEncoder the encoder of the current level
+   * @param rhs          the new right hand side
+   * @param assumptions  the assumptions which are replaced by the assumptions for the new bound
+   */
+  private void boundLevel(final Encoder levelEncoder, int rhs, final LNGIntVector assumptions) {
+    if (rhs == 0) {
+      assumptions.clear();
+      for (int i = 0; i < this.objFunction.size(); i++)
+        assumptions.push(not(this.objFunction.get(i)));
+      return;
+    }
+    if (!levelEncoder.hasCardEncoding())
+      levelEncoder.buildCardinality(this.solver, this.objFunction, rhs);
+    levelEncoder.incUpdateCardinality(this.solver, new LNGIntVector(), this.objFunction, rhs, assumptions);
+  }
+
+  /**
+   * Fixes the optimum of the current level by unit clauses.  If the bound of the level was only given by assumptions
+   * so far, the cardinality encoding is built first.
+   * @param levelEncoder the encoder of the current level
+   * @param rhs          the optimal number of relaxed soft clauses of the current level
+   */
+  private void fixLevel(final Encoder levelEncoder, int rhs) {
+    if (rhs == 0) {
+      for (int i = 0; i < this.objFunction.size(); i++)
+        this.solver.addClause(not(this.objFunction.get(i)));
+    } else if (rhs < this.objFunction.size()) {
+      if (!levelEncoder.hasCardEncoding())
+        levelEncoder.buildCardinality(this.solver, this.objFunction, rhs);
+      final LNGIntVector units = new LNGIntVector();
+      levelEncoder.incUpdateCardinality(this.solver, new LNGIntVector(), this.objFunction, rhs, units);
+      for (int i = 0; i < units.size(); i++)
+        this.solver.addClause(units.get(i));
+    }
+  }
+
+  /**
+   * Initializes the relaxation variables by adding a relaxation literal to the 'relaxationVars' of each soft clause.
    */
   private void initRelaxation() {
-    for (final MSSoftClause softClause : this.softClauses) {
-      final int l = newLiteral(false);
-      softClause.relaxationVars().push(l);
+    for (int i = 0; i < nSoft(); i++) {
+      final int l = newRelaxationLiteral(i);
+      softClauses.addRelaxationVar(i, l);
       this.objFunction.push(l);
-      this.coeffs.push(softClause.weight());
+      this.coeffs.push((int) softClauses.weight(i));
     }
   }
 
@@ -60,7 +60,10 @@ import static org.logicng.solvers.sat.MiniSatStyleSolver.not;
 
 /**
  * Linear search solver.
- * @version 1.0
+ * <p>
+ * With the iterative incremental strategy, a single SAT solver is used for the whole search and the lower bound is
+ * given by assumptions on the totalizer.  With the non-incremental strategy, the solver is rebuilt after each core.
+ * @version 1.2
  * @since 1.0
  */
 public final class LinearUS extends MaxSAT {
@@ -72,10 +75,10 @@ public final class LinearUS extends MaxSAT {
   private PrintStream output;
 
   /**
-   * Constructs a new solver with default values.
+   * Constructs a new solver with default values.  The default values use the iterative incremental strategy.
    */
   public LinearUS() {
-    this(new MaxSATConfig.Builder().build());
+    this(new MaxSATConfig.Builder().incremental(MaxSATConfig.IncrementalStrategy.ITERATIVE).build());
   }
 
   /**
@@ -116,12 +119,12 @@ public final class LinearUS extends MaxSAT {
     LNGIntVector assumptions = new LNGIntVector();
     this.encoder.setIncremental(MaxSATConfig.IncrementalStrategy.NONE);
     while (true) {
-      res = searchSATSolver(this.solver, satHandler(), assumptions);
+      res = searchWithHints(this.solver, satHandler(), assumptions);
       if (res == Tristate.UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == Tristate.TRUE) {
         nbSatisfiable++;
-        int newCost = computeCostModel(this.solver.model(), Integer.MAX_VALUE);
+        long newCost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
         saveModel(this.solver.model());
         if (verbosity != MaxSATConfig.Verbosity.NONE)
           this.output.println("o " + newCost);
@@ -150,7 +153,7 @@ public final class LinearUS extends MaxSAT {
         } else if (!foundLowerBound(lbCost, null))
           return MaxSATResult.UNDEF;
         this.solver = this.rebuildSolver();
-        this.encoder.encodeCardinality(this.solver, this.objFunction, lbCost);
+        this.encoder.encodeCardinality(this.solver, this.objFunction, (int) lbCost);
       }
     }
   }
@@ -164,12 +167,12 @@ public final class LinearUS extends MaxSAT {
     LNGIntVector assumptions = new LNGIntVector();
     this.encoder.setIncremental(MaxSATConfig.IncrementalStrategy.ITERATIVE);
     while (true) {
-      res = searchSATSolver(this.solver, satHandler(), assumptions);
+      res = searchWithHints(this.solver, satHandler(), assumptions);
       if (res == Tristate.UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == Tristate.TRUE) {
         nbSatisfiable++;
-        int newCost = computeCostModel(this.solver.model(), Integer.MAX_VALUE);
+        long newCost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
         saveModel(this.solver.model());
         if (verbosity != MaxSATConfig.Verbosity.NONE)
           this.output.println("o " + newCost);
@@ -201,9 +204,9 @@ public final class LinearUS extends MaxSAT {
         if (!foundLowerBound(lbCost, null))
           return MaxSATResult.UNDEF;
         if (!this.encoder.hasCardEncoding())
-          this.encoder.buildCardinality(this.solver, this.objFunction, lbCost);
+          this.encoder.buildCardinality(this.solver, this.objFunction, (int) lbCost);
         final LNGIntVector join = new LNGIntVector();
-        this.encoder.incUpdateCardinality(this.solver, join, this.objFunction, lbCost, assumptions);
+        this.encoder.incUpdateCardinality(this.solver, join, this.objFunction, (int) lbCost, assumptions);
       }
     }
   }
@@ -216,9 +219,7 @@ public final class LinearUS extends MaxSAT {
       s.addClause(hardClauses.get(i).clause());
     LNGIntVector clause;
     for (int i = 0; i < nSoft(); i++) {
-      clause = new LNGIntVector(softClauses.get(i).clause());
-      for (int j = 0; j < softClauses.get(i).relaxationVars().size(); j++)
-        clause.push(softClauses.get(i).relaxationVars().get(j));
+      clause = softClauses.relaxedClause(i);
       s.addClause(clause);
     }
     return s;
@@ -226,9 +227,9 @@ public final class LinearUS extends MaxSAT {
 
   private void initRelaxation() {
     for (int i = 0; i < nbSoft; i++) {
-      final int l = newLiteral(false);
-      softClauses.get(i).relaxationVars().push(l);
-      softClauses.get(i).setAssumptionVar(l);
+      final int l = newRelaxationLiteral(i);
+      softClauses.addRelaxationVar(i, l);
+      softClauses.setAssumptionVar(i, l);
       this.objFunction.push(l);
     }
   }
@@ -65,8 +65,12 @@ import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.Verbosity;
 import static org.logicng.solvers.sat.MiniSatStyleSolver.not;
 
 /**
- * Non-incremental MSU3 solver.
- * @version 1.0
+ * MSU3 solver.
+ * <p>
+ * With the iterative incremental strategy, a single SAT solver is used for the whole search and the cardinality
+ * constraint is extended by the relaxation literals of each new core.  With the non-incremental strategy, the solver
+ * is rebuilt after each core.
+ * @version 1.2
  * @since 1.0
  */
 public final class MSU3 extends MaxSAT {
@@ -80,10 +84,10 @@ public final class MSU3 extends MaxSAT {
   private PrintStream output;
 
   /**
-   * Constructs a new solver with default values.
+   * Constructs a new solver with default values.  The default values use the iterative incremental strategy.
    */
   public MSU3() {
-    this(new MaxSATConfig.Builder().build());
+    this(new MaxSATConfig.Builder().incremental(IncrementalStrategy.ITERATIVE).build());
   }
 
   /**
@@ -128,14 +132,14 @@ public final class MSU3 extends MaxSAT {
     this.encoder.setIncremental(IncrementalStrategy.NONE);
     this.activeSoft.growTo(nSoft(), false);
     for (int i = 0; i < nSoft(); i++)
-      this.coreMapping.put(softClauses.get(i).assumptionVar(), i);
+      this.coreMapping.put(softClauses.assumptionVar(i), i);
     while (true) {
-      res = searchSATSolver(this.solver, satHandler(), assumptions);
+      res = searchWithHints(this.solver, satHandler(), assumptions);
       if (res == Tristate.UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == Tristate.TRUE) {
         nbSatisfiable++;
-        int newCost = computeCostModel(this.solver.model(), Integer.MAX_VALUE);
+        long newCost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
         saveModel(this.solver.model());
         if (verbosity != Verbosity.NONE)
           this.output.println("o " + newCost);
@@ -161,23 +165,24 @@ public final class MSU3 extends MaxSAT {
           return MaxSATResult.OPTIMUM;
         } else if (!foundLowerBound(lbCost, null))
           return MaxSATResult.UNDEF;
-        sumSizeCores += this.solver.conflict().size();
-        for (int i = 0; i < this.solver.conflict().size(); i++) {
-          assert !this.activeSoft.get(this.coreMapping.get(this.solver.conflict().get(i)));
-          this.activeSoft.set(this.coreMapping.get(this.solver.conflict().get(i)), true);
+        final LNGIntVector core = reduceCore(this.solver);
+        sumSizeCores += core.size();
+        for (int i = 0; i < core.size(); i++) {
+          assert !this.activeSoft.get(this.coreMapping.get(core.get(i)));
+          this.activeSoft.set(this.coreMapping.get(core.get(i)), true);
         }
         currentObjFunction.clear();
         assumptions.clear();
         for (int i = 0; i < nSoft(); i++) {
           if (this.activeSoft.get(i))
-            currentObjFunction.push(softClauses.get(i).relaxationVars().get(0));
+            currentObjFunction.push(softClauses.relaxationVar(i));
           else
-            assumptions.push(not(softClauses.get(i).assumptionVar()));
+            assumptions.push(not(softClauses.assumptionVar(i)));
         }
         if (verbosity != Verbosity.NONE)
           this.output.println(String.format("c Relaxed soft clauses %d / %d", currentObjFunction.size(), this.objFunction.size()));
         this.solver = this.rebuildSolver();
-        this.encoder.encodeCardinality(this.solver, currentObjFunction, lbCost);
+        this.encoder.encodeCardinality(this.solver, currentObjFunction, (int) lbCost);
       }
     }
   }
@@ -196,14 +201,14 @@ public final class MSU3 extends MaxSAT {
     this.encoder.setIncremental(IncrementalStrategy.ITERATIVE);
     this.activeSoft.growTo(nSoft(), false);
     for (int i = 0; i < nSoft(); i++)
-      this.coreMapping.put(softClauses.get(i).assumptionVar(), i);
+      this.coreMapping.put(softClauses.assumptionVar(i), i);
     while (true) {
-      res = searchSATSolver(this.solver, satHandler(), assumptions);
+      res = searchWithHints(this.solver, satHandler(), assumptions);
       if (res == Tristate.UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == Tristate.TRUE) {
         nbSatisfiable++;
-        int newCost = computeCostModel(this.solver.model(), Integer.MAX_VALUE);
+        long newCost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
         saveModel(this.solver.model());
         if (verbosity != Verbosity.NONE)
           this.output.println("o " + newCost);
@@ -230,36 +235,37 @@ public final class MSU3 extends MaxSAT {
             this.output.println("c LB = UB");
           return MaxSATResult.OPTIMUM;
         }
-        sumSizeCores += this.solver.conflict().size();
-        if (this.solver.conflict().size() == 0)
+        final LNGIntVector core = reduceCore(this.solver);
+        sumSizeCores += core.size();
+        if (core.size() == 0)
           return MaxSATResult.UNSATISFIABLE;
         if (!foundLowerBound(lbCost, null))
           return MaxSATResult.UNDEF;
         joinObjFunction.clear();
-        for (int i = 0; i < this.solver.conflict().size(); i++) {
-          if (this.coreMapping.containsKey(this.solver.conflict().get(i))) {
-            assert !this.activeSoft.get(this.coreMapping.get(this.solver.conflict().get(i)));
-            this.activeSoft.set(this.coreMapping.get(this.solver.conflict().get(i)), true);
-            joinObjFunction.push(softClauses.get(this.coreMapping.get(this.solver.conflict().get(i))).relaxationVars().get(0));
+        for (int i = 0; i < core.size(); i++) {
+          if (this.coreMapping.containsKey(core.get(i))) {
+            assert !this.activeSoft.get(this.coreMapping.get(core.get(i)));
+            this.activeSoft.set(this.coreMapping.get(core.get(i)), true);
+            joinObjFunction.push(softClauses.relaxationVar(this.coreMapping.get(core.get(i))));
           }
         }
         currentObjFunction.clear();
         assumptions.clear();
         for (int i = 0; i < nSoft(); i++)
           if (this.activeSoft.get(i))
-            currentObjFunction.push(softClauses.get(i).relaxationVars().get(0));
+            currentObjFunction.push(softClauses.relaxationVar(i));
           else
-            assumptions.push(not(softClauses.get(i).assumptionVar()));
+            assumptions.push(not(softClauses.assumptionVar(i)));
         if (verbosity != Verbosity.NONE)
           this.output.println(String.format("c Relaxed soft clauses %d / %d", currentObjFunction.size(), this.objFunction.size()));
         if (!this.encoder.hasCardEncoding()) {
           if (lbCost != currentObjFunction.size()) {
-            this.encoder.buildCardinality(this.solver, currentObjFunction, lbCost);
+            this.encoder.buildCardinality(this.solver, currentObjFunction, (int) lbCost);
             joinObjFunction.clear();
-            this.encoder.incUpdateCardinality(this.solver, joinObjFunction, currentObjFunction, lbCost, encodingAssumptions);
+            this.encoder.incUpdateCardinality(this.solver, joinObjFunction, currentObjFunction, (int) lbCost, encodingAssumptions);
           }
         } else
-          this.encoder.incUpdateCardinality(this.solver, joinObjFunction, currentObjFunction, lbCost, encodingAssumptions);
+          this.encoder.incUpdateCardinality(this.solver, joinObjFunction, currentObjFunction, (int) lbCost, encodingAssumptions);
         for (int i = 0; i < encodingAssumptions.size(); i++)
           assumptions.push(encodingAssumptions.get(i));
       }
@@ -274,9 +280,7 @@ public final class MSU3 extends MaxSAT {
       s.addClause(hardClauses.get(i).clause());
     LNGIntVector clause;
     for (int i = 0; i < nSoft(); i++) {
-      clause = new LNGIntVector(softClauses.get(i).clause());
-      for (int j = 0; j < softClauses.get(i).relaxationVars().size(); j++)
-        clause.push(softClauses.get(i).relaxationVars().get(j));
+      clause = softClauses.relaxedClause(i);
       s.addClause(clause);
     }
     return s;
@@ -284,9 +288,9 @@ public final class MSU3 extends MaxSAT {
 
   private void initRelaxation() {
     for (int i = 0; i < nbSoft; i++) {
-      final int l = newLiteral(false);
-      softClauses.get(i).relaxationVars().push(l);
-      softClauses.get(i).setAssumptionVar(l);
+      final int l = newRelaxationLiteral(i);
+      softClauses.addRelaxationVar(i, l);
+      softClauses.setAssumptionVar(i, l);
       this.objFunction.push(l);
     }
   }
@@ -51,13 +51,16 @@ package org.logicng.solvers.maxsat.algorithms;
 
 import org.logicng.collections.LNGBooleanVector;
 import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGLongVector;
 import org.logicng.collections.LNGVector;
 import org.logicng.datastructures.Assignment;
 import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
 import org.logicng.handlers.MaxSATHandler;
 import org.logicng.handlers.SATHandler;
 import org.logicng.solvers.datastructures.MSHardClause;
-import org.logicng.solvers.datastructures.MSSoftClause;
+import org.logicng.solvers.datastructures.MSClauseStore;
 import org.logicng.solvers.sat.GlucoseConfig;
 import org.logicng.solvers.sat.GlucoseSyrup;
 import org.logicng.solvers.sat.MiniSat2Solver;
@@ -65,6 +68,7 @@ import org.logicng.solvers.sat.MiniSatConfig;
 import org.logicng.solvers.sat.MiniSatStyleSolver;
 
 import java.util.Locale;
+import java.util.Map;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -74,12 +78,13 @@ import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.SolverType;
 import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.Verbosity;
 import static org.logicng.solvers.sat.MiniSatStyleSolver.LIT_UNDEF;
 import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.not;
 import static org.logicng.solvers.sat.MiniSatStyleSolver.sign;
 import static org.logicng.solvers.sat.MiniSatStyleSolver.var;
 
 /**
  * Super class for the MaxSAT solvers.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public abstract class MaxSAT {
@@ -98,7 +103,7 @@ public abstract class MaxSAT {
     UNSATISFIABLE, OPTIMUM, UNDEF
   }
 
-  protected LNGVector<MSSoftClause> softClauses;
+  protected MSClauseStore softClauses;
   protected LNGVector<MSHardClause> hardClauses;
   protected int hardWeight;
   protected ProblemType problemType;
@@ -111,19 +116,35 @@ public abstract class MaxSAT {
   protected int nbSymmetryClauses;
   protected long sumSizeCores;
   protected int nbSatisfiable;
-  protected int ubCost;
-  protected int lbCost;
+  protected long ubCost;
+  protected long lbCost;
   protected int currentWeight;
   protected Verbosity verbosity;
   protected LNGIntVector orderWeights;
   protected SolverType solverType;
+  protected int coreTrimming;
+  protected int coreMinimization;
+  protected boolean coreExhaustion;
+  protected boolean hardening;
+  protected int nbHardened;
+  protected long nbReducedLiterals;
+  protected int localSearchFlips;
+  protected boolean preprocessing;
+  protected MaxSATPreprocessor preprocessor;
+  protected int nbLevels;
+  protected LNGLongVector levelCosts;
+  private final LNGBooleanVector labelVars;
 
   protected MaxSATHandler handler;
+  private LNGBooleanVector phaseHints;
+  private MiniSatStyleSolver hintedSolver;
+  private Map<Integer, Variable> index2var;
+  private LNGBooleanVector initialModel;
 
   protected MaxSAT(final MaxSATConfig config) {
     this.hardWeight = 0;
     this.hardClauses = new LNGVector<MSHardClause>();
-    this.softClauses = new LNGVector<MSSoftClause>();
+    this.softClauses = new MSClauseStore();
     this.hardWeight = Integer.MAX_VALUE;
     this.problemType = ProblemType.UNWEIGHTED;
     this.nbVars = 0;
@@ -140,7 +161,23 @@ public abstract class MaxSAT {
     this.sumSizeCores = 0;
     this.orderWeights = new LNGIntVector();
     this.solverType = config.solverType;
+    this.coreTrimming = config.coreTrimming;
+    this.coreMinimization = config.coreMinimization;
+    this.coreExhaustion = config.coreExhaustion;
+    this.hardening = config.hardening;
+    this.nbHardened = 0;
+    this.nbReducedLiterals = 0;
+    this.localSearchFlips = config.localSearchFlips;
+    this.preprocessing = config.preprocessing;
+    this.preprocessor = null;
+    this.nbLevels = 1;
+    this.levelCosts = new LNGLongVector();
+    this.labelVars = new LNGBooleanVector();
     this.handler = null;
+    this.phaseHints = null;
+    this.index2var = null;
+    this.initialModel = null;
+    this.hintedSolver = null;
   }
 
   /**
@@ -172,6 +209,264 @@ public abstract class MaxSAT {
     return s.solve(handler);
   }
 
+  /**
+   * Solves the formula that is currently loaded in the SAT solver with a set of assumptions.  If phase hints are set,
+   * they are applied to the SAT solver before its first call.
+   * @param s           the SAT solver
+   * @param handler     a SAT handler
+   * @param assumptions the assumptions
+   * @return the result of the solving process
+   */
+  protected Tristate searchWithHints(final MiniSatStyleSolver s, final SATHandler handler, final LNGIntVector assumptions) {
+    this.applyPhaseHints(s);
+    return s.solve(handler, assumptions);
+  }
+
+  /**
+   * Solves the formula without assumptions.  If phase hints are set, they are applied to the SAT solver before its
+   * first call.
+   * @param s       the SAT solver
+   * @param handler a SAT handler
+   * @return the result of the solving process
+   */
+  protected Tristate searchWithHints(final MiniSatStyleSolver s, final SATHandler handler) {
+    this.applyPhaseHints(s);
+    return s.solve(handler);
+  }
+
+  /**
+   * Sets the phase hints for the original variables of this MaxSAT instance.  The SAT solvers of the algorithm
+   * prefer these phases when deciding on the variables, e.g. to warm-start the search from a previous model.
+   * @param hints the phase hints (indexed by variable), or {@code null} to use the default phases
+   */
+  public void setPhaseHints(final LNGBooleanVector hints) {
+    this.phaseHints = hints;
+    this.hintedSolver = null;
+  }
+
+  /**
+   * Sets the variables of the original variable indices.  If a mapping is set, models found before the end of the
+   * search are reported to the handler as assignments.
+   * @param index2var the mapping from variable indices to variables
+   */
+  public void setVariableMapping(final Map<Integer, Variable> index2var) {
+    this.index2var = index2var;
+  }
+
+  /**
+   * Sets a model, e.g. the model of a previous search, which is used as initial model of the next search.  If it
+   * satisfies all hard clauses, it is the current model at the start of the search and its cost is the initial upper
+   * bound.  Variables which are not covered by the model are assumed to be {@code false}.
+   * @param initialModel the initial model (indexed by variable), or {@code null} if there is no initial model
+   */
+  public void setInitialModel(final LNGBooleanVector initialModel) {
+    this.initialModel = initialModel;
+  }
+
+  /**
+   * Returns whether new hard and soft clauses can be added after a search such that the next search continues from
+   * the state of the previous search, i.e. reuses its SAT solver, relaxations, and lower bound.  Otherwise, the
+   * algorithm has to be rebuilt from the clauses before the next search.
+   * @return {@code true} if the algorithm can continue after new clauses were added, {@code false} otherwise
+   */
+  public boolean canResume() {
+    return false;
+  }
+
+  /**
+   * Applies the initial model: if it satisfies all hard clauses, it becomes the current model with its cost as upper
+   * bound and it is reported to the handler.  Otherwise, the current model is cleared.  If the formula was
+   * preprocessed, the model is checked against the preprocessed clauses, on which it has the same cost.
+   * @return {@code false} if the handler canceled the solving process, {@code true} otherwise
+   */
+  private boolean applyInitialModel() {
+    final LNGBooleanVector candidate = this.initialModel;
+    this.initialModel = null;
+    this.model.clear();
+    if (candidate == null)
+      return true;
+    final LNGBooleanVector extended = new LNGBooleanVector(this.nbVars);
+    for (int i = 0; i < this.nbVars; i++)
+      extended.push(i < candidate.size() && candidate.get(i));
+    for (int i = 0; i < this.nbHard; i++)
+      if (!satisfies(extended, this.hardClauses.get(i).clause()))
+        return true;
+    this.model = extended;
+    this.ubCost = this.computeLongCostModel(extended, Integer.MAX_VALUE);
+    return this.handler == null || this.foundUpperBound(this.ubCost, this.currentAssignment());
+  }
+
+  /**
+   * Returns whether a model satisfies a clause.
+   * @param model  the model
+   * @param clause the clause
+   * @return {@code true} if the model satisfies the clause, {@code false} otherwise
+   */
+  private static boolean satisfies(final LNGBooleanVector model, final LNGIntVector clause) {
+    for (int i = 0; i < clause.size(); i++)
+      if (model.get(var(clause.get(i))) != sign(clause.get(i)))
+        return true;
+    return false;
+  }
+
+  /**
+   * Applies the phase hints once to a given SAT solver.
+   * @param s the SAT solver
+   */
+  private void applyPhaseHints(final MiniSatStyleSolver s) {
+    if (this.phaseHints == null || this.hintedSolver == s)
+      return;
+    final int size = Math.min(this.phaseHints.size(), s.nVars());
+    for (int i = 0; i < size; i++)
+      s.setPolarity(i, !this.phaseHints.get(i));
+    this.hintedSolver = s;
+  }
+
+  /**
+   * Returns the core of the last unsatisfiable call of a SAT solver, reduced by core trimming and core minimisation
+   * as configured.  The literals of the core are the negations of the respective assumptions.  If neither trimming
+   * nor minimisation is configured, the conflict of the solver is returned unchanged.
+   * @param s the SAT solver
+   * @return the (reduced) core
+   */
+  public LNGIntVector reduceCore(final MiniSatStyleSolver s) {
+    if ((this.coreTrimming <= 0 && this.coreMinimization <= 0) || s.conflict().size() <= 1)
+      return s.conflict();
+    LNGIntVector core = new LNGIntVector(s.conflict());
+    final int originalSize = core.size();
+    for (int round = 0; round < this.coreTrimming && core.size() > 1; round++) {
+      final Tristate res = s.solve(satHandler(), negate(core));
+      if (res != Tristate.FALSE || s.conflict().size() >= core.size())
+        break;
+      core = new LNGIntVector(s.conflict());
+    }
+    if (this.coreMinimization > 0 && core.size() > 1)
+      core = this.minimizeCore(s, core);
+    this.nbReducedLiterals += originalSize - core.size();
+    return core;
+  }
+
+  /**
+   * Minimises a core by testing for each literal whether it can be removed.  Each test is a SAT call with a conflict
+   * budget, a literal is kept if the call is satisfiable or exceeds the budget.  Literals which are not part of the
+   * conflict of an unsatisfiable call are removed as well.
+   * @param s    the SAT solver
+   * @param core the core
+   * @return the minimised core
+   */
+  private LNGIntVector minimizeCore(final MiniSatStyleSolver s, final LNGIntVector core) {
+    final LNGIntVector necessary = new LNGIntVector(core.size());
+    final LNGIntVector remaining = new LNGIntVector(core);
+    final ConflictBudgetHandler budgetHandler = new ConflictBudgetHandler(this.coreMinimization, satHandler());
+    while (remaining.size() > 0) {
+      final int lit = remaining.back();
+      remaining.pop();
+      final LNGIntVector assumptions = negate(necessary);
+      for (int i = 0; i < remaining.size(); i++)
+        assumptions.push(not(remaining.get(i)));
+      final Tristate res = s.solve(budgetHandler, assumptions);
+      if (budgetHandler.canceledByDelegate) {
+        necessary.push(lit);
+        break;
+      }
+      if (res == Tristate.FALSE) {
+        final SortedSet<Integer> conflict = new TreeSet<Integer>();
+        for (int i = 0; i < s.conflict().size(); i++)
+          conflict.add(s.conflict().get(i));
+        int j = 0;
+        for (int i = 0; i < remaining.size(); i++)
+          if (conflict.contains(remaining.get(i)))
+            remaining.set(j++, remaining.get(i));
+        remaining.shrinkTo(j);
+      } else
+        necessary.push(lit);
+    }
+    for (int i = 0; i < remaining.size(); i++)
+      necessary.push(remaining.get(i));
+    return necessary;
+  }
+
+  /**
+   * Returns the negations of the given literals.
+   * @param lits the literals
+   * @return the negated literals
+   */
+  private static LNGIntVector negate(final LNGIntVector lits) {
+    final LNGIntVector negated = new LNGIntVector(lits.size());
+    for (int i = 0; i < lits.size(); i++)
+      negated.push(not(lits.get(i)));
+    return negated;
+  }
+
+  /**
+   * Returns the largest of the given weights which is smaller than a given weight.  This is the next stratification
+   * level for the weight strategy {@code NORMAL}.
+   * @param weights the weights
+   * @param weight  the current weight
+   * @return the next weight or -1 if there is no smaller weight
+   */
+  public static int nextWeight(final LNGIntVector weights, int weight) {
+    int nextWeight = -1;
+    for (int i = 0; i < weights.size(); i++)
+      if (weights.get(i) < weight && weights.get(i) > nextWeight)
+        nextWeight = weights.get(i);
+    return nextWeight;
+  }
+
+  /**
+   * Returns the next stratification level for the weight strategy {@code DIVERSIFY}.  Starting from the given weight,
+   * the level is decreased until the ratio between the number of weights and the number of distinct weights which
+   * are at least the level exceeds 1.25, or until all weights are included.  Hence, levels which would only add a
+   * few literals with many different weights are skipped.
+   * @param weights the weights
+   * @param weight  the current weight
+   * @return the next weight or -1 if there is no smaller weight
+   */
+  public static int nextWeightDiversity(final LNGIntVector weights, int weight) {
+    final double alpha = 1.25;
+    int nextWeight = nextWeight(weights, weight);
+    final SortedSet<Integer> distinctWeights = new TreeSet<Integer>();
+    while (nextWeight != -1) {
+      int nbWeights = 0;
+      distinctWeights.clear();
+      for (int i = 0; i < weights.size(); i++) {
+        if (weights.get(i) >= nextWeight) {
+          nbWeights++;
+          distinctWeights.add(weights.get(i));
+        }
+      }
+      if ((double) nbWeights / distinctWeights.size() > alpha || nbWeights == weights.size())
+        return nextWeight;
+      nextWeight = nextWeight(weights, nextWeight);
+    }
+    return -1;
+  }
+
+  /**
+   * Hardens soft literals.  A soft literal is true if its soft constraint is violated, and violating it costs at least
+   * its weight.  If the weight exceeds the given gap between the upper bound and the cost which is already known to
+   * be unavoidable, no better solution can violate it and the negation of the literal is added as unit clause.
+   * Nothing is hardened if hardening is not configured.
+   * @param s       the SAT solver
+   * @param lits    the soft literals
+   * @param weights the weights of the soft literals
+   * @param gap     the gap
+   * @return the hardened literals
+   */
+  protected LNGIntVector harden(final MiniSatStyleSolver s, final LNGIntVector lits, final LNGIntVector weights, long gap) {
+    final LNGIntVector hardened = new LNGIntVector();
+    if (!this.hardening)
+      return hardened;
+    for (int i = 0; i < lits.size(); i++) {
+      if (weights.get(i) > gap) {
+        s.addClause(not(lits.get(i)));
+        hardened.push(lits.get(i));
+      }
+    }
+    this.nbHardened += hardened.size();
+    return hardened;
+  }
+
   /**
    * The main MaxSAT solving method.
    * @param handler a MaxSAT handler
@@ -182,13 +477,139 @@ public abstract class MaxSAT {
     this.handler = handler;
     if (handler != null)
       handler.startedSolving();
-    final MaxSATResult result = search();
+    MaxSATResult result;
+    if (this.nbLevels > 1)
+      result = search();
+    else if (this.preprocessing && !this.preprocess())
+      result = MaxSATResult.UNSATISFIABLE;
+    else if (!this.applyInitialModel() || this.localSearchFlips > 0 && !this.localSearch())
+      result = MaxSATResult.UNDEF;
+    else if (this.preprocessor != null && this.nbSoft == 0)
+      result = this.searchHard();
+    else
+      result = search();
+    if (this.preprocessor != null && !this.model.empty())
+      this.preprocessor.reconstruct(this.model);
     if (handler != null)
       handler.finishedSolving();
     this.handler = null;
     return result;
   }
 
+  /**
+   * Simplifies the hard and soft clauses with the {@link MaxSATPreprocessor}.  Duplicate soft clauses are only merged
+   * for weighted problems, since the merged weights would turn an unweighted problem into a weighted one.
+   * @return {@code false} if the hard clauses are unsatisfiable, {@code true} otherwise
+   */
+  private boolean preprocess() {
+    final LNGVector<LNGIntVector> clauses = new LNGVector<LNGIntVector>(this.nbHard + this.nbSoft);
+    final LNGIntVector weights = new LNGIntVector(this.nbHard + this.nbSoft);
+    for (int i = 0; i < this.nbHard; i++) {
+      clauses.push(this.hardClauses.get(i).clause());
+      weights.push(-1);
+    }
+    for (int i = 0; i < this.nbSoft; i++) {
+      clauses.push(this.softClauses.clause(i));
+      weights.push((int) this.softClauses.weight(i));
+    }
+    this.preprocessor = new MaxSATPreprocessor(this.nbVars, clauses, weights);
+    if (!this.preprocessor.preprocess(this.problemType == ProblemType.WEIGHTED))
+      return false;
+    final LNGVector<LNGIntVector> hard = this.preprocessor.hardClauses();
+    final LNGVector<LNGIntVector> soft = this.preprocessor.softClauses();
+    final LNGIntVector softWeights = this.preprocessor.softWeights();
+    this.hardClauses = new LNGVector<MSHardClause>(hard.size());
+    this.softClauses = new MSClauseStore(soft.size());
+    this.nbHard = 0;
+    this.nbSoft = 0;
+    this.ubCost = 0;
+    this.currentWeight = 1;
+    for (final LNGIntVector clause : hard)
+      this.addHardClause(clause);
+    for (int i = 0; i < soft.size(); i++) {
+      this.setCurrentWeight(softWeights.get(i));
+      this.updateSumWeights(softWeights.get(i));
+      this.addSoftClause(softWeights.get(i), soft.get(i));
+    }
+    return true;
+  }
+
+  /**
+   * Solves the hard clauses if the preprocessing removed all soft clauses.
+   * @return the result of the solving process
+   */
+  private MaxSATResult searchHard() {
+    final MiniSatStyleSolver s = this.newSATSolver();
+    for (int i = 0; i < this.nbVars; i++)
+      newSATVariable(s);
+    for (int i = 0; i < this.nbHard; i++)
+      s.addClause(this.hardClauses.get(i).clause());
+    final Tristate res = this.searchWithHints(s, this.satHandler());
+    if (res == Tristate.UNDEF)
+      return MaxSATResult.UNDEF;
+    if (res == Tristate.FALSE)
+      return MaxSATResult.UNSATISFIABLE;
+    this.model.clear();
+    for (int i = 0; i < this.nbVars; i++)
+      this.model.push(s.model().get(i));
+    this.ubCost = 0;
+    return MaxSATResult.OPTIMUM;
+  }
+
+  /**
+   * Runs a SATLike local search on the hard and soft clauses in order to find a good initial solution.  If a model
+   * satisfying all hard clauses is found, it becomes the current model of the algorithm with its cost as upper bound,
+   * it is used as phase hints for the exact search, and it is reported to the handler.  If the handler cancels the
+   * search afterwards, the model of the local search is still available via {@link #model()}.
+   * @return {@code false} if the handler canceled the solving process, {@code true} otherwise
+   */
+  private boolean localSearch() {
+    if (this.nbSoft == 0)
+      return true;
+    final LNGVector<LNGIntVector> clauses = new LNGVector<LNGIntVector>(this.nbHard + this.nbSoft);
+    final LNGIntVector weights = new LNGIntVector(this.nbHard + this.nbSoft);
+    for (int i = 0; i < this.nbHard; i++) {
+      clauses.push(this.hardClauses.get(i).clause());
+      weights.push(-1);
+    }
+    for (int i = 0; i < this.nbSoft; i++) {
+      clauses.push(this.softClauses.clause(i));
+      weights.push((int) this.softClauses.weight(i));
+    }
+    final SATLike sls = new SATLike(this.nbVars, clauses, weights, 42);
+    if (!sls.search(this.phaseHints, this.localSearchFlips, this.satHandler()))
+      return true;
+    final LNGBooleanVector lsModel = sls.bestModel();
+    this.setPhaseHints(lsModel);
+    if (!this.model.empty() && sls.bestCost() >= this.ubCost)
+      return true;
+    this.model.clear();
+    for (int i = 0; i < this.nbVars; i++)
+      this.model.push(lsModel.get(i));
+    this.ubCost = sls.bestCost();
+    return this.handler == null || this.foundUpperBound(this.ubCost, this.currentAssignment());
+  }
+
+  /**
+   * Returns the current model as an assignment of the original variables or {@code null} if no variable mapping was
+   * set.  If the formula was preprocessed, the model is extended to the eliminated variables.
+   * @return the current model as assignment
+   */
+  private Assignment currentAssignment() {
+    if (this.index2var == null)
+      return null;
+    final LNGBooleanVector vec = new LNGBooleanVector(this.model);
+    if (this.preprocessor != null)
+      this.preprocessor.reconstruct(vec);
+    final Assignment assignment = new Assignment();
+    for (int i = 0; i < vec.size(); i++) {
+      final Literal lit = this.index2var.get(i);
+      if (lit != null)
+        assignment.addLiteral(vec.get(i) ? lit : lit.negate());
+    }
+    return assignment;
+  }
+
   /**
    * The main MaxSAT solving method.
    * @return the result of the solving process
@@ -196,6 +617,14 @@ public abstract class MaxSAT {
    */
   public abstract MaxSATResult search();
 
+  /**
+   * Returns whether this algorithm supports soft clauses on more than one level.
+   * @return {@code true} if this algorithm supports lexicographic optimization, {@code false} otherwise
+   */
+  public boolean supportsLexicographic() {
+    return false;
+  }
+
   /**
    * Returns the number of variables in the working MaxSAT formula.
    * @return the number of variables in the working MaxSAT formula
@@ -212,6 +641,22 @@ public abstract class MaxSAT {
     return this.nbSoft;
   }
 
+  /**
+   * Returns the number of levels of the soft clauses in the working MaxSAT formula.
+   * @return the number of levels of the soft clauses in the working MaxSAT formula
+   */
+  public int nLevels() {
+    return this.nbLevels;
+  }
+
+  /**
+   * Returns the optimal cost of each level after a lexicographic search.
+   * @return the optimal cost of each level
+   */
+  public LNGLongVector levelCosts() {
+    return this.levelCosts;
+  }
+
   /**
    * Returns the number of hard clauses in the working MaxSAT formula.
    * @return the number of hard clauses in the working MaxSAT formula
@@ -242,12 +687,25 @@ public abstract class MaxSAT {
    * @param lits   the literals of the soft clause
    */
   public void addSoftClause(int weight, final LNGIntVector lits) {
-    final LNGIntVector rVars = new LNGIntVector();
-    final int assump = LIT_UNDEF;
-    this.softClauses.push(new MSSoftClause(lits, weight, assump, rVars));
+    this.softClauses.add(lits, weight);
     this.nbSoft++;
   }
 
+  /**
+   * Adds a new soft clause to the soft clause database on a given level for lexicographic optimization.
+   * @param weight the weight of the soft clause
+   * @param lits   the literals of the soft clause
+   * @param level  the level of the soft clause, level 0 is the most important level
+   * @throws IllegalArgumentException if the level is &gt;0 and the algorithm does not support lexicographic optimization
+   */
+  public void addSoftClause(int weight, final LNGIntVector lits, int level) {
+    if (level > 0 && !this.supportsLexicographic())
+      throw new IllegalArgumentException(this.getClass().getSimpleName() + " does not support lexicographic optimization");
+    this.addSoftClause(weight, lits);
+    this.softClauses.setLevel(this.nbSoft - 1, level);
+    this.nbLevels = Math.max(this.nbLevels, level + 1);
+  }
+
   /**
    * Adds a new soft clause to the soft clause database with predefined relaxation variables.
    * @param weight the weight of the soft clause
@@ -255,8 +713,9 @@ public abstract class MaxSAT {
    * @param vars   the relaxation variables of the soft clause
    */
   public void addSoftClause(int weight, final LNGIntVector lits, final LNGIntVector vars) {
-    final int assump = LIT_UNDEF;
-    this.softClauses.push(new MSSoftClause(lits, weight, assump, vars));
+    this.softClauses.add(lits, weight);
+    for (int i = 0; i < vars.size(); i++)
+      this.softClauses.addRelaxationVar(this.nbSoft, vars.get(i));
     this.nbSoft++;
   }
 
@@ -271,6 +730,26 @@ public abstract class MaxSAT {
     return p;
   }
 
+  /**
+   * Creates a new relaxation literal for a soft clause.  With preprocessing, a unit soft clause {@code l} reuses
+   * {@code ~l} as its relaxation literal instead of a fresh variable, unless the variable is already the relaxation
+   * literal of another soft clause.
+   * @param index the index of the soft clause
+   * @return the relaxation literal
+   */
+  protected int newRelaxationLiteral(int index) {
+    if (this.preprocessing && this.softClauses.clauseSize(index) == 1) {
+      final int lit = this.softClauses.literal(index, 0);
+      if (this.labelVars.size() <= var(lit))
+        this.labelVars.growTo(var(lit) + 1, false);
+      if (!this.labelVars.get(var(lit))) {
+        this.labelVars.set(var(lit), true);
+        return not(lit);
+      }
+    }
+    return this.newLiteral(false);
+  }
+
   /**
    * Sets the problem type.
    * @param type the problem type
@@ -340,30 +819,66 @@ public abstract class MaxSAT {
    * @param currentModel the model
    * @param weight       the weight
    * @return the cost of the given model
+   * @throws IllegalStateException if the cost exceeds the integer range, see {@link #computeLongCostModel}
    */
   public int computeCostModel(final LNGBooleanVector currentModel, int weight) {
+    return toInt(this.computeLongCostModel(currentModel, weight));
+  }
+
+  /**
+   * Computes the cost of a given model as long value. The cost of a model is the sum of the weights of the
+   * unsatisfied soft clauses.  If a weight is specified, then it only considers the sum of the weights of the
+   * unsatisfied soft clauses with the specified weight.
+   * @param currentModel the model
+   * @param weight       the weight
+   * @return the cost of the given model
+   */
+  public long computeLongCostModel(final LNGBooleanVector currentModel, int weight) {
     assert currentModel.size() != 0;
-    int currentCost = 0;
+    long currentCost = 0;
     for (int i = 0; i < nSoft(); i++) {
       boolean unsatisfied = true;
-      for (int j = 0; j < softClauses.get(i).clause().size(); j++) {
-        if (weight != Integer.MAX_VALUE && softClauses.get(i).weight() != weight) {
+      for (int j = 0; j < softClauses.clauseSize(i); j++) {
+        if (weight != Integer.MAX_VALUE && softClauses.weight(i) != weight) {
           unsatisfied = false;
           continue;
         }
-        assert var(softClauses.get(i).clause().get(j)) < currentModel.size();
-        if ((sign(softClauses.get(i).clause().get(j)) && !currentModel.get(var(softClauses.get(i).clause().get(j))))
-                || (!sign(softClauses.get(i).clause().get(j)) && currentModel.get(var(softClauses.get(i).clause().get(j))))) {
+        assert var(softClauses.literal(i, j)) < currentModel.size();
+        if ((sign(softClauses.literal(i, j)) && !currentModel.get(var(softClauses.literal(i, j))))
+                || (!sign(softClauses.literal(i, j)) && currentModel.get(var(softClauses.literal(i, j))))) {
           unsatisfied = false;
           break;
         }
       }
       if (unsatisfied)
-        currentCost += softClauses.get(i).weight();
+        currentCost += softClauses.weight(i);
     }
     return currentCost;
   }
 
+  /**
+   * Computes the cost of the soft clauses of a given level for a given model.
+   * @param currentModel the model
+   * @param level        the level
+   * @return the cost of the soft clauses of the level
+   */
+  protected long computeLevelCost(final LNGBooleanVector currentModel, int level) {
+    long levelCost = 0;
+    for (int i = 0; i < nSoft(); i++) {
+      if (softClauses.level(i) != level)
+        continue;
+      boolean unsatisfied = true;
+      for (int j = 0; j < softClauses.clauseSize(i) && unsatisfied; j++) {
+        final int lit = softClauses.literal(i, j);
+        if (currentModel.get(var(lit)) != sign(lit))
+          unsatisfied = false;
+      }
+      if (unsatisfied)
+        levelCost += softClauses.weight(i);
+    }
+    return levelCost;
+  }
+
   /**
    * Tests if the MaxSAT formula has lexicographical optimization criterion.
    * @param cache is indicates whether the result should be cached.
@@ -375,7 +890,7 @@ public abstract class MaxSAT {
     final SortedSet<Integer> partitionWeights = new TreeSet<Integer>();
     final SortedMap<Integer, Integer> nbPartitionWeights = new TreeMap<Integer, Integer>();
     for (int i = 0; i < nSoft(); i++) {
-      final int weight = softClauses.get(i).weight();
+      final int weight = (int) softClauses.weight(i);
       partitionWeights.add(weight);
       final Integer foundNB = nbPartitionWeights.get(weight);
       if (foundNB == null)
@@ -388,9 +903,9 @@ public abstract class MaxSAT {
     orderWeights.sortReverse();
     long totalWeights = 0;
     for (int i = 0; i < orderWeights.size(); i++)
-      totalWeights += orderWeights.get(i) * nbPartitionWeights.get(orderWeights.get(i));
+      totalWeights += (long) orderWeights.get(i) * nbPartitionWeights.get(orderWeights.get(i));
     for (int i = 0; i < orderWeights.size(); i++) {
-      totalWeights -= orderWeights.get(i) * nbPartitionWeights.get(orderWeights.get(i));
+      totalWeights -= (long) orderWeights.get(i) * nbPartitionWeights.get(orderWeights.get(i));
       if (orderWeights.get(i) < totalWeights) {
         bmo = false;
         break;
@@ -412,8 +927,17 @@ public abstract class MaxSAT {
   /**
    * Returns the optimal result of the solver.
    * @return the optimal result of the solver
+   * @throws IllegalStateException if the result exceeds the integer range, see {@link #longResult()}
    */
   public int result() {
+    return toInt(this.ubCost);
+  }
+
+  /**
+   * Returns the optimal result of the solver as long value.
+   * @return the optimal result of the solver
+   */
+  public long longResult() {
     return this.ubCost;
   }
 
@@ -433,23 +957,66 @@ public abstract class MaxSAT {
     return handler == null ? null : handler.satHandler();
   }
 
-  protected boolean foundLowerBound(final int lowerBound, final Assignment model) {
-    return handler == null || handler.foundLowerBound(lowerBound, model);
+  /**
+   * Returns {@code true} if the sum of the weights of the soft clauses exceeds the integer range, {@code false}
+   * otherwise.  In this case, pseudo-Boolean constraints over the soft clauses require the adder encoding.
+   * @return {@code true} if the sum of the weights of the soft clauses exceeds the integer range
+   */
+  protected boolean hasLargeCosts() {
+    long sum = 0;
+    for (int i = 0; i < nSoft(); i++) {
+      sum += this.softClauses.weight(i);
+      if (sum > Integer.MAX_VALUE)
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns a cost as integer for the methods which report costs as integers.
+   * @param cost the cost
+   * @return the cost as integer
+   * @throws IllegalStateException if the cost exceeds the integer range
+   */
+  static int toInt(final long cost) {
+    if (cost > Integer.MAX_VALUE)
+      throw new IllegalStateException("Cost " + cost + " exceeds the integer range, use the long variant of this method");
+    return (int) cost;
+  }
+
+  /**
+   * Reports a new lower bound to the handler.  Bounds exceeding the integer range of the handler are reported as
+   * {@link Integer#MAX_VALUE}.
+   * @param lowerBound the lower bound
+   * @param model      the model of the lower bound, may be null if not applicable
+   * @return whether the solving process should be continued or not
+   */
+  protected boolean foundLowerBound(final long lowerBound, final Assignment model) {
+    return handler == null || handler.foundLowerBound((int) Math.min(lowerBound, Integer.MAX_VALUE), model);
   }
 
-  protected boolean foundUpperBound(final int upperBound, final Assignment model) {
-    return handler == null || handler.foundUpperBound(upperBound, model);
+  /**
+   * Reports a new upper bound to the handler.  Bounds exceeding the integer range of the handler are reported as
+   * {@link Integer#MAX_VALUE}.
+   * @param upperBound the upper bound
+   * @param model      the model of the upper bound, may be null if not applicable
+   * @return whether the solving process should be continued or not
+   */
+  protected boolean foundUpperBound(final long upperBound, final Assignment model) {
+    return handler == null || handler.foundUpperBound((int) Math.min(upperBound, Integer.MAX_VALUE), model);
   }
 
   /**
    * The MaxSAT solver statistics.
    */
   public final class Stats {
-    private final int ubC;
+    private final long ubC;
     private final int nbS;
     private final int nbC;
     private final double avgCS;
     private final int nbSC;
+    private final int nbH;
+    private final long nbRL;
 
     private Stats() {
       this.ubC = model.size() == 0 ? -1 : ubCost;
@@ -457,13 +1024,24 @@ public abstract class MaxSAT {
       this.nbC = nbCores;
       this.avgCS = nbCores != 0 ? (double) sumSizeCores / nbCores : 0.0;
       this.nbSC = nbSymmetryClauses;
+      this.nbH = nbHardened;
+      this.nbRL = nbReducedLiterals;
     }
 
     /**
      * Returns the best solution or -1 if there is none.
      * @return the best solution or -1 if there is none
+     * @throws IllegalStateException if the best solution exceeds the integer range, see {@link #longBestSolution()}
      */
     public int bestSolution() {
+      return toInt(this.ubC);
+    }
+
+    /**
+     * Returns the best solution as long value or -1 if there is none.
+     * @return the best solution or -1 if there is none
+     */
+    public long longBestSolution() {
       return this.ubC;
     }
 
@@ -499,11 +1077,70 @@ public abstract class MaxSAT {
       return this.nbSC;
     }
 
+    /**
+     * Returns the number of hardened soft literals.
+     * @return the number of hardened soft literals
+     */
+    public int hardenedLiterals() {
+      return this.nbH;
+    }
+
+    /**
+     * Returns the number of literals removed from cores by core trimming and core minimisation.
+     * @return the number of literals removed from cores
+     */
+    public long reducedCoreLiterals() {
+      return this.nbRL;
+    }
+
     @Override
     public String toString() {
       return String.format(Locale.ENGLISH,
-              "MaxSAT.Stats{best solution=%d, #sat calls=%d, #unsat calls=%d, average core size=%.2f, #symmetry clauses=%d}",
-              this.ubC, this.nbS, this.nbC, this.avgCS, this.nbSC);
+              "MaxSAT.Stats{best solution=%d, #sat calls=%d, #unsat calls=%d, average core size=%.2f, #symmetry clauses=%d, #hardened literals=%d, #reduced core literals=%d}",
+              this.ubC, this.nbS, this.nbC, this.avgCS, this.nbSC, this.nbH, this.nbRL);
+    }
+  }
+
+  /**
+   * A SAT handler which cancels a SAT call after a given number of conflicts or if the given delegate handler cancels
+   * the call.
+   */
+  private static final class ConflictBudgetHandler implements SATHandler {
+    private final int budget;
+    private final SATHandler delegate;
+    private int conflicts;
+    private boolean canceledByDelegate;
+
+    /**
+     * Constructs a new handler.
+     * @param budget   the number of conflicts of each SAT call
+     * @param delegate the delegate handler, may be {@code null}
+     */
+    private ConflictBudgetHandler(int budget, final SATHandler delegate) {
+      this.budget = budget;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean detectedConflict() {
+      if (this.delegate != null && !this.delegate.detectedConflict()) {
+        this.canceledByDelegate = true;
+        return false;
+      }
+      return ++this.conflicts <= this.budget;
+    }
+
+    @Override
+    public void startedSolving() {
+      this.conflicts = 0;
+      if (this.delegate != null)
+        this.delegate.startedSolving();
+    }
+
+    @Override
+    public void finishedSolving() {
+      if (this.delegate != null)
+        this.delegate.finishedSolving();
     }
   }
 }
@@ -35,7 +35,7 @@ import java.io.PrintStream;
 
 /**
  * The configuration object for a MaxSAT solver.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public final class MaxSATConfig extends Configuration {
@@ -62,10 +62,11 @@ public final class MaxSATConfig extends Configuration {
   }
 
   /**
-   * The pseudo Boolean encoding.
+   * The pseudo Boolean encoding.  The sequential weight counter ({@code SWC}) is restricted to right hand sides in the
+   * integer range, the {@code ADDER} encoding also supports larger right hand sides.
    */
   public enum PBEncoding {
-    SWC
+    SWC, ADDER
   }
 
   /**
@@ -100,6 +101,12 @@ public final class MaxSATConfig extends Configuration {
   final boolean symmetry;
   final int limit;
   final boolean bmo;
+  final int coreTrimming;
+  final int coreMinimization;
+  final boolean coreExhaustion;
+  final boolean hardening;
+  final int localSearchFlips;
+  final boolean preprocessing;
 
   /**
    * Constructor for a MaxSAT configuration.
@@ -118,6 +125,12 @@ public final class MaxSATConfig extends Configuration {
     this.symmetry = builder.symmetry;
     this.limit = builder.limit;
     this.bmo = builder.bmo;
+    this.coreTrimming = builder.coreTrimming;
+    this.coreMinimization = builder.coreMinimization;
+    this.coreExhaustion = builder.coreExhaustion;
+    this.hardening = builder.hardening;
+    this.localSearchFlips = builder.localSearchFlips;
+    this.preprocessing = builder.preprocessing;
   }
 
   @Override
@@ -133,6 +146,12 @@ public final class MaxSATConfig extends Configuration {
     sb.append("symmetry=").append(this.symmetry).append("\n");
     sb.append("limit=").append(this.limit).append("\n");
     sb.append("bmo=").append(this.bmo).append("\n");
+    sb.append("coreTrimming=").append(this.coreTrimming).append("\n");
+    sb.append("coreMinimization=").append(this.coreMinimization).append("\n");
+    sb.append("coreExhaustion=").append(this.coreExhaustion).append("\n");
+    sb.append("hardening=").append(this.hardening).append("\n");
+    sb.append("localSearchFlips=").append(this.localSearchFlips).append("\n");
+    sb.append("preprocessing=").append(this.preprocessing).append("\n");
     sb.append("}\n");
     return sb.toString();
   }
@@ -152,6 +171,12 @@ public final class MaxSATConfig extends Configuration {
     private boolean symmetry = true;
     private int limit = Integer.MAX_VALUE;
     private boolean bmo = true;
+    private int coreTrimming = 0;
+    private int coreMinimization = 0;
+    private boolean coreExhaustion = false;
+    private boolean hardening = false;
+    private int localSearchFlips = 0;
+    private boolean preprocessing = false;
 
     /**
      * Constructor for the builder.
@@ -231,6 +256,79 @@ public final class MaxSATConfig extends Configuration {
       return this;
     }
 
+    /**
+     * Sets the maximum number of core trimming rounds.  In each round the SAT solver is called again with only the
+     * literals of the core as assumptions, which often yields a smaller core.  Trimming stops early if the core does
+     * not shrink anymore.  The default value is {@code 0}, i.e. no trimming.
+     * @param rounds the maximum number of trimming rounds
+     * @return the builder
+     */
+    public Builder coreTrimming(int rounds) {
+      this.coreTrimming = rounds;
+      return this;
+    }
+
+    /**
+     * Sets the conflict budget for core minimisation.  If the budget is positive, each literal of a core is tested
+     * for being removable by a SAT call which is canceled after the given number of conflicts.  The default value is
+     * {@code 0}, i.e. no minimisation.
+     * @param conflicts the conflict budget of each minimisation call
+     * @return the builder
+     */
+    public Builder coreMinimization(int conflicts) {
+      this.coreMinimization = conflicts;
+      return this;
+    }
+
+    /**
+     * Enables core exhaustion.  After a new cardinality constraint for a core is created, its bound is increased as
+     * long as the SAT solver proves that the bound cannot be satisfied.  Core exhaustion is only used by algorithms
+     * which relax cores by individual cardinality constraints, i.e. OLL.  The default value is {@code false}.
+     * @param exhaustion {@code true} if core exhaustion should be activated, {@code false} otherwise
+     * @return the builder
+     */
+    public Builder coreExhaustion(final boolean exhaustion) {
+      this.coreExhaustion = exhaustion;
+      return this;
+    }
+
+    /**
+     * Enables hardening of soft clauses.  If the weight of a soft clause exceeds the gap between the upper and the
+     * lower bound, no better solution can violate it and the soft clause is made hard.  Hardening is used by the
+     * weighted searches of LinearSU and by OLL.  The default value is {@code false}.
+     * @param hardening {@code true} if hardening should be activated, {@code false} otherwise
+     * @return the builder
+     */
+    public Builder hardening(final boolean hardening) {
+      this.hardening = hardening;
+      return this;
+    }
+
+    /**
+     * Sets the number of flips of a SATLike local search which is run before the exact search.  A model found by the
+     * local search is reported to the handler as an upper bound and used as initial phases of the SAT solvers.  The
+     * default value is {@code 0} which disables the local search.
+     * @param flips the maximal number of flips
+     * @return the builder
+     */
+    public Builder localSearch(final int flips) {
+      this.localSearchFlips = flips;
+      return this;
+    }
+
+    /**
+     * Enables the preprocessing of the MaxSAT formula before the search.  The preprocessing performs unit propagation
+     * on the hard clauses, removes subsumed clauses, merges duplicate soft clauses of weighted formulas and eliminates
+     * variables which do not occur in soft clauses.  Unit soft clauses are used as their own relaxation literals.
+     * The default value is {@code false}.
+     * @param preprocessing {@code true} if the preprocessing should be activated, {@code false} otherwise
+     * @return the builder
+     */
+    public Builder preprocessing(final boolean preprocessing) {
+      this.preprocessing = preprocessing;
+      return this;
+    }
+
     /**
      * Sets the verbosity. The default value is {@code NONE}.  If you set the verbosity to {@code SOME} you have also to
      * set an output stream.
@@ -0,0 +1,499 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.maxsat.algorithms;
+
+import org.logicng.collections.LNGBooleanVector;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
+import org.logicng.datastructures.Tristate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.logicng.solvers.sat.MiniSatStyleSolver.not;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.sign;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.var;
+
+/**
+ * A preprocessor for MaxSAT formulas.
+ * <p>
+ * The preprocessor performs the following cost-preserving simplifications:
+ * <ul>
+ * <li>unit propagation on the hard clauses and simplification of all clauses with the resulting assignment</li>
+ * <li>removal of tautologies and of clauses which are subsumed by a hard clause</li>
+ * <li>merging of duplicate soft clauses by summing their weights (only for weighted formulas)</li>
+ * <li>bounded variable elimination of variables which do not occur in soft clauses</li>
+ * </ul>
+ * Variables fixed by unit propagation are kept as hard unit clauses.  A model of the simplified formula can be
+ * extended to a model of the original formula with the same cost by {@link #reconstruct(LNGBooleanVector)}.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class MaxSATPreprocessor {
+
+  private static final int MAX_OCCURRENCES = 16;
+  private static final int MAX_RESOLVENT_SIZE = 20;
+  private static final int ELIMINATION_ROUNDS = 3;
+
+  private final int nVars;
+  private final LNGVector<LNGIntVector> clauses;
+  private final LNGIntVector weights;
+  private final LNGBooleanVector removed;
+  private final LNGVector<LNGIntVector> occurrences;
+  private final Tristate[] assignment;
+  private final LNGIntVector trail;
+  private final LNGIntVector reconstructionPivots;
+  private final LNGVector<LNGIntVector> reconstructionClauses;
+  private int nbEliminated;
+  private int nbRemoved;
+
+  /**
+   * Constructs a new preprocessor.
+   * @param nVars   the number of variables
+   * @param clauses the clauses
+   * @param weights the weights of the clauses (or -1 for hard clauses)
+   */
+  public MaxSATPreprocessor(int nVars, final LNGVector<LNGIntVector> clauses, final LNGIntVector weights) {
+    assert clauses.size() == weights.size();
+    this.nVars = nVars;
+    this.clauses = new LNGVector<LNGIntVector>(clauses.size());
+    this.weights = new LNGIntVector(weights);
+    this.removed = new LNGBooleanVector(clauses.size());
+    for (int i = 0; i < clauses.size(); i++) {
+      this.clauses.push(new LNGIntVector(clauses.get(i)));
+      this.removed.push(false);
+    }
+    this.occurrences = new LNGVector<LNGIntVector>(2 * nVars);
+    for (int i = 0; i < 2 * nVars; i++)
+      this.occurrences.push(new LNGIntVector());
+    this.assignment = new Tristate[nVars];
+    Arrays.fill(this.assignment, Tristate.UNDEF);
+    this.trail = new LNGIntVector();
+    this.reconstructionPivots = new LNGIntVector();
+    this.reconstructionClauses = new LNGVector<LNGIntVector>();
+    this.nbEliminated = 0;
+    this.nbRemoved = 0;
+  }
+
+  /**
+   * Simplifies the formula.
+   * @param mergeSoftClauses {@code true} if duplicate soft clauses should be merged to a single soft clause
+   * @return {@code false} if the hard clauses are unsatisfiable, {@code true} otherwise
+   */
+  public boolean preprocess(boolean mergeSoftClauses) {
+    this.normalize();
+    if (!this.propagate())
+      return false;
+    this.simplify();
+    this.subsume();
+    if (mergeSoftClauses)
+      this.mergeDuplicates();
+    return this.eliminate();
+  }
+
+  /**
+   * Returns the hard clauses of the simplified formula.
+   * @return the hard clauses
+   */
+  public LNGVector<LNGIntVector> hardClauses() {
+    final LNGVector<LNGIntVector> result = new LNGVector<LNGIntVector>();
+    for (int i = 0; i < this.trail.size(); i++) {
+      final LNGIntVector unit = new LNGIntVector(1);
+      unit.push(this.trail.get(i));
+      result.push(unit);
+    }
+    for (int i = 0; i < this.clauses.size(); i++)
+      if (!this.removed.get(i) && this.weights.get(i) == -1)
+        result.push(this.clauses.get(i));
+    return result;
+  }
+
+  /**
+   * Returns the soft clauses of the simplified formula.
+   * @return the soft clauses
+   */
+  public LNGVector<LNGIntVector> softClauses() {
+    final LNGVector<LNGIntVector> result = new LNGVector<LNGIntVector>();
+    for (int i = 0; i < this.clauses.size(); i++)
+      if (!this.removed.get(i) && this.weights.get(i) != -1)
+        result.push(this.clauses.get(i));
+    return result;
+  }
+
+  /**
+   * Returns the weights of the soft clauses of the simplified formula.
+   * @return the weights of the soft clauses
+   */
+  public LNGIntVector softWeights() {
+    final LNGIntVector result = new LNGIntVector();
+    for (int i = 0; i < this.clauses.size(); i++)
+      if (!this.removed.get(i) && this.weights.get(i) != -1)
+        result.push(this.weights.get(i));
+    return result;
+  }
+
+  /**
+   * Returns the number of eliminated variables.
+   * @return the number of eliminated variables
+   */
+  public int eliminatedVariables() {
+    return this.nbEliminated;
+  }
+
+  /**
+   * Returns the number of removed clauses, i.e. satisfied, subsumed, merged or resolved clauses.
+   * @return the number of removed clauses
+   */
+  public int removedClauses() {
+    return this.nbRemoved;
+  }
+
+  /**
+   * Extends a model of the simplified formula to a model of the original formula.  The model is changed in place.
+   * @param model the model of the simplified formula
+   */
+  public void reconstruct(final LNGBooleanVector model) {
+    while (model.size() < this.nVars)
+      model.push(false);
+    for (int i = this.reconstructionPivots.size() - 1; i >= 0; i--) {
+      final int pivot = this.reconstructionPivots.get(i);
+      if (!satisfies(model, this.reconstructionClauses.get(i)))
+        model.set(var(pivot), !sign(pivot));
+    }
+  }
+
+  /**
+   * Sorts the literals of each clause, removes duplicate literals and tautological clauses, and builds the occurrence
+   * lists.
+   */
+  private void normalize() {
+    for (int i = 0; i < this.clauses.size(); i++) {
+      final LNGIntVector clause = this.clauses.get(i);
+      clause.sort();
+      int j = 0;
+      boolean tautology = false;
+      for (int k = 0; k < clause.size() && !tautology; k++) {
+        final int lit = clause.get(k);
+        if (j > 0 && clause.get(j - 1) == not(lit))
+          tautology = true;
+        else if (j == 0 || clause.get(j - 1) != lit)
+          clause.set(j++, lit);
+      }
+      clause.shrinkTo(j);
+      if (tautology)
+        this.remove(i);
+      else
+        this.attach(i);
+    }
+  }
+
+  /**
+   * Performs unit propagation on the hard clauses.
+   * @return {@code false} if a conflict was found, {@code true} otherwise
+   */
+  private boolean propagate() {
+    for (int i = 0; i < this.clauses.size(); i++) {
+      if (!this.removed.get(i) && this.weights.get(i) == -1) {
+        final LNGIntVector clause = this.clauses.get(i);
+        if (clause.empty() || clause.size() == 1 && !this.assign(clause.get(0)))
+          return false;
+      }
+    }
+    for (int head = 0; head < this.trail.size(); head++) {
+      final LNGIntVector occs = this.occurrences.get(not(this.trail.get(head)));
+      for (int k = 0; k < occs.size(); k++) {
+        final int c = occs.get(k);
+        if (this.removed.get(c) || this.weights.get(c) != -1)
+          continue;
+        int unassigned = 0;
+        int unit = -1;
+        boolean satisfied = false;
+        final LNGIntVector clause = this.clauses.get(c);
+        for (int j = 0; j < clause.size() && !satisfied; j++) {
+          final Tristate value = this.value(clause.get(j));
+          if (value == Tristate.TRUE)
+            satisfied = true;
+          else if (value == Tristate.UNDEF) {
+            unassigned++;
+            unit = clause.get(j);
+          }
+        }
+        if (!satisfied && (unassigned == 0 || unassigned == 1 && !this.assign(unit)))
+          return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Simplifies all clauses with the assignment of the unit propagation.  Satisfied clauses are removed and false
+   * literals are removed from the remaining clauses.  A soft clause keeps one false literal if all of its literals
+   * are false such that its weight is still counted.
+   */
+  private void simplify() {
+    if (this.trail.empty())
+      return;
+    for (int i = 0; i < this.clauses.size(); i++) {
+      if (this.removed.get(i))
+        continue;
+      final LNGIntVector clause = this.clauses.get(i);
+      boolean satisfied = false;
+      int j = 0;
+      for (int k = 0; k < clause.size() && !satisfied; k++) {
+        final Tristate value = this.value(clause.get(k));
+        if (value == Tristate.TRUE)
+          satisfied = true;
+        else if (value == Tristate.UNDEF)
+          clause.set(j++, clause.get(k));
+      }
+      if (satisfied)
+        this.remove(i);
+      else if (j < clause.size()) {
+        this.detach(i);
+        clause.shrinkTo(Math.max(j, 1));
+        this.attach(i);
+      }
+    }
+  }
+
+  /**
+   * Removes all clauses which are subsumed by a hard clause.  Such a clause is satisfied by every model of the hard
+   * clauses.
+   */
+  private void subsume() {
+    final boolean[] marks = new boolean[2 * this.nVars];
+    for (int d = 0; d < this.clauses.size(); d++) {
+      if (this.removed.get(d) || this.weights.get(d) != -1)
+        continue;
+      final LNGIntVector subsumer = this.clauses.get(d);
+      int minLit = subsumer.get(0);
+      for (int j = 0; j < subsumer.size(); j++) {
+        marks[subsumer.get(j)] = true;
+        if (this.occurrences.get(subsumer.get(j)).size() < this.occurrences.get(minLit).size())
+          minLit = subsumer.get(j);
+      }
+      final LNGIntVector occs = this.occurrences.get(minLit);
+      for (int k = 0; k < occs.size(); k++) {
+        final int c = occs.get(k);
+        final LNGIntVector clause = this.clauses.get(c);
+        if (c == d || this.removed.get(c) || clause.size() < subsumer.size())
+          continue;
+        if (clause.size() == subsumer.size() && this.weights.get(c) == -1 && c < d)
+          continue;
+        int found = 0;
+        for (int j = 0; j < clause.size(); j++)
+          if (marks[clause.get(j)])
+            found++;
+        if (found == subsumer.size())
+          this.remove(c);
+      }
+      for (int j = 0; j < subsumer.size(); j++)
+        marks[subsumer.get(j)] = false;
+    }
+  }
+
+  /**
+   * Merges soft clauses with the same literals to a single soft clause with the sum of their weights.  Clauses are not
+   * merged if the sum would exceed the integer range of the weights.
+   */
+  private void mergeDuplicates() {
+    final Map<String, Integer> seen = new HashMap<String, Integer>();
+    for (int i = 0; i < this.clauses.size(); i++) {
+      if (this.removed.get(i) || this.weights.get(i) == -1)
+        continue;
+      final String key = Arrays.toString(this.clauses.get(i).toArray());
+      final Integer first = seen.get(key);
+      if (first == null || (long) this.weights.get(first) + this.weights.get(i) > Integer.MAX_VALUE)
+        seen.put(key, i);
+      else {
+        this.weights.set(first, this.weights.get(first) + this.weights.get(i));
+        this.remove(i);
+      }
+    }
+  }
+
+  /**
+   * Eliminates variables which do not occur in soft clauses by resolution if this does not increase the number of
+   * clauses.
+   * @return {@code false} if the empty clause was derived, {@code true} otherwise
+   */
+  private boolean eliminate() {
+    final boolean[] frozen = new boolean[this.nVars];
+    for (int i = 0; i < this.clauses.size(); i++)
+      if (!this.removed.get(i) && this.weights.get(i) != -1)
+        for (int j = 0; j < this.clauses.get(i).size(); j++)
+          frozen[var(this.clauses.get(i).get(j))] = true;
+    boolean changed = true;
+    for (int round = 0; round < ELIMINATION_ROUNDS && changed; round++) {
+      changed = false;
+      for (int v = 0; v < this.nVars; v++) {
+        if (frozen[v] || this.assignment[v] != Tristate.UNDEF)
+          continue;
+        final LNGIntVector pos = this.activeOccurrences(2 * v);
+        final LNGIntVector neg = this.activeOccurrences(2 * v + 1);
+        if (pos.empty() && neg.empty() || pos.size() + neg.size() > MAX_OCCURRENCES)
+          continue;
+        final LNGVector<LNGIntVector> resolvents = this.resolve(v, pos, neg, pos.size() + neg.size());
+        if (resolvents == null)
+          continue;
+        for (int i = 0; i < pos.size(); i++)
+          this.storeForReconstruction(2 * v, pos.get(i));
+        for (int i = 0; i < neg.size(); i++)
+          this.storeForReconstruction(2 * v + 1, neg.get(i));
+        for (final LNGIntVector resolvent : resolvents) {
+          if (resolvent.empty())
+            return false;
+          this.clauses.push(resolvent);
+          this.weights.push(-1);
+          this.removed.push(false);
+          this.attach(this.clauses.size() - 1);
+        }
+        frozen[v] = true;
+        this.nbEliminated++;
+        changed = true;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Computes all non-tautological resolvents of the clauses with the positive and the negative literal of a variable.
+   * @param v     the variable
+   * @param pos   the clauses with the positive literal
+   * @param neg   the clauses with the negative literal
+   * @param limit the maximal number of resolvents
+   * @return the resolvents or {@code null} if there are too many or too long resolvents
+   */
+  private LNGVector<LNGIntVector> resolve(int v, final LNGIntVector pos, final LNGIntVector neg, int limit) {
+    final LNGVector<LNGIntVector> resolvents = new LNGVector<LNGIntVector>();
+    for (int i = 0; i < pos.size(); i++) {
+      for (int j = 0; j < neg.size(); j++) {
+        final LNGIntVector resolvent = resolvent(v, this.clauses.get(pos.get(i)), this.clauses.get(neg.get(j)));
+        if (resolvent == null)
+          continue;
+        if (resolvents.size() == limit || resolvent.size() > MAX_RESOLVENT_SIZE)
+          return null;
+        resolvents.push(resolvent);
+      }
+    }
+    return resolvents;
+  }
+
+  /**
+   * Computes the resolvent of two sorted clauses on a given variable.
+   * @param v the variable
+   * @param c the first clause
+   * @param d the second clause
+   * @return the resolvent or {@code null} if the resolvent is a tautology
+   */
+  private static LNGIntVector resolvent(int v, final LNGIntVector c, final LNGIntVector d) {
+    final LNGIntVector result = new LNGIntVector(c.size() + d.size());
+    int i = 0;
+    int j = 0;
+    while (i < c.size() || j < d.size()) {
+      final int lit;
+      if (j == d.size() || i < c.size() && c.get(i) < d.get(j))
+        lit = c.get(i++);
+      else if (i == c.size() || d.get(j) < c.get(i))
+        lit = d.get(j++);
+      else {
+        lit = c.get(i++);
+        j++;
+      }
+      if (var(lit) == v)
+        continue;
+      if (!result.empty() && result.back() == not(lit))
+        return null;
+      result.push(lit);
+    }
+    return result;
+  }
+
+  private LNGIntVector activeOccurrences(int lit) {
+    final LNGIntVector result = new LNGIntVector();
+    final LNGIntVector occs = this.occurrences.get(lit);
+    for (int i = 0; i < occs.size(); i++)
+      if (!this.removed.get(occs.get(i)))
+        result.push(occs.get(i));
+    return result;
+  }
+
+  private void storeForReconstruction(int pivot, int c) {
+    this.reconstructionPivots.push(pivot);
+    this.reconstructionClauses.push(this.clauses.get(c));
+    this.remove(c);
+  }
+
+  private boolean assign(int lit) {
+    final Tristate value = this.value(lit);
+    if (value == Tristate.UNDEF) {
+      this.assignment[var(lit)] = Tristate.fromBool(!sign(lit));
+      this.trail.push(lit);
+    }
+    return value != Tristate.FALSE;
+  }
+
+  private Tristate value(int lit) {
+    final Tristate value = this.assignment[var(lit)];
+    if (value == Tristate.UNDEF)
+      return value;
+    return Tristate.fromBool((value == Tristate.TRUE) != sign(lit));
+  }
+
+  private void attach(int c) {
+    final LNGIntVector clause = this.clauses.get(c);
+    for (int j = 0; j < clause.size(); j++)
+      this.occurrences.get(clause.get(j)).push(c);
+  }
+
+  private void detach(int c) {
+    final LNGIntVector clause = this.clauses.get(c);
+    for (int j = 0; j < clause.size(); j++) {
+      final LNGIntVector occs = this.occurrences.get(clause.get(j));
+      int k = 0;
+      for (int l = 0; l < occs.size(); l++)
+        if (occs.get(l) != c)
+          occs.set(k++, occs.get(l));
+      occs.shrinkTo(k);
+    }
+  }
+
+  private void remove(int c) {
+    this.removed.set(c, true);
+    this.nbRemoved++;
+  }
+
+  private static boolean satisfies(final LNGBooleanVector model, final LNGIntVector clause) {
+    for (int i = 0; i < clause.size(); i++)
+      if (model.get(var(clause.get(i))) != sign(clause.get(i)))
+        return true;
+    return false;
+  }
+}
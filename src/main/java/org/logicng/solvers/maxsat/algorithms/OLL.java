@@ -0,0 +1,372 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.maxsat.algorithms;
+
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Tristate;
+import org.logicng.solvers.maxsat.encodings.Encoder;
+import org.logicng.solvers.sat.MiniSatStyleSolver;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.CardinalityEncoding;
+import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.IncrementalStrategy;
+import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.Verbosity;
+import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.WeightStrategy;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.not;
+
+/**
+ * OLL solver.
+ * <p>
+ * A core-guided algorithm which relaxes each core by a soft cardinality constraint: for a core with minimum weight
+ * {@code w} the lower bound is increased by {@code w}, the weights of the core literals are decreased by {@code w},
+ * and a new soft literal with weight {@code w} stating that at most one literal of the core is violated is added.  If
+ * this soft literal occurs in a later core, the bound of its totalizer is increased incrementally.  A single SAT
+ * solver is used for the whole search.  Weighted instances are solved by stratification if a weight strategy is set,
+ * and literals whose weight exceeds the gap between upper and lower bound are hardened if hardening is configured.
+ * If core exhaustion is configured, the bound of each new totalizer is increased as long as it cannot be satisfied.
+ * <p>
+ * Hard and soft clauses can be added after a search.  Since cores stay cores if clauses are added, the next search
+ * continues on the same SAT solver with the totalizers and the lower bound of the previous search.  This is not
+ * possible if literals were hardened or the formula was preprocessed, see {@link #canResume()}.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class OLL extends MaxSAT {
+
+  private MiniSatStyleSolver solver;
+  private WeightStrategy weightStrategy;
+  private SortedMap<Integer, Integer> objective;
+  private SortedMap<Integer, OLLTotalizer> totalizers;
+  private PrintStream output;
+  private int nbRelaxedHard;
+  private int nbRelaxedSoft;
+
+  /**
+   * Constructs a new solver with default values.  The default values use diversity-based stratification and hardening
+   * for weighted instances, like {@link org.logicng.solvers.MaxSATSolver#oll()}.
+   */
+  public OLL() {
+    this(new MaxSATConfig.Builder().weight(WeightStrategy.DIVERSIFY).hardening(true).build());
+  }
+
+  /**
+   * Constructs a new solver with a given configuration.
+   * @param config the configuration
+   */
+  public OLL(final MaxSATConfig config) {
+    super(config);
+    this.solver = null;
+    this.verbosity = config.verbosity;
+    this.weightStrategy = config.weightStrategy;
+    this.objective = new TreeMap<Integer, Integer>();
+    this.totalizers = new TreeMap<Integer, OLLTotalizer>();
+    this.output = config.output;
+    this.nbRelaxedHard = 0;
+    this.nbRelaxedSoft = 0;
+  }
+
+  /**
+   * {@inheritDoc}  OLL can continue its search if no literals were hardened and the formula was not preprocessed.
+   * Hardened literals depend on the upper bound of the previous formula, and preprocessing changes the clauses.
+   */
+  @Override
+  public boolean canResume() {
+    return this.nbHardened == 0 && !this.preprocessing;
+  }
+
+  @Override
+  public MaxSATResult search() {
+    if (this.solver == null) {
+      nbInitialVariables = nVars();
+      this.initRelaxation();
+      this.solver = this.rebuildSolver();
+    } else {
+      assert this.canResume();
+      nbInitialVariables = nVars();
+      this.addNewClauses();
+    }
+    this.nbRelaxedHard = nHard();
+    this.nbRelaxedSoft = nSoft();
+    final MaxSATResult result = this.coreGuidedSearch();
+    nbVars = this.solver.nVars();
+    return result;
+  }
+
+  /**
+   * Adds the variables, hard clauses, and relaxed soft clauses which were added since the last search to the SAT
+   * solver.  Variables of the encodings were created in the SAT solver only, therefore the variables of the working
+   * MaxSAT formula were synchronized with the SAT solver at the end of the last search.
+   */
+  private void addNewClauses() {
+    for (int i = this.nbRelaxedSoft; i < nSoft(); i++) {
+      final int l = newRelaxationLiteral(i);
+      softClauses.addRelaxationVar(i, l);
+      softClauses.setAssumptionVar(i, l);
+      this.objective.put(l, (int) softClauses.weight(i));
+    }
+    while (this.solver.nVars() < nVars())
+      newSATVariable(this.solver);
+    for (int i = this.nbRelaxedHard; i < nHard(); i++)
+      this.solver.addClause(hardClauses.get(i).clause());
+    for (int i = this.nbRelaxedSoft; i < nSoft(); i++)
+      this.solver.addClause(softClauses.relaxedClause(i));
+  }
+
+  private MaxSATResult coreGuidedSearch() {
+    int minWeight = problemType == ProblemType.UNWEIGHTED || this.weightStrategy == WeightStrategy.NONE
+            ? 1 : this.nextLevel(Integer.MAX_VALUE);
+    final LNGIntVector assumptions = new LNGIntVector();
+    while (true) {
+      assumptions.clear();
+      for (final Map.Entry<Integer, Integer> entry : this.objective.entrySet())
+        if (entry.getValue() >= minWeight)
+          assumptions.push(not(entry.getKey()));
+      final Tristate res = searchWithHints(this.solver, satHandler(), assumptions);
+      if (res == Tristate.UNDEF)
+        return MaxSATResult.UNDEF;
+      else if (res == Tristate.TRUE) {
+        nbSatisfiable++;
+        final long newCost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
+        final boolean improved = model.empty() || newCost < ubCost;
+        if (improved) {
+          saveModel(this.solver.model());
+          ubCost = newCost;
+          if (verbosity != Verbosity.NONE)
+            this.output.println("o " + ubCost);
+          if (!foundUpperBound(ubCost, null))
+            return MaxSATResult.UNDEF;
+        }
+        final int nextWeight = this.nextLevel(minWeight);
+        if (nextWeight == -1 || lbCost == ubCost) {
+          assert lbCost == ubCost;
+          if (verbosity != Verbosity.NONE)
+            this.output.println("c LB = UB");
+          return MaxSATResult.OPTIMUM;
+        }
+        if (improved)
+          this.hardenObjective();
+        minWeight = nextWeight;
+      } else {
+        final LNGIntVector core = reduceCore(this.solver);
+        if (core.size() == 0)
+          return MaxSATResult.UNSATISFIABLE;
+        nbCores++;
+        sumSizeCores += core.size();
+        int coreWeight = Integer.MAX_VALUE;
+        for (int i = 0; i < core.size(); i++)
+          coreWeight = Math.min(coreWeight, this.objective.get(core.get(i)));
+        lbCost += coreWeight;
+        if (verbosity != Verbosity.NONE)
+          this.output.println(String.format("c LB : %d CS : %d W : %d", lbCost, core.size(), coreWeight));
+        this.relaxCore(core, coreWeight);
+        if (!model.empty() && lbCost == ubCost) {
+          if (verbosity != Verbosity.NONE)
+            this.output.println("c LB = UB");
+          return MaxSATResult.OPTIMUM;
+        }
+        if (!model.empty())
+          this.hardenObjective();
+        if (!foundLowerBound(lbCost, null))
+          return MaxSATResult.UNDEF;
+      }
+    }
+  }
+
+  /**
+   * Hardens all literals of the objective whose weight exceeds the gap between the upper and the lower bound.
+   */
+  private void hardenObjective() {
+    final LNGIntVector lits = new LNGIntVector(this.objective.size());
+    final LNGIntVector weights = new LNGIntVector(this.objective.size());
+    for (final Map.Entry<Integer, Integer> entry : this.objective.entrySet()) {
+      lits.push(entry.getKey());
+      weights.push(entry.getValue());
+    }
+    final LNGIntVector hardened = harden(this.solver, lits, weights, ubCost - lbCost);
+    for (int i = 0; i < hardened.size(); i++) {
+      this.objective.remove(hardened.get(i));
+      this.totalizers.remove(hardened.get(i));
+    }
+    if (hardened.size() > 0 && verbosity != Verbosity.NONE)
+      this.output.println("c hardened : " + hardened.size());
+  }
+
+  /**
+   * Relaxes a core.  The weights of the core literals are decreased by the weight of the core, literals of
+   * totalizers are replaced by the next output of the totalizer, and a new totalizer for the core is added.
+   * @param core       the core
+   * @param coreWeight the weight of the core
+   */
+  private void relaxCore(final LNGIntVector core, int coreWeight) {
+    final LNGIntVector lits = new LNGIntVector(core);
+    for (int i = 0; i < lits.size(); i++) {
+      final int lit = lits.get(i);
+      final int weight = this.objective.get(lit) - coreWeight;
+      if (weight == 0)
+        this.objective.remove(lit);
+      else
+        this.objective.put(lit, weight);
+      final OLLTotalizer totalizer = this.totalizers.remove(lit);
+      if (totalizer != null)
+        this.increaseBound(totalizer);
+    }
+    if (lits.size() == 1) {
+      this.solver.addClause(lits.get(0));
+      return;
+    }
+    final OLLTotalizer totalizer = new OLLTotalizer(lits, coreWeight);
+    totalizer.encoder.buildCardinality(this.solver, lits, 1);
+    if (this.coreExhaustion)
+      this.exhaust(totalizer);
+    if (totalizer.bound < lits.size())
+      this.addOutput(totalizer);
+  }
+
+  /**
+   * Exhausts the core of a new totalizer: as long as the SAT solver proves that the bound of the totalizer cannot be
+   * satisfied, the bound is increased and the lower bound is increased by the weight of the core.
+   * <p>
+   * This assumes that the outputs of the totalizer are the only relaxation of the weight of the core: the weight was
+   * subtracted from the core literals by {@link #relaxCore(LNGIntVector, int)}, and no output of the totalizer is in
+   * the objective yet.  Otherwise, the weight would be counted twice.
+   * @param totalizer the totalizer
+   */
+  private void exhaust(final OLLTotalizer totalizer) {
+    assert !this.totalizers.containsValue(totalizer);
+    final LNGIntVector assumptions = new LNGIntVector(1);
+    while (totalizer.bound < totalizer.lits.size()) {
+      assumptions.clear();
+      assumptions.push(not(this.outputLiteral(totalizer)));
+      if (searchWithHints(this.solver, satHandler(), assumptions) != Tristate.FALSE)
+        return;
+      totalizer.bound++;
+      lbCost += totalizer.weight;
+      if (verbosity != Verbosity.NONE)
+        this.output.println(String.format("c LB : %d (exhausted bound %d)", lbCost, totalizer.bound));
+    }
+  }
+
+  /**
+   * Increases the bound of a totalizer by one and adds its next output to the objective.
+   * @param totalizer the totalizer
+   */
+  private void increaseBound(final OLLTotalizer totalizer) {
+    totalizer.bound++;
+    if (totalizer.bound < totalizer.lits.size())
+      this.addOutput(totalizer);
+  }
+
+  /**
+   * Adds the output of a totalizer for its current bound to the objective.
+   * @param totalizer the totalizer
+   */
+  private void addOutput(final OLLTotalizer totalizer) {
+    final int output = this.outputLiteral(totalizer);
+    final Integer weight = this.objective.get(output);
+    this.objective.put(output, weight == null ? totalizer.weight : weight + totalizer.weight);
+    this.totalizers.put(output, totalizer);
+  }
+
+  /**
+   * Returns the output literal of a totalizer for its current bound, i.e. the literal which is true if more than
+   * bound literals of the core are violated.
+   * @param totalizer the totalizer
+   * @return the output literal
+   */
+  private int outputLiteral(final OLLTotalizer totalizer) {
+    final LNGIntVector encodingAssumptions = new LNGIntVector();
+    totalizer.encoder.incUpdateCardinality(this.solver, new LNGIntVector(), totalizer.lits, totalizer.bound,
+            encodingAssumptions);
+    return not(encodingAssumptions.get(0));
+  }
+
+  /**
+   * Returns the next stratification level of the objective with respect to the weight strategy.
+   * @param weight the current level
+   * @return the next level or -1 if there is none
+   */
+  private int nextLevel(int weight) {
+    final LNGIntVector weights = new LNGIntVector(this.objective.size());
+    for (final int w : this.objective.values())
+      weights.push(w);
+    return this.weightStrategy == WeightStrategy.DIVERSIFY ? nextWeightDiversity(weights, weight) : nextWeight(weights, weight);
+  }
+
+  private MiniSatStyleSolver rebuildSolver() {
+    final MiniSatStyleSolver s = newSATSolver();
+    for (int i = 0; i < nVars(); i++)
+      newSATVariable(s);
+    for (int i = 0; i < nHard(); i++)
+      s.addClause(hardClauses.get(i).clause());
+    for (int i = 0; i < nSoft(); i++)
+      s.addClause(softClauses.relaxedClause(i));
+    return s;
+  }
+
+  private void initRelaxation() {
+    for (int i = 0; i < nbSoft; i++) {
+      final int l = newRelaxationLiteral(i);
+      softClauses.addRelaxationVar(i, l);
+      softClauses.setAssumptionVar(i, l);
+      this.objective.put(l, (int) softClauses.weight(i));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName();
+  }
+
+  /**
+   * A totalizer over the literals of a core together with its current bound and weight.
+   */
+  private static final class OLLTotalizer {
+    private final Encoder encoder;
+    private final LNGIntVector lits;
+    private final int weight;
+    private int bound;
+
+    /**
+     * Constructs a new totalizer for the given literals of a core.
+     * @param lits   the literals
+     * @param weight the weight of the core
+     */
+    private OLLTotalizer(final LNGIntVector lits, int weight) {
+      this.encoder = new Encoder(CardinalityEncoding.TOTALIZER);
+      this.encoder.setIncremental(IncrementalStrategy.ITERATIVE);
+      this.lits = lits;
+      this.weight = weight;
+      this.bound = 1;
+    }
+  }
+}
@@ -0,0 +1,350 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.maxsat.algorithms;
+
+import org.logicng.collections.LNGBooleanVector;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
+import org.logicng.handlers.SATHandler;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A stochastic local search for MaxSAT in the style of SATLike.
+ * <p>
+ * Hard and soft clauses carry dynamic weights which are increased for falsified clauses when the search is stuck in
+ * a local optimum and smoothed with a small probability.  In each step a variable with a positive score is chosen by
+ * sampling (best from multiple selection), otherwise the best variable of a random falsified clause is flipped.  The
+ * search keeps the best model which satisfies all hard clauses.  All data structures are primitive arrays.
+ * <p>
+ * Empty clauses are not part of the search: an empty hard clause cannot be satisfied, so the search fails
+ * immediately, and the weight of an empty soft clause is a constant part of the cost of every model.
+ * <p>
+ * Literals use the encoding of the MaxSAT solvers, i.e. {@code 2 * var} for a positive and {@code 2 * var + 1} for a
+ * negative literal.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class SATLike {
+
+  private static final int SAMPLES = 15;
+  private static final int HARD_INCREMENT = 3;
+  private static final int SOFT_LIMIT = 1000;
+  private static final double SMOOTH_PROBABILITY = 0.01;
+  private static final int CHECK_INTERVAL = 1024;
+
+  private final int nVars;
+  private final int[][] clauses;
+  private final int[] costs;
+  private final boolean[] hard;
+  private final int[][] occurrences;
+  private final int[] weights;
+  private final int[] satCount;
+  private final long[] scores;
+  private final boolean[] values;
+  private final int[] unsat;
+  private final int[] unsatPos;
+  private final int[] goodVars;
+  private final int[] goodPos;
+  private final Random random;
+  private final boolean emptyHardClause;
+  private final long constantCost;
+  private int nbUnsat;
+  private int nbUnsatHard;
+  private int nbGood;
+  private long cost;
+  private boolean[] bestModel;
+  private long bestCost;
+
+  /**
+   * Constructs a new local search.
+   * @param nVars   the number of variables
+   * @param clauses the clauses
+   * @param weights the weights of the clauses (or -1 for hard clauses)
+   * @param seed    the seed of the random generator
+   */
+  public SATLike(int nVars, final LNGVector<LNGIntVector> clauses, final LNGIntVector weights, long seed) {
+    assert clauses.size() == weights.size();
+    this.nVars = nVars;
+    boolean emptyHard = false;
+    long constant = 0;
+    int nClauses = 0;
+    for (int i = 0; i < clauses.size(); i++) {
+      if (clauses.get(i).size() > 0)
+        nClauses++;
+      else if (weights.get(i) == -1)
+        emptyHard = true;
+      else
+        constant += weights.get(i);
+    }
+    this.emptyHardClause = emptyHard;
+    this.constantCost = constant;
+    this.clauses = new int[nClauses][];
+    this.costs = new int[nClauses];
+    this.hard = new boolean[nClauses];
+    final int[] nbOccurrences = new int[nVars];
+    final int[] lastClause = new int[nVars];
+    Arrays.fill(lastClause, -1);
+    int i = 0;
+    for (int k = 0; k < clauses.size(); k++) {
+      final LNGIntVector clause = clauses.get(k);
+      if (clause.size() == 0)
+        continue;
+      this.clauses[i] = new int[clause.size()];
+      for (int j = 0; j < clause.size(); j++) {
+        final int var = clause.get(j) >> 1;
+        this.clauses[i][j] = clause.get(j);
+        if (lastClause[var] != i) {
+          lastClause[var] = i;
+          nbOccurrences[var]++;
+        }
+      }
+      this.hard[i] = weights.get(k) == -1;
+      this.costs[i] = this.hard[i] ? 0 : weights.get(k);
+      i++;
+    }
+    this.occurrences = new int[nVars][];
+    for (int v = 0; v < nVars; v++)
+      this.occurrences[v] = new int[nbOccurrences[v]];
+    final int[] fill = new int[nVars];
+    for (int c = 0; c < nClauses; c++)
+      for (final int lit : this.clauses[c])
+        if (fill[lit >> 1] == 0 || this.occurrences[lit >> 1][fill[lit >> 1] - 1] != c)
+          this.occurrences[lit >> 1][fill[lit >> 1]++] = c;
+    this.weights = new int[nClauses];
+    this.satCount = new int[nClauses];
+    this.scores = new long[nVars];
+    this.values = new boolean[nVars];
+    this.unsat = new int[nClauses];
+    this.unsatPos = new int[nClauses];
+    this.goodVars = new int[nVars];
+    this.goodPos = new int[nVars];
+    this.random = new Random(seed);
+    this.bestModel = null;
+    this.bestCost = -1;
+  }
+
+  /**
+   * Runs the local search.
+   * @param initial  the initial assignment, variables without value are initialized with {@code false}; may be
+   *                 {@code null}
+   * @param maxFlips the maximal number of flips
+   * @param handler  a SAT handler which is asked periodically via {@link SATHandler#detectedConflict()} whether the
+   *                 search should be continued; may be {@code null}
+   * @return {@code true} if a model satisfying all hard clauses was found, {@code false} otherwise
+   */
+  public boolean search(final LNGBooleanVector initial, int maxFlips, final SATHandler handler) {
+    if (this.emptyHardClause)
+      return false;
+    this.init(initial);
+    for (int flip = 0; flip < maxFlips; flip++) {
+      if (this.nbUnsatHard == 0 && (this.bestCost == -1 || this.cost < this.bestCost)) {
+        this.bestCost = this.cost;
+        this.bestModel = this.values.clone();
+        if (this.cost == this.constantCost)
+          break;
+      }
+      if (this.nbUnsat == 0)
+        break;
+      if (flip % CHECK_INTERVAL == CHECK_INTERVAL - 1 && handler != null && !handler.detectedConflict())
+        break;
+      this.flip(this.pickVar());
+    }
+    if (this.nbUnsatHard == 0 && (this.bestCost == -1 || this.cost < this.bestCost)) {
+      this.bestCost = this.cost;
+      this.bestModel = this.values.clone();
+    }
+    return this.bestModel != null;
+  }
+
+  /**
+   * Returns the best model found so far or {@code null} if no model satisfying all hard clauses was found.
+   * @return the best model
+   */
+  public LNGBooleanVector bestModel() {
+    return this.bestModel == null ? null : new LNGBooleanVector(this.bestModel);
+  }
+
+  /**
+   * Returns the cost of the best model, i.e. the sum of the weights of its falsified soft clauses, or -1 if no model
+   * satisfying all hard clauses was found.
+   * @return the cost of the best model
+   */
+  public long bestCost() {
+    return this.bestCost;
+  }
+
+  private void init(final LNGBooleanVector initial) {
+    for (int v = 0; v < this.nVars; v++)
+      this.values[v] = initial != null && v < initial.size() && initial.get(v);
+    this.nbUnsat = 0;
+    this.nbUnsatHard = 0;
+    this.nbGood = 0;
+    this.cost = this.constantCost;
+    for (int v = 0; v < this.nVars; v++) {
+      this.scores[v] = 0;
+      this.goodPos[v] = -1;
+    }
+    for (int i = 0; i < this.clauses.length; i++) {
+      this.weights[i] = 1;
+      this.satCount[i] = 0;
+      this.unsatPos[i] = -1;
+      for (final int lit : this.clauses[i])
+        if (this.isTrue(lit))
+          this.satCount[i]++;
+      if (this.satCount[i] == 0)
+        this.addUnsat(i);
+      this.addContribution(i, 1);
+    }
+  }
+
+  private int pickVar() {
+    if (this.nbGood > 0) {
+      int best = this.goodVars[this.random.nextInt(this.nbGood)];
+      for (int i = 1; i < SAMPLES && i < this.nbGood; i++) {
+        final int v = this.goodVars[this.random.nextInt(this.nbGood)];
+        if (this.scores[v] > this.scores[best])
+          best = v;
+      }
+      return best;
+    }
+    this.updateWeights();
+    int c = this.unsat[this.random.nextInt(this.nbUnsat)];
+    if (this.nbUnsatHard > 0)
+      while (!this.hard[c])
+        c = this.unsat[this.random.nextInt(this.nbUnsat)];
+    int best = this.clauses[c][0] >> 1;
+    for (final int lit : this.clauses[c])
+      if (this.scores[lit >> 1] > this.scores[best])
+        best = lit >> 1;
+    return best;
+  }
+
+  private void updateWeights() {
+    if (this.random.nextDouble() < SMOOTH_PROBABILITY) {
+      for (int c = 0; c < this.clauses.length; c++) {
+        if (this.satCount[c] > 0 && this.weights[c] > 1) {
+          this.addContribution(c, -1);
+          this.weights[c]--;
+          this.addContribution(c, 1);
+        }
+      }
+    } else {
+      for (int i = 0; i < this.nbUnsat; i++) {
+        final int c = this.unsat[i];
+        if (this.hard[c] || this.weights[c] < SOFT_LIMIT) {
+          this.addContribution(c, -1);
+          this.weights[c] += this.hard[c] ? HARD_INCREMENT : 1;
+          this.addContribution(c, 1);
+        }
+      }
+    }
+  }
+
+  private void flip(int v) {
+    for (final int c : this.occurrences[v])
+      this.addContribution(c, -1);
+    this.values[v] = !this.values[v];
+    for (final int c : this.occurrences[v]) {
+      int count = 0;
+      for (final int lit : this.clauses[c])
+        if (this.isTrue(lit))
+          count++;
+      final int oldCount = this.satCount[c];
+      this.satCount[c] = count;
+      if (oldCount == 0 && count > 0)
+        this.removeUnsat(c);
+      else if (oldCount > 0 && count == 0)
+        this.addUnsat(c);
+    }
+    for (final int c : this.occurrences[v])
+      this.addContribution(c, 1);
+  }
+
+  /**
+   * Adds (sign 1) or removes (sign -1) the contribution of a clause to the scores of its variables.  A falsified
+   * clause increases the score of all its variables, a clause with a single true literal decreases the score of the
+   * variable of this literal.
+   * @param c    the clause
+   * @param sign the sign
+   */
+  private void addContribution(int c, int sign) {
+    final long delta = (long) sign * this.weights[c];
+    if (this.satCount[c] == 0) {
+      for (final int lit : this.clauses[c])
+        this.updateScore(lit >> 1, delta);
+    } else if (this.satCount[c] == 1) {
+      for (final int lit : this.clauses[c]) {
+        if (this.isTrue(lit)) {
+          this.updateScore(lit >> 1, -delta);
+          break;
+        }
+      }
+    }
+  }
+
+  private void updateScore(int v, long delta) {
+    final long old = this.scores[v];
+    this.scores[v] += delta;
+    if (old <= 0 && this.scores[v] > 0) {
+      this.goodPos[v] = this.nbGood;
+      this.goodVars[this.nbGood++] = v;
+    } else if (old > 0 && this.scores[v] <= 0) {
+      final int last = this.goodVars[--this.nbGood];
+      this.goodVars[this.goodPos[v]] = last;
+      this.goodPos[last] = this.goodPos[v];
+      this.goodPos[v] = -1;
+    }
+  }
+
+  private void addUnsat(int c) {
+    this.unsatPos[c] = this.nbUnsat;
+    this.unsat[this.nbUnsat++] = c;
+    if (this.hard[c])
+      this.nbUnsatHard++;
+    else
+      this.cost += this.costs[c];
+  }
+
+  private void removeUnsat(int c) {
+    final int last = this.unsat[--this.nbUnsat];
+    this.unsat[this.unsatPos[c]] = last;
+    this.unsatPos[last] = this.unsatPos[c];
+    this.unsatPos[c] = -1;
+    if (this.hard[c])
+      this.nbUnsatHard--;
+    else
+      this.cost -= this.costs[c];
+  }
+
+  private boolean isTrue(int lit) {
+    return this.values[lit >> 1] == ((lit & 1) == 0);
+  }
+}
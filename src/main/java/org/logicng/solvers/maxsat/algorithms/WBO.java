@@ -59,9 +59,7 @@ import java.io.PrintStream;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.SortedSet;
 import java.util.TreeMap;
-import java.util.TreeSet;
 
 import static org.logicng.datastructures.Tristate.FALSE;
 import static org.logicng.datastructures.Tristate.TRUE;
@@ -148,13 +146,11 @@ public class WBO extends MaxSAT {
     LNGIntVector clause = new LNGIntVector();
     this.nbCurrentSoft = 0;
     for (int i = 0; i < nSoft(); i++) {
-      if (softClauses.get(i).weight() >= currentWeight) {
+      if (softClauses.weight(i) >= currentWeight) {
         this.nbCurrentSoft++;
         clause.clear();
-        clause = new LNGIntVector(softClauses.get(i).clause());
-        for (int j = 0; j < softClauses.get(i).relaxationVars().size(); j++)
-          clause.push(softClauses.get(i).relaxationVars().get(j));
-        clause.push(softClauses.get(i).assumptionVar());
+        clause = softClauses.relaxedClause(i);
+        clause.push(softClauses.assumptionVar(i));
 
         s.addClause(clause);
       }
@@ -173,10 +169,8 @@ public class WBO extends MaxSAT {
       this.symmetryBreaking();
     LNGIntVector clause;
     for (int i = 0; i < nSoft(); i++) {
-      clause = new LNGIntVector(softClauses.get(i).clause());
-      for (int j = 0; j < softClauses.get(i).relaxationVars().size(); j++)
-        clause.push(softClauses.get(i).relaxationVars().get(j));
-      clause.push(softClauses.get(i).assumptionVar());
+      clause = softClauses.relaxedClause(i);
+      clause.push(softClauses.assumptionVar(i));
       s.addClause(clause);
     }
     return s;
@@ -200,40 +194,39 @@ public class WBO extends MaxSAT {
   }
 
 
+  /**
+   * Returns the next stratification level for the weight strategy {@code NORMAL}, cf.
+   * {@link MaxSAT#nextWeight(LNGIntVector, int)}.  If there is no smaller weight, all soft clauses are included.
+   * @param weight the current level
+   * @return the next level
+   */
   private int findNextWeight(int weight) {
-    int nextWeight = 1;
-    for (int i = 0; i < nSoft(); i++) {
-      if (softClauses.get(i).weight() > nextWeight && softClauses.get(i).weight() < weight)
-        nextWeight = softClauses.get(i).weight();
-    }
-    return nextWeight;
+    return Math.max(1, nextWeight(this.softWeights(), weight));
   }
 
+  /**
+   * Returns the next stratification level for the weight strategy {@code DIVERSIFY}, cf.
+   * {@link MaxSAT#nextWeightDiversity(LNGIntVector, int)}.  After the first satisfiable call, the current level itself
+   * is also a candidate.  If there is no smaller level, all soft clauses are included.
+   * @param weight the current level
+   * @return the next level
+   */
   private int findNextWeightDiversity(int weight) {
     assert this.weightStrategy == WeightStrategy.DIVERSIFY;
     assert nbSatisfiable > 0;
-    int nextWeight = weight;
-    int nbClauses;
-    final SortedSet<Integer> nbWeights = new TreeSet<Integer>();
-    double alpha = 1.25;
-    boolean findNext = false;
-    while (true) {
-      if (nbSatisfiable > 1 || findNext)
-        nextWeight = this.findNextWeight(nextWeight);
-      nbClauses = 0;
-      nbWeights.clear();
-      for (int i = 0; i < nSoft(); i++) {
-        if (softClauses.get(i).weight() >= nextWeight) {
-          nbClauses++;
-          nbWeights.add(softClauses.get(i).weight());
-        }
-      }
-      if ((double) nbClauses / nbWeights.size() > alpha || nbClauses == nSoft())
-        break;
-      if (nbSatisfiable == 1 && !findNext)
-        findNext = true;
-    }
-    return nextWeight;
+    final int start = nbSatisfiable == 1 && weight < Integer.MAX_VALUE ? weight + 1 : weight;
+    return Math.max(1, nextWeightDiversity(this.softWeights(), start));
+  }
+
+  /**
+   * Returns the weights of the soft clauses.
+   * @return the weights of the soft clauses
+   */
+  private LNGIntVector softWeights() {
+    final LNGIntVector weights = new LNGIntVector(nSoft());
+    for (int i = 0; i < nSoft(); i++)
+      weights.push((int) softClauses.weight(i));
+    return weights;
   }
 
   private void encodeEO(final LNGIntVector lits) {
@@ -295,23 +288,23 @@ public class WBO extends MaxSAT {
     for (int i = 0; i < conflict.size(); i++) {
       int indexSoft = this.coreMapping.get(conflict.get(i));
 
-      if (softClauses.get(indexSoft).weight() == weightCore) {
+      if (softClauses.weight(indexSoft) == weightCore) {
         final int p = newLiteral(false);
-        softClauses.get(indexSoft).relaxationVars().push(p);
+        softClauses.addRelaxationVar(indexSoft, p);
         lits.push(p);
         if (this.symmetryStrategy)
           this.symmetryLog(indexSoft);
       } else {
-        assert softClauses.get(indexSoft).weight() - weightCore > 0;
-        softClauses.get(indexSoft).setWeight(softClauses.get(indexSoft).weight() - weightCore);
-        LNGIntVector clause = new LNGIntVector(softClauses.get(indexSoft).clause());
-        LNGIntVector vars = new LNGIntVector(softClauses.get(indexSoft).relaxationVars());
+        assert softClauses.weight(indexSoft) - weightCore > 0;
+        softClauses.setWeight(indexSoft, softClauses.weight(indexSoft) - weightCore);
+        LNGIntVector clause = softClauses.clause(indexSoft);
+        LNGIntVector vars = softClauses.relaxationVars(indexSoft);
         final int p = newLiteral(false);
         vars.push(p);
         lits.push(p);
         addSoftClause(weightCore, clause, vars);
         final int l = newLiteral(false);
-        softClauses.get(nSoft() - 1).setAssumptionVar(l);
+        softClauses.setAssumptionVar(nSoft() - 1, l);
         this.coreMapping.put(l, nSoft() - 1);  // Map the new soft clause to its assumption literal.
         assumps.push(not(l)); // Update the assumption vector.
         if (this.symmetryStrategy)
@@ -329,8 +322,8 @@ public class WBO extends MaxSAT {
     int coreCost = Integer.MAX_VALUE;
     for (int i = 0; i < conflict.size(); i++) {
       int indexSoft = this.coreMapping.get(conflict.get(i));
-      if (softClauses.get(indexSoft).weight() < coreCost)
-        coreCost = softClauses.get(indexSoft).weight();
+      if (softClauses.weight(indexSoft) < coreCost)
+        coreCost = (int) softClauses.weight(indexSoft);
     }
     return coreCost;
   }
@@ -349,7 +342,7 @@ public class WBO extends MaxSAT {
         this.relaxationMapping.push(new LNGIntVector());
       }
       this.softMapping.get(p).push(nbCores);
-      this.relaxationMapping.get(p).push(softClauses.get(p).relaxationVars().back());
+      this.relaxationMapping.get(p).push(softClauses.lastRelaxationVar(p));
       if (this.softMapping.get(p).size() > 1)
         this.indexSoftCore.push(p);
     }
@@ -416,17 +409,18 @@ public class WBO extends MaxSAT {
   protected Tristate unsatSearch() {
     assert this.assumptions.size() == 0;
     this.solver = this.rebuildHardSolver();
-    Tristate res = searchSATSolver(this.solver, satHandler(), this.assumptions);
+    Tristate res = searchWithHints(this.solver, satHandler(), this.assumptions);
     if (res == FALSE)
       nbCores++;
     else if (res == TRUE) {
       nbSatisfiable++;
-      int cost = computeCostModel(this.solver.model(), Integer.MAX_VALUE);
-      assert cost <= ubCost;
-      ubCost = cost;
-      saveModel(this.solver.model());
-      if (verbosity != Verbosity.NONE)
-        this.output.println("o " + ubCost);
+      long cost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
+      if (model.empty() || cost < ubCost) {
+        ubCost = cost;
+        saveModel(this.solver.model());
+        if (verbosity != Verbosity.NONE)
+          this.output.println("o " + ubCost);
+      }
     }
     this.solver = null;
     return res;
@@ -443,24 +437,25 @@ public class WBO extends MaxSAT {
     this.updateCurrentWeight(this.weightStrategy);
     this.solver = this.rebuildWeightSolver(this.weightStrategy);
     while (true) {
-      final Tristate res = searchSATSolver(this.solver, satHandler(), this.assumptions);
+      final Tristate res = searchWithHints(this.solver, satHandler(), this.assumptions);
       if (res == UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == FALSE) {
         nbCores++;
-        assert this.solver.conflict().size() > 0;
-        int coreCost = this.computeCostCore(this.solver.conflict());
+        final LNGIntVector core = reduceCore(this.solver);
+        assert core.size() > 0;
+        int coreCost = this.computeCostCore(core);
         lbCost += coreCost;
         if (verbosity != Verbosity.NONE)
-          this.output.println(String.format("c LB : %d CS : %d W : %d", lbCost, this.solver.conflict().size(), coreCost));
+          this.output.println(String.format("c LB : %d CS : %d W : %d", lbCost, core.size(), coreCost));
         if (!foundLowerBound(lbCost, null))
           return MaxSATResult.UNDEF;
-        this.relaxCore(this.solver.conflict(), coreCost, this.assumptions);
+        this.relaxCore(core, coreCost, this.assumptions);
         this.solver = this.rebuildWeightSolver(this.weightStrategy);
       } else {
         nbSatisfiable++;
         if (this.nbCurrentSoft == nSoft()) {
-          assert computeCostModel(this.solver.model(), Integer.MAX_VALUE) == lbCost;
+          assert computeLongCostModel(this.solver.model(), Integer.MAX_VALUE) == lbCost;
           if (lbCost == ubCost && verbosity != Verbosity.NONE)
             this.output.println("c LB = UB");
           if (lbCost < ubCost) {
@@ -472,7 +467,7 @@ public class WBO extends MaxSAT {
           return MaxSATResult.OPTIMUM;
         } else {
           this.updateCurrentWeight(this.weightStrategy);
-          int cost = computeCostModel(this.solver.model(), Integer.MAX_VALUE);
+          long cost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
           if (cost < ubCost) {
             ubCost = cost;
             saveModel(this.solver.model());
@@ -500,27 +495,28 @@ public class WBO extends MaxSAT {
     this.initAssumptions(this.assumptions);
     this.solver = this.rebuildSolver();
     while (true) {
-      final Tristate res = searchSATSolver(this.solver, satHandler(), this.assumptions);
+      final Tristate res = searchWithHints(this.solver, satHandler(), this.assumptions);
       if (res == UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == FALSE) {
         nbCores++;
-        assert this.solver.conflict().size() > 0;
-        int coreCost = this.computeCostCore(this.solver.conflict());
+        final LNGIntVector core = reduceCore(this.solver);
+        assert core.size() > 0;
+        int coreCost = this.computeCostCore(core);
         lbCost += coreCost;
         if (verbosity != Verbosity.NONE)
-          this.output.println(String.format("c LB : %d CS : %d W : %d", lbCost, this.solver.conflict().size(), coreCost));
+          this.output.println(String.format("c LB : %d CS : %d W : %d", lbCost, core.size(), coreCost));
         if (lbCost == ubCost) {
           if (verbosity != Verbosity.NONE)
             this.output.println("c LB = UB");
           return MaxSATResult.OPTIMUM;
         } else if (!foundLowerBound(lbCost, null))
           return MaxSATResult.UNDEF;
-        this.relaxCore(this.solver.conflict(), coreCost, this.assumptions);
+        this.relaxCore(core, coreCost, this.assumptions);
         this.solver = this.rebuildSolver();
       } else {
         nbSatisfiable++;
-        ubCost = computeCostModel(this.solver.model(), Integer.MAX_VALUE);
+        ubCost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
         assert lbCost == ubCost;
         if (verbosity != Verbosity.NONE)
           this.output.println("o " + lbCost);
@@ -533,7 +529,7 @@ public class WBO extends MaxSAT {
   protected void initAssumptions(final LNGIntVector assumps) {
     for (int i = 0; i < nbSoft; i++) {
       final int l = newLiteral(false);
-      softClauses.get(i).setAssumptionVar(l);
+      softClauses.setAssumptionVar(i, l);
       this.coreMapping.put(l, i);
       assumps.push(not(l));
     }
@@ -64,16 +64,22 @@ import static org.logicng.datastructures.Tristate.TRUE;
 import static org.logicng.datastructures.Tristate.UNDEF;
 import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.CardinalityEncoding;
 import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.IncrementalStrategy;
+import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.PBEncoding;
 import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.Verbosity;
 import static org.logicng.solvers.sat.MiniSatStyleSolver.not;
 
 /**
  * The weighted MSU3 algorithm.
- * @version 1.1
+ * <p>
+ * If the sum of the weights of the soft clauses exceeds the integer range, the pseudo-Boolean constraints on the
+ * lower bound are encoded by the adder encoding instead of the configured encoding.
+ * @version 1.2
  * @since 1.0
  */
 public final class WMSU3 extends MaxSAT {
 
+  private static final int SUBSET_SUM_LIMIT = 100000;
+
   boolean bmoStrategy;
   boolean isBmo;
   private MiniSatStyleSolver solver;
@@ -84,6 +90,7 @@ public final class WMSU3 extends MaxSAT {
   private LNGIntVector coeffs;
   private SortedMap<Integer, Integer> coreMapping;
   private LNGBooleanVector activeSoft;
+  private boolean largeCosts;
   private PrintStream output;
 
   /**
@@ -133,6 +140,56 @@ public final class WMSU3 extends MaxSAT {
     return subset[sum][n];
   }
 
+  /**
+   * Returns the smallest sum of a subset of the given coefficients which is greater or equal to the given cost.  With
+   * large costs, the sums are searched by a branch and bound instead of dynamic programming.  If the search exceeds
+   * its limit, the given cost is returned, which is still a valid lower bound.
+   * @param set  the coefficients
+   * @param cost the cost
+   * @return the new lower bound
+   */
+  private long nextLowerBound(final LNGIntVector set, long cost) {
+    if (!this.largeCosts) {
+      int lb = (int) cost;
+      while (!subsetSum(set, lb))
+        lb++;
+      return lb;
+    }
+    final int n = set.size();
+    final LNGIntVector sorted = new LNGIntVector(set);
+    sorted.sortReverse();
+    final long[] remaining = new long[n + 1];
+    for (int i = n - 1; i >= 0; i--)
+      remaining[i] = remaining[i + 1] + sorted.get(i);
+    if (remaining[0] <= cost)
+      return cost;
+    final boolean[] taken = new boolean[n];
+    long best = remaining[0];
+    long sum = 0;
+    int depth = 0;
+    for (int nodes = 0; nodes < SUBSET_SUM_LIMIT; nodes++) {
+      if (sum < cost && depth < n && sum + remaining[depth] >= cost) {
+        taken[depth] = true;
+        sum += sorted.get(depth++);
+        continue;
+      }
+      if (sum >= cost && sum < best) {
+        best = sum;
+        if (best == cost)
+          return best;
+      }
+      int j = depth - 1;
+      while (j >= 0 && !taken[j])
+        j--;
+      if (j < 0)
+        return best;
+      taken[j] = false;
+      sum -= sorted.get(j);
+      depth = j + 1;
+    }
+    return cost;
+  }
+
   @Override
   public MaxSATResult search() {
     if (problemType == ProblemType.UNWEIGHTED)
@@ -141,6 +198,9 @@ public final class WMSU3 extends MaxSAT {
       this.isBmo = isBMO(true);
     if (!this.isBmo)
       currentWeight = 1;
+    this.largeCosts = hasLargeCosts();
+    if (this.largeCosts)
+      this.encoder.setPBEncoding(PBEncoding.ADDER);
     switch (this.incrementalStrategy) {
       case NONE:
         return this.none();
@@ -164,18 +224,18 @@ public final class WMSU3 extends MaxSAT {
     this.encoder.setIncremental(IncrementalStrategy.ITERATIVE);
     this.activeSoft.growTo(nSoft(), false);
     for (int i = 0; i < nSoft(); i++)
-      this.coreMapping.put(softClauses.get(i).assumptionVar(), i);
+      this.coreMapping.put(softClauses.assumptionVar(i), i);
     this.assumptions.clear();
     LNGIntVector fullObjFunction = new LNGIntVector();
     LNGIntVector fullCoeffsFunction = new LNGIntVector();
     while (true) {
-      res = searchSATSolver(this.solver, satHandler(), this.assumptions);
+      res = searchWithHints(this.solver, satHandler(), this.assumptions);
       if (res == UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == TRUE) {
         nbSatisfiable++;
-        int newCost = computeCostModel(this.solver.model(), Integer.MAX_VALUE);
-        if (newCost < ubCost || nbSatisfiable == 1) {
+        long newCost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
+        if (model.empty() || newCost < ubCost) {
           saveModel(this.solver.model());
           if (verbosity != Verbosity.NONE)
             this.output.println("o " + newCost);
@@ -188,8 +248,8 @@ public final class WMSU3 extends MaxSAT {
         } else if (!foundUpperBound(ubCost, null))
           return MaxSATResult.UNDEF;
         for (int i = 0; i < nSoft(); i++)
-          if (softClauses.get(i).weight() >= currentWeight && !this.activeSoft.get(i))
-            this.assumptions.push(not(softClauses.get(i).assumptionVar()));
+          if (softClauses.weight(i) >= currentWeight && !this.activeSoft.get(i))
+            this.assumptions.push(not(softClauses.assumptionVar(i)));
       } else {
         nbCores++;
         if (nbSatisfiable == 0)
@@ -201,32 +261,31 @@ public final class WMSU3 extends MaxSAT {
           return MaxSATResult.OPTIMUM;
         } else if (!foundLowerBound(lbCost, null))
           return MaxSATResult.UNDEF;
-        sumSizeCores += this.solver.conflict().size();
+        final LNGIntVector core = reduceCore(this.solver);
+        sumSizeCores += core.size();
         this.objFunction.clear();
         this.coeffs.clear();
         this.assumptions.clear();
-        for (int i = 0; i < this.solver.conflict().size(); i++) {
-          if (!this.coreMapping.containsKey(this.solver.conflict().get(i)))
+        for (int i = 0; i < core.size(); i++) {
+          if (!this.coreMapping.containsKey(core.get(i)))
             continue;
-          int indexSoft = this.coreMapping.get(this.solver.conflict().get(i));
+          int indexSoft = this.coreMapping.get(core.get(i));
           if (!this.activeSoft.get(indexSoft)) {
             this.activeSoft.set(indexSoft, true);
-            this.objFunction.push(softClauses.get(indexSoft).relaxationVars().get(0));
-            this.coeffs.push(softClauses.get(indexSoft).weight());
+            this.objFunction.push(softClauses.relaxationVar(indexSoft));
+            this.coeffs.push((int) softClauses.weight(indexSoft));
           }
         }
         for (int i = 0; i < nSoft(); i++)
-          if (!this.activeSoft.get(i) && softClauses.get(i).weight() >= currentWeight)
-            this.assumptions.push(not(softClauses.get(i).assumptionVar()));
+          if (!this.activeSoft.get(i) && softClauses.weight(i) >= currentWeight)
+            this.assumptions.push(not(softClauses.assumptionVar(i)));
         for (int i = 0; i < this.coeffs.size(); i++) {
           fullCoeffsFunction.push(this.coeffs.get(i));
           fullObjFunction.push(this.objFunction.get(i));
         }
         if (verbosity != Verbosity.NONE)
           this.output.println(String.format("c Relaxed soft clauses %d / %d", fullCoeffsFunction.size(), nSoft()));
-        lbCost++;
-        while (!subsetSum(fullCoeffsFunction, lbCost))
-          lbCost++;
+        lbCost = this.nextLowerBound(fullCoeffsFunction, lbCost + 1);
         if (verbosity != Verbosity.NONE)
           this.output.println("c LB : " + lbCost);
         if (!this.encoder.hasPBEncoding())
@@ -247,16 +306,16 @@ public final class WMSU3 extends MaxSAT {
     this.encoder.setIncremental(IncrementalStrategy.NONE);
     this.activeSoft.growTo(nSoft(), false);
     for (int i = 0; i < nSoft(); i++)
-      this.coreMapping.put(softClauses.get(i).assumptionVar(), i);
+      this.coreMapping.put(softClauses.assumptionVar(i), i);
     this.assumptions.clear();
     while (true) {
-      res = searchSATSolver(this.solver, satHandler(), this.assumptions);
+      res = searchWithHints(this.solver, satHandler(), this.assumptions);
       if (res == UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == TRUE) {
         nbSatisfiable++;
-        int newCost = computeCostModel(this.solver.model(), Integer.MAX_VALUE);
-        if (newCost < ubCost || nbSatisfiable == 1) {
+        long newCost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
+        if (model.empty() || newCost < ubCost) {
           saveModel(this.solver.model());
           if (verbosity != Verbosity.NONE)
             this.output.println("o " + newCost);
@@ -268,8 +327,8 @@ public final class WMSU3 extends MaxSAT {
         } else if (!foundUpperBound(ubCost, null))
           return MaxSATResult.UNDEF;
         for (int i = 0; i < nSoft(); i++)
-          if (softClauses.get(i).weight() >= currentWeight && !this.activeSoft.get(i))
-            this.assumptions.push(not(softClauses.get(i).assumptionVar()));
+          if (softClauses.weight(i) >= currentWeight && !this.activeSoft.get(i))
+            this.assumptions.push(not(softClauses.assumptionVar(i)));
       } else {
         nbCores++;
         if (nbSatisfiable == 0)
@@ -281,9 +340,10 @@ public final class WMSU3 extends MaxSAT {
           return MaxSATResult.OPTIMUM;
         } else if (!foundLowerBound(lbCost, null))
           return MaxSATResult.UNDEF;
-        sumSizeCores += this.solver.conflict().size();
-        for (int i = 0; i < this.solver.conflict().size(); i++) {
-          int indexSoft = this.coreMapping.get(this.solver.conflict().get(i));
+        final LNGIntVector core = reduceCore(this.solver);
+        sumSizeCores += core.size();
+        for (int i = 0; i < core.size(); i++) {
+          int indexSoft = this.coreMapping.get(core.get(i));
           assert !this.activeSoft.get(indexSoft);
           this.activeSoft.set(indexSoft, true);
         }
@@ -292,17 +352,15 @@ public final class WMSU3 extends MaxSAT {
         this.assumptions.clear();
         for (int i = 0; i < nSoft(); i++) {
           if (this.activeSoft.get(i)) {
-            this.objFunction.push(softClauses.get(i).relaxationVars().get(0));
-            this.coeffs.push(softClauses.get(i).weight());
-          } else if (softClauses.get(i).weight() >= currentWeight)
-            this.assumptions.push(not(softClauses.get(i).assumptionVar()));
+            this.objFunction.push(softClauses.relaxationVar(i));
+            this.coeffs.push((int) softClauses.weight(i));
+          } else if (softClauses.weight(i) >= currentWeight)
+            this.assumptions.push(not(softClauses.assumptionVar(i)));
         }
         if (verbosity != Verbosity.NONE)
           this.output.println(String.format("c Relaxed soft clauses %d / %d", this.objFunction.size(), nSoft()));
         this.solver = this.rebuildSolver();
-        lbCost++;
-        while (!subsetSum(this.coeffs, lbCost))
-          lbCost++;
+        lbCost = this.nextLowerBound(this.coeffs, lbCost + 1);
         if (verbosity != Verbosity.NONE)
           this.output.println("c LB : " + lbCost);
         this.encoder.encodePB(this.solver, this.objFunction, this.coeffs, lbCost);
@@ -322,7 +380,7 @@ public final class WMSU3 extends MaxSAT {
     LNGIntVector joinCoeffs = new LNGIntVector();
     this.activeSoft.growTo(nSoft(), false);
     for (int i = 0; i < nSoft(); i++)
-      this.coreMapping.put(softClauses.get(i).assumptionVar(), i);
+      this.coreMapping.put(softClauses.assumptionVar(i), i);
     int minWeight = 0;
     int posWeight = 0;
     int localCost = 0;
@@ -338,13 +396,13 @@ public final class WMSU3 extends MaxSAT {
     bmoEncodings.push(e);
     firstEncoding.push(true);
     while (true) {
-      res = searchSATSolver(this.solver, satHandler(), this.assumptions);
+      res = searchWithHints(this.solver, satHandler(), this.assumptions);
       if (res == UNDEF)
         return MaxSATResult.UNDEF;
       else if (res == TRUE) {
         nbSatisfiable++;
-        int newCost = computeCostModel(this.solver.model(), Integer.MAX_VALUE);
-        if (newCost < ubCost || nbSatisfiable == 1) {
+        long newCost = computeLongCostModel(this.solver.model(), Integer.MAX_VALUE);
+        if (model.empty() || newCost < ubCost) {
           saveModel(this.solver.model());
           if (verbosity != Verbosity.NONE)
             this.output.println("o " + newCost);
@@ -360,8 +418,8 @@ public final class WMSU3 extends MaxSAT {
           minWeight = orderWeights.get(orderWeights.size() - 1);
           currentWeight = orderWeights.get(0);
           for (int i = 0; i < nSoft(); i++)
-            if (softClauses.get(i).weight() >= currentWeight)
-              this.assumptions.push(not(softClauses.get(i).assumptionVar()));
+            if (softClauses.weight(i) >= currentWeight)
+              this.assumptions.push(not(softClauses.assumptionVar(i)));
         } else {
           if (currentWeight == 1 || currentWeight == minWeight)
             return MaxSATResult.OPTIMUM;
@@ -386,12 +444,12 @@ public final class WMSU3 extends MaxSAT {
               this.solver.addClause(encodingAssumptions.get(i));
             encodingAssumptions.clear();
             for (int i = 0; i < nSoft(); i++) {
-              if (!this.activeSoft.get(i) && previousWeight == softClauses.get(i).weight())
-                this.solver.addClause(not(softClauses.get(i).assumptionVar()));
-              if (currentWeight == softClauses.get(i).weight())
-                this.assumptions.push(not(softClauses.get(i).assumptionVar()));
+              if (!this.activeSoft.get(i) && previousWeight == softClauses.weight(i))
+                this.solver.addClause(not(softClauses.assumptionVar(i)));
+              if (currentWeight == softClauses.weight(i))
+                this.assumptions.push(not(softClauses.assumptionVar(i)));
               if (this.activeSoft.get(i)) {
-                assert softClauses.get(i).weight() == previousWeight;
+                assert softClauses.weight(i) == previousWeight;
                 this.activeSoft.set(i, false);
               }
             }
@@ -412,17 +470,18 @@ public final class WMSU3 extends MaxSAT {
           return MaxSATResult.OPTIMUM;
         } else if (!foundLowerBound(lbCost, null))
           return MaxSATResult.UNDEF;
-        sumSizeCores += this.solver.conflict().size();
+        final LNGIntVector core = reduceCore(this.solver);
+        sumSizeCores += core.size();
         joinObjFunction.clear();
         joinCoeffs.clear();
-        for (int i = 0; i < this.solver.conflict().size(); i++) {
-          if (this.coreMapping.containsKey(this.solver.conflict().get(i))) {
-            if (this.activeSoft.get(this.coreMapping.get(this.solver.conflict().get(i))))
+        for (int i = 0; i < core.size(); i++) {
+          if (this.coreMapping.containsKey(core.get(i))) {
+            if (this.activeSoft.get(this.coreMapping.get(core.get(i))))
               continue;
-            assert softClauses.get(this.coreMapping.get(this.solver.conflict().get(i))).weight() == currentWeight;
-            this.activeSoft.set(this.coreMapping.get(this.solver.conflict().get(i)), true);
-            joinObjFunction.push(softClauses.get(this.coreMapping.get(this.solver.conflict().get(i))).relaxationVars().get(0));
-            joinCoeffs.push(softClauses.get(this.coreMapping.get(this.solver.conflict().get(i))).weight());
+            assert softClauses.weight(this.coreMapping.get(core.get(i))) == currentWeight;
+            this.activeSoft.set(this.coreMapping.get(core.get(i)), true);
+            joinObjFunction.push(softClauses.relaxationVar(this.coreMapping.get(core.get(i))));
+            joinCoeffs.push((int) softClauses.weight(this.coreMapping.get(core.get(i))));
           }
         }
         this.objFunction.clear();
@@ -430,11 +489,11 @@ public final class WMSU3 extends MaxSAT {
         this.assumptions.clear();
         for (int i = 0; i < nSoft(); i++) {
           if (this.activeSoft.get(i)) {
-            assert softClauses.get(i).weight() == currentWeight;
-            this.objFunction.push(softClauses.get(i).relaxationVars().get(0));
-            this.coeffs.push(softClauses.get(i).weight());
-          } else if (currentWeight == softClauses.get(i).weight())
-            this.assumptions.push(not(softClauses.get(i).assumptionVar()));
+            assert softClauses.weight(i) == currentWeight;
+            this.objFunction.push(softClauses.relaxationVar(i));
+            this.coeffs.push((int) softClauses.weight(i));
+          } else if (currentWeight == softClauses.weight(i))
+            this.assumptions.push(not(softClauses.assumptionVar(i)));
         }
         if (verbosity != Verbosity.NONE)
           this.output.println(String.format("c Relaxed soft clauses %d / %d", this.objFunction.size(), nSoft()));
@@ -464,9 +523,7 @@ public final class WMSU3 extends MaxSAT {
       s.addClause(hardClauses.get(i).clause());
     LNGIntVector clause;
     for (int i = 0; i < nSoft(); i++) {
-      clause = new LNGIntVector(softClauses.get(i).clause());
-      for (int j = 0; j < softClauses.get(i).relaxationVars().size(); j++)
-        clause.push(softClauses.get(i).relaxationVars().get(j));
+      clause = softClauses.relaxedClause(i);
       s.addClause(clause);
     }
     return s;
@@ -474,9 +531,9 @@ public final class WMSU3 extends MaxSAT {
 
   private void initRelaxation() {
     for (int i = 0; i < nbSoft; i++) {
-      final int l = newLiteral(false);
-      softClauses.get(i).relaxationVars().push(l);
-      softClauses.get(i).setAssumptionVar(l);
+      final int l = newRelaxationLiteral(i);
+      softClauses.addRelaxationVar(i, l);
+      softClauses.setAssumptionVar(i, l);
     }
   }
 
@@ -0,0 +1,323 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+/*****************************************************************************************
+ * Open-WBO -- Copyright (c) 2013-2015, Ruben Martins, Vasco Manquinho, Ines Lynce
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *****************************************************************************************/
+
+package org.logicng.solvers.maxsat.encodings;
+
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
+import org.logicng.solvers.sat.MiniSatStyleSolver;
+
+import static org.logicng.solvers.maxsat.algorithms.MaxSAT.newSATVariable;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.LIT_UNDEF;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.not;
+
+/**
+ * An adder network for the encoding of pseudo-Boolean constraints in CNF.  The weighted sum of the literals is
+ * computed bit by bit by full and half adders and compared with the binary representation of the right hand side.
+ * In contrast to the sequential weight counter, the size of the encoding only grows with the number of bits of the
+ * coefficients and therefore supports right hand sides beyond the integer range.
+ * <p>
+ * Since the sum is encoded independently of the right hand side, an encoding can be bounded by arbitrary right hand
+ * sides.  Bounds under assumptions are blocked by a blocking literal which is replaced for each new bound.
+ * @version 1.2
+ * @since 1.2
+ */
+final class Adder extends Encoding {
+
+  private LNGIntVector outputs;
+  private long currentPbRhs;
+  private int currentLitBlocking;
+
+  /**
+   * Constructs a new adder encoder.
+   */
+  Adder() {
+    this.outputs = new LNGIntVector();
+    this.currentPbRhs = -1;
+    this.currentLitBlocking = LIT_UNDEF;
+  }
+
+  /**
+   * Updates the assumptions with the blocking literal of the current bound.
+   * @param assumptions the current assumptions
+   */
+  void updateAssumptions(final LNGIntVector assumptions) {
+    assumptions.push(not(this.currentLitBlocking));
+  }
+
+  /**
+   * Returns {@code true} if an encoding was created, {@code false} otherwise.
+   * @return {@code true} if an encoding was created
+   */
+  boolean hasCreatedEncoding() {
+    return this.hasEncoding;
+  }
+
+  /**
+   * Encodes the pseudo-Boolean constraint.
+   * @param s      the solver
+   * @param lits   the literals of the constraint
+   * @param coeffs the coefficients of the constraint
+   * @param rhs    the right hand side of the constraint
+   */
+  void encode(final MiniSatStyleSolver s, final LNGIntVector lits, final LNGIntVector coeffs, long rhs) {
+    assert lits.size() == coeffs.size();
+    this.outputs.clear();
+    this.currentLitBlocking = LIT_UNDEF;
+    this.addToOutputs(s, lits, coeffs);
+    this.lessThanOrEqual(s, rhs, LIT_UNDEF);
+    this.currentPbRhs = rhs;
+    hasEncoding = true;
+  }
+
+  /**
+   * Incremental construction of the adder encoding.  The bound is only active under the given assumptions.
+   * @param s           the solver
+   * @param lits        the literals of the constraint
+   * @param coeffs      the coefficients of the constraint
+   * @param rhs         the right hand side of the constraint
+   * @param assumptions the assumptions
+   */
+  void encode(final MiniSatStyleSolver s, final LNGIntVector lits, final LNGIntVector coeffs, long rhs,
+              final LNGIntVector assumptions) {
+    assert lits.size() == coeffs.size();
+    this.outputs.clear();
+    this.currentLitBlocking = LIT_UNDEF;
+    this.addToOutputs(s, lits, coeffs);
+    this.currentPbRhs = Long.MAX_VALUE;
+    hasEncoding = true;
+    this.updateInc(s, rhs);
+    this.updateAssumptions(assumptions);
+  }
+
+  /**
+   * Tightens the right hand side of an already existent adder encoding.
+   * @param s   the solver
+   * @param rhs the new right hand side
+   */
+  void update(final MiniSatStyleSolver s, long rhs) {
+    assert this.currentPbRhs != -1;
+    if (rhs < this.currentPbRhs) {
+      this.lessThanOrEqual(s, rhs, LIT_UNDEF);
+      this.currentPbRhs = rhs;
+    }
+  }
+
+  /**
+   * Incremental update of the adder encoding.  The previous bound under assumptions is disabled and the new bound is
+   * blocked by a new blocking literal.  In contrast to the sequential weight counter, the new right hand side may also
+   * be smaller than the previous one.
+   * @param s   the solver
+   * @param rhs the new right hand side
+   */
+  void updateInc(final MiniSatStyleSolver s, long rhs) {
+    if (this.currentLitBlocking != LIT_UNDEF)
+      addUnitClause(s, this.currentLitBlocking);
+    this.currentLitBlocking = mkLit(s.nVars(), false);
+    newSATVariable(s);
+    this.lessThanOrEqual(s, rhs, this.currentLitBlocking);
+  }
+
+  /**
+   * Joins two pseudo boolean constraints.  The given constraint is added to the current sum.  The bounds of the
+   * current sum are not transferred, so {@link #updateInc} has to be called after joining.
+   * @param s      the solver
+   * @param lits   the literals of the constraint
+   * @param coeffs the coefficients of the constraint
+   */
+  void join(final MiniSatStyleSolver s, final LNGIntVector lits, final LNGIntVector coeffs) {
+    assert lits.size() == coeffs.size();
+    if (lits.size() > 0)
+      this.addToOutputs(s, lits, coeffs);
+  }
+
+  /**
+   * Adds the weighted literals to the sum.  The bits of the current sum and the bits of the coefficients are sorted
+   * into buckets and each bucket is reduced to a single output bit by full and half adders.
+   * @param s      the solver
+   * @param lits   the literals
+   * @param coeffs the coefficients
+   */
+  private void addToOutputs(final MiniSatStyleSolver s, final LNGIntVector lits, final LNGIntVector coeffs) {
+    final LNGVector<LNGIntVector> buckets = new LNGVector<LNGIntVector>();
+    for (int i = 0; i < this.outputs.size(); i++)
+      if (this.outputs.get(i) != LIT_UNDEF)
+        bucket(buckets, i).push(this.outputs.get(i));
+    for (int i = 0; i < lits.size(); i++) {
+      final int coeff = coeffs.get(i);
+      assert coeff > 0;
+      for (int bit = 0; (coeff >>> bit) != 0; bit++)
+        if (((coeff >>> bit) & 1) == 1)
+          bucket(buckets, bit).push(lits.get(i));
+    }
+    this.outputs.clear();
+    for (int i = 0; i < buckets.size(); i++) {
+      final LNGIntVector bucket = buckets.get(i);
+      int head = 0;
+      while (bucket.size() - head >= 3) {
+        final int x = bucket.get(head);
+        final int y = bucket.get(head + 1);
+        final int z = bucket.get(head + 2);
+        head += 3;
+        bucket.push(this.fullAdderSum(s, x, y, z));
+        bucket(buckets, i + 1).push(this.fullAdderCarry(s, x, y, z));
+      }
+      if (bucket.size() - head == 2) {
+        final int x = bucket.get(head);
+        final int y = bucket.get(head + 1);
+        head += 2;
+        bucket.push(this.halfAdderSum(s, x, y));
+        bucket(buckets, i + 1).push(this.halfAdderCarry(s, x, y));
+      }
+      this.outputs.push(bucket.size() - head == 1 ? bucket.get(head) : LIT_UNDEF);
+    }
+  }
+
+  private static LNGIntVector bucket(final LNGVector<LNGIntVector> buckets, int bit) {
+    while (buckets.size() <= bit)
+      buckets.push(new LNGIntVector());
+    return buckets.get(bit);
+  }
+
+  /**
+   * Adds the comparator of the output bits with the given right hand side.  For each bit of the sum which is set
+   * while the bit of the right hand side is not set, the sum must be smaller on a higher bit.
+   * @param s        the solver
+   * @param rhs      the right hand side
+   * @param blocking the blocking literal or {@link MiniSatStyleSolver#LIT_UNDEF} for a hard bound
+   */
+  private void lessThanOrEqual(final MiniSatStyleSolver s, long rhs, int blocking) {
+    assert this.clause.size() == 0;
+    if (rhs < 0) {
+      if (blocking != LIT_UNDEF)
+        this.clause.push(blocking);
+      s.addClause(this.clause);
+      this.clause.clear();
+      return;
+    }
+    final int nbBits = Math.max(this.outputs.size(), 64 - Long.numberOfLeadingZeros(rhs));
+    for (int i = 0; i < this.outputs.size(); i++) {
+      if (bit(rhs, i) || this.outputs.get(i) == LIT_UNDEF)
+        continue;
+      this.clause.push(not(this.outputs.get(i)));
+      boolean satisfied = false;
+      for (int j = i + 1; j < nbBits && !satisfied; j++) {
+        final int x = j < this.outputs.size() ? this.outputs.get(j) : LIT_UNDEF;
+        if (bit(rhs, j)) {
+          if (x == LIT_UNDEF)
+            satisfied = true;
+          else
+            this.clause.push(not(x));
+        } else if (x != LIT_UNDEF)
+          this.clause.push(x);
+      }
+      if (!satisfied) {
+        if (blocking != LIT_UNDEF)
+          this.clause.push(blocking);
+        s.addClause(this.clause);
+      }
+      this.clause.clear();
+    }
+  }
+
+  private static boolean bit(long value, int position) {
+    return ((value >>> position) & 1L) == 1L;
+  }
+
+  private int fullAdderSum(final MiniSatStyleSolver s, int x, int y, int z) {
+    final int sum = mkLit(s.nVars(), false);
+    newSATVariable(s);
+    addQuaternaryClause(s, not(x), not(y), not(z), sum);
+    addQuaternaryClause(s, not(x), y, z, sum);
+    addQuaternaryClause(s, x, not(y), z, sum);
+    addQuaternaryClause(s, x, y, not(z), sum);
+    addQuaternaryClause(s, x, y, z, not(sum));
+    addQuaternaryClause(s, x, not(y), not(z), not(sum));
+    addQuaternaryClause(s, not(x), y, not(z), not(sum));
+    addQuaternaryClause(s, not(x), not(y), z, not(sum));
+    return sum;
+  }
+
+  private int fullAdderCarry(final MiniSatStyleSolver s, int x, int y, int z) {
+    final int carry = mkLit(s.nVars(), false);
+    newSATVariable(s);
+    addTernaryClause(s, not(x), not(y), carry);
+    addTernaryClause(s, not(x), not(z), carry);
+    addTernaryClause(s, not(y), not(z), carry);
+    addTernaryClause(s, x, y, not(carry));
+    addTernaryClause(s, x, z, not(carry));
+    addTernaryClause(s, y, z, not(carry));
+    return carry;
+  }
+
+  private int halfAdderSum(final MiniSatStyleSolver s, int x, int y) {
+    final int sum = mkLit(s.nVars(), false);
+    newSATVariable(s);
+    addTernaryClause(s, not(x), y, sum);
+    addTernaryClause(s, x, not(y), sum);
+    addTernaryClause(s, x, y, not(sum));
+    addTernaryClause(s, not(x), not(y), not(sum));
+    return sum;
+  }
+
+  private int halfAdderCarry(final MiniSatStyleSolver s, int x, int y) {
+    final int carry = mkLit(s.nVars(), false);
+    newSATVariable(s);
+    addTernaryClause(s, not(x), not(y), carry);
+    addBinaryClause(s, x, not(carry));
+    addBinaryClause(s, y, not(carry));
+    return carry;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName();
+  }
+}
@@ -59,7 +59,7 @@ import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.PBEncoding;
 
 /**
  * Encoders for cardinality constraints, pseudo Booleans and AMO constraints.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public class Encoder {
@@ -73,6 +73,7 @@ public class Encoder {
   private ModularTotalizer mtotalizer;
   private Totalizer totalizer;
   private SequentialWeightCounter swc;
+  private Adder adder;
 
   /**
    * Constructs a new Encoder.
@@ -99,6 +100,7 @@ public class Encoder {
     this.totalizer = new Totalizer(incremental);
     this.mtotalizer = new ModularTotalizer();
     this.swc = new SequentialWeightCounter();
+    this.adder = new Adder();
   }
 
 
@@ -248,12 +250,16 @@ public class Encoder {
    * @param lits   the literals of the constraint
    * @param coeffs the coefficients of the constraints
    * @param rhs    the right hand side of the constraint
-   * @throws IllegalStateException if the pseudo-Boolean encoding is unknown
+   * @throws IllegalStateException if the pseudo-Boolean encoding is unknown or the right hand side exceeds the
+   *                               range of the pseudo-Boolean encoding
    */
-  public void encodePB(final MiniSatStyleSolver s, final LNGIntVector lits, final LNGIntVector coeffs, int rhs) {
+  public void encodePB(final MiniSatStyleSolver s, final LNGIntVector lits, final LNGIntVector coeffs, long rhs) {
     switch (this.pbEncoding) {
       case SWC:
-        this.swc.encode(s, lits, coeffs, rhs);
+        this.swc.encode(s, lits, coeffs, swcBound(rhs));
+        break;
+      case ADDER:
+        this.adder.encode(s, lits, coeffs, rhs);
         break;
       default:
         throw new IllegalStateException("Unknown pseudo-Boolean encoding: " + this.pbEncoding);
@@ -264,12 +270,16 @@ public class Encoder {
    * Updates a pseudo-Boolean encoding.
    * @param s   the solver
    * @param rhs the new right hand side
-   * @throws IllegalStateException if the pseudo-Boolean encoding is unknown
+   * @throws IllegalStateException if the pseudo-Boolean encoding is unknown or the right hand side exceeds the
+   *                               range of the pseudo-Boolean encoding
    */
-  public void updatePB(final MiniSatStyleSolver s, int rhs) {
+  public void updatePB(final MiniSatStyleSolver s, long rhs) {
     switch (this.pbEncoding) {
       case SWC:
-        this.swc.update(s, rhs);
+        this.swc.update(s, swcBound(rhs));
+        break;
+      case ADDER:
+        this.adder.update(s, rhs);
         break;
       default:
         throw new IllegalStateException("Unknown pseudo-Boolean encoding: " + this.pbEncoding);
@@ -284,14 +294,18 @@ public class Encoder {
    * @param rhs         the right hand size of the constraint
    * @param assumptions the current assumptions
    * @param size        the size
-   * @throws IllegalStateException if the pseudo-Boolean encoding is unknown
+   * @throws IllegalStateException if the pseudo-Boolean encoding is unknown or the right hand side exceeds the
+   *                               range of the pseudo-Boolean encoding
    */
   public void incEncodePB(final MiniSatStyleSolver s, final LNGIntVector lits, final LNGIntVector coeffs,
-                          int rhs, final LNGIntVector assumptions, int size) {
+                          long rhs, final LNGIntVector assumptions, int size) {
     assert this.incrementalStrategy == IncrementalStrategy.ITERATIVE;
     switch (this.pbEncoding) {
       case SWC:
-        this.swc.encode(s, lits, coeffs, rhs, assumptions, size);
+        this.swc.encode(s, lits, coeffs, swcBound(rhs), assumptions, size);
+        break;
+      case ADDER:
+        this.adder.encode(s, lits, coeffs, rhs, assumptions);
         break;
       default:
         throw new IllegalStateException("Unknown pseudo-Boolean encoding: " + this.pbEncoding);
@@ -299,20 +313,26 @@ public class Encoder {
   }
 
   /**
-   * Manages the incremental update of pseudo-Boolean encodings.
+   * Manages the incremental update of pseudo-Boolean encodings.  The sequential weight counter only supports
+   * increasing right hand sides, the adder encoding supports arbitrary right hand sides.
    * @param s      the solver
    * @param lits   the literals of the constraint
    * @param coeffs the coefficients of the constraint
    * @param rhs    the new right hand side of the constraint
-   * @throws IllegalStateException if the pseudo-Boolean encoding is unknown
+   * @throws IllegalStateException if the pseudo-Boolean encoding is unknown or the right hand side exceeds the
+   *                               range of the pseudo-Boolean encoding
    */
-  public void incUpdatePB(final MiniSatStyleSolver s, final LNGIntVector lits, final LNGIntVector coeffs, int rhs) {
+  public void incUpdatePB(final MiniSatStyleSolver s, final LNGIntVector lits, final LNGIntVector coeffs, long rhs) {
     assert this.incrementalStrategy == IncrementalStrategy.ITERATIVE;
     switch (this.pbEncoding) {
       case SWC:
-        this.swc.updateInc(s, rhs);
+        this.swc.updateInc(s, swcBound(rhs));
         this.swc.join(s, lits, coeffs);
         break;
+      case ADDER:
+        this.adder.join(s, lits, coeffs);
+        this.adder.updateInc(s, rhs);
+        break;
       default:
         throw new IllegalStateException("Unknown pseudo-Boolean encoding: " + this.pbEncoding);
     }
@@ -329,6 +349,9 @@ public class Encoder {
       case SWC:
         this.swc.updateAssumptions(assumptions);
         break;
+      case ADDER:
+        this.adder.updateAssumptions(assumptions);
+        break;
       default:
         throw new IllegalStateException("Unknown pseudo-Boolean encoding: " + this.pbEncoding);
     }
@@ -351,7 +374,23 @@ public class Encoder {
    * @return {@code true} if the pseudo-Boolean encoding was built
    */
   public boolean hasPBEncoding() {
-    return this.pbEncoding == PBEncoding.SWC && this.swc.hasCreatedEncoding();
+    if (this.pbEncoding == PBEncoding.SWC)
+      return this.swc.hasCreatedEncoding();
+    else if (this.pbEncoding == PBEncoding.ADDER)
+      return this.adder.hasCreatedEncoding();
+    return false;
+  }
+
+  /**
+   * Returns the right hand side of a pseudo-Boolean constraint for the sequential weight counter.
+   * @param rhs the right hand side
+   * @return the right hand side as integer
+   * @throws IllegalStateException if the right hand side exceeds the integer range
+   */
+  private static int swcBound(long rhs) {
+    if (rhs > Integer.MAX_VALUE)
+      throw new IllegalStateException("Right hand side " + rhs + " exceeds the range of the sequential weight counter");
+    return (int) rhs;
   }
 
   @Override
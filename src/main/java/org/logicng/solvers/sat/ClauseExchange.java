@@ -0,0 +1,327 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free exchange of learnt clauses between MiniSAT-style solvers running in parallel.
+ * <p>
+ * Each solver joins the exchange as a {@link Participant} and exports its short learnt clauses (wrt. size and LBD)
+ * to its own bounded ring buffer.  All other participants import these clauses at their next restart.  If a
+ * participant is too slow, the oldest clauses of a ring are overwritten and thus skipped.
+ * <p>
+ * Since each solver has its own variable numbering, clauses are exchanged in a shared numbering which is derived
+ * from the variable names.  Clauses containing unnamed variables are never exported and clauses containing variables
+ * unknown to the importing solver are skipped.
+ * <p>
+ * Joining and clearing the exchange must happen while no participating solver is running.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class ClauseExchange {
+
+  private final int capacity;
+  private final int maxSize;
+  private final int maxLBD;
+  private final List<Participant> participants;
+  private final ConcurrentHashMap<String, Integer> globalIds;
+  private final ConcurrentHashMap<Integer, String> globalNames;
+  private final AtomicInteger nextGlobalId;
+
+  /**
+   * Constructs a new clause exchange.
+   * @param capacity the capacity of the ring buffer of each participant
+   * @param maxSize  the maximum size of exported clauses
+   * @param maxLBD   the maximum LBD of exported clauses
+   * @throws IllegalArgumentException if one of the parameters is not positive
+   */
+  public ClauseExchange(int capacity, int maxSize, int maxLBD) {
+    if (capacity < 1 || maxSize < 1 || maxLBD < 1)
+      throw new IllegalArgumentException("The parameters of a clause exchange must be positive");
+    this.capacity = capacity;
+    this.maxSize = maxSize;
+    this.maxLBD = maxLBD;
+    this.participants = new ArrayList<Participant>();
+    this.globalIds = new ConcurrentHashMap<String, Integer>();
+    this.globalNames = new ConcurrentHashMap<Integer, String>();
+    this.nextGlobalId = new AtomicInteger(0);
+  }
+
+  /**
+   * Constructs a new clause exchange with a capacity of 1024 clauses per participant, a maximum clause size of 8 and
+   * a maximum LBD of 4.
+   */
+  public ClauseExchange() {
+    this(1024, 8, 4);
+  }
+
+  /**
+   * Adds a new participant to this exchange.
+   * @return the new participant
+   */
+  public synchronized Participant join() {
+    final Participant participant = new Participant(this.participants.size());
+    this.participants.add(participant);
+    return participant;
+  }
+
+  /**
+   * Removes all clauses from the exchange and resets the translation caches of all participants.  This is required
+   * whenever clauses are removed from one of the solvers, e.g. when a solver state is loaded.
+   */
+  public synchronized void clear() {
+    for (final Participant participant : this.participants)
+      participant.clear();
+  }
+
+  /**
+   * Returns the maximum size of exported clauses.
+   * @return the maximum size of exported clauses
+   */
+  public int maxSize() {
+    return this.maxSize;
+  }
+
+  /**
+   * Returns the maximum LBD of exported clauses.
+   * @return the maximum LBD of exported clauses
+   */
+  public int maxLBD() {
+    return this.maxLBD;
+  }
+
+  /**
+   * Returns the global id for a given variable name.
+   * @param name the variable name
+   * @return the global id
+   */
+  private int globalId(final String name) {
+    final Integer id = this.globalIds.get(name);
+    if (id != null)
+      return id;
+    final int newId = this.nextGlobalId.getAndIncrement();
+    this.globalNames.put(newId, name);
+    final Integer existing = this.globalIds.putIfAbsent(name, newId);
+    return existing != null ? existing : newId;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ClauseExchange{capacity=%d, maxSize=%d, maxLBD=%d, participants=%d}", this.capacity,
+            this.maxSize, this.maxLBD, this.participants.size());
+  }
+
+  /**
+   * A clause in the exchange.  The literals are given in the shared numbering.
+   */
+  private static final class SharedClause {
+    private final long sequence;
+    private final int[] lits;
+    private final int lbd;
+
+    private SharedClause(long sequence, final int[] lits, int lbd) {
+      this.sequence = sequence;
+      this.lits = lits;
+      this.lbd = lbd;
+    }
+  }
+
+  /**
+   * A participant of a clause exchange.  A participant must only be used by the thread of its solver.
+   */
+  public final class Participant {
+
+    private final int id;
+    private AtomicReferenceArray<SharedClause> ring;
+    private final AtomicLong head;
+    private long[] cursors;
+    private final LNGIntVector localToGlobal;
+    private final LNGIntVector globalToLocal;
+    private long exported;
+    private long imported;
+
+    /**
+     * Constructs a new participant.
+     * @param id the id of the participant
+     */
+    private Participant(int id) {
+      this.id = id;
+      this.ring = new AtomicReferenceArray<SharedClause>(capacity);
+      this.head = new AtomicLong(0);
+      this.cursors = new long[0];
+      this.localToGlobal = new LNGIntVector();
+      this.globalToLocal = new LNGIntVector();
+    }
+
+    /**
+     * Clears the ring buffer, the cursors and the translation caches of this participant.
+     */
+    private void clear() {
+      this.ring = new AtomicReferenceArray<SharedClause>(capacity);
+      this.head.set(0);
+      this.cursors = new long[0];
+      this.localToGlobal.clear();
+      this.globalToLocal.clear();
+    }
+
+    /**
+     * Exports a learnt clause of a given solver if it fulfills the size and LBD limits.
+     * @param solver the solver
+     * @param clause the clause in the numbering of the solver
+     * @param lbd    the LBD of the clause
+     */
+    void export(final MiniSatStyleSolver solver, final LNGIntVector clause, int lbd) {
+      if (clause.size() > maxSize || lbd > maxLBD)
+        return;
+      final int[] lits = new int[clause.size()];
+      for (int i = 0; i < clause.size(); i++) {
+        final int lit = clause.get(i);
+        final int global = this.toGlobal(solver, MiniSatStyleSolver.var(lit));
+        if (global == -1)
+          return;
+        lits[i] = MiniSatStyleSolver.mkLit(global, MiniSatStyleSolver.sign(lit));
+      }
+      final long sequence = this.head.get();
+      this.ring.set((int) (sequence % capacity), new SharedClause(sequence, lits, lbd));
+      this.head.set(sequence + 1);
+      this.exported++;
+    }
+
+    /**
+     * Collects all clauses which were exported by other participants since the last call and which only contain
+     * variables known by the given solver.
+     * @param solver the solver
+     * @param result the vector to which the clauses are added in the numbering of the solver
+     * @param lbds   the vector to which the LBDs of the clauses are added
+     */
+    void collect(final MiniSatStyleSolver solver, final LNGVector<LNGIntVector> result, final LNGIntVector lbds) {
+      final List<Participant> others;
+      synchronized (ClauseExchange.this) {
+        others = new ArrayList<Participant>(participants);
+      }
+      if (this.cursors.length < others.size())
+        this.cursors = Arrays.copyOf(this.cursors, others.size());
+      for (final Participant other : others) {
+        if (other == this)
+          continue;
+        final long otherHead = other.head.get();
+        long cursor = Math.max(this.cursors[other.id], otherHead - capacity);
+        final AtomicReferenceArray<SharedClause> otherRing = other.ring;
+        for (; cursor < otherHead; cursor++) {
+          final SharedClause clause = otherRing.get((int) (cursor % capacity));
+          if (clause == null || clause.sequence != cursor)
+            continue;
+          final LNGIntVector lits = this.toLocal(solver, clause.lits);
+          if (lits != null) {
+            result.push(lits);
+            lbds.push(clause.lbd);
+            this.imported++;
+          }
+        }
+        this.cursors[other.id] = cursor;
+      }
+    }
+
+    /**
+     * Returns the clause exchange of this participant.
+     * @return the clause exchange of this participant
+     */
+    public ClauseExchange exchange() {
+      return ClauseExchange.this;
+    }
+
+    /**
+     * Returns the number of clauses exported by this participant.
+     * @return the number of exported clauses
+     */
+    public long exported() {
+      return this.exported;
+    }
+
+    /**
+     * Returns the number of clauses imported by this participant.
+     * @return the number of imported clauses
+     */
+    public long imported() {
+      return this.imported;
+    }
+
+    /**
+     * Translates a variable of the solver to the shared numbering.
+     * @param solver the solver
+     * @param var    the variable
+     * @return the variable in the shared numbering or -1 if the variable has no name
+     */
+    private int toGlobal(final MiniSatStyleSolver solver, int var) {
+      while (this.localToGlobal.size() <= var)
+        this.localToGlobal.push(-2);
+      int global = this.localToGlobal.get(var);
+      if (global == -2) {
+        final String name = solver.nameForIdx(var);
+        global = name == null ? -1 : globalId(name);
+        this.localToGlobal.set(var, global);
+      }
+      return global;
+    }
+
+    /**
+     * Translates a clause in the shared numbering to the numbering of the solver.
+     * @param solver the solver
+     * @param lits   the literals in the shared numbering
+     * @return the clause in the numbering of the solver or {@code null} if a variable is unknown to the solver
+     */
+    private LNGIntVector toLocal(final MiniSatStyleSolver solver, final int[] lits) {
+      final LNGIntVector clause = new LNGIntVector(lits.length);
+      for (final int lit : lits) {
+        final int global = MiniSatStyleSolver.var(lit);
+        while (this.globalToLocal.size() <= global)
+          this.globalToLocal.push(-1);
+        int local = this.globalToLocal.get(global);
+        if (local == -1) {
+          final String name = globalNames.get(global);
+          local = name == null ? -1 : solver.idxForName(name);
+          if (local == -1)
+            return null;
+          this.globalToLocal.set(global, local);
+        }
+        clause.push(MiniSatStyleSolver.mkLit(local, MiniSatStyleSolver.sign(lit)));
+      }
+      return clause;
+    }
+  }
+}
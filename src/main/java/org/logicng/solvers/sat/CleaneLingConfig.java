@@ -33,7 +33,7 @@ import org.logicng.configurations.ConfigurationType;
 
 /**
  * The configuration object for a CleaneLing-style SAT solver.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public final class CleaneLingConfig extends Configuration {
@@ -81,6 +81,7 @@ public final class CleaneLingConfig extends Configuration {
   final boolean searchfirst;
   final int scincfact;
   final int stepslim;
+  final boolean measureTimes;
 
   /**
    * Constructs a new CleaneLing configuration from a given builder.
@@ -120,6 +121,7 @@ public final class CleaneLingConfig extends Configuration {
     this.searchfirst = builder.searchFirst;
     this.scincfact = builder.scoreIncrementFactor;
     this.stepslim = builder.stepsLim;
+    this.measureTimes = builder.measureTimes;
   }
 
   /**
@@ -165,6 +167,7 @@ public final class CleaneLingConfig extends Configuration {
     sb.append("searchFirst=").append(this.searchfirst).append("\n");
     sb.append("scoreIncrementFactor=").append(this.scincfact).append("\n");
     sb.append("stepsLim=").append(this.stepslim).append("\n");
+    sb.append("measureTimes=").append(this.measureTimes).append("\n");
     sb.append("}\n");
     return sb.toString();
   }
@@ -205,6 +208,7 @@ public final class CleaneLingConfig extends Configuration {
     private boolean searchFirst = false;
     private int scoreIncrementFactor = 1050;
     private int stepsLim = 100000000;
+    private boolean measureTimes = false;
 
     /**
      * If turned on, blocked clause elimination (BCE) will be performed.  The default value is {@code true}.
@@ -527,6 +531,18 @@ public final class CleaneLingConfig extends Configuration {
       return this;
     }
 
+    /**
+     * If turned on, the solver measures the times spent in unit propagation and conflict analysis for its
+     * {@link SolverStatistics}.  This calls the system timer in the inner loop of the search and should only be used for
+     * profiling.  The default value is {@code false}.
+     * @param measureTimes {@code true} if the times should be measured, {@code false} otherwise
+     * @return the builder
+     */
+    public Builder measureTimes(boolean measureTimes) {
+      this.measureTimes = measureTimes;
+      return this;
+    }
+
     /**
      * Builds the CleaneLing configuration.
      * @return the configuration
@@ -176,6 +176,12 @@ public final class CleaneLingMinimalisticSolver extends CleaneLingStyleSolver {
     c.setRedundant(redundant);
     for (int i = 0; i < addedlits.size(); i++)
       c.lits().push(addedlits.get(i));
+    if (redundant)
+      stats.clausesRedundant++;
+    else
+      stats.clausesIrredundant++;
+    stats.literals += c.size();
+    updatePeakMemory();
     return c;
   }
 
@@ -237,8 +243,10 @@ public final class CleaneLingMinimalisticSolver extends CleaneLingStyleSolver {
 
   @Override
   protected CLClause bcp() {
+    int propagations = 0;
     CLClause conflict = empty;
     while (conflict == null && next < trail.size()) {
+      propagations++;
       int lit = -trail.get(next++);
       LNGVector<CLWatch> ws = watches(lit);
       LNGVector<CLWatch> newWS = new LNGVector<CLWatch>();
@@ -297,6 +305,7 @@ public final class CleaneLingMinimalisticSolver extends CleaneLingStyleSolver {
     }
     if (conflict != null)
       stats.conflicts++;
+    stats.propagations += propagations;
     return conflict;
   }
 
@@ -340,6 +349,8 @@ public final class CleaneLingMinimalisticSolver extends CleaneLingStyleSolver {
     unmark();
     unmarkFrames();
     stats.gluesCount++;
+    stats.sizes += addedlits.size();
+    stats.clausesLearned++;
     newPushConnectClause(true, -1);
     addedlits.clear();
     scoreIncrement *= config.scincfact / 1000.0;
@@ -382,19 +393,21 @@ public final class CleaneLingMinimalisticSolver extends CleaneLingStyleSolver {
     while (res == UNDEF)
       if (empty != null)
         res = FALSE;
-      else if ((conflict = bcp()) != null) {
+      else if ((conflict = timedBcp()) != null) {
         if (handler != null && !handler.detectedConflict()) {
           canceledByHandler = true;
           return UNDEF;
         }
+        final long analysisStart = startTime();
         analyze(conflict);
+        stats.analysisTime += elapsedTime(analysisStart);
         conflicts++;
       } else if (conflicts >= limits.searchConflicts)
         break;
       else if (restarting())
         restart();
       else if (!decide())
-        res = TRUE;
+        res = failedAssumption ? FALSE : TRUE;
     return res;
   }
 
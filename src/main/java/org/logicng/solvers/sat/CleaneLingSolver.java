@@ -50,6 +50,8 @@
 
 package org.logicng.solvers.sat;
 
+import org.logicng.collections.LNGBooleanVector;
+import org.logicng.collections.LNGByteVector;
 import org.logicng.collections.LNGIntVector;
 import org.logicng.collections.LNGLongPriorityQueue;
 import org.logicng.collections.LNGVector;
@@ -68,7 +70,11 @@ import static org.logicng.datastructures.Tristate.UNDEF;
 
 /**
  * A complete Reimplementation of the CleaneLing solver.
- * @version 1.1
+ * <p>
+ * The solver can be used incrementally.  Clauses removed by variable elimination or blocked clause elimination are
+ * stored and restored as soon as a new clause or an assumption mentions one of the affected variables.  Frozen
+ * variables are never eliminated or used as blocking literals and thus never trigger such a restoration.
+ * @version 1.2
  * @since 1.0
  */
 public final class CleaneLingSolver extends CleaneLingStyleSolver {
@@ -86,6 +92,9 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
   private LNGVector<Pair<CLClause, Integer>> tostrengthen;
   private int distilled;
   private LNGIntVector extension;
+  private LNGIntVector removed;
+  private LNGIntVector frozen;
+  private LNGBooleanVector witnesses;
   private Simplifier simplifier;
 
   /**
@@ -112,6 +121,9 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
     this.candsBlock = new LNGLongPriorityQueue();
     this.tostrengthen = new LNGVector<Pair<CLClause, Integer>>();
     this.extension = new LNGIntVector();
+    this.removed = new LNGIntVector();
+    this.frozen = new LNGIntVector();
+    this.witnesses = new LNGBooleanVector();
     this.simplifier = Simplifier.NOSIMP;
   }
 
@@ -122,6 +134,8 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
       importLit(lit);
       addedlits.push(lit);
     } else {
+      if (needsRestore(addedlits))
+        restore();
       if (!trivialClause())
         newPushConnectClause();
       addedlits.clear();
@@ -143,18 +157,13 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
       else if ((res = simplify()) != UNDEF || this.canceledByHandler)
         break;
       else updateLimits();
-    switch (res) {
-      case TRUE:
-        extend();
-        break;
-      case FALSE:
-        break;
-      default:
-        break;
-    }
-    if (res == TRUE)
+    if (res == TRUE) {
+      final LNGByteVector values = new LNGByteVector(this.vals);
+      extend();
       for (int i = 0; i < this.vals.size(); i++)
         model.push(this.vals.get(i) == VALUE_TRUE);
+      this.vals = values;
+    }
     if (this.handler != null)
       this.handler.finishedSolving();
     this.handler = null;
@@ -163,12 +172,60 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
     return res;
   }
 
+  @Override
+  public Tristate solve(final SATHandler handler, final LNGIntVector assumptions) {
+    for (int i = 0; i < assumptions.size(); i++)
+      importLit(assumptions.get(i));
+    if (needsRestore(assumptions))
+      restore();
+    for (int i = 0; i < assumptions.size(); i++)
+      freeze(assumptions.get(i));
+    final Tristate res = super.solve(handler, assumptions);
+    for (int i = 0; i < assumptions.size(); i++)
+      melt(assumptions.get(i));
+    return res;
+  }
+
   @Override
   public void reset() {
     super.reset();
     this.initializeOriginalSolver();
   }
 
+  /**
+   * Freezes the variable of a given literal.  A frozen variable is never eliminated or used as a blocking literal by
+   * the simplifications of the solver.  Freezing is reference counted, i.e. a variable which was frozen twice has to
+   * be melted twice.
+   * @param lit the literal
+   */
+  public void freeze(int lit) {
+    importLit(lit);
+    final int idx = Math.abs(lit);
+    frozen.set(idx, frozen.get(idx) + 1);
+  }
+
+  /**
+   * Melts the variable of a given literal, i.e. reverts one call of {@link #freeze(int)}.
+   * @param lit the literal
+   * @throws IllegalStateException if the variable is not frozen
+   */
+  public void melt(int lit) {
+    final int idx = Math.abs(lit);
+    if (idx >= frozen.size() || frozen.get(idx) == 0)
+      throw new IllegalStateException("Cannot melt a variable which is not frozen: " + idx);
+    frozen.set(idx, frozen.get(idx) - 1);
+  }
+
+  /**
+   * Returns {@code true} if the variable of a given literal is frozen, {@code false} otherwise.
+   * @param lit the literal
+   * @return {@code true} if the variable of the literal is frozen
+   */
+  public boolean frozen(int lit) {
+    final int idx = Math.abs(lit);
+    return idx < frozen.size() && frozen.get(idx) > 0;
+  }
+
   @Override
   protected void importLit(int lit) {
     int idx = Math.abs(lit);
@@ -181,6 +238,8 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
       watches.push(new LNGVector<CLWatch>());
       watches.push(new LNGVector<CLWatch>());
       occs.push(new CLOccs[]{new CLOccs(), new CLOccs()});
+      frozen.push(0);
+      witnesses.push(false);
       if (newIdx == 0)
         continue;
       decisions.push(newIdx);
@@ -317,6 +376,8 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
       stats.clausesRedundant++;
     else
       stats.clausesIrredundant++;
+    stats.literals += c.size();
+    updatePeakMemory();
     return c;
   }
 
@@ -510,6 +571,7 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
     stats.gluesCount++;
     stats.gluesSum += glue;
     stats.sizes += addedlits.size();
+    stats.clausesLearned++;
     newPushConnectClause(true, glue);
     addedlits.clear();
     scoreIncrement *= config.scincfact / 1000.0;
@@ -563,12 +625,14 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
     while (res == UNDEF)
       if (empty != null)
         res = FALSE;
-      else if ((conflict = bcp()) != null) {
+      else if ((conflict = timedBcp()) != null) {
         if (handler != null && !handler.detectedConflict()) {
           canceledByHandler = true;
           return UNDEF;
         }
+        final long analysisStart = startTime();
         analyze(conflict);
+        stats.analysisTime += elapsedTime(analysisStart);
         conflicts++;
       } else if (conflicts >= limits.searchConflicts)
         break;
@@ -577,7 +641,7 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
       else if (restarting())
         restart();
       else if (!decide())
-        res = TRUE;
+        res = failedAssumption ? FALSE : TRUE;
     return res;
   }
 
@@ -739,6 +803,7 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
   private void dumpClause(final CLClause c) {
     if (c.dumped())
       return;
+    stats.literals -= c.size();
     if (c.redundant()) {
       assert stats.clausesRedundant > 0;
       stats.clausesRedundant--;
@@ -1218,6 +1283,7 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
       if (c.satisfied() || c.dumped())
         continue;
       stats.clausesEliminated++;
+      pushRemoved(c);
       dumpClause(c);
     }
     p.clauses().release();
@@ -1228,10 +1294,12 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
       if (c.satisfied() || c.dumped())
         continue;
       stats.clausesEliminated++;
+      pushRemoved(c);
       dumpClause(c);
     }
     n.clauses().release();
     var(cand).setState(CLVar.State.ELIMINATED);
+    witnesses.set(Math.abs(cand), true);
     stats.varsEliminated++;
     CLClause conflict = bcp();
     if (conflict != null) {
@@ -1287,6 +1355,8 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
    */
   private boolean donotelim(int cand) {
     int sign;
+    if (frozen(cand))
+      return true;
     if (occs(cand).count() > config.elmpocclim1)
       return true;
     if (occs(-cand).count() > config.elmpocclim1)
@@ -1380,6 +1450,8 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
         continue;
       stats.clausesBlocked++;
       pushExtension(c, blit);
+      pushRemoved(c);
+      witnesses.set(Math.abs(blit), true);
       dumpClause(c);
     }
   }
@@ -1407,7 +1479,7 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
       int cand = candsBlock.top();
       long priority = candsBlock.priority(cand);
       candsBlock.pop(cand);
-      if (priority == 0 || !var(cand).free())
+      if (priority == 0 || !var(cand).free() || frozen(cand))
         continue;
       blockLit(cand);
       blockLit(-cand);
@@ -1532,24 +1604,85 @@ public final class CleaneLingSolver extends CleaneLingStyleSolver {
   }
 
   /**
-   * Extends a partial to a full assignment.
+   * Extends a partial to a full assignment.  The extension stack is kept, such that the solver can be used
+   * incrementally.
    */
   private void extend() {
-    while (!extension.empty()) {
-      int lit = extension.back();
+    int i = extension.size() - 1;
+    while (i >= 0) {
+      int lit = extension.get(i);
       int other;
       boolean satisfied = false;
-      while ((other = extension.back()) != 0) {
-        extension.pop();
+      while ((other = extension.get(i)) != 0) {
+        i--;
         if (val(other) == VALUE_TRUE)
           satisfied = true;
       }
-      extension.pop();
+      i--;
       if (!satisfied)
         vals.set(Math.abs(lit), sign(lit));
     }
   }
 
+  /**
+   * Stores a clause which is removed by variable elimination or blocked clause elimination in order to restore it
+   * later on.
+   * @param c the clause
+   */
+  private void pushRemoved(final CLClause c) {
+    for (int i = 0; i < c.lits().size(); i++)
+      removed.push(c.lits().get(i));
+    removed.push(0);
+  }
+
+  /**
+   * Returns {@code true} if one of the given literals is an eliminated variable or was used as blocking literal and
+   * therefore the removed clauses have to be restored, {@code false} otherwise.
+   * @param lits the literals
+   * @return {@code true} if the removed clauses have to be restored
+   */
+  private boolean needsRestore(final LNGIntVector lits) {
+    if (removed.empty())
+      return false;
+    for (int i = 0; i < lits.size(); i++)
+      if (witnesses.get(Math.abs(lits.get(i))))
+        return true;
+    return false;
+  }
+
+  /**
+   * Restores all clauses which were removed by variable elimination or blocked clause elimination and re-activates
+   * all eliminated variables.  Afterwards the clause set is equivalent to the original clause set again.
+   */
+  private void restore() {
+    assert simplifier == Simplifier.NOSIMP;
+    backtrack();
+    for (int idx = 1; idx <= maxvar(); idx++) {
+      final CLVar v = vars.get(idx);
+      if (v.state() == CLVar.State.ELIMINATED) {
+        v.setState(CLVar.State.FREE);
+        stats.varsEliminated--;
+        if (val(idx) == VALUE_UNASSIGNED && !decisions.contains(idx))
+          decisions.push(idx);
+      }
+      witnesses.set(idx, false);
+    }
+    extension.clear();
+    final LNGIntVector pending = addedlits;
+    int i = 0;
+    while (i < removed.size()) {
+      addedlits = new LNGIntVector();
+      int lit;
+      while ((lit = removed.get(i++)) != 0)
+        addedlits.push(lit);
+      stats.clausesRestored++;
+      if (!trivialClause())
+        newPushConnectClause();
+    }
+    removed.clear();
+    addedlits = pending;
+  }
+
   /**
    * Returns {@code true} if each variable occurs only once in the current clause, {@code false} otherwise.
    * @return {@code true} if each variable occurs only once in the current clause
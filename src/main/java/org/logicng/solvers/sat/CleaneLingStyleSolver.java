@@ -64,7 +64,7 @@ import org.logicng.solvers.datastructures.CLWatch;
 
 /**
  * The super class for all CleaneLing-style solvers.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public abstract class CleaneLingStyleSolver {
@@ -91,6 +91,8 @@ public abstract class CleaneLingStyleSolver {
   protected CLLimits limits;
   protected CLClause empty;
   protected LNGBooleanVector model;
+  protected LNGIntVector assumptions;
+  protected boolean failedAssumption;
 
   // SAT handler
   protected SATHandler handler;
@@ -157,6 +159,8 @@ public abstract class CleaneLingStyleSolver {
     this.stats = new CLStats();
     this.limits = new CLLimits();
     this.model = new LNGBooleanVector();
+    this.assumptions = new LNGIntVector();
+    this.failedAssumption = false;
     control.push(new CLFrame());
   }
 
@@ -185,6 +189,24 @@ public abstract class CleaneLingStyleSolver {
    */
   public abstract Tristate solve(final SATHandler handler);
 
+  /**
+   * Solves the formula currently stored in the solver together with the given assumption literals.  The assumptions
+   * are decided before any other variable and are only valid for this single call.
+   * @param handler     a sat handler
+   * @param assumptions the assumptions as a vector of literals
+   * @return {@link Tristate#TRUE} if the formula and the assumptions are satisfiable, {@link Tristate#FALSE} if they
+   * are not satisfiable, or {@link Tristate#UNDEF} if the computation was canceled.
+   */
+  public Tristate solve(final SATHandler handler, final LNGIntVector assumptions) {
+    for (int i = 0; i < assumptions.size(); i++)
+      importLit(assumptions.get(i));
+    this.assumptions = new LNGIntVector(assumptions);
+    final Tristate result = solve(handler);
+    this.assumptions = new LNGIntVector();
+    this.failedAssumption = false;
+    return result;
+  }
+
   /**
    * Returns the current model of the solver or an empty vector if there is none.
    * @return the current model of the solver
@@ -559,11 +581,23 @@ public abstract class CleaneLingStyleSolver {
   }
 
   /**
-   * Checks if there are unassigned literals left.
-   * @return {@code false} if all literals are assigned, {@code true} otherwise
+   * Checks if there are unassigned literals left.  Pending assumptions are always decided first.  If an assumption is
+   * already falsified, {@code false} is returned and the {@code failedAssumption} flag is set.
+   * @return {@code false} if all literals are assigned or an assumption failed, {@code true} otherwise
    */
   protected boolean decide() {
     assert propagated();
+    for (int i = 0; i < assumptions.size(); i++) {
+      final int lit = assumptions.get(i);
+      final byte value = val(lit);
+      if (value == VALUE_FALSE) {
+        failedAssumption = true;
+        return false;
+      } else if (value == VALUE_UNASSIGNED) {
+        assume(lit);
+        return true;
+      }
+    }
     int decision = 0;
     while (decision == 0 && !decisions.empty()) {
       int lit = decisions.top();
@@ -582,6 +616,27 @@ public abstract class CleaneLingStyleSolver {
     return true;
   }
 
+  /**
+   * Returns the statistics of this solver.
+   * @return the statistics of this solver
+   */
+  public SolverStatistics statistics() {
+    return new SolverStatistics(this.stats.decisions, this.stats.propagations, this.stats.conflicts,
+            this.stats.restartsCount, this.stats.clausesLearned, this.stats.sizes, this.stats.reductions,
+            this.stats.propagationTime, this.stats.analysisTime, this.stats.peakMemory);
+  }
+
+  /**
+   * Updates the peak memory estimation with the current size of the clause database.  This method is called whenever
+   * a new clause is created.
+   */
+  protected void updatePeakMemory() {
+    final long memory = SolverStatistics.estimateMemory(this.vars.size(),
+            (long) this.stats.clausesIrredundant + this.stats.clausesRedundant, this.stats.literals);
+    if (memory > this.stats.peakMemory)
+      this.stats.peakMemory = memory;
+  }
+
   /**
    * Initializes the limits.
    */
@@ -612,6 +667,35 @@ public abstract class CleaneLingStyleSolver {
    */
   protected abstract CLClause bcp();
 
+  /**
+   * Performs {@link #bcp()} and measures its time if configured.
+   * @return the conflict clause or {@code null} if there is no conflict
+   */
+  protected CLClause timedBcp() {
+    final long start = startTime();
+    final CLClause conflict = bcp();
+    this.stats.propagationTime += elapsedTime(start);
+    return conflict;
+  }
+
+  /**
+   * Returns the current time in nanoseconds if the solver measures the times of its statistics, and 0 otherwise.
+   * @return the current time or 0
+   */
+  protected long startTime() {
+    return this.config.measureTimes ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Returns the time in nanoseconds since the given start time if the solver measures the times of its statistics,
+   * and 0 otherwise.
+   * @param start the start time as returned by {@link #startTime()}
+   * @return the elapsed time or 0
+   */
+  protected long elapsedTime(final long start) {
+    return this.config.measureTimes ? System.nanoTime() - start : 0;
+  }
+
   /**
    * Minimizes the current clause.
    */
@@ -681,6 +765,7 @@ public abstract class CleaneLingStyleSolver {
     int clausesReduced;
     int clausesEliminated;
     int clausesBlocked;
+    int clausesRestored;
     int backwardSubsumed;
     int backwardStrengthened;
     int distillUnits;
@@ -691,5 +776,10 @@ public abstract class CleaneLingStyleSolver {
     int varsEliminated;
     int litsLearned;
     int litsMinimized;
+    long clausesLearned;
+    long literals;
+    long propagationTime;
+    long analysisTime;
+    long peakMemory;
   }
 }
@@ -51,6 +51,15 @@ public final class GlucoseConfig extends Configuration {
   final boolean reduceOnSize;
   final int reduceOnSizeSize;
   final double maxVarDecay;
+  final boolean inprocessing;
+  final int inprocessingInterval;
+  final int inprocessingPropagations;
+  final int lbLBDVivification;
+  final boolean tieredLearnts;
+  final int lbLBDCoreClause;
+  final int lbLBDTier2Clause;
+  final int tier2ReduceInterval;
+  final int localReduceInterval;
 
   /**
    * Constructs a new Glucose configuration from a given builder.
@@ -71,6 +80,15 @@ public final class GlucoseConfig extends Configuration {
     this.reduceOnSize = builder.reduceOnSize;
     this.reduceOnSizeSize = builder.reduceOnSizeSize;
     this.maxVarDecay = builder.maxVarDecay;
+    this.inprocessing = builder.inprocessing;
+    this.inprocessingInterval = builder.inprocessingInterval;
+    this.inprocessingPropagations = builder.inprocessingPropagations;
+    this.lbLBDVivification = builder.lbLBDVivification;
+    this.tieredLearnts = builder.tieredLearnts;
+    this.lbLBDCoreClause = builder.lbLBDCoreClause;
+    this.lbLBDTier2Clause = builder.lbLBDTier2Clause;
+    this.tier2ReduceInterval = builder.tier2ReduceInterval;
+    this.localReduceInterval = builder.localReduceInterval;
   }
 
   @Override
@@ -89,6 +107,15 @@ public final class GlucoseConfig extends Configuration {
     sb.append("reduceOnSize=").append(this.reduceOnSize).append("\n");
     sb.append("reduceOnSizeSize=").append(this.reduceOnSizeSize).append("\n");
     sb.append("maxVarDecay=").append(this.maxVarDecay).append("\n");
+    sb.append("inprocessing=").append(this.inprocessing).append("\n");
+    sb.append("inprocessingInterval=").append(this.inprocessingInterval).append("\n");
+    sb.append("inprocessingPropagations=").append(this.inprocessingPropagations).append("\n");
+    sb.append("lbLBDVivification=").append(this.lbLBDVivification).append("\n");
+    sb.append("tieredLearnts=").append(this.tieredLearnts).append("\n");
+    sb.append("lbLBDCoreClause=").append(this.lbLBDCoreClause).append("\n");
+    sb.append("lbLBDTier2Clause=").append(this.lbLBDTier2Clause).append("\n");
+    sb.append("tier2ReduceInterval=").append(this.tier2ReduceInterval).append("\n");
+    sb.append("localReduceInterval=").append(this.localReduceInterval).append("\n");
     sb.append("}\n");
     return sb.toString();
   }
@@ -110,6 +137,15 @@ public final class GlucoseConfig extends Configuration {
     private boolean reduceOnSize = false;
     private int reduceOnSizeSize = 12;
     private double maxVarDecay = 0.95;
+    private boolean inprocessing = false;
+    private int inprocessingInterval = 50;
+    private int inprocessingPropagations = 100000;
+    private int lbLBDVivification = 8;
+    private boolean tieredLearnts = false;
+    private int lbLBDCoreClause = 2;
+    private int lbLBDTier2Clause = 6;
+    private int tier2ReduceInterval = 10000;
+    private int localReduceInterval = 15000;
 
     /**
      * Sets the minimal LBD required to minimize a clause to a given value.  The default value is 6.
@@ -244,6 +280,103 @@ public final class GlucoseConfig extends Configuration {
       return this;
     }
 
+    /**
+     * Turns on inprocessing between restarts: failed literal probing on the binary implication graph, subsumption of
+     * learnt clauses and vivification of learnt clauses.  The default value is {@code false}.
+     * @param inprocessing {@code true} if inprocessing is turned on, {@code false} otherwise
+     * @return the builder
+     */
+    public Builder inprocessing(boolean inprocessing) {
+      this.inprocessing = inprocessing;
+      return this;
+    }
+
+    /**
+     * Sets the number of restarts between two inprocessing rounds to a given value.  The default value is 50.
+     * @param inprocessingInterval the value (should be at least 1)
+     * @return the builder
+     */
+    public Builder inprocessingInterval(int inprocessingInterval) {
+      this.inprocessingInterval = inprocessingInterval;
+      return this;
+    }
+
+    /**
+     * Sets the maximal number of propagated literals of probing and vivification in one inprocessing round to a given
+     * value.  The default value is 100000.
+     * @param inprocessingPropagations the value
+     * @return the builder
+     */
+    public Builder inprocessingPropagations(int inprocessingPropagations) {
+      this.inprocessingPropagations = inprocessingPropagations;
+      return this;
+    }
+
+    /**
+     * Sets the maximal LBD of a learnt clause to be vivified to a given value.  The default value is 8.
+     * @param lbLBDVivification the value
+     * @return the builder
+     */
+    public Builder lbLBDVivification(int lbLBDVivification) {
+      this.lbLBDVivification = lbLBDVivification;
+      return this;
+    }
+
+    /**
+     * Turns on the three-tier learnt clause database.  Learnt clauses with a small LBD are kept forever (core), clauses
+     * with a medium LBD are kept as long as they are used in conflict analysis (tier2), and all other clauses (local)
+     * are reduced by their activity.  If turned off, the learnt clauses are reduced like in the original Glucose
+     * solver.  The default value is {@code false}.
+     * @param tieredLearnts {@code true} if the three-tier learnt clause database is turned on, {@code false} otherwise
+     * @return the builder
+     */
+    public Builder tieredLearnts(boolean tieredLearnts) {
+      this.tieredLearnts = tieredLearnts;
+      return this;
+    }
+
+    /**
+     * Sets the maximal LBD of a learnt clause in the core tier to a given value.  The default value is 2.
+     * @param lbLBDCoreClause the value
+     * @return the builder
+     */
+    public Builder lbLBDCoreClause(int lbLBDCoreClause) {
+      this.lbLBDCoreClause = lbLBDCoreClause;
+      return this;
+    }
+
+    /**
+     * Sets the maximal LBD of a learnt clause in the tier2 tier to a given value.  The default value is 6.
+     * @param lbLBDTier2Clause the value (should be at least the LBD of the core tier)
+     * @return the builder
+     */
+    public Builder lbLBDTier2Clause(int lbLBDTier2Clause) {
+      this.lbLBDTier2Clause = lbLBDTier2Clause;
+      return this;
+    }
+
+    /**
+     * Sets the number of conflicts after which unused clauses of the tier2 tier are moved to the local tier to a given
+     * value.  The default value is 10000.
+     * @param tier2ReduceInterval the value
+     * @return the builder
+     */
+    public Builder tier2ReduceInterval(int tier2ReduceInterval) {
+      this.tier2ReduceInterval = tier2ReduceInterval;
+      return this;
+    }
+
+    /**
+     * Sets the number of conflicts between two reductions of the local tier to a given value.  The default value is
+     * 15000.
+     * @param localReduceInterval the value
+     * @return the builder
+     */
+    public Builder localReduceInterval(int localReduceInterval) {
+      this.localReduceInterval = localReduceInterval;
+      return this;
+    }
+
     /**
      * Builds the Glucose configuration.
      * @return the configuration
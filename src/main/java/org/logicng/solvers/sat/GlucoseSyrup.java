@@ -88,9 +88,12 @@ import org.logicng.solvers.datastructures.MSClause;
 import org.logicng.solvers.datastructures.MSVariable;
 import org.logicng.solvers.datastructures.MSWatcher;
 
+import java.util.Comparator;
+import java.util.Map;
+
 /**
  * Glucose 4.0 solver.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public final class GlucoseSyrup extends MiniSatStyleSolver {
@@ -105,6 +108,16 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
    */
   private static final int LB_BLOCKING_RESTART = 10000;
 
+  /**
+   * a comparator for clauses based on their size (used for the subsumption of learnt clauses)
+   */
+  private static final Comparator<MSClause> SIZE_COMPARATOR = new Comparator<MSClause>() {
+    @Override
+    public int compare(final MSClause x, final MSClause y) {
+      return x.size() < y.size() ? -1 : (x.size() == y.size() ? 0 : 1);
+    }
+  };
+
   // external solver configuration
   private final GlucoseConfig glucoseConfig;
 
@@ -115,6 +128,8 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
   private LNGBoundedLongQueue lbdQueue;
   private LNGBoundedIntQueue trailQueue;
   private LNGBooleanVector assump;
+  private LNGIntVector unitClauses;
+  private int learntsCounter;
   private int myflag;
   private long analyzeLBD;
   private int analyzeSzWithoutSelectors;
@@ -123,6 +138,18 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
   private int conflictsRestarts;
   private double sumLBD;
   private int curRestart;
+  private int restartsSinceInprocessing;
+  private int nextProbe;
+  private int nextTier2Reduce;
+  private int nextLocalReduce;
+
+  // statistics of inprocessing and the three-tier learnt clause database
+  private long inprocessingRounds;
+  private long failedLiterals;
+  private long subsumedLearnts;
+  private long vivifiedLearnts;
+  private long promotedLearnts;
+  private long demotedLearnts;
 
   // solver configuration
   private int lbLBDMinimizingClause;
@@ -138,6 +165,15 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
   private boolean reduceOnSize;
   private int reduceOnSizeSize;
   private double maxVarDecay;
+  private boolean inprocessing;
+  private int inprocessingInterval;
+  private int inprocessingPropagations;
+  private int lbLBDVivification;
+  private boolean tieredLearnts;
+  private int lbLBDCoreClause;
+  private int lbLBDTier2Clause;
+  private int tier2ReduceInterval;
+  private int localReduceInterval;
 
   /**
    * Constructs a new Glucose 2 solver with the default values for solver configuration.  By default, incremental mode
@@ -169,6 +205,8 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
     this.lbdQueue = new LNGBoundedLongQueue();
     this.trailQueue = new LNGBoundedIntQueue();
     this.assump = new LNGBooleanVector();
+    this.unitClauses = new LNGIntVector();
+    this.learntsCounter = 0;
     this.lbdQueue.initSize(sizeLBDQueue);
     this.trailQueue.initSize(sizeTrailQueue);
     this.myflag = 0;
@@ -180,6 +218,16 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
     this.conflictsRestarts = 0;
     this.sumLBD = 0;
     this.curRestart = 1;
+    this.restartsSinceInprocessing = 0;
+    this.nextProbe = 0;
+    this.nextTier2Reduce = tier2ReduceInterval;
+    this.nextLocalReduce = localReduceInterval;
+    this.inprocessingRounds = 0;
+    this.failedLiterals = 0;
+    this.subsumedLearnts = 0;
+    this.vivifiedLearnts = 0;
+    this.promotedLearnts = 0;
+    this.demotedLearnts = 0;
   }
 
   /**
@@ -199,6 +247,15 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
     this.reduceOnSize = glucoseConfig.reduceOnSize;
     this.reduceOnSizeSize = glucoseConfig.reduceOnSizeSize;
     this.maxVarDecay = glucoseConfig.maxVarDecay;
+    this.inprocessing = glucoseConfig.inprocessing;
+    this.inprocessingInterval = glucoseConfig.inprocessingInterval;
+    this.inprocessingPropagations = glucoseConfig.inprocessingPropagations;
+    this.lbLBDVivification = glucoseConfig.lbLBDVivification;
+    this.tieredLearnts = glucoseConfig.tieredLearnts;
+    this.lbLBDCoreClause = glucoseConfig.lbLBDCoreClause;
+    this.lbLBDTier2Clause = glucoseConfig.lbLBDTier2Clause;
+    this.tier2ReduceInterval = glucoseConfig.tier2ReduceInterval;
+    this.localReduceInterval = glucoseConfig.localReduceInterval;
   }
 
   @Override
@@ -241,6 +298,8 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
     } else if (ps.size() == 1) {
       uncheckedEnqueue(ps.get(0), null);
       ok = propagate() == null;
+      if (incremental)
+        unitClauses.push(ps.get(0));
       return ok;
     } else {
       final MSClause c = new MSClause(ps, false);
@@ -263,8 +322,22 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
       assump.set(var(assumptions.get(i)), true);
 
     Tristate status = Tristate.UNDEF;
-    while (status == Tristate.UNDEF && !canceledByHandler)
+    while (status == Tristate.UNDEF && !canceledByHandler) {
+      if (participant != null) {
+        cancelUntil(0);
+        if (!importSharedClauses()) {
+          status = Tristate.FALSE;
+          break;
+        }
+      }
       status = search();
+      if (status == Tristate.UNDEF && inprocessing && !canceledByHandler && decisionLevel() == 0
+              && ++restartsSinceInprocessing >= inprocessingInterval) {
+        restartsSinceInprocessing = 0;
+        if (!inprocess())
+          status = Tristate.FALSE;
+      }
+    }
     if (status == Tristate.TRUE) {
       model = new LNGBooleanVector(vars.size());
       for (final MSVariable v : this.vars)
@@ -287,14 +360,153 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
     this.initializeGlucose();
   }
 
+  @Override
+  public GlucoseSyrup copy() {
+    final GlucoseSyrup copy = new GlucoseSyrup(this.config, this.glucoseConfig);
+    final Map<MSClause, MSClause> clauseMap = copy.copyState(this);
+    copy.watchesBin = copyWatches(this.watchesBin, clauseMap);
+    copy.permDiff = new LNGIntVector(this.permDiff);
+    copy.lastDecisionLevel = new LNGIntVector(this.lastDecisionLevel);
+    copy.lbdQueue = new LNGBoundedLongQueue(this.lbdQueue);
+    copy.trailQueue = new LNGBoundedIntQueue(this.trailQueue);
+    copy.assump = new LNGBooleanVector(this.assump);
+    copy.unitClauses = new LNGIntVector(this.unitClauses);
+    copy.learntsCounter = this.learntsCounter;
+    copy.myflag = this.myflag;
+    copy.analyzeLBD = this.analyzeLBD;
+    copy.analyzeSzWithoutSelectors = this.analyzeSzWithoutSelectors;
+    copy.nbclausesbeforereduce = this.nbclausesbeforereduce;
+    copy.conflicts = this.conflicts;
+    copy.conflictsRestarts = this.conflictsRestarts;
+    copy.sumLBD = this.sumLBD;
+    copy.curRestart = this.curRestart;
+    copy.restartsSinceInprocessing = this.restartsSinceInprocessing;
+    copy.nextProbe = this.nextProbe;
+    copy.nextTier2Reduce = this.nextTier2Reduce;
+    copy.nextLocalReduce = this.nextLocalReduce;
+    return copy;
+  }
+
+  /**
+   * Returns the number of inprocessing rounds.
+   * @return the number of inprocessing rounds
+   */
+  public long inprocessingRounds() {
+    return this.inprocessingRounds;
+  }
+
+  /**
+   * Returns the number of failed literals found by probing during inprocessing.
+   * @return the number of failed literals
+   */
+  public long failedLiterals() {
+    return this.failedLiterals;
+  }
+
+  /**
+   * Returns the number of learnt clauses removed by subsumption during inprocessing.
+   * @return the number of subsumed learnt clauses
+   */
+  public long subsumedLearnts() {
+    return this.subsumedLearnts;
+  }
+
+  /**
+   * Returns the number of learnt clauses shortened by vivification during inprocessing.
+   * @return the number of vivified learnt clauses
+   */
+  public long vivifiedLearnts() {
+    return this.vivifiedLearnts;
+  }
+
+  /**
+   * Returns the number of learnt clauses moved to a better tier of the three-tier learnt clause database.
+   * @return the number of promoted learnt clauses
+   */
+  public long promotedLearnts() {
+    return this.promotedLearnts;
+  }
+
+  /**
+   * Returns the number of learnt clauses moved from the tier2 tier to the local tier.
+   * @return the number of demoted learnt clauses
+   */
+  public long demotedLearnts() {
+    return this.demotedLearnts;
+  }
+
+  /**
+   * Saves and returns the solver state expressed as an integer array which stores the length of the internal data
+   * structures.  Since learnt clauses are reduced and reordered by Glucose, the state does not store the number of
+   * learnt clauses but the creation stamp of the next learnt clause.  The array has length 6 and has the following
+   * layout:
+   * <p>
+   * {@code | current solver state | #vars | #clauses | learnt clause stamp | #unit clauses | #names |}
+   * @return the current solver state
+   */
   @Override
   public int[] saveState() {
-    throw new UnsupportedOperationException("The Glucose solver does not support state loading/saving");
+    if (!incremental)
+      throw new IllegalStateException("Cannot save a state when the incremental mode is deactivated");
+    int[] state;
+    state = new int[6];
+    state[0] = ok ? 1 : 0;
+    state[1] = vars.size();
+    state[2] = clauses.size();
+    state[3] = learntsCounter;
+    state[4] = unitClauses.size();
+    state[5] = names.size();
+    return state;
   }
 
   @Override
   public void loadState(int[] state) {
-    throw new UnsupportedOperationException("The Glucose solver does not support state loading/saving");
+    if (!incremental)
+      throw new IllegalStateException("Cannot load a state when the incremental mode is deactivated");
+    int i;
+    int j;
+    completeBacktrack();
+    this.ok = state[0] == 1;
+    int newVarsSize = Math.min(state[1], vars.size());
+    for (i = this.vars.size() - 1; i >= newVarsSize; i--) {
+      final String name = this.idx2name.remove(i);
+      if (name != null)
+        this.name2idx.remove(name);
+      if (this.orderHeap.inHeap(i))
+        this.orderHeap.remove(i);
+    }
+    vars.shrinkTo(newVarsSize);
+    int newClausesSize = Math.min(state[2], this.clauses.size());
+    for (i = this.clauses.size() - 1; i >= newClausesSize; i--)
+      detachClause(this.clauses.get(i));
+    this.clauses.shrinkTo(newClausesSize);
+    for (i = j = 0; i < this.learnts.size(); i++) {
+      final MSClause c = this.learnts.get(i);
+      if (c.stamp() >= state[3])
+        detachClause(c);
+      else
+        this.learnts.set(j++, c);
+    }
+    this.learnts.removeElements(i - j);
+    this.learntsCounter = state[3];
+    this.watches.shrinkTo(newVarsSize * 2);
+    this.watchesBin.shrinkTo(newVarsSize * 2);
+    this.seen.shrinkTo(newVarsSize);
+    this.permDiff.shrinkTo(newVarsSize);
+    this.assump.shrinkTo(newVarsSize);
+    this.lbdQueue.fastClear();
+    this.unitClauses.shrinkTo(state[4]);
+    for (i = 0; this.ok && i < this.unitClauses.size(); i++) {
+      final int lit = this.unitClauses.get(i);
+      if (value(lit) == Tristate.FALSE)
+        this.ok = false;
+      else if (value(lit) == Tristate.UNDEF) {
+        uncheckedEnqueue(lit, null);
+        this.ok = propagate() == null;
+      }
+    }
+    this.names.shrinkTo(state[5]);
+    this.simpDBAssigns = -1;
   }
 
   @Override
@@ -321,6 +533,7 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
       learntsLiterals += c.size();
     else
       clausesLiterals += c.size();
+    updatePeakMemory();
   }
 
   @Override
@@ -433,6 +646,7 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
       ws.removeElements(iInd - jInd);
     }
     simpDBProps -= numProps;
+    stats.propagations += numProps;
     return confl;
   }
 
@@ -516,6 +730,11 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
 
   @Override
   protected void reduceDB() {
+    stats.reductions++;
+    if (tieredLearnts) {
+      reduceLocalTier();
+      return;
+    }
     int i;
     int j;
     learnts.manualSort(MSClause.glucoseComparator);
@@ -576,7 +795,7 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
     if (nAssigns() == simpDBAssigns || (simpDBProps > 0))
       return true;
     removeSatisfied(learnts);
-    if (removeSatisfied)
+    if (removeSatisfied && !incremental)
       removeSatisfied(clauses);
     rebuildOrderHeap();
     simpDBAssigns = nAssigns();
@@ -584,6 +803,107 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
     return true;
   }
 
+  @Override
+  protected void addSharedClause(final LNGIntVector lits, int lbd) {
+    if (lits.size() == 1) {
+      uncheckedEnqueue(lits.get(0), null);
+      if (incremental)
+        unitClauses.push(lits.get(0));
+    } else {
+      final MSClause c = new MSClause(lits, true);
+      c.setStamp(learntsCounter++);
+      c.setLBD(lbd);
+      c.setOneWatched(false);
+      int sizeWithoutSelectors = 0;
+      for (int i = 0; i < lits.size(); i++)
+        if (!isSelector(var(lits.get(i))))
+          sizeWithoutSelectors++;
+      c.setSizeWithoutSelectors(sizeWithoutSelectors);
+      if (tieredLearnts) {
+        c.setUsed(true);
+        updateTier(c);
+      }
+      learnts.push(c);
+      attachClause(c);
+    }
+  }
+
+  /**
+   * Moves a learnt clause to a better tier if its LBD is small enough.
+   * @param c the learnt clause
+   * @return {@code true} if the clause was moved, {@code false} otherwise
+   */
+  private boolean updateTier(final MSClause c) {
+    final MSClause.Tier tier = c.tier();
+    if (c.lbd() <= lbLBDCoreClause)
+      c.setTier(MSClause.Tier.CORE);
+    else if (c.lbd() <= lbLBDTier2Clause && c.tier() == MSClause.Tier.LOCAL)
+      c.setTier(MSClause.Tier.TIER2);
+    return c.tier() != tier;
+  }
+
+  /**
+   * Moves all clauses of the tier2 tier which were not used since the last call of this method to the local tier.
+   */
+  private void reduceTier2() {
+    for (final MSClause c : learnts) {
+      if (c.tier() == MSClause.Tier.TIER2) {
+        if (!c.used()) {
+          c.setTier(MSClause.Tier.LOCAL);
+          demotedLearnts++;
+        }
+        c.setUsed(false);
+      }
+    }
+  }
+
+  /**
+   * Reduces the local tier of the three-tier learnt clause database.  Only the local clauses are sorted by their
+   * activity and the less active half of them is removed.
+   */
+  private void reduceLocalTier() {
+    final LNGVector<MSClause> local = new LNGVector<MSClause>();
+    int i;
+    int j;
+    for (i = j = 0; i < learnts.size(); i++) {
+      final MSClause c = learnts.get(i);
+      if (c.tier() == MSClause.Tier.LOCAL)
+        local.push(c);
+      else
+        learnts.set(j++, c);
+    }
+    learnts.removeElements(i - j);
+    local.manualSort(MSClause.minisatComparator);
+    int limit = local.size() / 2;
+    for (i = 0; i < local.size(); i++) {
+      final MSClause c = local.get(i);
+      if (c.size() > 2 && c.canBeDel() && !locked(c) && i < limit)
+        removeClause(c);
+      else {
+        if (!c.canBeDel())
+          limit++;
+        c.setCanBeDel(true);
+        learnts.push(c);
+      }
+    }
+  }
+
+  /**
+   * Performs an unconditional backtrack to level zero.
+   */
+  private void completeBacktrack() {
+    for (int v = 0; v < vars.size(); v++) {
+      MSVariable var = vars.get(v);
+      var.assign(Tristate.UNDEF);
+      var.setReason(null);
+      if (!orderHeap.inHeap(v) && var.decision())
+        orderHeap.insert(v);
+    }
+    trail.clear();
+    trailLim.clear();
+    qhead = 0;
+  }
+
   /**
    * Computes the LBD for a given vector of literals.
    * @param lits the vector of literals
@@ -719,7 +1039,9 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
     LNGIntVector selectors = new LNGIntVector();
     boolean blocked = false;
     while (true) {
+      final long propagationStart = startTime();
       final MSClause confl = propagate();
+      stats.propagationTime += elapsedTime(propagationStart);
       if (confl != null) {
         if (handler != null && !handler.detectedConflict()) {
           canceledByHandler = true;
@@ -727,6 +1049,7 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
         }
         conflicts++;
         conflictsRestarts++;
+        stats.conflicts++;
         if (conflicts % 5000 == 0 && varDecay < maxVarDecay)
           varDecay += 0.01;
         if (decisionLevel() == 0)
@@ -739,17 +1062,29 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
         }
         learntClause.clear();
         selectors.clear();
+        final long analysisStart = startTime();
         analyze(confl, learntClause, selectors);
+        stats.analysisTime += elapsedTime(analysisStart);
+        stats.learntClauses++;
+        stats.learntLiterals += learntClause.size();
         lbdQueue.push(analyzeLBD);
         sumLBD += analyzeLBD;
+        exportLearnt(learntClause, (int) analyzeLBD);
         cancelUntil(analyzeBtLevel);
         if (learntClause.size() == 1) {
           uncheckedEnqueue(learntClause.get(0), null);
+          if (incremental)
+            unitClauses.push(learntClause.get(0));
         } else {
           final MSClause cr = new MSClause(learntClause, true);
+          cr.setStamp(learntsCounter++);
           cr.setLBD(analyzeLBD);
           cr.setOneWatched(false);
           cr.setSizeWithoutSelectors(analyzeSzWithoutSelectors);
+          if (tieredLearnts) {
+            cr.setUsed(true);
+            updateTier(cr);
+          }
           learnts.push(cr);
           attachClause(cr);
           claBumpActivity(cr);
@@ -764,11 +1099,21 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
           if (incremental)
             bt = (decisionLevel() < assumptions.size()) ? decisionLevel() : assumptions.size();
           cancelUntil(bt);
+          stats.restarts++;
           return Tristate.UNDEF;
         }
         if (decisionLevel() == 0 && !simplify())
           return Tristate.FALSE;
-        if (conflicts >= (curRestart * nbclausesbeforereduce) && learnts.size() > 0) {
+        if (tieredLearnts) {
+          if (conflicts >= nextTier2Reduce) {
+            nextTier2Reduce = conflicts + tier2ReduceInterval;
+            reduceTier2();
+          }
+          if (conflicts >= nextLocalReduce) {
+            nextLocalReduce = conflicts + localReduceInterval;
+            reduceDB();
+          }
+        } else if (conflicts >= (curRestart * nbclausesbeforereduce) && learnts.size() > 0) {
           curRestart = (conflicts / nbclausesbeforereduce) + 1;
           reduceDB();
           nbclausesbeforereduce += incReduceDB;
@@ -790,6 +1135,7 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
           next = pickBranchLit();
           if (next == LIT_UNDEF)
             return Tristate.TRUE;
+          stats.decisions++;
         }
         trailLim.push(trail.size());
         uncheckedEnqueue(next, null);
@@ -797,6 +1143,198 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
     }
   }
 
+  /**
+   * Performs an inprocessing round on decision level 0.  First failed literals are probed on the binary implication
+   * graph, then subsumed learnt clauses are removed and finally learnt clauses with a small LBD are vivified.
+   * @return {@code false} if the formula was found to be unsatisfiable, {@code true} otherwise
+   */
+  private boolean inprocess() {
+    assert decisionLevel() == 0;
+    inprocessingRounds++;
+    if (!ok || propagate() != null)
+      return ok = false;
+    int budget = probeFailedLiterals(inprocessingPropagations);
+    if (!ok)
+      return false;
+    subsumeLearnts();
+    vivifyLearnts(budget);
+    return ok;
+  }
+
+  /**
+   * Probes the roots of the binary implication graph.  If the propagation of a root literal leads to a conflict, its
+   * negation is added as a unit clause.
+   * @param budget the maximal number of propagated literals
+   * @return the remaining budget
+   */
+  private int probeFailedLiterals(int budget) {
+    int remaining = budget;
+    for (int n = 0; n < nVars() && remaining > 0 && ok; n++) {
+      final int v = nextProbe;
+      nextProbe = (nextProbe + 1) % nVars();
+      for (int i = 0; i < 2 && vars.get(v).assignment() == Tristate.UNDEF; i++) {
+        final int p = mkLit(v, i == 1);
+        if (watchesBin.get(p).empty() || !watchesBin.get(not(p)).empty())
+          continue;
+        final int trailBefore = trail.size();
+        trailLim.push(trail.size());
+        uncheckedEnqueue(p, null);
+        final MSClause confl = propagate();
+        remaining -= trail.size() - trailBefore;
+        cancelUntil(0);
+        if (confl != null) {
+          failedLiterals++;
+          if (!enqueueUnit(not(p)))
+            return 0;
+        }
+      }
+    }
+    return remaining;
+  }
+
+  /**
+   * Removes all learnt clauses which are subsumed by another learnt clause.  Each clause is indexed by only one of its
+   * literals and checked against the smaller clauses of the literal lists of its own literals.
+   */
+  private void subsumeLearnts() {
+    learnts.sort(SIZE_COMPARATOR);
+    final LNGVector<LNGIntVector> occurs = new LNGVector<LNGIntVector>(2 * nVars());
+    for (int i = 0; i < 2 * nVars(); i++)
+      occurs.push(new LNGIntVector());
+    final boolean[] marks = new boolean[2 * nVars()];
+    int i;
+    int j;
+    for (i = j = 0; i < learnts.size(); i++) {
+      final MSClause c = learnts.get(i);
+      for (int k = 0; k < c.size(); k++)
+        marks[c.get(k)] = true;
+      MSClause subsuming = null;
+      for (int k = 0; k < c.size() && subsuming == null; k++) {
+        final LNGIntVector os = occurs.get(c.get(k));
+        for (int m = 0; m < os.size() && subsuming == null; m++) {
+          final MSClause d = learnts.get(os.get(m));
+          int l = 0;
+          while (l < d.size() && marks[d.get(l)])
+            l++;
+          if (l == d.size())
+            subsuming = d;
+        }
+      }
+      for (int k = 0; k < c.size(); k++)
+        marks[c.get(k)] = false;
+      if (subsuming != null && !locked(c)) {
+        if (c.lbd() < subsuming.lbd())
+          subsuming.setLBD(c.lbd());
+        if (tieredLearnts && updateTier(subsuming))
+          promotedLearnts++;
+        removeClause(c);
+        subsumedLearnts++;
+      } else {
+        int minLit = c.get(0);
+        for (int k = 1; k < c.size(); k++)
+          if (occurs.get(c.get(k)).size() < occurs.get(minLit).size())
+            minLit = c.get(k);
+        occurs.get(minLit).push(j);
+        learnts.set(j++, c);
+      }
+    }
+    learnts.removeElements(i - j);
+  }
+
+  /**
+   * Vivifies the learnt clauses with a small LBD.  The literals of a clause are falsified one after another until
+   * propagation either leads to a conflict or implies one of the remaining literals.  Literals which are falsified by
+   * propagation are removed from the clause.
+   * @param budget the maximal number of propagated literals
+   */
+  private void vivifyLearnts(int budget) {
+    int remaining = budget;
+    final LNGIntVector lits = new LNGIntVector();
+    int i;
+    int j;
+    for (i = j = 0; i < learnts.size(); i++) {
+      final MSClause c = learnts.get(i);
+      if (!ok || remaining <= 0 || c.size() <= 2 || c.lbd() > lbLBDVivification || hasTrueLiteral(c)
+              || (incremental && c.sizeWithoutSelectors() != c.size())) {
+        learnts.set(j++, c);
+        continue;
+      }
+      detachClause(c);
+      lits.clear();
+      final int trailBefore = trail.size();
+      boolean implied = false;
+      for (int k = 0; k < c.size() && !implied; k++) {
+        final int lit = c.get(k);
+        if (value(lit) == Tristate.TRUE) {
+          lits.push(lit);
+          implied = true;
+        } else if (value(lit) == Tristate.UNDEF) {
+          lits.push(lit);
+          trailLim.push(trail.size());
+          uncheckedEnqueue(not(lit), null);
+          implied = propagate() != null;
+        }
+      }
+      remaining -= trail.size() - trailBefore;
+      cancelUntil(0);
+      if (lits.size() == c.size()) {
+        attachClause(c);
+        learnts.set(j++, c);
+        continue;
+      }
+      vivifiedLearnts++;
+      if (lits.size() == 0)
+        ok = false;
+      else if (lits.size() == 1)
+        enqueueUnit(lits.get(0));
+      else {
+        final MSClause vivified = new MSClause(lits, true);
+        vivified.setLBD(Math.min(c.lbd(), lits.size()));
+        vivified.setCanBeDel(c.canBeDel());
+        vivified.setOneWatched(false);
+        vivified.setSizeWithoutSelectors(lits.size());
+        vivified.incrementActivity(c.activity());
+        vivified.setStamp(learntsCounter++);
+        vivified.setTier(c.tier());
+        vivified.setUsed(c.used());
+        if (tieredLearnts && updateTier(vivified))
+          promotedLearnts++;
+        attachClause(vivified);
+        learnts.set(j++, vivified);
+      }
+    }
+    learnts.removeElements(i - j);
+  }
+
+  /**
+   * Returns {@code true} if the given clause contains a literal which is currently assigned to true.
+   * @param c the clause
+   * @return {@code true} if the clause contains a true literal
+   */
+  private boolean hasTrueLiteral(final MSClause c) {
+    for (int i = 0; i < c.size(); i++)
+      if (value(c.get(i)) == Tristate.TRUE)
+        return true;
+    return false;
+  }
+
+  /**
+   * Adds a unit clause on decision level 0 and propagates it.
+   * @param lit the literal of the unit clause
+   * @return {@code false} if the propagation led to a conflict, {@code true} otherwise
+   */
+  private boolean enqueueUnit(int lit) {
+    assert decisionLevel() == 0;
+    if (value(lit) == Tristate.TRUE)
+      return true;
+    if (value(lit) == Tristate.FALSE)
+      return ok = false;
+    uncheckedEnqueue(lit, null);
+    if (incremental)
+      unitClauses.push(lit);
+    return ok = propagate() == null;
+  }
+
   /**
    * Analyzes a given conflict clause wrt. the current solver state.  A 1-UIP clause is created during this procedure
    * and the new backtracking level is stored in the solver state.
@@ -819,9 +1357,11 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
         c.set(0, c.get(1));
         c.set(1, tmp);
       }
-      if (c.learnt())
+      if (c.learnt()) {
         claBumpActivity(c);
-      else {
+        if (tieredLearnts)
+          c.setUsed(true);
+      } else {
         if (!c.seen())
           c.setSeen(true);
       }
@@ -832,6 +1372,8 @@ public final class GlucoseSyrup extends MiniSatStyleSolver {
             c.setCanBeDel(false);
           }
           c.setLBD(nblevels);
+          if (tieredLearnts && updateTier(c))
+            promotedLearnts++;
         }
       }
       for (int j = (p == LIT_UNDEF) ? 0 : 1; j < c.size(); j++) {
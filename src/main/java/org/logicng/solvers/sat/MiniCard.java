@@ -61,7 +61,7 @@ import org.logicng.solvers.datastructures.MSWatcher;
 
 /**
  * A cardinality solver based on MiniCard.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public final class MiniCard extends MiniSatStyleSolver {
@@ -166,6 +166,10 @@ public final class MiniCard extends MiniSatStyleSolver {
     Tristate status = Tristate.UNDEF;
     int currRestarts = 0;
     while (status == Tristate.UNDEF && !canceledByHandler) {
+      if (!importSharedClauses()) {
+        status = Tristate.FALSE;
+        break;
+      }
       double restBase = luby(restartInc, currRestarts);
       status = search((int) (restBase * restartFirst));
       currRestarts++;
@@ -190,11 +194,25 @@ public final class MiniCard extends MiniSatStyleSolver {
     this.initializeMiniSAT();
   }
 
+  @Override
+  public MiniCard copy() {
+    final MiniCard copy = new MiniCard(this.config);
+    copy.copyState(this);
+    copy.unitClauses = new LNGIntVector(this.unitClauses);
+    copy.learntsizeAdjustConfl = this.learntsizeAdjustConfl;
+    copy.learntsizeAdjustCnt = this.learntsizeAdjustCnt;
+    copy.learntsizeAdjustStartConfl = this.learntsizeAdjustStartConfl;
+    copy.learntsizeAdjustInc = this.learntsizeAdjustInc;
+    copy.maxLearnts = this.maxLearnts;
+    return copy;
+  }
+
   /**
    * Saves and returns the solver state expressed as an integer array which stores the length of the internal data
-   * structures.  The array has length 5 and has the following layout:
+   * structures.  At-most constraints are stored as clauses and therefore also covered by the number of clauses.  The
+   * array has length 6 and has the following layout:
    * <p>
-   * {@code | current solver state | #vars | #clauses | #learnt clauses | #unit clauses |}
+   * {@code | current solver state | #vars | #clauses | #learnt clauses | #unit clauses | #names |}
    * @return the current solver state
    */
   @Override
@@ -232,6 +250,7 @@ public final class MiniCard extends MiniSatStyleSolver {
       simpleRemoveClause(this.learnts.get(i));
     this.learnts.shrinkTo(newLearntsSize);
     this.watches.shrinkTo(newVarsSize * 2);
+    this.seen.shrinkTo(newVarsSize);
     this.unitClauses.shrinkTo(state[4]);
     for (i = 0; this.ok && i < this.unitClauses.size(); i++) {
       uncheckedEnqueue(this.unitClauses.get(i), null);
@@ -267,6 +286,7 @@ public final class MiniCard extends MiniSatStyleSolver {
       else
         clausesLiterals += c.size();
     }
+    updatePeakMemory();
   }
 
   @Override
@@ -373,6 +393,7 @@ public final class MiniCard extends MiniSatStyleSolver {
       ws.removeElements(iInd - jInd);
     }
     simpDBProps -= numProps;
+    stats.propagations += numProps;
     return confl;
   }
 
@@ -476,6 +497,7 @@ public final class MiniCard extends MiniSatStyleSolver {
 
   @Override
   protected void reduceDB() {
+    stats.reductions++;
     int i;
     int j;
     double extraLim = claInc / learnts.size();
@@ -542,6 +564,18 @@ public final class MiniCard extends MiniSatStyleSolver {
     return true;
   }
 
+  @Override
+  protected void addSharedClause(final LNGIntVector lits, int lbd) {
+    if (lits.size() == 1) {
+      uncheckedEnqueue(lits.get(0), null);
+      this.unitClauses.push(lits.get(0));
+    } else {
+      final MSClause c = new MSClause(lits, true);
+      learnts.push(c);
+      attachClause(c);
+    }
+  }
+
   /**
    * Adds an at-most k constraint.
    * @param ps  the literals of the constraint
@@ -613,17 +647,25 @@ public final class MiniCard extends MiniSatStyleSolver {
       return Tristate.FALSE;
     int conflictC = 0;
     while (true) {
+      final long propagationStart = startTime();
       MSClause confl = propagate();
+      stats.propagationTime += elapsedTime(propagationStart);
       if (confl != null) {
         if (handler != null && !handler.detectedConflict()) {
           canceledByHandler = true;
           return Tristate.UNDEF;
         }
         conflictC++;
+        stats.conflicts++;
         if (decisionLevel() == 0)
           return Tristate.FALSE;
         LNGIntVector learntClause = new LNGIntVector();
+        final long analysisStart = startTime();
         analyze(confl, learntClause);
+        stats.analysisTime += elapsedTime(analysisStart);
+        stats.learntClauses++;
+        stats.learntLiterals += learntClause.size();
+        exportLearnt(learntClause, -1);
         cancelUntil(analyzeBtLevel);
         if (learntClause.size() == 1) {
           uncheckedEnqueue(learntClause.get(0), null);
@@ -647,6 +689,7 @@ public final class MiniCard extends MiniSatStyleSolver {
       } else {
         if (nofConflicts >= 0 && conflictC >= nofConflicts) {
           cancelUntil(0);
+          stats.restarts++;
           return Tristate.UNDEF;
         }
         if (!incremental) {
@@ -672,6 +715,7 @@ public final class MiniCard extends MiniSatStyleSolver {
           next = pickBranchLit();
           if (next == LIT_UNDEF)
             return Tristate.TRUE;
+          stats.decisions++;
         }
         trailLim.push(trail.size());
         uncheckedEnqueue(next, null);
@@ -840,11 +884,8 @@ public final class MiniCard extends MiniSatStyleSolver {
    */
   private void simpleRemoveClause(final MSClause c) {
     if (c.isAtMost())
-      for (int i = 0; i < c.atMostWatchers(); i++)
-        watches.get(c.get(i)).remove(new MSWatcher(c, c.get(i)));
-    else {
-      watches.get(not(c.get(0))).remove(new MSWatcher(c, c.get(1)));
-      watches.get(not(c.get(1))).remove(new MSWatcher(c, c.get(0)));
-    }
+      detachAtMost(c);
+    else
+      detachClause(c);
   }
 }
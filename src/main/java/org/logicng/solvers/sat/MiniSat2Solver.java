@@ -61,7 +61,7 @@ import org.logicng.solvers.datastructures.MSWatcher;
  * Therefore clause deletion and simplifications are deactivated in this mode.  This mode is most efficient on small
  * to mid-size industrial formulas (up to 50,000 variables, 100,000 clauses).  Whenever you have lots of small formulas
  * to solve or need the ability to add and delete formulas from the solver, we recommend to consider this mode.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public class MiniSat2Solver extends MiniSatStyleSolver {
@@ -164,6 +164,10 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
     Tristate status = Tristate.UNDEF;
     int currRestarts = 0;
     while (status == Tristate.UNDEF && !canceledByHandler) {
+      if (!importSharedClauses()) {
+        status = Tristate.FALSE;
+        break;
+      }
       double restBase = luby(restartInc, currRestarts);
       status = search((int) (restBase * restartFirst));
       currRestarts++;
@@ -188,6 +192,19 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
     this.initializeMiniSAT();
   }
 
+  @Override
+  public MiniSat2Solver copy() {
+    final MiniSat2Solver copy = new MiniSat2Solver(this.config);
+    copy.copyState(this);
+    copy.unitClauses = new LNGIntVector(this.unitClauses);
+    copy.learntsizeAdjustConfl = this.learntsizeAdjustConfl;
+    copy.learntsizeAdjustCnt = this.learntsizeAdjustCnt;
+    copy.learntsizeAdjustStartConfl = this.learntsizeAdjustStartConfl;
+    copy.learntsizeAdjustInc = this.learntsizeAdjustInc;
+    copy.maxLearnts = this.maxLearnts;
+    return copy;
+  }
+
   /**
    * Saves and returns the solver state expressed as an integer array which stores the length of the internal data
    * structures.  The array has length 5 and has the following layout:
@@ -257,6 +274,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
       learntsLiterals += c.size();
     else
       clausesLiterals += c.size();
+    updatePeakMemory();
   }
 
   @Override
@@ -331,6 +349,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
       ws.removeElements(iInd - jInd);
     }
     simpDBProps -= numProps;
+    stats.propagations += numProps;
     return confl;
   }
 
@@ -408,6 +427,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
 
   @Override
   protected void reduceDB() {
+    stats.reductions++;
     int i;
     int j;
     double extraLim = claInc / learnts.size();
@@ -469,6 +489,18 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
     return true;
   }
 
+  @Override
+  protected void addSharedClause(final LNGIntVector lits, int lbd) {
+    if (lits.size() == 1) {
+      uncheckedEnqueue(lits.get(0), null);
+      this.unitClauses.push(lits.get(0));
+    } else {
+      final MSClause c = new MSClause(lits, true);
+      learnts.push(c);
+      attachClause(c);
+    }
+  }
+
   /**
    * The main search procedure of the CDCL algorithm.
    * @param nofConflicts the number of conflicts till the next restart
@@ -480,17 +512,25 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
       return Tristate.FALSE;
     int conflictC = 0;
     while (true) {
+      final long propagationStart = startTime();
       MSClause confl = propagate();
+      stats.propagationTime += elapsedTime(propagationStart);
       if (confl != null) {
         if (handler != null && !handler.detectedConflict()) {
           canceledByHandler = true;
           return Tristate.UNDEF;
         }
         conflictC++;
+        stats.conflicts++;
         if (decisionLevel() == 0)
           return Tristate.FALSE;
         LNGIntVector learntClause = new LNGIntVector();
+        final long analysisStart = startTime();
         analyze(confl, learntClause);
+        stats.analysisTime += elapsedTime(analysisStart);
+        stats.learntClauses++;
+        stats.learntLiterals += learntClause.size();
+        exportLearnt(learntClause, -1);
         cancelUntil(analyzeBtLevel);
         if (learntClause.size() == 1) {
           uncheckedEnqueue(learntClause.get(0), null);
@@ -514,6 +554,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
       } else {
         if (nofConflicts >= 0 && conflictC >= nofConflicts) {
           cancelUntil(0);
+          stats.restarts++;
           return Tristate.UNDEF;
         }
         if (!incremental) {
@@ -539,6 +580,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
           next = pickBranchLit();
           if (next == LIT_UNDEF)
             return Tristate.TRUE;
+          stats.decisions++;
         }
         trailLim.push(trail.size());
         uncheckedEnqueue(next, null);
@@ -35,7 +35,7 @@ import static org.logicng.solvers.sat.MiniSatConfig.ClauseMinimization.DEEP;
 
 /**
  * The configuration object for a MiniSAT-style SAT solver.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public final class MiniSatConfig extends Configuration {
@@ -61,6 +61,7 @@ public final class MiniSatConfig extends Configuration {
   final double learntsizeInc;
   final boolean incremental;
   final boolean initialPhase;
+  final boolean measureTimes;
 
   /**
    * Constructs a new MiniSAT configuration from a given builder.
@@ -79,6 +80,7 @@ public final class MiniSatConfig extends Configuration {
     this.learntsizeInc = builder.learntsizeInc;
     this.incremental = builder.incremental;
     this.initialPhase = builder.initialPhase;
+    this.measureTimes = builder.measureTimes;
   }
 
   /**
@@ -111,6 +113,7 @@ public final class MiniSatConfig extends Configuration {
     sb.append("learntsizeInc=").append(this.learntsizeInc).append("\n");
     sb.append("incremental=").append(this.incremental).append("\n");
     sb.append("initialPhase=").append(this.initialPhase).append("\n");
+    sb.append("measureTimes=").append(this.measureTimes).append("\n");
     sb.append("}\n");
     return sb.toString();
   }
@@ -130,6 +133,7 @@ public final class MiniSatConfig extends Configuration {
     private double learntsizeInc = 1.1;
     private boolean incremental = true;
     private boolean initialPhase = false;
+    private boolean measureTimes = false;
 
     /**
      * Sets the variable activity decay factor to a given value. The default value is 0.95.
@@ -245,6 +249,18 @@ public final class MiniSatConfig extends Configuration {
       return this;
     }
 
+    /**
+     * If turned on, the solver measures the times spent in unit propagation and conflict analysis for its
+     * {@link SolverStatistics}.  This calls the system timer in the inner loop of the search and should only be used for
+     * profiling.  The default value is {@code false}.
+     * @param measureTimes {@code true} if the times should be measured, {@code false} otherwise
+     * @return the builder
+     */
+    public Builder measureTimes(boolean measureTimes) {
+      this.measureTimes = measureTimes;
+      return this;
+    }
+
     /**
      * Builds the MiniSAT configuration.
      * @return the configuration
@@ -54,12 +54,13 @@ import org.logicng.solvers.datastructures.MSClause;
 import org.logicng.solvers.datastructures.MSVariable;
 import org.logicng.solvers.datastructures.MSWatcher;
 
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.TreeMap;
 
 /**
  * The super class for all MiniSAT-style solvers.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public abstract class MiniSatStyleSolver {
@@ -94,6 +95,7 @@ public abstract class MiniSatStyleSolver {
   protected int simpDBProps;
   protected int clausesLiterals;
   protected int learntsLiterals;
+  protected MSStats stats;
 
   // solver configuration
   protected double varDecay;
@@ -103,6 +105,7 @@ public abstract class MiniSatStyleSolver {
   protected double restartInc;
   protected double clauseDecay;
   protected boolean removeSatisfied;
+  protected boolean measureTimes;
   protected double learntsizeFactor;
   protected double learntsizeInc;
   protected boolean incremental;
@@ -116,6 +119,9 @@ public abstract class MiniSatStyleSolver {
   protected SATHandler handler;
   protected boolean canceledByHandler;
 
+  // clause sharing
+  protected ClauseExchange.Participant participant;
+
   /**
    * Constructs a new MiniSAT-style solver with a given configuration.
    * @param config the configuration
@@ -210,6 +216,7 @@ public abstract class MiniSatStyleSolver {
     this.simpDBProps = 0;
     this.clausesLiterals = 0;
     this.learntsLiterals = 0;
+    this.stats = new MSStats();
     this.name2idx = new TreeMap<String, Integer>();
     this.idx2name = new TreeMap<Integer, String>();
     this.names = new LNGVector<String>();
@@ -230,6 +237,25 @@ public abstract class MiniSatStyleSolver {
     this.learntsizeFactor = this.config.learntsizeFactor;
     this.learntsizeInc = this.config.learntsizeInc;
     this.incremental = this.config.incremental;
+    this.measureTimes = this.config.measureTimes;
+  }
+
+  /**
+   * Returns the current time in nanoseconds if the solver measures the times of its statistics, and 0 otherwise.
+   * @return the current time or 0
+   */
+  protected long startTime() {
+    return this.measureTimes ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Returns the time in nanoseconds since the given start time if the solver measures the times of its statistics,
+   * and 0 otherwise.
+   * @param start the start time as returned by {@link #startTime()}
+   * @return the elapsed time or 0
+   */
+  protected long elapsedTime(final long start) {
+    return this.measureTimes ? System.nanoTime() - start : 0;
   }
 
   /**
@@ -307,6 +333,15 @@ public abstract class MiniSatStyleSolver {
    */
   public abstract int newVar(boolean sign, boolean dvar);
 
+  /**
+   * Sets the preferred polarity of a variable for the next decisions on it.
+   * @param var      the variable index
+   * @param polarity the polarity, {@code true} if negative, {@code false} if positive
+   */
+  public void setPolarity(int var, boolean polarity) {
+    this.vars.get(var).setPolarity(polarity);
+  }
+
   /**
    * Adds a unit clause to the solver.
    * @param lit the unit clause's literal
@@ -395,6 +430,40 @@ public abstract class MiniSatStyleSolver {
    */
   public abstract void loadState(int[] state);
 
+  /**
+   * Returns the literals which are assigned on decision level 0, i.e. the literals which are implied by the clauses
+   * of the solver without any assumptions.
+   * @return the literals on decision level 0
+   */
+  public LNGIntVector upZeroLiterals() {
+    final int end = this.trailLim.empty() ? this.trail.size() : this.trailLim.get(0);
+    final LNGIntVector upZero = new LNGIntVector(end);
+    for (int i = 0; i < end; i++)
+      upZero.push(this.trail.get(i));
+    return upZero;
+  }
+
+  /**
+   * Returns the statistics of this solver.
+   * @return the statistics of this solver
+   */
+  public SolverStatistics statistics() {
+    return new SolverStatistics(this.stats.decisions, this.stats.propagations, this.stats.conflicts,
+            this.stats.restarts, this.stats.learntClauses, this.stats.learntLiterals, this.stats.reductions,
+            this.stats.propagationTime, this.stats.analysisTime, this.stats.peakMemory);
+  }
+
+  /**
+   * Updates the peak memory estimation with the current size of the clause database.  This method is called whenever
+   * a clause is attached.
+   */
+  protected void updatePeakMemory() {
+    final long memory = SolverStatistics.estimateMemory(this.vars.size(), this.clauses.size() + this.learnts.size(),
+            (long) this.clausesLiterals + this.learntsLiterals);
+    if (memory > this.stats.peakMemory)
+      this.stats.peakMemory = memory;
+  }
+
   /**
    * Returns the number of variables of the solver.
    * @return the number of variables of the solver
@@ -403,6 +472,14 @@ public abstract class MiniSatStyleSolver {
     return this.vars.size();
   }
 
+  /**
+   * Returns the number of original clauses of the solver.  Unit clauses are not stored as clauses.
+   * @return the number of original clauses of the solver
+   */
+  public int nClauses() {
+    return this.clauses.size();
+  }
+
   /**
    * Returns the number of assigned variables.
    * @return the number of assigned variables
@@ -604,6 +681,384 @@ public abstract class MiniSatStyleSolver {
    */
   protected abstract boolean simplify();
 
+  /**
+   * Removes all original and learnt clauses which are satisfied on level 0, e.g. the clauses guarded by activation
+   * literals which were fixed.  In contrast to {@link #simplify()}, this method also removes original clauses in the
+   * incremental mode.  It must not be called if a saved state (cf. {@link #saveState()}) can still be loaded, since
+   * loading a state truncates the clauses to their number at the time the state was saved.
+   */
+  public void removeSatisfiedClauses() {
+    this.cancelUntil(0);
+    if (!this.ok || this.propagate() != null) {
+      this.ok = false;
+      return;
+    }
+    this.removeClausesSatisfiedOnLevelZero(this.learnts);
+    this.removeClausesSatisfiedOnLevelZero(this.clauses);
+    this.rebuildOrderHeap();
+  }
+
+  /**
+   * Removes all clauses of a given vector which are satisfied on level 0.  All literals of a clause are checked, since
+   * {@link #satisfied(MSClause)} of Glucose only checks the watched literals in the incremental mode.
+   * @param cs the vector of clauses
+   */
+  private void removeClausesSatisfiedOnLevelZero(final LNGVector<MSClause> cs) {
+    int j = 0;
+    for (int i = 0; i < cs.size(); i++) {
+      final MSClause c = cs.get(i);
+      boolean sat = c.isAtMost() && this.satisfied(c);
+      for (int k = 0; !sat && !c.isAtMost() && k < c.size(); k++)
+        sat = this.value(c.get(k)) == Tristate.TRUE;
+      if (sat)
+        this.removeClause(c);
+      else
+        cs.set(j++, c);
+    }
+    cs.removeElements(cs.size() - j);
+  }
+
+  /**
+   * Returns a deep copy of this solver with all clauses, learnt clauses, watchers, variables and variable names.  The
+   * copy is independent of this solver and can be used on another thread.  It is not connected to a clause exchange.
+   * The statistics of the copy start from zero, so the statistics of a solver and its copies can be summed up.
+   * @return the copy of this solver
+   */
+  public abstract MiniSatStyleSolver copy();
+
+  /**
+   * Copies the state of a given solver to this solver.  This method is used by the {@code copy} methods of the
+   * concrete solvers.
+   * @param other the solver
+   * @return the mapping from the clauses of the given solver to their copies
+   */
+  protected Map<MSClause, MSClause> copyState(final MiniSatStyleSolver other) {
+    final Map<MSClause, MSClause> clauseMap = new IdentityHashMap<MSClause, MSClause>();
+    this.ok = other.ok;
+    this.qhead = other.qhead;
+    this.clauses = copyClauses(other.clauses, clauseMap);
+    this.learnts = copyClauses(other.learnts, clauseMap);
+    this.watches = copyWatches(other.watches, clauseMap);
+    this.vars = new LNGVector<MSVariable>(other.vars.size());
+    for (final MSVariable var : other.vars) {
+      final MSVariable copy = new MSVariable(var);
+      if (var.reason() != null)
+        copy.setReason(clauseMap.get(var.reason()));
+      this.vars.push(copy);
+    }
+    this.orderHeap = new LNGHeap(this, other.orderHeap);
+    this.trail = new LNGIntVector(other.trail);
+    this.trailLim = new LNGIntVector(other.trailLim);
+    this.model = new LNGBooleanVector(other.model);
+    this.conflict = new LNGIntVector(other.conflict);
+    this.assumptions = new LNGIntVector(other.assumptions);
+    this.seen = new LNGBooleanVector(other.seen);
+    this.analyzeStack = new LNGIntVector(other.analyzeStack);
+    this.analyzeToClear = new LNGIntVector(other.analyzeToClear);
+    this.analyzeBtLevel = other.analyzeBtLevel;
+    this.claInc = other.claInc;
+    this.simpDBAssigns = other.simpDBAssigns;
+    this.simpDBProps = other.simpDBProps;
+    this.clausesLiterals = other.clausesLiterals;
+    this.learntsLiterals = other.learntsLiterals;
+    this.stats = new MSStats();
+    this.updatePeakMemory();
+    this.varDecay = other.varDecay;
+    this.varInc = other.varInc;
+    this.ccminMode = other.ccminMode;
+    this.restartFirst = other.restartFirst;
+    this.restartInc = other.restartInc;
+    this.clauseDecay = other.clauseDecay;
+    this.removeSatisfied = other.removeSatisfied;
+    this.learntsizeFactor = other.learntsizeFactor;
+    this.learntsizeInc = other.learntsizeInc;
+    this.incremental = other.incremental;
+    this.name2idx = new TreeMap<String, Integer>(other.name2idx);
+    this.idx2name = new TreeMap<Integer, String>(other.idx2name);
+    this.names = new LNGVector<String>(other.names.size());
+    for (final String name : other.names)
+      this.names.push(name);
+    return clauseMap;
+  }
+
+  /**
+   * Copies a vector of clauses and records the copies in a given mapping.
+   * @param clauses   the clauses
+   * @param clauseMap the mapping from the original clauses to their copies
+   * @return the copied clauses
+   */
+  protected static LNGVector<MSClause> copyClauses(final LNGVector<MSClause> clauses,
+                                                   final Map<MSClause, MSClause> clauseMap) {
+    final LNGVector<MSClause> copies = new LNGVector<MSClause>(clauses.size());
+    for (final MSClause clause : clauses) {
+      final MSClause copy = new MSClause(clause);
+      clauseMap.put(clause, copy);
+      copies.push(copy);
+    }
+    return copies;
+  }
+
+  /**
+   * Copies watch lists.  Watchers of clauses which are not in the given mapping are dropped, since they belong to
+   * already removed clauses.
+   * @param watches   the watch lists
+   * @param clauseMap the mapping from the original clauses to their copies
+   * @return the copied watch lists
+   */
+  protected static LNGVector<LNGVector<MSWatcher>> copyWatches(final LNGVector<LNGVector<MSWatcher>> watches,
+                                                             final Map<MSClause, MSClause> clauseMap) {
+    final LNGVector<LNGVector<MSWatcher>> copies = new LNGVector<LNGVector<MSWatcher>>(watches.size());
+    for (final LNGVector<MSWatcher> ws : watches) {
+      final LNGVector<MSWatcher> copy = new LNGVector<MSWatcher>(ws.size());
+      for (final MSWatcher w : ws) {
+        final MSClause clause = clauseMap.get(w.clause());
+        if (clause != null)
+          copy.push(new MSWatcher(clause, w.blocker()));
+      }
+      copies.push(copy);
+    }
+    return copies;
+  }
+
+  /**
+   * Computes a variable for splitting a cube by a lookahead.  The cube is propagated and then the given number of
+   * unassigned variables with the highest activity are probed in both phases.  The variable whose probes propagate
+   * the most literals is returned (a conflicting probe counts as all variables).  The solver is on decision level 0
+   * after calling this method.
+   * @param cube          the literals of the cube
+   * @param numCandidates the number of variables which are probed
+   * @return the variable for splitting the cube, {@code LIT_UNDEF} if there is no unassigned variable and
+   * {@code -2} if the propagation of the cube already leads to a conflict
+   */
+  public int lookahead(final LNGIntVector cube, int numCandidates) {
+    if (!this.ok)
+      return -2;
+    cancelUntil(0);
+    if (propagate() != null) {
+      this.ok = false;
+      return -2;
+    }
+    for (int i = 0; i < cube.size(); i++) {
+      final int lit = cube.get(i);
+      if (value(lit) == Tristate.FALSE) {
+        cancelUntil(0);
+        return -2;
+      }
+      if (value(lit) == Tristate.UNDEF) {
+        this.trailLim.push(this.trail.size());
+        uncheckedEnqueue(lit, null);
+        if (propagate() != null) {
+          cancelUntil(0);
+          return -2;
+        }
+      }
+    }
+    final int level = decisionLevel();
+    final int base = this.trail.size();
+    final LNGIntVector candidates = new LNGIntVector(numCandidates);
+    for (int v = 0; v < this.vars.size(); v++) {
+      final MSVariable var = this.vars.get(v);
+      if (var.assignment() != Tristate.UNDEF || !var.decision())
+        continue;
+      int pos = candidates.size();
+      while (pos > 0 && this.vars.get(candidates.get(pos - 1)).activity() < var.activity())
+        pos--;
+      if (pos >= numCandidates)
+        continue;
+      if (candidates.size() < numCandidates)
+        candidates.push(v);
+      for (int j = candidates.size() - 1; j > pos; j--)
+        candidates.set(j, candidates.get(j - 1));
+      candidates.set(pos, v);
+    }
+    int best = LIT_UNDEF;
+    long bestScore = -1;
+    for (int i = 0; i < candidates.size(); i++) {
+      final int v = candidates.get(i);
+      final long score = (long) (probe(mkLit(v, false), level, base) + 1) * (probe(mkLit(v, true), level, base) + 1);
+      if (score > bestScore) {
+        best = v;
+        bestScore = score;
+      }
+    }
+    cancelUntil(0);
+    return best;
+  }
+
+  /**
+   * Propagates a literal on a new decision level and returns the number of newly assigned variables.
+   * @param lit   the literal
+   * @param level the decision level to which the solver is backtracked afterwards
+   * @param base  the size of the trail on this decision level
+   * @return the number of newly assigned variables or the number of variables if a conflict occurred
+   */
+  private int probe(int lit, int level, int base) {
+    this.trailLim.push(this.trail.size());
+    uncheckedEnqueue(lit, null);
+    final boolean conflict = propagate() != null;
+    final int assigned = this.trail.size() - base;
+    cancelUntil(level);
+    return conflict ? this.vars.size() : assigned;
+  }
+
+  /**
+   * Shrinks the last model to an implicant over a given set of variables.  All other variables keep their values of
+   * the model.  A variable of the set can be dropped if every original clause is still satisfied by another literal
+   * which remains assigned, i.e. if the original clauses are satisfied for both values of the variable.  Variables
+   * which are assigned on decision level 0 are never dropped, since clauses satisfied by them may have been removed.
+   * The literals of at-most constraints which are false in the model are never dropped either.  Learnt clauses are
+   * implied by the original clauses and need not be considered.
+   * <p>
+   * The implicant is computed greedily: first all literals which are the only satisfied literal of a clause are kept,
+   * then for each clause which is not yet satisfied by a kept literal the first satisfied literal is kept.  Therefore
+   * the implicant is not necessarily of minimum size, but usually close to a minimal one.
+   * @param variables the variables which may be dropped
+   * @return the literals of the variables which could not be dropped
+   * @throws IllegalStateException if there is no model
+   */
+  public LNGIntVector implicant(final LNGIntVector variables) {
+    if (this.model.empty())
+      throw new IllegalStateException("There is no model which could be shrunk to an implicant.");
+    final LNGBooleanVector free = new LNGBooleanVector(this.vars.size(), false);
+    for (int i = 0; i < variables.size(); i++) {
+      final int v = variables.get(i);
+      if (v < this.model.size() && this.vars.get(v).assignment() == Tristate.UNDEF)
+        free.set(v, true);
+    }
+    for (int i = 0; i < this.clauses.size(); i++) {
+      final MSClause c = this.clauses.get(i);
+      if (c.isAtMost()) {
+        for (int j = 0; j < c.size(); j++)
+          if (!this.modelValue(c.get(j)))
+            free.set(var(c.get(j)), false);
+        continue;
+      }
+      int satisfiedLit = LIT_UNDEF;
+      int numSatisfied = 0;
+      for (int j = 0; j < c.size() && numSatisfied < 2; j++)
+        if (this.modelValue(c.get(j))) {
+          satisfiedLit = c.get(j);
+          numSatisfied++;
+        }
+      if (numSatisfied == 1)
+        free.set(var(satisfiedLit), false);
+    }
+    for (int i = 0; i < this.clauses.size(); i++) {
+      final MSClause c = this.clauses.get(i);
+      if (c.isAtMost())
+        continue;
+      int firstFree = LIT_UNDEF;
+      boolean satisfied = false;
+      for (int j = 0; j < c.size() && !satisfied; j++)
+        if (this.modelValue(c.get(j))) {
+          if (!free.get(var(c.get(j))))
+            satisfied = true;
+          else if (firstFree == LIT_UNDEF)
+            firstFree = c.get(j);
+        }
+      if (!satisfied && firstFree != LIT_UNDEF)
+        free.set(var(firstFree), false);
+    }
+    final LNGIntVector implicant = new LNGIntVector();
+    for (int i = 0; i < variables.size(); i++) {
+      final int v = variables.get(i);
+      if (v < this.model.size() && !free.get(v))
+        implicant.push(mkLit(v, !this.model.get(v)));
+    }
+    return implicant;
+  }
+
+  /**
+   * Returns the value of a literal in the last model.
+   * @param lit the literal
+   * @return {@code true} if the literal is satisfied by the last model, {@code false} otherwise
+   */
+  private boolean modelValue(int lit) {
+    return var(lit) < this.model.size() && this.model.get(var(lit)) != sign(lit);
+  }
+
+  /**
+   * Adds a clause imported from a clause exchange as learnt clause.  All literals of the clause are unassigned and the
+   * solver is on decision level 0.  A unit clause has to be enqueued.
+   * @param lits the literals of the clause
+   * @param lbd  the LBD of the clause
+   */
+  protected abstract void addSharedClause(final LNGIntVector lits, int lbd);
+
+  /**
+   * Connects this solver to a clause exchange.  From now on, short learnt clauses are exported to the exchange and
+   * clauses of other solvers are imported at restarts.
+   * @param exchange the clause exchange or {@code null} if clause sharing should be deactivated
+   */
+  public void setClauseExchange(final ClauseExchange exchange) {
+    this.participant = exchange == null ? null : exchange.join();
+  }
+
+  /**
+   * Returns the participant of this solver in a clause exchange or {@code null} if clause sharing is deactivated.
+   * @return the participant of this solver in a clause exchange
+   */
+  public ClauseExchange.Participant clauseExchangeParticipant() {
+    return this.participant;
+  }
+
+  /**
+   * Exports a new learnt clause to the clause exchange.  This method has to be called before backtracking, since the
+   * LBD is computed with the current decision levels if it is not given.
+   * @param lits the literals of the learnt clause
+   * @param lbd  the LBD of the clause or -1 if it should be computed
+   */
+  protected void exportLearnt(final LNGIntVector lits, int lbd) {
+    if (this.participant == null || lits.size() > this.participant.exchange().maxSize())
+      return;
+    int clauseLBD = lbd;
+    if (clauseLBD < 0) {
+      clauseLBD = 0;
+      for (int i = 0; i < lits.size(); i++) {
+        final int level = this.vars.get(var(lits.get(i))).level();
+        boolean known = false;
+        for (int j = 0; j < i && !known; j++)
+          known = this.vars.get(var(lits.get(j))).level() == level;
+        if (!known)
+          clauseLBD++;
+      }
+    }
+    this.participant.export(this, lits, clauseLBD);
+  }
+
+  /**
+   * Imports the clauses of other solvers from the clause exchange.  The solver has to be on decision level 0.
+   * @return {@code false} if the solver became unsatisfiable by the imported clauses, {@code true} otherwise
+   */
+  protected boolean importSharedClauses() {
+    if (this.participant == null || !this.ok)
+      return this.ok;
+    assert decisionLevel() == 0;
+    final LNGVector<LNGIntVector> imported = new LNGVector<LNGIntVector>();
+    final LNGIntVector lbds = new LNGIntVector();
+    this.participant.collect(this, imported, lbds);
+    for (int i = 0; i < imported.size(); i++) {
+      final LNGIntVector clause = imported.get(i);
+      final LNGIntVector lits = new LNGIntVector(clause.size());
+      boolean satisfied = false;
+      for (int j = 0; j < clause.size() && !satisfied; j++) {
+        final Tristate value = value(clause.get(j));
+        if (value == Tristate.TRUE)
+          satisfied = true;
+        else if (value == Tristate.UNDEF)
+          lits.push(clause.get(j));
+      }
+      if (satisfied)
+        continue;
+      if (lits.empty())
+        return this.ok = false;
+      addSharedClause(lits, lbds.get(i));
+      if (lits.size() == 1 && propagate() != null)
+        return this.ok = false;
+    }
+    return this.ok;
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder();
@@ -631,4 +1086,27 @@ public abstract class MiniSatStyleSolver {
     sb.append("#learnts lits ").append(learntsLiterals).append("\n");
     return sb.toString();
   }
+
+  /**
+   * The stats for the solver.
+   */
+  protected static final class MSStats {
+    long decisions;
+    long propagations;
+    long conflicts;
+    long restarts;
+    long learntClauses;
+    long learntLiterals;
+    long reductions;
+    long propagationTime;
+    long analysisTime;
+    long peakMemory;
+
+    /**
+     * Constructs new empty stats.
+     */
+    MSStats() {
+      // all counters start with zero
+    }
+  }
 }
@@ -0,0 +1,237 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import java.util.Locale;
+
+/**
+ * Statistics of a SAT solver.
+ * <p>
+ * The statistics are an immutable snapshot of counters which are maintained by the solver during its search.  All
+ * counters are accumulated over all calls of the solver since its creation or its last reset.  A copy of a solver
+ * starts with empty counters, so the work of the original solver is not counted again when the statistics of several
+ * copies are summed up.  The times are measured in nanoseconds and only if the solver is configured to measure them,
+ * otherwise they are 0.  The peak memory is a rough estimation of the size of the clause database in bytes based on
+ * the number of variables, clauses and literals, and not a measurement of the actual heap usage.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class SolverStatistics {
+
+  private static final long BYTES_PER_VARIABLE = 128;
+  private static final long BYTES_PER_CLAUSE = 96;
+  private static final long BYTES_PER_LITERAL = 4;
+
+  private final long decisions;
+  private final long propagations;
+  private final long conflicts;
+  private final long restarts;
+  private final long learntClauses;
+  private final long learntLiterals;
+  private final long reductions;
+  private final long propagationTime;
+  private final long analysisTime;
+  private final long peakMemory;
+
+  /**
+   * Constructs new solver statistics.
+   * @param decisions       the number of decisions
+   * @param propagations    the number of propagated literals
+   * @param conflicts       the number of conflicts
+   * @param restarts        the number of restarts
+   * @param learntClauses   the number of learnt clauses
+   * @param learntLiterals  the number of literals in learnt clauses
+   * @param reductions      the number of reductions of the learnt clause database
+   * @param propagationTime the time spent in unit propagation
+   * @param analysisTime    the time spent in conflict analysis
+   * @param peakMemory      the estimated peak memory of the clause database
+   */
+  SolverStatistics(long decisions, long propagations, long conflicts, long restarts, long learntClauses,
+                   long learntLiterals, long reductions, long propagationTime, long analysisTime, long peakMemory) {
+    this.decisions = decisions;
+    this.propagations = propagations;
+    this.conflicts = conflicts;
+    this.restarts = restarts;
+    this.learntClauses = learntClauses;
+    this.learntLiterals = learntLiterals;
+    this.reductions = reductions;
+    this.propagationTime = propagationTime;
+    this.analysisTime = analysisTime;
+    this.peakMemory = peakMemory;
+  }
+
+  /**
+   * Returns empty statistics.
+   * @return empty statistics
+   */
+  public static SolverStatistics empty() {
+    return new SolverStatistics(0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+  }
+
+  /**
+   * Returns the estimated memory of a clause database.
+   * @param vars     the number of variables
+   * @param clauses  the number of clauses
+   * @param literals the number of literals in all clauses
+   * @return the estimated memory in bytes
+   */
+  static long estimateMemory(long vars, long clauses, long literals) {
+    return vars * BYTES_PER_VARIABLE + clauses * BYTES_PER_CLAUSE + literals * BYTES_PER_LITERAL;
+  }
+
+  /**
+   * Returns the sum of these and the given statistics.  This is used to aggregate the statistics of several solvers,
+   * e.g. of a portfolio.  Since the solvers may run at the same time, the peak memories are summed up, too.
+   * @param other the other statistics
+   * @return the sum of both statistics
+   */
+  public SolverStatistics add(final SolverStatistics other) {
+    return new SolverStatistics(this.decisions + other.decisions, this.propagations + other.propagations,
+            this.conflicts + other.conflicts, this.restarts + other.restarts, this.learntClauses + other.learntClauses,
+            this.learntLiterals + other.learntLiterals, this.reductions + other.reductions,
+            this.propagationTime + other.propagationTime, this.analysisTime + other.analysisTime,
+            this.peakMemory + other.peakMemory);
+  }
+
+  /**
+   * Returns the number of decisions (without decisions on assumptions).
+   * @return the number of decisions
+   */
+  public long decisions() {
+    return this.decisions;
+  }
+
+  /**
+   * Returns the number of propagated literals.
+   * @return the number of propagated literals
+   */
+  public long propagations() {
+    return this.propagations;
+  }
+
+  /**
+   * Returns the number of conflicts.
+   * @return the number of conflicts
+   */
+  public long conflicts() {
+    return this.conflicts;
+  }
+
+  /**
+   * Returns the number of restarts.
+   * @return the number of restarts
+   */
+  public long restarts() {
+    return this.restarts;
+  }
+
+  /**
+   * Returns the number of learnt clauses (including learnt unit clauses).
+   * @return the number of learnt clauses
+   */
+  public long learntClauses() {
+    return this.learntClauses;
+  }
+
+  /**
+   * Returns the number of literals in all learnt clauses.
+   * @return the number of literals in all learnt clauses
+   */
+  public long learntLiterals() {
+    return this.learntLiterals;
+  }
+
+  /**
+   * Returns the number of reductions of the learnt clause database.
+   * @return the number of reductions of the learnt clause database
+   */
+  public long reductions() {
+    return this.reductions;
+  }
+
+  /**
+   * Returns the time spent in unit propagation during the search in nanoseconds.
+   * @return the time spent in unit propagation
+   */
+  public long propagationTime() {
+    return this.propagationTime;
+  }
+
+  /**
+   * Returns the time spent in conflict analysis in nanoseconds.
+   * @return the time spent in conflict analysis
+   */
+  public long analysisTime() {
+    return this.analysisTime;
+  }
+
+  /**
+   * Returns the estimated peak memory of the clause database in bytes.
+   * @return the estimated peak memory of the clause database
+   */
+  public long peakMemory() {
+    return this.peakMemory;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = (int) (this.decisions ^ (this.decisions >>> 32));
+    result = 31 * result + (int) (this.propagations ^ (this.propagations >>> 32));
+    result = 31 * result + (int) (this.conflicts ^ (this.conflicts >>> 32));
+    result = 31 * result + (int) (this.restarts ^ (this.restarts >>> 32));
+    result = 31 * result + (int) (this.learntClauses ^ (this.learntClauses >>> 32));
+    result = 31 * result + (int) (this.learntLiterals ^ (this.learntLiterals >>> 32));
+    result = 31 * result + (int) (this.reductions ^ (this.reductions >>> 32));
+    result = 31 * result + (int) (this.propagationTime ^ (this.propagationTime >>> 32));
+    result = 31 * result + (int) (this.analysisTime ^ (this.analysisTime >>> 32));
+    return 31 * result + (int) (this.peakMemory ^ (this.peakMemory >>> 32));
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other)
+      return true;
+    if (!(other instanceof SolverStatistics))
+      return false;
+    final SolverStatistics o = (SolverStatistics) other;
+    return this.decisions == o.decisions && this.propagations == o.propagations && this.conflicts == o.conflicts
+            && this.restarts == o.restarts && this.learntClauses == o.learntClauses
+            && this.learntLiterals == o.learntLiterals && this.reductions == o.reductions
+            && this.propagationTime == o.propagationTime && this.analysisTime == o.analysisTime
+            && this.peakMemory == o.peakMemory;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ENGLISH,
+            "SolverStatistics{#decisions=%d, #propagations=%d, #conflicts=%d, #restarts=%d, #learnt clauses=%d, " +
+                    "#learnt literals=%d, #reductions=%d, propagation time=%.2fms, analysis time=%.2fms, peak memory=%d}",
+            this.decisions, this.propagations, this.conflicts, this.restarts, this.learntClauses, this.learntLiterals,
+            this.reductions, this.propagationTime / 1e6, this.analysisTime / 1e6, this.peakMemory);
+  }
+}
@@ -0,0 +1,137 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.modelcounting;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.ModelEnumerationHandler;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.sat.DimacsReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Performance tests for the model counter on the DIMACS files of the SAT tests.  Each file is counted with the
+ * projection to all its variables and to its first variables.  For the projection to the first variables, the model
+ * counter is compared with the enumeration of models by blocking clauses.  The results and times are printed to the
+ * standard output.
+ * @version 1.2
+ * @since 1.2
+ */
+public class ModelCounterPerformanceTest {
+
+  private static final int TIMEOUT = 60;
+  private static final int NUM_PROJECTED = 16;
+
+  @Ignore
+  @Test
+  public void testDimacsFiles() throws IOException, InterruptedException {
+    final List<File> files = new ArrayList<File>();
+    for (final File file : new File("tests/sat").listFiles())
+      if (file.getName().endsWith(".cnf"))
+        files.add(file);
+    Collections.sort(files, new Comparator<File>() {
+      @Override
+      public int compare(final File o1, final File o2) {
+        return o1.length() < o2.length() ? -1 : o1.length() > o2.length() ? 1 : 0;
+      }
+    });
+    System.out.println(String.format("%-36s %-28s %-24s %s", "file", "count (all variables)",
+            "count (" + NUM_PROJECTED + " variables)", "enumeration"));
+    for (final File file : files) {
+      final FormulaFactory f = new FormulaFactory();
+      final List<Formula> clauses = DimacsReader.readCNF(file, f);
+      final SortedSet<Variable> vars = new TreeSet<Variable>();
+      for (final Formula clause : clauses)
+        vars.addAll(clause.variables());
+      final List<Variable> projection = new ArrayList<Variable>(vars).subList(0, Math.min(NUM_PROJECTED, vars.size()));
+      final String all = run(new Callable<String>() {
+        @Override
+        public String call() {
+          return new ModelCounter(f).count(clauses).toString();
+        }
+      });
+      final String projected = run(new Callable<String>() {
+        @Override
+        public String call() {
+          return new ModelCounter(f).count(clauses, projection).toString();
+        }
+      });
+      final String enumerated = run(new Callable<String>() {
+        @Override
+        public String call() {
+          final MiniSat solver = MiniSat.miniSat(f);
+          solver.add(clauses);
+          return String.valueOf(solver.enumerateAllModels(projection, new ModelEnumerationHandler() {
+            @Override
+            public boolean foundModel(final Assignment assignment) {
+              return !Thread.currentThread().isInterrupted();
+            }
+          }).size());
+        }
+      });
+      System.out.println(String.format("%-36s %-28s %-24s %s", file.getName(), all, projected, enumerated));
+    }
+  }
+
+  private static String run(final Callable<String> task) throws InterruptedException {
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    final long start = System.currentTimeMillis();
+    final Future<String> future = executor.submit(task);
+    try {
+      final String result = future.get(TIMEOUT, TimeUnit.SECONDS);
+      return String.format("%s (%dms)", result, System.currentTimeMillis() - start);
+    } catch (final TimeoutException e) {
+      future.cancel(true);
+      return "timeout";
+    } catch (final ExecutionException e) {
+      return "error: " + e.getCause().getMessage();
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS);
+    }
+  }
+}
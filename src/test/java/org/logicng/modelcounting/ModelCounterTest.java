@@ -0,0 +1,216 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.modelcounting;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.formulas.CType;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Variable;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.sat.DimacsReader;
+import org.logicng.transformations.cnf.CNFConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Unit tests for {@link ModelCounter}.
+ * @version 1.2
+ * @since 1.2
+ */
+public class ModelCounterTest {
+
+  private final FormulaFactory f;
+  private final PropositionalParser p;
+
+  public ModelCounterTest() {
+    this.f = new FormulaFactory();
+    this.p = new PropositionalParser(f);
+  }
+
+  @Test
+  public void testConstants() throws ParserException {
+    final ModelCounter counter = new ModelCounter(f);
+    Assert.assertEquals(BigInteger.ONE, counter.count(Collections.singletonList(f.verum())));
+    Assert.assertEquals(BigInteger.ZERO, counter.count(Collections.singletonList(f.falsum())));
+    Assert.assertEquals(BigInteger.ONE, counter.count(new ArrayList<Formula>()));
+    Assert.assertEquals(BigInteger.valueOf(4), counter.count(Collections.singletonList(f.verum()),
+            Arrays.asList(f.variable("a"), f.variable("b"))));
+    Assert.assertEquals(BigInteger.ZERO, counter.count(Arrays.asList(p.parse("a | b"), p.parse("~a"), p.parse("~b"))));
+  }
+
+  @Test
+  public void testSimpleFormulas() throws ParserException {
+    final ModelCounter counter = new ModelCounter(f);
+    for (final String formula : Arrays.asList("a", "~a", "a | b", "a & b", "a => b", "a <=> b", "(a | b) & (c | d)",
+            "(a | b | c) & (~a | ~b) & (~b | ~c) & (~a | ~c)", "(a => b) & (b => c) & (c => d) & (d => e)",
+            "(a & b) | (c & d) | (e & ~a)", "~(a <=> (b | (c & ~d)))", "a & (b | c) & (~a | d | e)"))
+      assertCount(counter, Collections.singletonList(p.parse(formula)), null);
+  }
+
+  @Test
+  public void testCardinalityConstraints() {
+    final Variable[] vars = new Variable[12];
+    for (int i = 0; i < vars.length; i++)
+      vars[i] = f.variable("v" + i);
+    final ModelCounter counter = new ModelCounter(f);
+    Assert.assertEquals(BigInteger.valueOf(495), counter.count(Collections.singletonList(f.cc(CType.EQ, 4, vars))));
+    Assert.assertEquals(BigInteger.valueOf(1 + 12 + 66), counter.count(Collections.singletonList(f.cc(CType.LE, 2, vars))));
+    final List<Formula> formulas = Arrays.<Formula>asList(f.cc(CType.LE, 3, Arrays.copyOf(vars, 6)),
+            f.cc(CType.GE, 2, Arrays.copyOfRange(vars, 4, 12)));
+    assertCount(counter, formulas, null);
+  }
+
+  @Test
+  public void testProjection() throws ParserException {
+    final ModelCounter counter = new ModelCounter(f);
+    final List<Formula> formulas = Arrays.asList(p.parse("(a <=> b) & (c | d)"), p.parse("e => (a & x)"));
+    assertCount(counter, formulas, Arrays.asList(f.variable("a"), f.variable("c")));
+    assertCount(counter, formulas, Arrays.asList(f.variable("e"), f.variable("d"), f.variable("x")));
+    Assert.assertEquals(BigInteger.valueOf(16), counter.count(formulas, Arrays.asList(f.variable("a"), f.variable("c"),
+            f.variable("y"), f.variable("z"))));
+    Assert.assertEquals(BigInteger.ONE, counter.count(formulas, new ArrayList<Variable>()));
+  }
+
+  @Test
+  public void testAuxiliaryVariablesAreNotCounted() throws ParserException {
+    final FormulaFactory factory = new FormulaFactory();
+    factory.putConfiguration(new CNFConfig.Builder().algorithm(CNFConfig.Algorithm.PLAISTED_GREENBAUM).build());
+    final PropositionalParser parser = new PropositionalParser(factory);
+    final Formula formula = parser.parse("(a & b) | (c & d) | (e & f) | (g & h)");
+    final BigInteger count = new ModelCounter(factory).count(Collections.singletonList(formula));
+    Assert.assertEquals(BigInteger.valueOf(256 - 81), count);
+  }
+
+  @Test
+  public void testLargeCounts() {
+    final List<Variable> vars = new ArrayList<Variable>();
+    final List<Formula> formulas = new ArrayList<Formula>();
+    for (int i = 0; i < 100; i++) {
+      vars.add(f.variable("x" + i));
+      vars.add(f.variable("y" + i));
+      formulas.add(f.or(f.variable("x" + i), f.variable("y" + i)));
+    }
+    final ModelCounter counter = new ModelCounter(f);
+    Assert.assertEquals(BigInteger.valueOf(3).pow(100), counter.count(formulas));
+    Assert.assertEquals(BigInteger.valueOf(3).pow(100).shiftLeft(10), counter.count(formulas, withFreeVariables(vars, 10)));
+  }
+
+  @Test
+  public void testCache() {
+    final List<Formula> formulas = new ArrayList<Formula>();
+    for (int i = 0; i < 8; i++)
+      formulas.add(f.or(f.variable("x" + i), f.variable("x" + (i + 1)), f.variable("y" + i)));
+    for (int i = 0; i < 8; i++)
+      formulas.add(f.or(f.literal("x" + i, false), f.literal("x" + (i + 2), false)));
+    final ModelCounter counter = new ModelCounter(f);
+    final BigInteger expected = counter.count(formulas);
+    Assert.assertTrue(counter.cacheHits() > 0);
+    Assert.assertEquals(0, counter.evictions());
+    Assert.assertTrue(counter.satCalls() > 0);
+    Assert.assertTrue(counter.satCalls() <= counter.cacheMisses());
+    final ModelCounter small = new ModelCounter(f, new ModelCounterConfig.Builder().cacheSize(5).build());
+    Assert.assertEquals(expected, small.count(formulas));
+    Assert.assertTrue(small.evictions() > 0);
+    final ModelCounter none = new ModelCounter(f, new ModelCounterConfig.Builder().cacheSize(0).build());
+    Assert.assertEquals(expected, none.count(formulas));
+    Assert.assertEquals(0, none.cacheHits());
+    Assert.assertTrue(none.decisions() > counter.decisions());
+    final MiniSat solver = MiniSat.miniSat(f);
+    solver.add(formulas);
+    Assert.assertEquals(expected.intValue(), solver.enumerateAllModels().size());
+  }
+
+  @Test
+  public void testFactoryConfiguration() {
+    final FormulaFactory factory = new FormulaFactory();
+    factory.putConfiguration(new ModelCounterConfig.Builder().cacheSize(0).build());
+    final List<Formula> formulas = Arrays.asList(factory.or(factory.variable("a"), factory.variable("b")),
+            factory.or(factory.variable("c"), factory.variable("d")));
+    final ModelCounter counter = new ModelCounter(factory);
+    Assert.assertEquals(BigInteger.valueOf(9), counter.count(formulas));
+    Assert.assertEquals(0, counter.cacheHits());
+    Assert.assertEquals(counter.cacheMisses(), counter.evictions());
+  }
+
+  @Test
+  public void testDimacsFiles() throws IOException {
+    for (final String file : Arrays.asList("x1_16.shuffled.cnf", "3col40_5_10.shuffled.cnf", "dp02s02.shuffled.cnf",
+            "grid_10_20.shuffled.cnf")) {
+      final List<Formula> clauses = DimacsReader.readCNF(new File("tests/sat/" + file), f);
+      final SortedSet<Variable> vars = new TreeSet<Variable>();
+      for (final Formula clause : clauses)
+        vars.addAll(clause.variables());
+      final List<Variable> projection = new ArrayList<Variable>(vars).subList(0, 12);
+      assertCount(new ModelCounter(f), clauses, projection);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCacheSize() {
+    new ModelCounterConfig.Builder().cacheSize(-1);
+  }
+
+  @Test
+  public void testToString() {
+    Assert.assertEquals("ModelCounterConfig{\ncacheSize=100000\n}\n", new ModelCounterConfig.Builder().build().toString());
+    Assert.assertEquals("ModelCounter{decisions=0, cacheHits=0, cacheMisses=0, evictions=0, satCalls=0}", new ModelCounter(f).toString());
+  }
+
+  private void assertCount(final ModelCounter counter, final List<Formula> formulas, final Collection<Variable> variables) {
+    final MiniSat solver = MiniSat.miniSat(f);
+    solver.add(formulas);
+    final SortedSet<Variable> projection = new TreeSet<Variable>();
+    if (variables == null)
+      for (final Formula formula : formulas)
+        projection.addAll(formula.variables());
+    else
+      projection.addAll(variables);
+    final int expected = solver.enumerateAllModels(projection).size();
+    Assert.assertEquals(BigInteger.valueOf(expected), counter.count(formulas, variables));
+  }
+
+  private List<Variable> withFreeVariables(final List<Variable> vars, int numFree) {
+    final List<Variable> result = new ArrayList<Variable>(vars);
+    for (int i = 0; i < numFree; i++)
+      result.add(f.variable("free" + i));
+    return result;
+  }
+}
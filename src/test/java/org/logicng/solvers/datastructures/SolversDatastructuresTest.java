@@ -37,7 +37,7 @@ import java.util.Arrays;
 
 /**
  * Unit tests for the toString() methods of the solver data structures.
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public class SolversDatastructuresTest {
@@ -164,6 +164,40 @@ public class SolversDatastructuresTest {
     Assert.assertEquals(expected, clause.toString());
   }
 
+  @Test
+  public void testMSClauseStore() {
+    final MSClauseStore store = new MSClauseStore(1);
+    final LNGIntVector vec = new LNGIntVector();
+    vec.push(2);
+    vec.push(4);
+    vec.push(6);
+    Assert.assertEquals(0, store.add(vec, 2));
+    vec.clear();
+    vec.push(9);
+    Assert.assertEquals(1, store.add(vec, 3000000000L));
+    Assert.assertEquals(2, store.size());
+    Assert.assertEquals(4, store.nbLiterals());
+    Assert.assertEquals(3, store.clauseSize(0));
+    Assert.assertEquals(4, store.literal(0, 1));
+    Assert.assertEquals(3000000000L, store.weight(1));
+    store.setWeight(1, 1);
+    Assert.assertEquals(1, store.weight(1));
+    Assert.assertEquals(0, store.level(1));
+    store.setLevel(1, 2);
+    Assert.assertEquals(2, store.level(1));
+    Assert.assertEquals(-1, store.assumptionVar(0));
+    store.setAssumptionVar(0, 4);
+    store.addRelaxationVar(0, 10);
+    store.addRelaxationVar(0, 12);
+    Assert.assertEquals(10, store.relaxationVar(0));
+    Assert.assertEquals(12, store.lastRelaxationVar(0));
+    Assert.assertEquals(-1, store.relaxationVar(1));
+    Assert.assertEquals(5, store.relaxedClause(0).size());
+    Assert.assertEquals(1, store.relaxedClause(1).size());
+    final String expected = "MSClauseStore{weight=2, assumption=4 lits=[1, 2, 3] relax[5, 6]; weight=1, assumption=-1 lits=[-4] relax[]}";
+    Assert.assertEquals(expected, store.toString());
+  }
+
   @Test
   public void testMSVariable() {
     final MSVariable var = new MSVariable(true);
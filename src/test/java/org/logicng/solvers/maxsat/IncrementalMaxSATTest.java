@@ -0,0 +1,351 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.maxsat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.handlers.MaxSATHandler;
+import org.logicng.handlers.SATHandler;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.MaxSATSolver;
+import org.logicng.solvers.maxsat.algorithms.MaxSATConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.logicng.solvers.maxsat.algorithms.MaxSAT.MaxSATResult.OPTIMUM;
+import static org.logicng.solvers.maxsat.algorithms.MaxSAT.MaxSATResult.UNSATISFIABLE;
+
+/**
+ * Unit tests for the incremental interface of the MaxSAT solver.
+ * @version 1.2
+ * @since 1.2
+ */
+public class IncrementalMaxSATTest {
+
+  private final FormulaFactory f = new FormulaFactory();
+  private final PropositionalParser p = new PropositionalParser(f);
+
+  private MaxSATSolver[] unweightedSolvers() {
+    return new MaxSATSolver[]{MaxSATSolver.wbo(), MaxSATSolver.incWBO(), MaxSATSolver.linearSU(), MaxSATSolver.linearUS(),
+            MaxSATSolver.msu3(), MaxSATSolver.oll(), this.resumingOLL()};
+  }
+
+  private MaxSATSolver[] weightedSolvers() {
+    return new MaxSATSolver[]{MaxSATSolver.wbo(), MaxSATSolver.incWBO(), MaxSATSolver.linearSU(), MaxSATSolver.wmsu3(),
+            MaxSATSolver.oll(), this.resumingOLL()};
+  }
+
+  private MaxSATSolver resumingOLL() {
+    return MaxSATSolver.oll(new MaxSATConfig.Builder().weight(MaxSATConfig.WeightStrategy.DIVERSIFY).build());
+  }
+
+  @Test
+  public void testAddSoftAfterSolve() throws ParserException {
+    for (int i = 0; i < this.unweightedSolvers().length; i++) {
+      final MaxSATSolver solver = this.unweightedSolvers()[i];
+      solver.addHardFormula(p.parse("a | b | c"));
+      solver.addSoftFormula(p.parse("~a"), 1);
+      solver.addSoftFormula(p.parse("~b"), 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(0, solver.result());
+      solver.addSoftFormula(p.parse("~c"), 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(1, solver.result());
+      solver.addSoftFormula(p.parse("a & b"), 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(2, solver.result());
+      this.assertModelCost(solver, 2);
+    }
+  }
+
+  @Test
+  public void testAddHardAfterSolve() throws ParserException {
+    for (int i = 0; i < this.unweightedSolvers().length; i++) {
+      final MaxSATSolver solver = this.unweightedSolvers()[i];
+      solver.addSoftFormula(p.parse("a"), 1);
+      solver.addSoftFormula(p.parse("b"), 1);
+      solver.addSoftFormula(p.parse("c"), 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(0, solver.result());
+      solver.addHardFormula(p.parse("~a | ~b"));
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(1, solver.result());
+      solver.addHardFormula(p.parse("~c | ~d"));
+      solver.addHardFormula(p.parse("d"));
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(2, solver.result());
+      Assert.assertTrue(solver.model().positiveLiterals().contains(f.variable("d")));
+      solver.addHardFormula(p.parse("~a & ~b"));
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(3, solver.result());
+      Assert.assertEquals(3, solver.model().negativeLiterals().size());
+    }
+  }
+
+  @Test
+  public void testKeepOptimalModel() throws ParserException {
+    for (int i = 0; i < this.unweightedSolvers().length; i++) {
+      final MaxSATSolver solver = this.unweightedSolvers()[i];
+      solver.addHardFormula(p.parse("~a | ~b"));
+      solver.addSoftFormula(p.parse("a"), 1);
+      solver.addSoftFormula(p.parse("b"), 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(1, solver.result());
+      final Assignment model = solver.model();
+      solver.addHardFormula(p.parse("a | b"));
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(1, solver.result());
+      Assert.assertEquals(model, solver.model());
+      solver.addSoftFormula(p.parse("~x"), 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(1, solver.result());
+      Assert.assertTrue(solver.model().negativeLiterals().contains(f.literal("x", false)));
+    }
+  }
+
+  @Test
+  public void testUnsatisfiable() throws ParserException {
+    for (int i = 0; i < this.unweightedSolvers().length; i++) {
+      final MaxSATSolver solver = this.unweightedSolvers()[i];
+      solver.addHardFormula(p.parse("a | b"));
+      solver.addSoftFormula(p.parse("~a"), 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      solver.addHardFormula(p.parse("~a & ~b"));
+      Assert.assertEquals(UNSATISFIABLE, solver.solve());
+      Assert.assertNull(solver.model());
+      solver.addSoftFormula(p.parse("c"), 1);
+      Assert.assertEquals(UNSATISFIABLE, solver.solve());
+      solver.reset();
+      solver.addSoftFormula(p.parse("c"), 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(0, solver.result());
+    }
+  }
+
+  @Test
+  public void testWeighted() throws ParserException {
+    for (int i = 0; i < this.weightedSolvers().length; i++) {
+      final MaxSATSolver solver = this.weightedSolvers()[i];
+      solver.addHardFormula(p.parse("~a | ~b"));
+      solver.addSoftFormula(p.parse("a"), 3);
+      solver.addSoftFormula(p.parse("b"), 2);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(2, solver.result());
+      solver.addSoftFormula(p.parse("~a"), 4);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(3, solver.result());
+      solver.addHardFormula(p.parse("a | c"));
+      solver.addSoftFormula(p.parse("~c"), 5);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(6, solver.result());
+    }
+  }
+
+  @Test
+  public void testCompareWithFreshSolver() throws ParserException {
+    final List<Formula> hard = new ArrayList<Formula>();
+    final List<Formula> soft = new ArrayList<Formula>();
+    hard.add(p.parse("a | b | c"));
+    hard.add(p.parse("~a | ~d"));
+    hard.add(p.parse("d | e"));
+    soft.add(p.parse("a & ~e"));
+    soft.add(p.parse("~b | ~c"));
+    soft.add(p.parse("b & c"));
+    soft.add(p.parse("~d"));
+    soft.add(p.parse("f => d"));
+    soft.add(p.parse("f"));
+    soft.add(p.parse("~a | e"));
+    soft.add(p.parse("~c"));
+    for (int i = 0; i < this.unweightedSolvers().length; i++) {
+      final MaxSATSolver incSolver = this.unweightedSolvers()[i];
+      for (final Formula h : hard)
+        incSolver.addHardFormula(h);
+      for (int j = 0; j < soft.size(); j++) {
+        incSolver.addSoftFormula(soft.get(j), 1);
+        final MaxSATSolver freshSolver = this.unweightedSolvers()[i];
+        for (final Formula h : hard)
+          freshSolver.addHardFormula(h);
+        for (int k = 0; k <= j; k++)
+          freshSolver.addSoftFormula(soft.get(k), 1);
+        Assert.assertEquals(freshSolver.solve(), incSolver.solve());
+        Assert.assertEquals(freshSolver.result(), incSolver.result());
+      }
+    }
+  }
+
+  @Test
+  public void testResumeKeepsLowerBound() throws ParserException {
+    final MaxSATSolver solver = this.resumingOLL();
+    solver.addHardFormula(p.parse("~a | ~b"));
+    solver.addHardFormula(p.parse("~a | ~c"));
+    solver.addHardFormula(p.parse("~b | ~c"));
+    solver.addSoftFormula(p.parse("a"), 1);
+    solver.addSoftFormula(p.parse("b"), 1);
+    solver.addSoftFormula(p.parse("c"), 1);
+    Assert.assertEquals(OPTIMUM, solver.solve());
+    Assert.assertEquals(2, solver.result());
+    solver.addHardFormula(p.parse("~d | ~a & ~b & ~c"));
+    solver.addHardFormula(p.parse("~e | ~a & ~b & ~c & ~d"));
+    solver.addSoftFormula(p.parse("d"), 1);
+    solver.addSoftFormula(p.parse("e"), 1);
+    final BoundRecorder handler = new BoundRecorder();
+    Assert.assertEquals(OPTIMUM, solver.solve(handler));
+    Assert.assertEquals(4, solver.result());
+    Assert.assertFalse(handler.lowerBounds.isEmpty());
+    for (final int lb : handler.lowerBounds)
+      Assert.assertTrue(lb > 2);
+  }
+
+  @Test
+  public void testPreviousModelIsUpperBound() throws ParserException {
+    for (int i = 0; i < this.weightedSolvers().length; i++) {
+      final MaxSATSolver solver = this.weightedSolvers()[i];
+      solver.addHardFormula(p.parse("~a | ~b"));
+      solver.addSoftFormula(p.parse("a"), 3);
+      solver.addSoftFormula(p.parse("b"), 2);
+      solver.addSoftFormula(p.parse("c"), 2);
+      solver.addSoftFormula(p.parse("d"), 2);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(2, solver.result());
+      solver.addSoftFormula(p.parse("~a"), 2);
+      final BoundRecorder handler = new BoundRecorder();
+      Assert.assertEquals(OPTIMUM, solver.solve(handler));
+      Assert.assertEquals(3, solver.result());
+      Assert.assertFalse(handler.upperBounds.isEmpty());
+      Assert.assertEquals(4, (int) handler.upperBounds.get(0));
+    }
+  }
+
+  @Test
+  public void testPreviousModelIsUpperBoundWithPreprocessing() throws ParserException {
+    final MaxSATConfig config = new MaxSATConfig.Builder().preprocessing(true).build();
+    final MaxSATSolver[] solvers = new MaxSATSolver[]{MaxSATSolver.linearSU(config), MaxSATSolver.oll(config)};
+    for (final MaxSATSolver solver : solvers) {
+      solver.addHardFormula(p.parse("~a | ~b"));
+      solver.addSoftFormula(p.parse("a"), 3);
+      solver.addSoftFormula(p.parse("b"), 2);
+      solver.addSoftFormula(p.parse("c"), 2);
+      solver.addSoftFormula(p.parse("d"), 2);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(2, solver.result());
+      solver.addSoftFormula(p.parse("~a"), 2);
+      final BoundRecorder handler = new BoundRecorder();
+      Assert.assertEquals(OPTIMUM, solver.solve(handler));
+      Assert.assertEquals(3, solver.result());
+      Assert.assertFalse(handler.upperBounds.isEmpty());
+      Assert.assertEquals(4, (int) handler.upperBounds.get(0));
+    }
+  }
+
+  @Test
+  public void testBMOKeepsLocalSearchModel() throws ParserException {
+    final MaxSATConfig config = new MaxSATConfig.Builder().localSearch(1000).bmo(true).build();
+    final MaxSATConfig incConfig = new MaxSATConfig.Builder().localSearch(1000).bmo(true)
+            .incremental(MaxSATConfig.IncrementalStrategy.ITERATIVE).build();
+    final MaxSATSolver[] solvers = new MaxSATSolver[]{MaxSATSolver.linearSU(config), MaxSATSolver.linearSU(incConfig),
+            MaxSATSolver.wmsu3(incConfig)};
+    for (final MaxSATSolver solver : solvers) {
+      solver.addHardFormula(p.parse("~a | ~b"));
+      solver.addHardFormula(p.parse("~c | ~d"));
+      solver.addSoftFormula(p.parse("a"), 10);
+      solver.addSoftFormula(p.parse("b"), 10);
+      solver.addSoftFormula(p.parse("c"), 1);
+      solver.addSoftFormula(p.parse("d"), 1);
+      solver.addSoftFormula(p.parse("e"), 1);
+      final BoundRecorder handler = new BoundRecorder();
+      Assert.assertEquals(OPTIMUM, solver.solve(handler));
+      Assert.assertEquals(11, solver.result());
+      Assert.assertFalse(handler.upperBounds.isEmpty());
+      for (int i = 1; i < handler.upperBounds.size(); i++)
+        Assert.assertTrue(handler.upperBounds.get(i) <= handler.upperBounds.get(i - 1));
+    }
+  }
+
+  private void assertModelCost(final MaxSATSolver solver, int cost) {
+    final Assignment model = solver.model();
+    int unsatisfied = 0;
+    if (model.positiveLiterals().contains(f.variable("a")))
+      unsatisfied++;
+    if (model.positiveLiterals().contains(f.variable("b")))
+      unsatisfied++;
+    if (model.positiveLiterals().contains(f.variable("c")))
+      unsatisfied++;
+    if (!model.positiveLiterals().contains(f.variable("a")) || !model.positiveLiterals().contains(f.variable("b")))
+      unsatisfied++;
+    Assert.assertEquals(cost, unsatisfied);
+  }
+
+  /**
+   * A MaxSAT handler which records all reported bounds.
+   */
+  private static final class BoundRecorder implements MaxSATHandler {
+    private final List<Integer> lowerBounds = new ArrayList<Integer>();
+    private final List<Integer> upperBounds = new ArrayList<Integer>();
+
+    @Override
+    public SATHandler satHandler() {
+      return null;
+    }
+
+    @Override
+    public boolean foundLowerBound(final int lowerBound, final Assignment model) {
+      this.lowerBounds.add(lowerBound);
+      return true;
+    }
+
+    @Override
+    public boolean foundUpperBound(final int upperBound, final Assignment model) {
+      this.upperBounds.add(upperBound);
+      return true;
+    }
+
+    @Override
+    public void startedSolving() {
+    }
+
+    @Override
+    public void finishedSolving() {
+    }
+
+    @Override
+    public int lowerBoundApproximation() {
+      return this.lowerBounds.isEmpty() ? -1 : this.lowerBounds.get(this.lowerBounds.size() - 1);
+    }
+
+    @Override
+    public int upperBoundApproximation() {
+      return this.upperBounds.isEmpty() ? -1 : this.upperBounds.get(this.upperBounds.size() - 1);
+    }
+  }
+}
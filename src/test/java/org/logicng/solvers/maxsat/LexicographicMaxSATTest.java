@@ -0,0 +1,282 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.maxsat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.handlers.MaxSATHandler;
+import org.logicng.handlers.SATHandler;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.MaxSATSolver;
+import org.logicng.solvers.maxsat.algorithms.MaxSATConfig;
+import org.logicng.solvers.maxsat.algorithms.WBO;
+import org.logicng.solvers.sat.DimacsReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.logicng.solvers.maxsat.algorithms.MaxSAT.MaxSATResult.OPTIMUM;
+import static org.logicng.solvers.maxsat.algorithms.MaxSAT.MaxSATResult.UNSATISFIABLE;
+
+/**
+ * Unit tests for the lexicographic optimization of the MaxSAT solver.
+ * @version 1.2
+ * @since 1.2
+ */
+public class LexicographicMaxSATTest {
+
+  private final FormulaFactory f = new FormulaFactory();
+  private final PropositionalParser p = new PropositionalParser(f);
+
+  private MaxSATSolver[] solvers() {
+    return new MaxSATSolver[]{MaxSATSolver.linearSU(), MaxSATSolver.linearSU(new MaxSATConfig.Builder().build())};
+  }
+
+  @Test
+  public void testUnweighted() throws ParserException {
+    for (final MaxSATSolver solver : this.solvers()) {
+      solver.addHardFormula(p.parse("~a | ~b"));
+      solver.addHardFormula(p.parse("~b | ~c"));
+      solver.addSoftFormula(p.parse("a"), 1, 1);
+      solver.addSoftFormula(p.parse("b"), 1, 0);
+      solver.addSoftFormula(p.parse("c"), 1, 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(Arrays.asList(0L, 2L), solver.levelResults());
+      Assert.assertEquals(2, solver.result());
+      Assert.assertTrue(solver.model().positiveLiterals().contains(f.variable("b")));
+    }
+  }
+
+  @Test
+  public void testWeighted() throws ParserException {
+    for (final MaxSATSolver solver : this.solvers()) {
+      solver.addHardFormula(p.parse("~a | ~b"));
+      solver.addHardFormula(p.parse("~a | ~c"));
+      solver.addHardFormula(p.parse("~d | a"));
+      solver.addSoftFormula(p.parse("d"), 1, 2);
+      solver.addSoftFormula(p.parse("a"), 3, 0);
+      solver.addSoftFormula(p.parse("b"), 2, 0);
+      solver.addSoftFormula(p.parse("c"), 2, 0);
+      solver.addSoftFormula(p.parse("~b"), 5, 1);
+      solver.addSoftFormula(p.parse("~c"), 1, 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(Arrays.asList(3L, 6L, 1L), solver.levelResults());
+      Assert.assertEquals(10, solver.result());
+      Assert.assertEquals(Arrays.asList(f.variable("b"), f.variable("c")), solver.model().positiveLiterals());
+    }
+  }
+
+  @Test
+  public void testLargeWeights() throws ParserException {
+    for (final MaxSATSolver solver : this.solvers()) {
+      solver.addHardFormula(p.parse("~a | ~b"));
+      solver.addHardFormula(p.parse("~a | ~c"));
+      solver.addHardFormula(p.parse("~b | ~c"));
+      solver.addSoftFormula(p.parse("a"), 1500000000, 0);
+      solver.addSoftFormula(p.parse("b"), 1400000000, 0);
+      solver.addSoftFormula(p.parse("c"), 1300000000, 0);
+      solver.addSoftFormula(p.parse("~a"), 1, 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(Arrays.asList(2700000000L, 1L), solver.levelResults());
+      Assert.assertEquals(2700000001L, solver.longResult());
+      Assert.assertTrue(solver.model().positiveLiterals().contains(f.variable("a")));
+    }
+  }
+
+  @Test
+  public void testReportsLevelCosts() throws ParserException {
+    for (final MaxSATSolver solver : this.solvers()) {
+      solver.addHardFormula(p.parse("~a | ~b"));
+      solver.addSoftFormula(p.parse("a"), 3, 0);
+      solver.addSoftFormula(p.parse("b"), 2, 0);
+      solver.addSoftFormula(p.parse("~a"), 5, 1);
+      final UpperBoundRecorder handler = new UpperBoundRecorder();
+      Assert.assertEquals(OPTIMUM, solver.solve(handler));
+      Assert.assertEquals(Arrays.asList(2L, 5L), solver.levelResults());
+      Assert.assertEquals(5, (int) handler.upperBounds.get(handler.upperBounds.size() - 1));
+      for (final int upperBound : handler.upperBounds)
+        Assert.assertTrue(upperBound <= 5);
+    }
+  }
+
+  @Test
+  public void testEmptyLevel() throws ParserException {
+    for (final MaxSATSolver solver : this.solvers()) {
+      solver.addHardFormula(p.parse("a | b"));
+      solver.addSoftFormula(p.parse("~a"), 1, 0);
+      solver.addSoftFormula(p.parse("~b"), 2, 2);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(Arrays.asList(0L, 0L, 2L), solver.levelResults());
+      Assert.assertEquals(2, solver.result());
+    }
+  }
+
+  @Test
+  public void testIncremental() throws ParserException {
+    for (final MaxSATSolver solver : this.solvers()) {
+      solver.addHardFormula(p.parse("~a | ~b"));
+      solver.addSoftFormula(p.parse("a"), 1, 0);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(Collections.singletonList(0L), solver.levelResults());
+      solver.addSoftFormula(p.parse("b"), 1, 1);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(Arrays.asList(0L, 1L), solver.levelResults());
+      solver.addSoftFormula(p.parse("b"), 2, 0);
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(Arrays.asList(1L, 0L), solver.levelResults());
+      Assert.assertTrue(solver.model().positiveLiterals().contains(f.variable("b")));
+    }
+  }
+
+  @Test
+  public void testUnsatisfiable() throws ParserException {
+    for (final MaxSATSolver solver : this.solvers()) {
+      solver.addHardFormula(p.parse("a & ~a"));
+      solver.addSoftFormula(p.parse("b"), 1, 1);
+      Assert.assertEquals(UNSATISFIABLE, solver.solve());
+      Assert.assertTrue(solver.levelResults().isEmpty());
+    }
+  }
+
+  @Test
+  public void testUnsupportedAlgorithm() throws ParserException {
+    final MaxSATSolver[] solvers = {MaxSATSolver.wbo(), MaxSATSolver.incWBO(), MaxSATSolver.linearUS(),
+            MaxSATSolver.msu3(), MaxSATSolver.oll()};
+    for (final MaxSATSolver solver : solvers) {
+      solver.addSoftFormula(p.parse("a"), 1, 0);
+      try {
+        solver.addSoftFormula(p.parse("~a"), 1, 1);
+        Assert.fail("Expected an IllegalArgumentException for " + solver);
+      } catch (final IllegalArgumentException e) {
+        // expected
+      }
+      Assert.assertEquals(OPTIMUM, solver.solve());
+      Assert.assertEquals(0, solver.result());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedAlgorithmDirect() {
+    new WBO().addSoftClause(1, new LNGIntVector(1, 0), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalLevel() throws ParserException {
+    MaxSATSolver.linearSU().addSoftFormula(p.parse("a"), 1, -1);
+  }
+
+  @Test
+  public void testCompareWithScaledWeights() throws IOException {
+    for (final String file : new String[]{"8.wcsp.log.wcnf", "54.wcsp.log.wcnf"}) {
+      final List<Formula> hard = new ArrayList<Formula>();
+      final List<Formula> soft = new ArrayList<Formula>();
+      final List<Integer> weights = new ArrayList<Integer>();
+      DimacsReader.readWCNF("tests/partialweightedmaxsat/" + file, f, hard, soft, weights);
+      int scale = 1;
+      for (int i = 1; i < soft.size(); i += 2)
+        scale += weights.get(i);
+      for (final MaxSATSolver solver : this.solvers()) {
+        for (final Formula h : hard)
+          solver.addHardFormula(h);
+        for (int i = 0; i < soft.size(); i++)
+          solver.addSoftFormula(soft.get(i), weights.get(i), i % 2);
+        Assert.assertEquals(OPTIMUM, solver.solve());
+        final MaxSATSolver scaled = MaxSATSolver.oll();
+        for (final Formula h : hard)
+          scaled.addHardFormula(h);
+        for (int i = 0; i < soft.size(); i++)
+          scaled.addSoftFormula(soft.get(i), i % 2 == 0 ? weights.get(i) * scale : weights.get(i));
+        Assert.assertEquals(OPTIMUM, scaled.solve());
+        final List<Long> expected = Arrays.asList(this.levelCost(scaled.model(), soft, weights, 0),
+                this.levelCost(scaled.model(), soft, weights, 1));
+        Assert.assertEquals(expected, solver.levelResults());
+        Assert.assertEquals(expected.get(0) * scale + expected.get(1), scaled.result());
+        Assert.assertEquals(expected, Arrays.asList(this.levelCost(solver.model(), soft, weights, 0),
+                this.levelCost(solver.model(), soft, weights, 1)));
+      }
+    }
+  }
+
+  private long levelCost(final Assignment model, final List<Formula> soft, final List<Integer> weights, int level) {
+    long cost = 0;
+    for (int i = level; i < soft.size(); i += 2)
+      if (!soft.get(i).evaluate(model))
+        cost += weights.get(i);
+    return cost;
+  }
+
+  /**
+   * A MaxSAT handler which records the reported upper bounds.
+   */
+  private static final class UpperBoundRecorder implements MaxSATHandler {
+    private final List<Integer> upperBounds = new ArrayList<Integer>();
+
+    @Override
+    public SATHandler satHandler() {
+      return null;
+    }
+
+    @Override
+    public boolean foundLowerBound(final int lowerBound, final Assignment model) {
+      return true;
+    }
+
+    @Override
+    public boolean foundUpperBound(final int upperBound, final Assignment model) {
+      this.upperBounds.add(upperBound);
+      return true;
+    }
+
+    @Override
+    public void startedSolving() {
+    }
+
+    @Override
+    public void finishedSolving() {
+    }
+
+    @Override
+    public int lowerBoundApproximation() {
+      return -1;
+    }
+
+    @Override
+    public int upperBoundApproximation() {
+      return this.upperBounds.isEmpty() ? -1 : this.upperBounds.get(this.upperBounds.size() - 1);
+    }
+  }
+}
@@ -30,14 +30,22 @@ package org.logicng.solvers.maxsat;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.logicng.collections.LNGBooleanVector;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
+import org.logicng.datastructures.Tristate;
 import org.logicng.solvers.maxsat.algorithms.IncWBO;
 import org.logicng.solvers.maxsat.algorithms.LinearSU;
 import org.logicng.solvers.maxsat.algorithms.LinearUS;
 import org.logicng.solvers.maxsat.algorithms.MSU3;
 import org.logicng.solvers.maxsat.algorithms.MaxSAT;
 import org.logicng.solvers.maxsat.algorithms.MaxSATConfig;
+import org.logicng.solvers.maxsat.algorithms.MaxSATPreprocessor;
+import org.logicng.solvers.maxsat.algorithms.OLL;
 import org.logicng.solvers.maxsat.algorithms.WBO;
 import org.logicng.solvers.maxsat.algorithms.WMSU3;
+import org.logicng.solvers.sat.MiniSat2Solver;
+import org.logicng.solvers.sat.MiniSatStyleSolver;
 
 import java.util.Arrays;
 
@@ -65,6 +73,74 @@ public class MaxSATClassTest {
     Assert.assertTrue(Arrays.asList(MaxSAT.MaxSATResult.values()).contains(MaxSAT.MaxSATResult.valueOf("OPTIMUM")));
   }
 
+  @Test
+  public void testStratificationLevels() {
+    final LNGIntVector weights = new LNGIntVector(100, 90, 80, 70, 5, 5, 5, 5, 5, 5, 1);
+    Assert.assertEquals(100, MaxSAT.nextWeight(weights, Integer.MAX_VALUE));
+    Assert.assertEquals(90, MaxSAT.nextWeight(weights, 100));
+    Assert.assertEquals(5, MaxSAT.nextWeight(weights, 70));
+    Assert.assertEquals(-1, MaxSAT.nextWeight(weights, 1));
+    Assert.assertEquals(5, MaxSAT.nextWeightDiversity(weights, Integer.MAX_VALUE));
+    Assert.assertEquals(1, MaxSAT.nextWeightDiversity(weights, 5));
+    Assert.assertEquals(-1, MaxSAT.nextWeightDiversity(weights, 1));
+    Assert.assertEquals(-1, MaxSAT.nextWeightDiversity(new LNGIntVector(), Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testPreprocessor() {
+    final LNGVector<LNGIntVector> clauses = new LNGVector<LNGIntVector>();
+    final LNGIntVector weights = new LNGIntVector();
+    clauses.push(clause(0));
+    weights.push(-1);
+    clauses.push(clause(1, 2));
+    weights.push(-1);
+    clauses.push(clause(4, 6));
+    weights.push(-1);
+    clauses.push(clause(5, 8));
+    weights.push(-1);
+    clauses.push(clause(2, 4));
+    weights.push(3);
+    clauses.push(clause(1));
+    weights.push(4);
+    clauses.push(clause(4));
+    weights.push(2);
+    clauses.push(clause(4));
+    weights.push(5);
+    clauses.push(clause(4, 6));
+    weights.push(1);
+    final MaxSATPreprocessor preprocessor = new MaxSATPreprocessor(5, clauses, weights);
+    Assert.assertTrue(preprocessor.preprocess(true));
+    Assert.assertEquals(2, preprocessor.hardClauses().size());
+    Assert.assertEquals("[0]", preprocessor.hardClauses().get(0).toString());
+    Assert.assertEquals("[2]", preprocessor.hardClauses().get(1).toString());
+    Assert.assertEquals(2, preprocessor.softClauses().size());
+    Assert.assertEquals("[1]", preprocessor.softClauses().get(0).toString());
+    Assert.assertEquals("[4]", preprocessor.softClauses().get(1).toString());
+    Assert.assertEquals("[4, 7]", preprocessor.softWeights().toString());
+    Assert.assertEquals(2, preprocessor.eliminatedVariables());
+    final LNGBooleanVector model = new LNGBooleanVector(true, true, false);
+    preprocessor.reconstruct(model);
+    Assert.assertEquals(5, model.size());
+    Assert.assertTrue(model.get(3));
+
+    final LNGVector<LNGIntVector> unsat = new LNGVector<LNGIntVector>();
+    unsat.push(clause(0));
+    unsat.push(clause(1, 2));
+    unsat.push(clause(3));
+    Assert.assertFalse(new MaxSATPreprocessor(2, unsat, new LNGIntVector(-1, -1, -1)).preprocess(true));
+  }
+
+  @Test
+  public void testSearchSATSolver() {
+    final MiniSatStyleSolver s = new MiniSat2Solver();
+    MaxSAT.newSATVariable(s);
+    MaxSAT.newSATVariable(s);
+    s.addClause(clause(0, 2));
+    Assert.assertEquals(Tristate.TRUE, MaxSAT.searchSATSolver(s, null));
+    Assert.assertEquals(Tristate.FALSE, MaxSAT.searchSATSolver(s, null, clause(1, 3)));
+    Assert.assertEquals(Tristate.TRUE, MaxSAT.searchSATSolver(s, null, clause(1)));
+  }
+
   @Test
   public void testMaxSATtoString() {
     MaxSAT wmsu3 = new WMSU3();
@@ -79,5 +155,11 @@ public class MaxSATClassTest {
     Assert.assertEquals("LinearSU", linearSu.toString());
     MaxSAT linearUs = new LinearUS();
     Assert.assertEquals("LinearUS", linearUs.toString());
+    MaxSAT oll = new OLL();
+    Assert.assertEquals("OLL", oll.toString());
+  }
+
+  private static LNGIntVector clause(final int... lits) {
+    return new LNGIntVector(lits);
   }
 }
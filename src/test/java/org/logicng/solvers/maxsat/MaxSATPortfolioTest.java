@@ -0,0 +1,218 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.maxsat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.handlers.MaxSATHandler;
+import org.logicng.handlers.SATHandler;
+import org.logicng.handlers.TimeoutMaxSATHandler;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.MaxSATPortfolio;
+import org.logicng.solvers.MaxSATSolver;
+import org.logicng.solvers.sat.DimacsReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.logicng.solvers.maxsat.algorithms.MaxSAT.MaxSATResult.OPTIMUM;
+import static org.logicng.solvers.maxsat.algorithms.MaxSAT.MaxSATResult.UNDEF;
+import static org.logicng.solvers.maxsat.algorithms.MaxSAT.MaxSATResult.UNSATISFIABLE;
+
+/**
+ * Unit tests for the MaxSAT portfolio.
+ * @version 1.2
+ * @since 1.2
+ */
+public class MaxSATPortfolioTest {
+
+  private final FormulaFactory f = new FormulaFactory();
+  private final PropositionalParser p = new PropositionalParser(f);
+
+  private static final String[] partialFiles = new String[]{
+          "c1355_F176gat-1278gat@1.wcnf",
+          "c1355_F1229gat@1.wcnf",
+          "normalized-s3-3-3-1pb.wcnf",
+          "term1_gr_2pin_w4.shuffled.cnf"
+  };
+
+  private static final int[] partialResults = new int[]{
+          13, 33, 36, 0
+  };
+
+  private static final String[] weightedFiles = new String[]{
+          "8.wcsp.log.wcnf",
+          "54.wcsp.log.wcnf",
+          "404.wcsp.log.wcnf"
+  };
+
+  private static final int[] weightedResults = new int[]{
+          2, 37, 114
+  };
+
+  @Test
+  public void testPartial() throws IOException {
+    for (int i = 0; i < partialFiles.length; i++) {
+      final MaxSATPortfolio portfolio = MaxSATPortfolio.portfolio();
+      readCNF(portfolio, "tests/partialmaxsat/" + partialFiles[i]);
+      Assert.assertEquals(OPTIMUM, portfolio.solve());
+      Assert.assertEquals(partialResults[i], portfolio.result());
+    }
+  }
+
+  @Test
+  public void testWeighted() throws IOException {
+    for (int i = 0; i < weightedFiles.length; i++) {
+      final MaxSATPortfolio portfolio = MaxSATPortfolio.portfolio();
+      readCNF(portfolio, "tests/partialweightedmaxsat/" + weightedFiles[i]);
+      final MaxSATHandler handler = new TimeoutMaxSATHandler(100000);
+      Assert.assertEquals(OPTIMUM, portfolio.solve(handler));
+      Assert.assertEquals(weightedResults[i], portfolio.result());
+      Assert.assertTrue(handler.upperBoundApproximation() == -1 || handler.upperBoundApproximation() >= weightedResults[i]);
+      Assert.assertTrue(handler.lowerBoundApproximation() <= weightedResults[i]);
+    }
+  }
+
+  @Test
+  public void testSharedBounds() throws IOException {
+    for (int i = 0; i < partialFiles.length; i++) {
+      final MaxSATPortfolio portfolio = MaxSATPortfolio.portfolio(MaxSATSolver.linearSU(), MaxSATSolver.msu3());
+      readCNF(portfolio, "tests/partialmaxsat/" + partialFiles[i]);
+      final BoundRecorder handler = new BoundRecorder();
+      Assert.assertEquals(OPTIMUM, portfolio.solve(handler));
+      Assert.assertEquals(partialResults[i], portfolio.result());
+      Assert.assertFalse(handler.lowerBounds.isEmpty() && handler.upperBounds.isEmpty());
+      for (int j = 1; j < handler.lowerBounds.size(); j++)
+        Assert.assertTrue(handler.lowerBounds.get(j) > handler.lowerBounds.get(j - 1));
+      for (int j = 1; j < handler.upperBounds.size(); j++)
+        Assert.assertTrue(handler.upperBounds.get(j) < handler.upperBounds.get(j - 1));
+      for (final int lb : handler.lowerBounds)
+        Assert.assertTrue(lb <= partialResults[i]);
+      for (final int ub : handler.upperBounds)
+        Assert.assertTrue(ub >= partialResults[i]);
+    }
+  }
+
+  @Test
+  public void testModel() throws ParserException {
+    final MaxSATPortfolio portfolio = MaxSATPortfolio.portfolio(MaxSATSolver.linearSU(), MaxSATSolver.msu3());
+    final Formula hard = p.parse("(a | b) & (~a | c) & (~b | c)");
+    portfolio.addHardFormula(hard);
+    portfolio.addSoftFormula(p.parse("~c"), 1);
+    portfolio.addSoftFormula(p.parse("~a"), 1);
+    portfolio.addSoftFormula(p.parse("~b"), 1);
+    Assert.assertEquals(OPTIMUM, portfolio.solve());
+    Assert.assertEquals(2, portfolio.result());
+    final Assignment model = portfolio.model();
+    Assert.assertTrue(hard.evaluate(model));
+    portfolio.addHardFormula(p.parse("~c"));
+    Assert.assertEquals(UNSATISFIABLE, portfolio.solve());
+    portfolio.reset();
+    portfolio.addSoftFormula(p.parse("a"), 1);
+    Assert.assertEquals(OPTIMUM, portfolio.solve());
+    Assert.assertEquals(0, portfolio.result());
+  }
+
+  @Test
+  public void testTimeout() throws IOException {
+    final MaxSATPortfolio portfolio = MaxSATPortfolio.portfolio(MaxSATSolver.wbo(), MaxSATSolver.incWBO());
+    readCNF(portfolio, "tests/partialmaxsat/c1355_F176gat-1278gat@1.wcnf");
+    Assert.assertEquals(UNDEF, portfolio.solve(new TimeoutMaxSATHandler(0)));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testUnsupportedProblemType() throws ParserException {
+    final MaxSATPortfolio portfolio = MaxSATPortfolio.portfolio(MaxSATSolver.msu3(), MaxSATSolver.linearUS());
+    portfolio.addSoftFormula(p.parse("a"), 2);
+    portfolio.addSoftFormula(p.parse("~a"), 3);
+    portfolio.solve();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoSolvers() {
+    MaxSATPortfolio.portfolio();
+    MaxSATPortfolio.portfolio(new MaxSATSolver[0]);
+  }
+
+  private void readCNF(final MaxSATPortfolio portfolio, final String fileName) throws IOException {
+    final List<Formula> hard = new ArrayList<Formula>();
+    final List<Formula> soft = new ArrayList<Formula>();
+    final List<Integer> weights = new ArrayList<Integer>();
+    DimacsReader.readWCNF(fileName, f, hard, soft, weights);
+    for (final Formula formula : hard)
+      portfolio.addHardFormula(formula);
+    for (int i = 0; i < soft.size(); i++)
+      portfolio.addSoftFormula(soft.get(i), weights.get(i));
+  }
+
+  private static final class BoundRecorder implements MaxSATHandler {
+    private final List<Integer> lowerBounds = new ArrayList<Integer>();
+    private final List<Integer> upperBounds = new ArrayList<Integer>();
+
+    @Override
+    public SATHandler satHandler() {
+      return null;
+    }
+
+    @Override
+    public boolean foundLowerBound(final int lowerBound, final Assignment model) {
+      this.lowerBounds.add(lowerBound);
+      return true;
+    }
+
+    @Override
+    public boolean foundUpperBound(final int upperBound, final Assignment model) {
+      this.upperBounds.add(upperBound);
+      return true;
+    }
+
+    @Override
+    public void startedSolving() {
+    }
+
+    @Override
+    public void finishedSolving() {
+    }
+
+    @Override
+    public int lowerBoundApproximation() {
+      return this.lowerBounds.isEmpty() ? -1 : this.lowerBounds.get(this.lowerBounds.size() - 1);
+    }
+
+    @Override
+    public int upperBoundApproximation() {
+      return this.upperBounds.isEmpty() ? -1 : this.upperBounds.get(this.upperBounds.size() - 1);
+    }
+  }
+}
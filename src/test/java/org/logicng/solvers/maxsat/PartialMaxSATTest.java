@@ -155,6 +155,69 @@ public class PartialMaxSATTest {
     }
   }
 
+  @Test
+  public void testOLL() throws IOException {
+    final MaxSATConfig[] configs = new MaxSATConfig[2];
+    configs[0] = new MaxSATConfig.Builder().weight(MaxSATConfig.WeightStrategy.NONE).verbosity(SOME).output(logStream).build();
+    configs[1] = new MaxSATConfig.Builder().weight(MaxSATConfig.WeightStrategy.NORMAL).verbosity(SOME).output(logStream).build();
+    for (final MaxSATConfig config : configs) {
+      for (int i = 0; i < files.length; i++) {
+        final MaxSATSolver solver = MaxSATSolver.oll(config);
+        readCNF(solver, "tests/partialmaxsat/" + files[i]);
+        Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+        Assert.assertEquals(results[i], solver.result());
+      }
+    }
+  }
+
+  @Test
+  public void testCoreReduction() throws IOException {
+    final MaxSATConfig[] configs = new MaxSATConfig[2];
+    configs[0] = new MaxSATConfig.Builder().coreTrimming(3).verbosity(SOME).output(logStream).build();
+    configs[1] = new MaxSATConfig.Builder().incremental(MaxSATConfig.IncrementalStrategy.ITERATIVE).coreTrimming(3)
+            .coreMinimization(1000).coreExhaustion(true).verbosity(SOME).output(logStream).build();
+    for (final MaxSATConfig config : configs) {
+      final long[] reducedLiterals = new long[4];
+      for (int i = 0; i < files.length; i++) {
+        final MaxSATSolver[] solvers = new MaxSATSolver[]{MaxSATSolver.wbo(config), MaxSATSolver.incWBO(config),
+                MaxSATSolver.msu3(config), MaxSATSolver.oll(config)};
+        for (int j = 0; j < solvers.length; j++) {
+          readCNF(solvers[j], "tests/partialmaxsat/" + files[i]);
+          Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solvers[j].solve());
+          Assert.assertEquals(results[i], solvers[j].result());
+          reducedLiterals[j] += solvers[j].stats().reducedCoreLiterals();
+        }
+      }
+      for (final long reduced : reducedLiterals)
+        Assert.assertTrue(reduced > 0);
+    }
+  }
+
+  @Test
+  public void testPreprocessing() throws IOException {
+    final MaxSATConfig config = new MaxSATConfig.Builder().incremental(MaxSATConfig.IncrementalStrategy.ITERATIVE)
+            .preprocessing(true).verbosity(SOME).output(logStream).build();
+    for (int i = 0; i < files.length; i++) {
+      for (final MaxSATSolver solver : new MaxSATSolver[]{MaxSATSolver.linearSU(config), MaxSATSolver.linearUS(config),
+              MaxSATSolver.msu3(config), MaxSATSolver.oll(config)}) {
+        readCNF(solver, "tests/partialmaxsat/" + files[i]);
+        Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+        Assert.assertEquals(results[i], solver.result());
+      }
+    }
+  }
+
+  @Test
+  public void testIncrementalDefaults() throws IOException {
+    for (int i = 0; i < files.length; i++) {
+      for (final MaxSATSolver solver : new MaxSATSolver[]{MaxSATSolver.linearSU(), MaxSATSolver.linearUS(), MaxSATSolver.msu3()}) {
+        readCNF(solver, "tests/partialmaxsat/" + files[i]);
+        Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+        Assert.assertEquals(results[i], solver.result());
+      }
+    }
+  }
+
   @Test
   public void testTimeoutHandler() throws IOException {
     MaxSATSolver solver = MaxSATSolver.wbo(new MaxSATConfig.Builder().verbosity(SOME).output(logStream).build());
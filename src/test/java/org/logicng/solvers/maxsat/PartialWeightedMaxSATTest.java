@@ -30,11 +30,17 @@ package org.logicng.solvers.maxsat;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.Formula;
 import org.logicng.formulas.FormulaFactory;
 import org.logicng.formulas.Literal;
+import org.logicng.handlers.MaxSATHandler;
+import org.logicng.handlers.SATHandler;
+import org.logicng.handlers.TimeoutMaxSATHandler;
 import org.logicng.solvers.MaxSATSolver;
 import org.logicng.solvers.maxsat.algorithms.MaxSAT;
 import org.logicng.solvers.maxsat.algorithms.MaxSATConfig;
+import org.logicng.solvers.sat.DimacsReader;
 
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
@@ -43,6 +49,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.Builder;
 import static org.logicng.solvers.maxsat.algorithms.MaxSATConfig.CardinalityEncoding;
@@ -166,9 +173,11 @@ public class PartialWeightedMaxSATTest {
 
   @Test
   public void testLineaerSUBMO() throws IOException {
-    final MaxSATConfig[] configs = new MaxSATConfig[2];
+    final MaxSATConfig[] configs = new MaxSATConfig[4];
     configs[0] = new Builder().cardinality(CardinalityEncoding.TOTALIZER).bmo(true).verbosity(SOME).output(logStream).build();
     configs[1] = new Builder().cardinality(CardinalityEncoding.MTOTALIZER).bmo(true).verbosity(SOME).output(logStream).build();
+    configs[2] = new Builder().incremental(MaxSATConfig.IncrementalStrategy.ITERATIVE).cardinality(CardinalityEncoding.TOTALIZER).bmo(true).verbosity(SOME).output(logStream).build();
+    configs[3] = new Builder().incremental(MaxSATConfig.IncrementalStrategy.ITERATIVE).cardinality(CardinalityEncoding.MTOTALIZER).bmo(true).verbosity(SOME).output(logStream).build();
     for (final MaxSATConfig config : configs) {
       for (int i = 0; i < bmoFiles.length; i++) {
         final MaxSATSolver solver = MaxSATSolver.linearSU(config);
@@ -179,6 +188,316 @@ public class PartialWeightedMaxSATTest {
     }
   }
 
+  @Test
+  public void testLinearSUBMOFixedLevels() {
+    final Random random = new Random(42);
+    final int[] levelWeights = new int[]{1, 100, 10000};
+    for (int n = 0; n < 500; n++) {
+      final List<Formula> hard = new ArrayList<Formula>();
+      final List<Formula> soft = new ArrayList<Formula>();
+      final List<Integer> weights = new ArrayList<Integer>();
+      for (int i = 0; i < 3; i++)
+        hard.add(randomClause(random, 2 + random.nextInt(2)));
+      for (int i = 0; i < 6; i++) {
+        soft.add(randomClause(random, 1 + random.nextInt(2)));
+        weights.add(levelWeights[random.nextInt(levelWeights.length)]);
+      }
+      final MaxSATSolver solver = MaxSATSolver.linearSU();
+      for (final Formula h : hard)
+        solver.addHardFormula(h);
+      for (int i = 0; i < soft.size(); i++)
+        solver.addSoftFormula(soft.get(i), weights.get(i));
+      final int optimum = bruteForceOptimum(hard, soft, weights);
+      if (optimum == -1)
+        Assert.assertEquals(MaxSAT.MaxSATResult.UNSATISFIABLE, solver.solve());
+      else {
+        Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+        Assert.assertEquals(optimum, solver.result());
+      }
+    }
+  }
+
+  @Test
+  public void testLinearSUBMODefault() throws IOException {
+    for (int i = 0; i < bmoFiles.length; i++) {
+      final MaxSATSolver solver = MaxSATSolver.linearSU();
+      readCNF(solver, "tests/partialweightedmaxsat/bmo/" + bmoFiles[i]);
+      Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+      Assert.assertEquals(bmoResults[i], solver.result());
+    }
+  }
+
+  @Test
+  public void testOLL() throws IOException {
+    final MaxSATConfig[] configs = new MaxSATConfig[4];
+    configs[0] = new Builder().weight(MaxSATConfig.WeightStrategy.NONE).verbosity(SOME).output(logStream).build();
+    configs[1] = new Builder().weight(MaxSATConfig.WeightStrategy.NORMAL).verbosity(SOME).output(logStream).build();
+    configs[2] = new Builder().weight(MaxSATConfig.WeightStrategy.DIVERSIFY).verbosity(SOME).output(logStream).build();
+    configs[3] = new Builder().weight(MaxSATConfig.WeightStrategy.NORMAL).hardening(true).verbosity(SOME).output(logStream).build();
+    for (final MaxSATConfig config : configs) {
+      for (int i = 0; i < files.length; i++) {
+        final MaxSATSolver solver = MaxSATSolver.oll(config);
+        readCNF(solver, "tests/partialweightedmaxsat/" + files[i]);
+        Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+        Assert.assertEquals(results[i], solver.result());
+      }
+    }
+  }
+
+  @Test
+  public void testOLLBMO() throws IOException {
+    for (int i = 0; i < bmoFiles.length; i++) {
+      final MaxSATSolver solver = MaxSATSolver.oll();
+      readCNF(solver, "tests/partialweightedmaxsat/bmo/" + bmoFiles[i]);
+      Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+      Assert.assertEquals(bmoResults[i], solver.result());
+    }
+  }
+
+  @Test
+  public void testHardening() throws IOException {
+    final MaxSATConfig config = new Builder().cardinality(CardinalityEncoding.TOTALIZER).bmo(false).hardening(true)
+            .verbosity(SOME).output(logStream).build();
+    for (int i = 0; i < files.length; i++) {
+      final MaxSATSolver solver = MaxSATSolver.linearSU(config);
+      readCNF(solver, "tests/partialweightedmaxsat/" + files[i]);
+      Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+      Assert.assertEquals(results[i], solver.result());
+    }
+    final MaxSATSolver solver = MaxSATSolver.oll();
+    readCNF(solver, "tests/partialweightedmaxsat/" + files[2]);
+    Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+    Assert.assertEquals(results[2], solver.result());
+    final MaxSATSolver stratified = MaxSATSolver.oll();
+    stratified.addHardFormula(f.or(f.literal("a", false), f.literal("b", false)));
+    stratified.addHardFormula(f.or(f.literal("a", false), f.literal("c", false)));
+    stratified.addHardFormula(f.or(f.literal("b", false), f.literal("c", false)));
+    stratified.addSoftFormula(f.variable("a"), 1);
+    stratified.addSoftFormula(f.variable("b"), 1);
+    stratified.addSoftFormula(f.variable("c"), 1);
+    stratified.addSoftFormula(f.variable("x"), 10);
+    stratified.addSoftFormula(f.variable("y"), 10);
+    Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, stratified.solve());
+    Assert.assertEquals(2, stratified.result());
+    Assert.assertTrue(stratified.stats().hardenedLiterals() > 0);
+  }
+
+  @Test
+  public void testLocalSearch() throws IOException {
+    final MaxSATConfig config = new Builder().localSearch(100000).verbosity(SOME).output(logStream).build();
+    for (int i = 0; i < files.length; i++) {
+      for (final MaxSATSolver solver : new MaxSATSolver[]{MaxSATSolver.linearSU(config), MaxSATSolver.incWBO(config),
+              MaxSATSolver.wmsu3(config), MaxSATSolver.oll(config)}) {
+        readCNF(solver, "tests/partialweightedmaxsat/" + files[i]);
+        Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+        Assert.assertEquals(results[i], solver.result());
+      }
+    }
+    final MaxSATSolver solver = MaxSATSolver.wbo(config);
+    readCNF(solver, "tests/partialweightedmaxsat/" + files[1]);
+    final MaxSATHandler handler = new TimeoutMaxSATHandler(100000);
+    Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve(handler));
+    Assert.assertEquals(results[1], solver.result());
+    Assert.assertTrue(handler.upperBoundApproximation() >= results[1]);
+  }
+
+  @Test
+  public void testLocalSearchEmptyClauses() {
+    final MaxSATConfig config = new Builder().localSearch(1000).build();
+    final MaxSATConfig linearConfig = new Builder().localSearch(1000).bmo(false).build();
+    for (final MaxSATSolver solver : new MaxSATSolver[]{MaxSATSolver.wbo(config), MaxSATSolver.incWBO(config),
+            MaxSATSolver.linearSU(linearConfig), MaxSATSolver.oll(config)}) {
+      solver.addHardFormula(f.falsum());
+      solver.addSoftFormula(f.variable("a"), 1);
+      Assert.assertEquals(MaxSAT.MaxSATResult.UNSATISFIABLE, solver.solve());
+    }
+    for (final MaxSATSolver solver : new MaxSATSolver[]{MaxSATSolver.wbo(config), MaxSATSolver.incWBO(config),
+            MaxSATSolver.linearSU(linearConfig), MaxSATSolver.oll(config)}) {
+      solver.addHardFormula(f.or(f.variable("a"), f.variable("b")));
+      solver.addSoftFormula(f.falsum(), 5);
+      solver.addSoftFormula(f.literal("a", false), 1);
+      solver.addSoftFormula(f.literal("b", false), 2);
+      Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+      Assert.assertEquals(6, solver.result());
+    }
+  }
+
+  @Test
+  public void testLocalSearchModelOnCancel() throws IOException {
+    final MaxSATConfig config = new Builder().localSearch(100000).build();
+    final String file = "tests/partialweightedmaxsat/" + files[1];
+    for (final MaxSATSolver solver : new MaxSATSolver[]{MaxSATSolver.linearSU(config), MaxSATSolver.oll(config)}) {
+      readCNF(solver, file);
+      final int[] bound = new int[]{-1};
+      final Assignment[] boundModel = new Assignment[1];
+      final MaxSATHandler handler = new MaxSATHandler() {
+        @Override
+        public SATHandler satHandler() {
+          return null;
+        }
+
+        @Override
+        public boolean foundLowerBound(final int lowerBound, final Assignment model) {
+          return true;
+        }
+
+        @Override
+        public boolean foundUpperBound(final int upperBound, final Assignment model) {
+          bound[0] = upperBound;
+          boundModel[0] = model;
+          return false;
+        }
+
+        @Override
+        public void startedSolving() {
+        }
+
+        @Override
+        public void finishedSolving() {
+        }
+
+        @Override
+        public int lowerBoundApproximation() {
+          return -1;
+        }
+
+        @Override
+        public int upperBoundApproximation() {
+          return bound[0];
+        }
+      };
+      Assert.assertEquals(MaxSAT.MaxSATResult.UNDEF, solver.solve(handler));
+      Assert.assertNotNull(boundModel[0]);
+      Assert.assertEquals(boundModel[0], solver.model());
+      Assert.assertEquals(bound[0], cost(solver.model(), file));
+      Assert.assertTrue(bound[0] >= results[1]);
+    }
+  }
+
+  @Test
+  public void testPreprocessing() throws IOException {
+    final MaxSATConfig config = new Builder().preprocessing(true).verbosity(SOME).output(logStream).build();
+    final MaxSATConfig incConfig = new Builder().preprocessing(true).incremental(MaxSATConfig.IncrementalStrategy.ITERATIVE)
+            .verbosity(SOME).output(logStream).build();
+    for (int i = 0; i < files.length; i++) {
+      for (final MaxSATSolver solver : new MaxSATSolver[]{MaxSATSolver.wbo(config), MaxSATSolver.incWBO(config),
+              MaxSATSolver.linearSU(config), MaxSATSolver.wmsu3(incConfig), MaxSATSolver.oll(config)}) {
+        readCNF(solver, "tests/partialweightedmaxsat/" + files[i]);
+        Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+        Assert.assertEquals(results[i], solver.result());
+        Assert.assertEquals(results[i], cost(solver.model(), "tests/partialweightedmaxsat/" + files[i]));
+      }
+    }
+  }
+
+  @Test
+  public void testCoreReduction() throws IOException {
+    final MaxSATConfig[] configs = new MaxSATConfig[2];
+    configs[0] = new Builder().weight(MaxSATConfig.WeightStrategy.NORMAL).coreTrimming(3).coreMinimization(1000)
+            .coreExhaustion(true).verbosity(SOME).output(logStream).build();
+    configs[1] = new Builder().incremental(MaxSATConfig.IncrementalStrategy.ITERATIVE).bmo(false).coreTrimming(3)
+            .coreMinimization(1000).coreExhaustion(true).verbosity(SOME).output(logStream).build();
+    for (final MaxSATConfig config : configs) {
+      final long[] reducedLiterals = new long[4];
+      for (int i = 0; i < files.length; i++) {
+        final MaxSATSolver[] solvers = new MaxSATSolver[]{MaxSATSolver.wbo(config), MaxSATSolver.incWBO(config),
+                MaxSATSolver.wmsu3(config), MaxSATSolver.oll(config)};
+        for (int j = 0; j < solvers.length; j++) {
+          readCNF(solvers[j], "tests/partialweightedmaxsat/" + files[i]);
+          Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solvers[j].solve());
+          Assert.assertEquals(results[i], solvers[j].result());
+          reducedLiterals[j] += solvers[j].stats().reducedCoreLiterals();
+        }
+      }
+      for (final long reduced : reducedLiterals)
+        Assert.assertTrue(reduced > 0);
+    }
+  }
+
+  @Test
+  public void testLargeWeights() {
+    final MaxSATConfig config = new Builder().verbosity(SOME).output(logStream).build();
+    for (final MaxSATSolver solver : new MaxSATSolver[]{MaxSATSolver.wbo(config), MaxSATSolver.incWBO(config),
+            MaxSATSolver.oll(config), MaxSATSolver.oll()}) {
+      addLargeWeights(solver);
+      Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+      Assert.assertEquals(2700000000L, solver.longResult());
+      Assert.assertEquals(2700000000L, solver.stats().longBestSolution());
+      Assert.assertTrue(solver.model().literals().contains(f.variable("a")));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testLargeWeightsIntResult() {
+    final MaxSATSolver solver = MaxSATSolver.oll();
+    addLargeWeights(solver);
+    Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+    solver.result();
+  }
+
+  @Test
+  public void testLargeWeightsPB() {
+    final MaxSATConfig config = new Builder().bmo(false).verbosity(SOME).output(logStream).build();
+    for (final MaxSATSolver solver : new MaxSATSolver[]{MaxSATSolver.linearSU(config), MaxSATSolver.linearSU(),
+            MaxSATSolver.wmsu3(config), MaxSATSolver.wmsu3()}) {
+      addLargeWeights(solver);
+      Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+      Assert.assertEquals(2700000000L, solver.longResult());
+      Assert.assertTrue(solver.model().literals().contains(f.variable("a")));
+    }
+  }
+
+  private void addLargeWeights(final MaxSATSolver solver) {
+    solver.addHardFormula(f.or(f.literal("a", false), f.literal("b", false)));
+    solver.addHardFormula(f.or(f.literal("a", false), f.literal("c", false)));
+    solver.addHardFormula(f.or(f.literal("b", false), f.literal("c", false)));
+    solver.addSoftFormula(f.variable("a"), 1500000000);
+    solver.addSoftFormula(f.variable("b"), 1400000000);
+    solver.addSoftFormula(f.variable("c"), 1300000000);
+  }
+
+  private int cost(final Assignment model, final String fileName) throws IOException {
+    final List<Formula> hard = new ArrayList<Formula>();
+    final List<Formula> soft = new ArrayList<Formula>();
+    final List<Integer> weights = new ArrayList<Integer>();
+    DimacsReader.readWCNF(fileName, f, hard, soft, weights);
+    for (final Formula formula : hard)
+      Assert.assertTrue(formula.evaluate(model));
+    int cost = 0;
+    for (int i = 0; i < soft.size(); i++)
+      if (!soft.get(i).evaluate(model))
+        cost += weights.get(i);
+    return cost;
+  }
+
+  private Formula randomClause(final Random random, int size) {
+    final List<Literal> literals = new ArrayList<Literal>(size);
+    for (int i = 0; i < size; i++)
+      literals.add(f.literal("v" + random.nextInt(5), random.nextBoolean()));
+    return f.or(literals);
+  }
+
+  private int bruteForceOptimum(final List<Formula> hard, final List<Formula> soft, final List<Integer> weights) {
+    int optimum = -1;
+    for (int bits = 0; bits < 32; bits++) {
+      final Assignment assignment = new Assignment();
+      for (int i = 0; i < 5; i++)
+        assignment.addLiteral(f.literal("v" + i, (bits & (1 << i)) != 0));
+      boolean satisfied = true;
+      for (final Formula h : hard)
+        satisfied &= h.evaluate(assignment);
+      if (!satisfied)
+        continue;
+      int cost = 0;
+      for (int i = 0; i < soft.size(); i++)
+        if (!soft.get(i).evaluate(assignment))
+          cost += weights.get(i);
+      if (optimum == -1 || cost < optimum)
+        optimum = cost;
+    }
+    return optimum;
+  }
+
   private void readCNF(final MaxSATSolver solver, final String fileName) throws IOException {
     final BufferedReader reader = new BufferedReader(new FileReader(fileName));
     int hardWeight = 0;
@@ -174,6 +174,20 @@ public class PureMaxSATTest {
     }
   }
 
+  @Test
+  public void testOLL() throws IOException {
+    for (final String file : files) {
+      final MaxSATSolver solver = MaxSATSolver.oll(new Builder().verbosity(SOME).output(logStream).build());
+      readCNF(solver, "tests/maxsat/" + file);
+      Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+      Assert.assertEquals(1, solver.result());
+    }
+    final MaxSATSolver solver = MaxSATSolver.oll();
+    readCNF(solver, "tests/sat/9symml_gr_rcs_w6.shuffled.cnf");
+    Assert.assertEquals(MaxSAT.MaxSATResult.OPTIMUM, solver.solve());
+    Assert.assertEquals(0, solver.result());
+  }
+
   @Test
   public void testSingle() throws IOException {
     final MaxSATSolver solver = MaxSATSolver.incWBO(new MaxSATConfig.Builder().cardinality(CardinalityEncoding.MTOTALIZER)
@@ -187,7 +201,7 @@ public class PureMaxSATTest {
     Assert.assertEquals(2, stats.satCalls());
     Assert.assertEquals(22.73, stats.averageCoreSize(), 0.1);
     Assert.assertEquals(9032, stats.symmetryClauses());
-    Assert.assertEquals("MaxSAT.Stats{best solution=26, #sat calls=2, #unsat calls=26, average core size=22.73, #symmetry clauses=9032}", stats.toString());
+    Assert.assertEquals("MaxSAT.Stats{best solution=26, #sat calls=2, #unsat calls=26, average core size=22.73, #symmetry clauses=9032, #hardened literals=0, #reduced core literals=0}", stats.toString());
   }
 
   @Test
@@ -235,17 +249,18 @@ public class PureMaxSATTest {
 
   @Test
   public void testToString() {
-    MaxSATSolver[] solvers = new MaxSATSolver[6];
+    MaxSATSolver[] solvers = new MaxSATSolver[7];
     solvers[0] = MaxSATSolver.incWBO();
     solvers[1] = MaxSATSolver.linearSU();
     solvers[2] = MaxSATSolver.linearUS();
     solvers[3] = MaxSATSolver.msu3();
     solvers[4] = MaxSATSolver.wbo();
     solvers[5] = MaxSATSolver.wmsu3();
+    solvers[6] = MaxSATSolver.oll();
 
     String expected = "MaxSATSolver{result=OPTIMUM, var2index={a=0, b=1}}";
 
-    for (int i = 0; i < 6; i++) {
+    for (int i = 0; i < 7; i++) {
       MaxSATSolver s = solvers[i];
       s.addHardFormula(F.OR3);
       s.addSoftFormula(F.A, 1);
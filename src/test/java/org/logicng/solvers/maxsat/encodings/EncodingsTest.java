@@ -30,11 +30,18 @@ package org.logicng.solvers.maxsat.encodings;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Tristate;
 import org.logicng.solvers.maxsat.algorithms.MaxSATConfig;
+import org.logicng.solvers.sat.MiniSat2Solver;
+import org.logicng.solvers.sat.MiniSatStyleSolver;
+
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.not;
 
 /**
  * Unit test for the package {@link org.logicng.solvers.maxsat.encodings}.
- * @version 1.1
+ * @version 1.2
  * @since 1.1
  */
 public class EncodingsTest {
@@ -52,6 +59,25 @@ public class EncodingsTest {
     Assert.assertEquals("Totalizer", totalizer.toString());
   }
 
+  @Test
+  public void testIterativeTotalizerReuse() {
+    final MiniSatStyleSolver solver = new MiniSat2Solver();
+    final LNGIntVector lits = new LNGIntVector();
+    for (int i = 0; i < 8; i++)
+      lits.push(mkLit(solver.newVar(true, true), false));
+    final Encoder encoder = new Encoder(MaxSATConfig.CardinalityEncoding.TOTALIZER);
+    encoder.setIncremental(MaxSATConfig.IncrementalStrategy.ITERATIVE);
+    encoder.buildCardinality(solver, lits, 1);
+    final int nVars = solver.nVars();
+    final LNGIntVector assumptions = new LNGIntVector();
+    for (int rhs = 1; rhs < lits.size(); rhs++) {
+      encoder.incUpdateCardinality(solver, new LNGIntVector(), lits, rhs, assumptions);
+      Assert.assertEquals(nVars, solver.nVars());
+      Assert.assertEquals(Tristate.TRUE, solver.solve(null, withTrueLiterals(assumptions, lits, rhs)));
+      Assert.assertEquals(Tristate.FALSE, solver.solve(null, withTrueLiterals(assumptions, lits, rhs + 1)));
+    }
+  }
+
   @Test
   public void testModularTotalizer() {
     ModularTotalizer mTotalizer = new ModularTotalizer();
@@ -66,9 +92,96 @@ public class EncodingsTest {
     Assert.assertEquals("SequentialWeightCounter", swc.toString());
   }
 
+  @Test
+  public void testAdder() {
+    Adder adder = new Adder();
+    Assert.assertEquals(false, adder.hasCreatedEncoding());
+    Assert.assertEquals("Adder", adder.toString());
+  }
+
+  @Test
+  public void testAdderBounds() {
+    final int[] weights = {3, 5, 7, 1, 2, 6};
+    final MiniSatStyleSolver solver = new MiniSat2Solver();
+    final LNGIntVector lits = new LNGIntVector();
+    final LNGIntVector coeffs = new LNGIntVector();
+    for (final int weight : weights) {
+      lits.push(mkLit(solver.newVar(true, true), false));
+      coeffs.push(weight);
+    }
+    final Encoder encoder = new Encoder(MaxSATConfig.CardinalityEncoding.TOTALIZER);
+    encoder.setIncremental(MaxSATConfig.IncrementalStrategy.ITERATIVE);
+    encoder.setPBEncoding(MaxSATConfig.PBEncoding.ADDER);
+    final LNGIntVector assumptions = new LNGIntVector();
+    encoder.incEncodePB(solver, lits, coeffs, 10, assumptions, lits.size());
+    Assert.assertTrue(encoder.hasPBEncoding());
+    assertBound(solver, lits, weights, assumptions, 10);
+    final int nVars = solver.nVars();
+    for (final int rhs : new int[]{4, 17, 0, 24}) {
+      assumptions.clear();
+      encoder.incUpdatePB(solver, new LNGIntVector(), new LNGIntVector(), rhs);
+      encoder.incUpdatePBAssumptions(assumptions);
+      assertBound(solver, lits, weights, assumptions, rhs);
+    }
+    Assert.assertEquals(nVars + 4, solver.nVars());
+    encoder.updatePB(solver, 12);
+    assertBound(solver, lits, weights, new LNGIntVector(), 12);
+  }
+
+  @Test
+  public void testAdderLargeBounds() {
+    final int[] weights = {1500000000, 1400000000, 1300000000, 1};
+    final MiniSatStyleSolver solver = new MiniSat2Solver();
+    final LNGIntVector lits = new LNGIntVector();
+    final LNGIntVector coeffs = new LNGIntVector();
+    for (final int weight : weights) {
+      lits.push(mkLit(solver.newVar(true, true), false));
+      coeffs.push(weight);
+    }
+    final Encoder encoder = new Encoder(MaxSATConfig.CardinalityEncoding.TOTALIZER);
+    encoder.setPBEncoding(MaxSATConfig.PBEncoding.ADDER);
+    encoder.encodePB(solver, lits, coeffs, 2900000001L);
+    assertBound(solver, lits, weights, new LNGIntVector(), 2900000001L);
+    encoder.updatePB(solver, 2800000000L);
+    assertBound(solver, lits, weights, new LNGIntVector(), 2800000000L);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSequentialWeightCounterLargeBound() {
+    final MiniSatStyleSolver solver = new MiniSat2Solver();
+    final LNGIntVector lits = new LNGIntVector();
+    lits.push(mkLit(solver.newVar(true, true), false));
+    final LNGIntVector coeffs = new LNGIntVector();
+    coeffs.push(1);
+    new Encoder(MaxSATConfig.CardinalityEncoding.TOTALIZER).encodePB(solver, lits, coeffs, 3000000000L);
+  }
+
   @Test
   public void testLadder() {
     Ladder ladder = new Ladder();
     Assert.assertEquals("Ladder", ladder.toString());
   }
+
+  private static void assertBound(final MiniSatStyleSolver solver, final LNGIntVector lits, final int[] weights,
+                                  final LNGIntVector assumptions, long rhs) {
+    for (int m = 0; m < (1 << lits.size()); m++) {
+      final LNGIntVector fixed = new LNGIntVector(assumptions);
+      long sum = 0;
+      for (int i = 0; i < lits.size(); i++) {
+        if ((m & (1 << i)) != 0) {
+          fixed.push(lits.get(i));
+          sum += weights[i];
+        } else
+          fixed.push(not(lits.get(i)));
+      }
+      Assert.assertEquals(sum <= rhs ? Tristate.TRUE : Tristate.FALSE, solver.solve(null, fixed));
+    }
+  }
+
+  private static LNGIntVector withTrueLiterals(final LNGIntVector assumptions, final LNGIntVector lits, int n) {
+    final LNGIntVector result = new LNGIntVector(assumptions);
+    for (int i = 0; i < n; i++)
+      result.push(lits.get(i));
+    return result;
+  }
 }
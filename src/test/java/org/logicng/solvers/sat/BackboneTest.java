@@ -0,0 +1,210 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.datastructures.Backbone;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.MiniSat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.logicng.datastructures.Tristate.FALSE;
+import static org.logicng.datastructures.Tristate.TRUE;
+
+/**
+ * Unit tests for the backbone computation on MiniSat.
+ * @version 1.2
+ * @since 1.2
+ */
+public class BackboneTest {
+
+  private final FormulaFactory f;
+  private final PropositionalParser p;
+  private final MiniSat[] solvers;
+
+  public BackboneTest() {
+    this.f = new FormulaFactory();
+    this.p = new PropositionalParser(f);
+    this.solvers = new MiniSat[5];
+    this.solvers[0] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[1] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(false).build());
+    this.solvers[2] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(), new GlucoseConfig.Builder().build());
+    this.solvers[3] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[4] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(false).build());
+  }
+
+  @Test
+  public void testSimpleFormulas() throws ParserException {
+    final List<Formula> formulas = Arrays.asList(
+            p.parse("a & (b | c)"),
+            p.parse("(a => b) & a & ~c & (d | e)"),
+            p.parse("(a | b) & (a | ~b) & (c <=> d) & ~d"),
+            p.parse("(a <=> b) & (b <=> c) & (c | d) & (~c | d) & (e | f | g)"),
+            p.parse("a | b | c"));
+    for (final MiniSat solver : this.solvers) {
+      for (final Formula formula : formulas) {
+        solver.reset();
+        solver.add(formula);
+        for (final int chunkSize : new int[]{1, 2, 16}) {
+          final Backbone backbone = solver.backbone(formula.variables(), chunkSize);
+          Assert.assertEquals(naiveBackbone(Collections.singletonList(formula), formula.variables()), backbone);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testBackboneContent() throws ParserException {
+    for (final MiniSat solver : this.solvers) {
+      solver.reset();
+      solver.add(p.parse("(a => b) & a & ~c & (d | e)"));
+      final Backbone backbone = solver.backbone(null);
+      Assert.assertTrue(backbone.isSat());
+      Assert.assertEquals(new TreeSet<Variable>(Arrays.asList(f.variable("a"), f.variable("b"))), backbone.positiveBackbone());
+      Assert.assertEquals(new TreeSet<Variable>(Collections.singletonList(f.variable("c"))), backbone.negativeBackbone());
+      Assert.assertEquals(new TreeSet<Variable>(Arrays.asList(f.variable("d"), f.variable("e"))), backbone.optionalVariables());
+      Assert.assertEquals(new TreeSet<Literal>(Arrays.asList(f.literal("a", true), f.literal("b", true), f.literal("c", false))),
+              backbone.completeBackbone());
+      Assert.assertEquals(p.parse("a & b & ~c"), backbone.toFormula(f));
+      Assert.assertEquals(TRUE, solver.sat());
+    }
+  }
+
+  @Test
+  public void testUnsatAndUnknownVariables() throws ParserException {
+    for (final MiniSat solver : this.solvers) {
+      solver.reset();
+      solver.add(p.parse("a & (b | c)"));
+      final Backbone backbone = solver.backbone(Arrays.asList(f.variable("a"), f.variable("x")));
+      Assert.assertEquals(new TreeSet<Variable>(Collections.singletonList(f.variable("a"))), backbone.positiveBackbone());
+      Assert.assertEquals(new TreeSet<Variable>(Collections.singletonList(f.variable("x"))), backbone.optionalVariables());
+      Assert.assertTrue(backbone.negativeBackbone().isEmpty());
+      solver.add(p.parse("~b & ~c"));
+      final Backbone unsat = solver.backbone(null);
+      Assert.assertFalse(unsat.isSat());
+      Assert.assertEquals(Backbone.unsatBackbone(), unsat);
+      Assert.assertTrue(unsat.completeBackbone().isEmpty());
+      Assert.assertEquals(f.falsum(), unsat.toFormula(f));
+      Assert.assertEquals(FALSE, solver.sat());
+    }
+  }
+
+  @Test
+  public void testScopes() throws ParserException {
+    for (final MiniSat solver : new MiniSat[]{this.solvers[0], this.solvers[3]}) {
+      solver.reset();
+      solver.add(p.parse("(a | b) & (c => d)"));
+      solver.push();
+      solver.add(p.parse("~a & c"));
+      Assert.assertEquals(new TreeSet<Variable>(Arrays.asList(f.variable("b"), f.variable("c"), f.variable("d"))),
+              solver.backbone(null).positiveBackbone());
+      Assert.assertEquals(1, solver.scopeLevel());
+      solver.pop();
+      final Backbone backbone = solver.backbone(null);
+      Assert.assertTrue(backbone.completeBackbone().isEmpty());
+      Assert.assertEquals(4, backbone.optionalVariables().size());
+      for (final Variable var : backbone.optionalVariables())
+        Assert.assertFalse(var.name().startsWith("@"));
+      Assert.assertEquals(0, solver.scopeLevel());
+      Assert.assertEquals(TRUE, solver.sat());
+      Assert.assertEquals(4, solver.model().size());
+    }
+  }
+
+  @Test
+  public void testIllegalChunkSize() {
+    try {
+      this.solvers[0].backbone(null, 0);
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testDimacsFiles() throws IOException {
+    for (final String file : new String[]{"tests/sat/D1119_M23.cnf", "tests/sat/dp02s02.shuffled.cnf"}) {
+      final List<Formula> cnf = DimacsReader.readCNF(new File(file), f);
+      final SortedSet<Variable> variables = new TreeSet<Variable>();
+      for (final Formula clause : cnf)
+        variables.addAll(clause.variables());
+      final Backbone expected = naiveBackbone(cnf, variables);
+      Assert.assertTrue(expected.isSat());
+      for (final MiniSat solver : new MiniSat[]{this.solvers[0], this.solvers[2]}) {
+        for (final int chunkSize : new int[]{1, 16}) {
+          solver.reset();
+          solver.add(cnf);
+          Assert.assertEquals(expected, solver.backbone(variables, chunkSize));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testToString() throws ParserException {
+    final MiniSat solver = this.solvers[0];
+    solver.reset();
+    solver.add(p.parse("a & ~b & (c | d)"));
+    Assert.assertEquals("Backbone{sat=true, positive=[a], negative=[b], optional=[c, d]}", solver.backbone(null).toString());
+    Assert.assertEquals("Backbone{sat=false, positive=[], negative=[], optional=[]}", Backbone.unsatBackbone().toString());
+  }
+
+  private Backbone naiveBackbone(final Collection<Formula> formulas, final Collection<Variable> variables) {
+    final MiniSat solver = MiniSat.miniSat(f);
+    solver.add(formulas);
+    if (solver.sat() != TRUE)
+      return Backbone.unsatBackbone();
+    final List<Variable> positive = new ArrayList<Variable>();
+    final List<Variable> negative = new ArrayList<Variable>();
+    final List<Variable> optional = new ArrayList<Variable>();
+    for (final Variable var : variables) {
+      if (solver.sat(var.negate()) == FALSE)
+        positive.add(var);
+      else if (solver.sat(var) == FALSE)
+        negative.add(var);
+      else
+        optional.add(var);
+    }
+    return Backbone.satBackbone(positive, negative, optional);
+  }
+}
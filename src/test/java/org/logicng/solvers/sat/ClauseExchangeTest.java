@@ -0,0 +1,180 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SATPortfolio;
+
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+
+/**
+ * Unit tests for the clause exchange between MiniSAT-style solvers.
+ * @version 1.2
+ * @since 1.2
+ */
+public class ClauseExchangeTest {
+
+  private final FormulaFactory f = new FormulaFactory();
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalParameters() {
+    new ClauseExchange(0, 8, 4);
+  }
+
+  @Test
+  public void testTranslation() {
+    final ClauseExchange exchange = new ClauseExchange();
+    final MiniSatStyleSolver s1 = solver("a", "b", "c");
+    final MiniSatStyleSolver s2 = solver("c", "x", "b", "a");
+    s1.setClauseExchange(exchange);
+    s2.setClauseExchange(exchange);
+    s1.exportLearnt(clause(mkLit(0, false), mkLit(2, true)), 2);
+    final LNGVector<LNGIntVector> clauses = new LNGVector<LNGIntVector>();
+    final LNGIntVector lbds = new LNGIntVector();
+    s1.participant.collect(s1, clauses, lbds);
+    Assert.assertTrue(clauses.empty());
+    s2.participant.collect(s2, clauses, lbds);
+    Assert.assertEquals(1, clauses.size());
+    Assert.assertEquals(clause(mkLit(3, false), mkLit(0, true)).toString(), clauses.get(0).toString());
+    Assert.assertEquals(2, lbds.get(0));
+    clauses.clear();
+    s2.participant.collect(s2, clauses, lbds);
+    Assert.assertTrue(clauses.empty());
+    Assert.assertEquals(1, s1.participant.exported());
+    Assert.assertEquals(1, s2.participant.imported());
+  }
+
+  @Test
+  public void testFilters() {
+    final ClauseExchange exchange = new ClauseExchange(16, 2, 2);
+    final MiniSatStyleSolver s1 = solver("a", "b", "c");
+    final MiniSatStyleSolver s2 = solver("a", "b");
+    s1.setClauseExchange(exchange);
+    s2.setClauseExchange(exchange);
+    s1.exportLearnt(clause(mkLit(0, false), mkLit(1, false), mkLit(2, false)), 1);
+    s1.exportLearnt(clause(mkLit(0, false), mkLit(1, false)), 3);
+    s1.exportLearnt(clause(mkLit(0, true), mkLit(2, false)), 1);
+    s1.exportLearnt(clause(mkLit(0, true), mkLit(1, true)), 2);
+    Assert.assertEquals(2, s1.participant.exported());
+    final LNGVector<LNGIntVector> clauses = new LNGVector<LNGIntVector>();
+    s2.participant.collect(s2, clauses, new LNGIntVector());
+    Assert.assertEquals(1, clauses.size());
+    Assert.assertEquals(clause(mkLit(0, true), mkLit(1, true)).toString(), clauses.get(0).toString());
+  }
+
+  @Test
+  public void testUnnamedVariable() {
+    final ClauseExchange exchange = new ClauseExchange();
+    final MiniSatStyleSolver s1 = solver("a");
+    s1.newVar(true, true);
+    s1.setClauseExchange(exchange);
+    s1.exportLearnt(clause(mkLit(0, false), mkLit(1, false)), 2);
+    Assert.assertEquals(0, s1.participant.exported());
+  }
+
+  @Test
+  public void testOverflow() {
+    final ClauseExchange exchange = new ClauseExchange(2, 8, 4);
+    final MiniSatStyleSolver s1 = solver("a", "b", "c", "d", "e");
+    final MiniSatStyleSolver s2 = solver("a", "b", "c", "d", "e");
+    s1.setClauseExchange(exchange);
+    s2.setClauseExchange(exchange);
+    for (int i = 0; i < 4; i++)
+      s1.exportLearnt(clause(mkLit(i, false), mkLit(i + 1, false)), 2);
+    final LNGVector<LNGIntVector> clauses = new LNGVector<LNGIntVector>();
+    s2.participant.collect(s2, clauses, new LNGIntVector());
+    Assert.assertEquals(2, clauses.size());
+    Assert.assertEquals(clause(mkLit(2, false), mkLit(3, false)).toString(), clauses.get(0).toString());
+    Assert.assertEquals(clause(mkLit(3, false), mkLit(4, false)).toString(), clauses.get(1).toString());
+    exchange.clear();
+    clauses.clear();
+    s2.participant.collect(s2, clauses, new LNGIntVector());
+    Assert.assertTrue(clauses.empty());
+  }
+
+  @Test
+  public void testImport() {
+    final ClauseExchange exchange = new ClauseExchange();
+    final MiniSatStyleSolver s1 = solver("a", "b", "c");
+    final MiniSatStyleSolver s2 = solver("a", "b", "c");
+    s1.setClauseExchange(exchange);
+    s2.setClauseExchange(exchange);
+    s2.addClause(clause(mkLit(0, false)));
+    s1.exportLearnt(clause(mkLit(0, true), mkLit(1, false)), 2);
+    s1.exportLearnt(clause(mkLit(0, false), mkLit(2, false)), 2);
+    s1.exportLearnt(clause(mkLit(1, true), mkLit(2, true)), 2);
+    Assert.assertTrue(s2.importSharedClauses());
+    Assert.assertEquals(Tristate.TRUE, s2.value(mkLit(1, false)));
+    Assert.assertEquals(Tristate.FALSE, s2.value(mkLit(2, false)));
+    s1.exportLearnt(clause(mkLit(2, false)), 1);
+    Assert.assertFalse(s2.importSharedClauses());
+    Assert.assertEquals(Tristate.FALSE, s2.solve(null));
+  }
+
+  @Test
+  public void testPortfolio() {
+    final PigeonHoleGenerator pg = new PigeonHoleGenerator(f);
+    final MiniSat s1 = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build());
+    final MiniSat s2 = MiniSat.glucose(f);
+    final ClauseExchange exchange = new ClauseExchange(1024, 16, 8);
+    final SATPortfolio portfolio = SATPortfolio.portfolio(f, exchange, s1, s2);
+    Assert.assertSame(exchange, portfolio.exchange());
+    portfolio.add(pg.generate(6));
+    Assert.assertEquals(Tristate.FALSE, portfolio.sat());
+    Assert.assertTrue(s1.underlyingSolver().clauseExchangeParticipant().exported() > 0);
+    Assert.assertTrue(s2.underlyingSolver().clauseExchangeParticipant().exported() > 0);
+    Assert.assertNull(SATPortfolio.portfolio(f, MiniSat.miniSat(f)).exchange());
+    Assert.assertNotNull(SATPortfolio.portfolio(f, 2).exchange());
+  }
+
+  @Test
+  public void testToString() {
+    Assert.assertEquals("ClauseExchange{capacity=1024, maxSize=8, maxLBD=4, participants=0}", new ClauseExchange().toString());
+  }
+
+  private MiniSatStyleSolver solver(final String... names) {
+    final MiniSatStyleSolver solver = new MiniSat2Solver();
+    for (final String name : names)
+      solver.addName(name, solver.newVar(true, true));
+    return solver;
+  }
+
+  private static LNGIntVector clause(final int... lits) {
+    final LNGIntVector clause = new LNGIntVector();
+    for (final int lit : lits)
+      clause.push(lit);
+    return clause;
+  }
+}
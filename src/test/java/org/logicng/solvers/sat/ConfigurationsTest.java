@@ -55,6 +55,7 @@ public class ConfigurationsTest {
             .lsInc(1.5)
             .incremental(false)
             .initialPhase(true)
+            .measureTimes(true)
             .build();
     final String expected = "MiniSatConfig{\n" +
             "varDecay=1.2\n" +
@@ -68,6 +69,7 @@ public class ConfigurationsTest {
             "learntsizeInc=1.5\n" +
             "incremental=false\n" +
             "initialPhase=true\n" +
+            "measureTimes=true\n" +
             "}\n";
     Assert.assertEquals(expected, config.toString());
   }
@@ -88,6 +90,15 @@ public class ConfigurationsTest {
             .reduceOnSize(true)
             .reduceOnSizeSize(10)
             .maxVarDecay(0.99)
+            .inprocessing(true)
+            .inprocessingInterval(20)
+            .inprocessingPropagations(5000)
+            .lbLBDVivification(6)
+            .tieredLearnts(true)
+            .lbLBDCoreClause(3)
+            .lbLBDTier2Clause(7)
+            .tier2ReduceInterval(9000)
+            .localReduceInterval(14000)
             .build();
     final String expected = "GlucoseConfig{\n" +
             "lbLBDMinimizingClause=3\n" +
@@ -103,6 +114,15 @@ public class ConfigurationsTest {
             "reduceOnSize=true\n" +
             "reduceOnSizeSize=10\n" +
             "maxVarDecay=0.99\n" +
+            "inprocessing=true\n" +
+            "inprocessingInterval=20\n" +
+            "inprocessingPropagations=5000\n" +
+            "lbLBDVivification=6\n" +
+            "tieredLearnts=true\n" +
+            "lbLBDCoreClause=3\n" +
+            "lbLBDTier2Clause=7\n" +
+            "tier2ReduceInterval=9000\n" +
+            "localReduceInterval=14000\n" +
             "}\n";
     Assert.assertEquals(expected, config.toString());
   }
@@ -142,6 +162,7 @@ public class ConfigurationsTest {
             .searchFirst(true)
             .scoreIncrementFactor(1049)
             .stepsLim(999999)
+            .measureTimes(true)
             .build();
     final String expected = "CleaneLingConfig{\n" +
             "blockedClauseElimination=false\n" +
@@ -176,6 +197,7 @@ public class ConfigurationsTest {
             "searchFirst=true\n" +
             "scoreIncrementFactor=1049\n" +
             "stepsLim=999999\n" +
+            "measureTimes=true\n" +
             "}\n";
     Assert.assertEquals(expected, config.toString());
   }
@@ -197,6 +219,12 @@ public class ConfigurationsTest {
             .symmetry(false)
             .limit(1000)
             .bmo(false)
+            .coreTrimming(3)
+            .coreMinimization(1000)
+            .coreExhaustion(true)
+            .hardening(true)
+            .localSearch(10000)
+            .preprocessing(true)
             .build();
     final String expected = "MaxSATConfig{incrementalStrategy=ITERATIVE\n" +
             "pbEncoding=LADDER\n" +
@@ -208,6 +236,12 @@ public class ConfigurationsTest {
             "symmetry=false\n" +
             "limit=1000\n" +
             "bmo=false\n" +
+            "coreTrimming=3\n" +
+            "coreMinimization=1000\n" +
+            "coreExhaustion=true\n" +
+            "hardening=true\n" +
+            "localSearchFlips=10000\n" +
+            "preprocessing=true\n" +
             "}\n";
     Assert.assertEquals(expected, config.toString());
   }
@@ -0,0 +1,98 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SATPortfolio;
+import org.logicng.solvers.SATSolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Performance tests for the cube-and-conquer mode of the SAT portfolio.  The largest DIMACS files are solved with a
+ * single Glucose solver and in cube-and-conquer mode with an increasing number of solvers up to the number of
+ * available processors.  The times and speedups are printed to the standard output.
+ * @version 1.2
+ * @since 1.2
+ */
+public class CubeAndConquerPerformanceTest {
+
+  private static final int NUM_FILES = 8;
+
+  @Ignore
+  @Test
+  public void testSpeedup() throws IOException {
+    final Map<String, Boolean> expectedResults = DimacsReader.readResults();
+    final List<File> files = new ArrayList<File>();
+    for (final File file : new File("tests/sat").listFiles())
+      if (file.getName().endsWith(".cnf"))
+        files.add(file);
+    Collections.sort(files, new Comparator<File>() {
+      @Override
+      public int compare(final File o1, final File o2) {
+        return o1.length() < o2.length() ? 1 : o1.length() > o2.length() ? -1 : 0;
+      }
+    });
+    final int maxSolvers = Runtime.getRuntime().availableProcessors();
+    System.out.println(String.format("%-36s %10s %s", "file", "sequential", "cube-and-conquer (speedup) for 1, 2, 4, ... solvers"));
+    for (final File file : files.subList(0, Math.min(NUM_FILES, files.size()))) {
+      final boolean expected = expectedResults.get(file.getName());
+      final FormulaFactory f = new FormulaFactory();
+      final long sequential = solve(file, MiniSat.glucose(f), f, expected);
+      final StringBuilder sb = new StringBuilder(String.format("%-36s %8dms", file.getName(), sequential));
+      for (int n = 1; n <= maxSolvers; n *= 2) {
+        final FormulaFactory g = new FormulaFactory();
+        final long time = solve(file, SATPortfolio.cubeAndConquer(g, n), g, expected);
+        sb.append(String.format(" %8dms (%.2f)", time, (double) sequential / Math.max(1, time)));
+      }
+      System.out.println(sb);
+    }
+  }
+
+  private static long solve(final File file, final SATSolver solver, final FormulaFactory f, boolean expected)
+          throws IOException {
+    solver.add(DimacsReader.readCNF(file, f));
+    final long start = System.currentTimeMillis();
+    final Tristate res = solver.sat();
+    final long time = System.currentTimeMillis() - start;
+    Assert.assertEquals(expected, res == Tristate.TRUE);
+    return time;
+  }
+}
@@ -0,0 +1,185 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.CType;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.NumberOfModelsHandler;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.MiniSat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.logicng.datastructures.Tristate.TRUE;
+
+/**
+ * Unit tests for the enumeration of cubes with don't-cares.
+ * @version 1.2
+ * @since 1.2
+ */
+public class CubeEnumerationTest {
+
+  private final FormulaFactory f;
+  private final PropositionalParser p;
+  private final MiniSat[] solvers;
+
+  public CubeEnumerationTest() {
+    this.f = new FormulaFactory();
+    this.p = new PropositionalParser(f);
+    this.solvers = new MiniSat[5];
+    this.solvers[0] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[1] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(false).build());
+    this.solvers[2] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(), new GlucoseConfig.Builder().build());
+    this.solvers[3] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[4] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(false).build());
+  }
+
+  @Test
+  public void testLooselyConstrained() throws ParserException {
+    final List<Variable> vars = new ArrayList<Variable>();
+    for (int i = 0; i < 20; i++)
+      vars.add(f.variable("v" + i));
+    for (final MiniSat solver : this.solvers) {
+      solver.add(p.parse("(v0 | v1) & (v2 => v3) & (v4 | ~v5 | v6)"));
+      final List<Assignment> cubes = solver.enumerateAllCubes(vars);
+      Assert.assertTrue(cubes.size() < 20);
+      Assert.assertEquals(3 * 3 * 7 * (1 << 13), countModels(cubes, vars.size()));
+      assertDisjointModels(cubes, vars, p.parse("(v0 | v1) & (v2 => v3) & (v4 | ~v5 | v6)"));
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testSameModelsAsEnumeration() {
+    final Variable[] vars = new Variable[8];
+    for (int i = 0; i < vars.length; i++)
+      vars[i] = f.variable("v" + i);
+    final Formula cc = f.cc(CType.LE, 2, vars);
+    for (final MiniSat solver : this.solvers) {
+      solver.add(cc);
+      final List<Assignment> cubes = solver.enumerateAllCubes(Arrays.asList(vars));
+      Assert.assertEquals(1 + 8 + 28, countModels(cubes, vars.length));
+      assertDisjointModels(cubes, Arrays.asList(vars), cc);
+      Assert.assertEquals(37, solver.enumerateAllModels(vars).size());
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testProjection() throws ParserException {
+    final Formula formula = p.parse("(a <=> b) & (c | d) & (e => a)");
+    final List<Variable> projection = Arrays.asList(f.variable("a"), f.variable("c"), f.variable("x"));
+    for (final MiniSat solver : this.solvers) {
+      solver.add(formula);
+      final List<Assignment> cubes = solver.enumerateAllCubes(projection);
+      Assert.assertEquals(4, countModels(cubes, 2));
+      for (final Assignment cube : cubes)
+        for (final Literal lit : cube.literals())
+          Assert.assertTrue(lit.variable().equals(f.variable("a")) || lit.variable().equals(f.variable("c")));
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testAllVariablesAndUnitClauses() throws ParserException {
+    for (final MiniSat solver : this.solvers) {
+      solver.add(p.parse("a & (b | c) & (~a | d | e)"));
+      final List<Assignment> cubes = solver.enumerateAllCubes(null);
+      Assert.assertEquals(9, countModels(cubes, 5));
+      for (final Assignment cube : cubes)
+        Assert.assertTrue(cube.positiveLiterals().contains(f.variable("a")));
+      Assert.assertEquals(TRUE, solver.sat());
+      Assert.assertEquals(9, solver.enumerateAllModels().size());
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testUnsatAndHandler() throws ParserException {
+    for (final MiniSat solver : this.solvers) {
+      solver.add(p.parse("(a | b) & (~a | ~b) & (a <=> b)"));
+      Assert.assertTrue(solver.enumerateAllCubes(null).isEmpty());
+      solver.reset();
+      solver.add(p.parse("(a | b) & (c | d) & (e | f)"));
+      final List<Assignment> cubes = solver.enumerateAllCubes(null, new NumberOfModelsHandler(2));
+      Assert.assertEquals(2, cubes.size());
+      Assert.assertEquals(27, countModels(solver.enumerateAllCubes(null), 6));
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testScopes() throws ParserException {
+    for (final MiniSat solver : this.solvers) {
+      solver.add(p.parse("a | b | c"));
+      solver.push();
+      solver.add(p.parse("~a"));
+      Assert.assertEquals(3, countModels(solver.enumerateAllCubes(null), 3));
+      solver.pop();
+      Assert.assertEquals(7, countModels(solver.enumerateAllCubes(null), 3));
+      solver.reset();
+    }
+  }
+
+  private static long countModels(final List<Assignment> cubes, int numVars) {
+    long count = 0;
+    for (final Assignment cube : cubes)
+      count += 1L << (numVars - cube.size());
+    return count;
+  }
+
+  private void assertDisjointModels(final List<Assignment> cubes, final List<Variable> vars, final Formula formula) {
+    final Set<Set<Literal>> models = new HashSet<Set<Literal>>();
+    for (final Assignment cube : cubes) {
+      final List<Variable> dontCares = new ArrayList<Variable>();
+      for (final Variable var : vars)
+        if (!cube.positiveLiterals().contains(var) && !cube.negativeVariables().contains(var))
+          dontCares.add(var);
+      if (dontCares.size() > 12)
+        continue;
+      for (long bits = 0; bits < 1L << dontCares.size(); bits++) {
+        final Assignment model = new Assignment(cube.literals());
+        for (int i = 0; i < dontCares.size(); i++)
+          model.addLiteral((bits & 1L << i) != 0 ? dontCares.get(i) : dontCares.get(i).negate());
+        Assert.assertTrue(formula.evaluate(model));
+        Assert.assertTrue(models.add(new HashSet<Literal>(model.literals())));
+      }
+    }
+  }
+}
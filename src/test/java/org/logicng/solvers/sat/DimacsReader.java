@@ -0,0 +1,150 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A reader for the DIMACS and weighted DIMACS files of the solver tests.  The variable of a literal {@code i} is
+ * named {@code "v" + |i|}.
+ * @version 1.2
+ * @since 1.2
+ */
+public final class DimacsReader {
+
+  /**
+   * Private constructor.
+   */
+  private DimacsReader() {
+    // intentionally left empty
+  }
+
+  /**
+   * Reads the expected results of the SAT test files from {@code tests/sat/results.txt}.
+   * @return the mapping from file names to satisfiability
+   * @throws IOException if the file could not be read
+   */
+  public static Map<String, Boolean> readResults() throws IOException {
+    final Map<String, Boolean> expectedResults = new HashMap<String, Boolean>();
+    final BufferedReader reader = new BufferedReader(new FileReader("tests/sat/results.txt"));
+    try {
+      while (reader.ready()) {
+        final String[] tokens = reader.readLine().split(";");
+        expectedResults.put(tokens[0], Boolean.valueOf(tokens[1]));
+      }
+    } finally {
+      reader.close();
+    }
+    return expectedResults;
+  }
+
+  /**
+   * Reads the clauses of a DIMACS file.
+   * @param file the file
+   * @param f    the formula factory
+   * @return the clauses
+   * @throws IOException if the file could not be read
+   */
+  public static List<Formula> readCNF(final File file, final FormulaFactory f) throws IOException {
+    final List<Formula> clauses = new ArrayList<Formula>();
+    final List<Literal> clause = new ArrayList<Literal>();
+    final BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      while (reader.ready()) {
+        final String[] tokens = reader.readLine().trim().split("\\s+");
+        if (tokens.length < 2 || tokens[0].equals("c") || tokens[0].equals("p"))
+          continue;
+        clause.clear();
+        for (int i = 0; i < tokens.length - 1; i++) {
+          final int lit = Integer.parseInt(tokens[i]);
+          clause.add(f.literal("v" + Math.abs(lit), lit > 0));
+        }
+        clauses.add(f.or(clause));
+      }
+    } finally {
+      reader.close();
+    }
+    return clauses;
+  }
+
+  /**
+   * Reads the hard and soft clauses of a weighted DIMACS file.  A clause is hard if its weight is the top weight of
+   * the header.
+   * @param fileName the file name
+   * @param f        the formula factory
+   * @param hard     the list for the hard clauses
+   * @param soft     the list for the soft clauses
+   * @param weights  the list for the weights of the soft clauses
+   * @throws IOException if the file could not be read
+   */
+  public static void readWCNF(final String fileName, final FormulaFactory f, final List<Formula> hard,
+                              final List<Formula> soft, final List<Integer> weights) throws IOException {
+    final List<Literal> clause = new ArrayList<Literal>();
+    final BufferedReader reader = new BufferedReader(new FileReader(fileName));
+    try {
+      int hardWeight = 0;
+      while (reader.ready()) {
+        final String line = reader.readLine();
+        if (line.startsWith("p wcnf")) {
+          hardWeight = Integer.parseInt(line.trim().split("\\s+")[4]);
+          break;
+        }
+      }
+      while (reader.ready()) {
+        final String[] tokens = reader.readLine().trim().split("\\s+");
+        if (tokens.length < 2 || tokens[0].equals("c"))
+          continue;
+        clause.clear();
+        final int weight = Integer.parseInt(tokens[0]);
+        for (int i = 1; i < tokens.length - 1; i++) {
+          final int lit = Integer.parseInt(tokens[i]);
+          clause.add(f.literal("v" + Math.abs(lit), lit > 0));
+        }
+        if (weight == hardWeight)
+          hard.add(f.or(clause));
+        else {
+          soft.add(f.or(clause));
+          weights.add(weight);
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+}
@@ -4,10 +4,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Tristate;
 
 /**
  * Unit tests for the class {@link GlucoseSyrup}
- * @version 1.1
+ * @version 1.2
  * @since 1.1
  */
 public class GlucoseSyrupTest {
@@ -23,14 +24,38 @@ public class GlucoseSyrupTest {
     gs.addClause(clause(1, 2, 3));
   }
 
-  @Test(expected = UnsupportedOperationException.class)
+  @Test
   public void testSaveState() {
-    gs.saveState();
+    Assert.assertArrayEquals(new int[]{1, 4, 1, 0, 0, 0}, gs.saveState());
   }
 
-  @Test(expected = UnsupportedOperationException.class)
+  @Test
   public void testLoadState() {
-    gs.loadState(new int[5]);
+    final int[] state = gs.saveState();
+    gs.newVar(true, true);
+    gs.addClause(clause(-1, 4));
+    gs.addClause(clause(-2, 4));
+    gs.addClause(clause(-3, 4));
+    gs.addClause(clause(-4));
+    Assert.assertEquals(Tristate.FALSE, gs.solve(null));
+    gs.loadState(state);
+    Assert.assertEquals(4, gs.nVars());
+    Assert.assertArrayEquals(state, gs.saveState());
+    Assert.assertEquals(Tristate.TRUE, gs.solve(null));
+    gs.addClause(clause(-1));
+    gs.addClause(clause(-2));
+    Assert.assertEquals(Tristate.TRUE, gs.solve(null));
+    Assert.assertTrue(gs.model().get(3));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSaveStateNonIncremental() {
+    new GlucoseSyrup(new MiniSatConfig.Builder().incremental(false).build(), new GlucoseConfig.Builder().build()).saveState();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testLoadStateNonIncremental() {
+    new GlucoseSyrup(new MiniSatConfig.Builder().incremental(false).build(), new GlucoseConfig.Builder().build()).loadState(new int[6]);
   }
 
   @Test
@@ -40,7 +40,7 @@ import static org.logicng.datastructures.Tristate.TRUE;
 
 /**
  * Tests for the incremental/decremental interface of the SAT solvers.
- * @version 1.0
+ * @version 1.1
  * @since 1.0
  */
 public class IncDecTest {
@@ -52,9 +52,13 @@ public class IncDecTest {
   public IncDecTest() {
     this.f = new FormulaFactory();
     this.pg = new PigeonHoleGenerator(f);
-    this.solvers = new SATSolver[2];
+    this.solvers = new SATSolver[4];
     this.solvers[0] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build());
     this.solvers[1] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[2] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(true).build(),
+            new GlucoseConfig.Builder().build());
+    this.solvers[3] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(true).build(),
+            new GlucoseConfig.Builder().inprocessing(true).inprocessingInterval(1).tieredLearnts(true).build());
   }
 
   @Test
@@ -62,7 +66,7 @@ public class IncDecTest {
     for (final SATSolver s : this.solvers) {
       s.add(f.variable("a"));
       final SolverState state1 = s.saveState();
-      Assert.assertEquals("SolverState{id=0, state=[1, 1, 0, 0, 1]}", state1.toString());
+      Assert.assertEquals("SolverState{id=0, state=[1, 1, 0, 0, 1, 1]}", state1.toString());
       Assert.assertEquals(TRUE, s.sat());
       s.add(pg.generate(5));
       Assert.assertEquals(FALSE, s.sat());
@@ -74,7 +78,7 @@ public class IncDecTest {
       Assert.assertEquals(TRUE, s.sat());
       s.add(pg.generate(5));
       final SolverState state2 = s.saveState();
-      Assert.assertEquals("SolverState{id=1, state=[1, 31, 81, 0, 1]}", state2.toString());
+      Assert.assertEquals("SolverState{id=1, state=[1, 31, 81, 0, 1, 31]}", state2.toString());
       s.add(pg.generate(4));
       Assert.assertEquals(FALSE, s.sat());
       s.loadState(state2);
@@ -0,0 +1,209 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.CType;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.CleaneLing;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.ModelIterator;
+import org.logicng.solvers.SATPortfolio;
+import org.logicng.solvers.SATSolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.logicng.datastructures.Tristate.FALSE;
+import static org.logicng.datastructures.Tristate.TRUE;
+
+/**
+ * Unit tests for the model iterators of the SAT solvers.
+ * @version 1.2
+ * @since 1.2
+ */
+public class ModelIteratorTest {
+
+  private final FormulaFactory f;
+  private final PropositionalParser p;
+  private final SATSolver[] solvers;
+
+  public ModelIteratorTest() {
+    this.f = new FormulaFactory();
+    this.p = new PropositionalParser(f);
+    this.solvers = new SATSolver[7];
+    this.solvers[0] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[1] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(false).build());
+    this.solvers[2] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(), new GlucoseConfig.Builder().build());
+    this.solvers[3] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[4] = CleaneLing.minimalistic(f);
+    this.solvers[5] = CleaneLing.full(f);
+    this.solvers[6] = SATPortfolio.portfolio(f, 2);
+  }
+
+  @Test
+  public void testAllModels() {
+    final Variable[] vars = this.variables(8);
+    for (final SATSolver solver : this.solvers) {
+      solver.add(f.cc(CType.EQ, 3, vars));
+      final Set<Set<Literal>> models = new HashSet<Set<Literal>>();
+      final ModelIterator iterator = solver.modelIterator(Arrays.asList(vars));
+      Assert.assertEquals(Arrays.asList(vars), iterator.variables());
+      while (iterator.hasNext()) {
+        final Assignment model = iterator.next();
+        Assert.assertEquals(8, model.size());
+        Assert.assertEquals(3, model.positiveLiterals().size());
+        Assert.assertTrue(models.add(new HashSet<Literal>(model.literals())));
+      }
+      Assert.assertEquals(56, models.size());
+      Assert.assertTrue(iterator.isClosed());
+      Assert.assertFalse(iterator.hasNext());
+      Assert.assertEquals(TRUE, solver.sat());
+      Assert.assertEquals(56, solver.enumerateAllModels(vars).size());
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testLazyEnumeration() {
+    final Variable[] vars = this.variables(20);
+    for (final SATSolver solver : this.solvers) {
+      solver.add(f.cc(CType.LE, 10, vars));
+      final ModelIterator iterator = solver.modelIterator(Arrays.asList(vars));
+      final Set<BitSet> models = new HashSet<BitSet>();
+      for (int i = 0; i < 100; i++) {
+        final BitSet values = iterator.nextValues();
+        Assert.assertTrue(values.cardinality() <= 10);
+        Assert.assertTrue(models.add(values));
+      }
+      iterator.close();
+      Assert.assertFalse(iterator.hasNext());
+      solver.add(f.cc(CType.LE, 2, vars));
+      Assert.assertEquals(211, countModels(solver.modelIterator(Arrays.asList(vars))));
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testProjectionAndAllVariables() throws ParserException {
+    for (final SATSolver solver : this.solvers) {
+      solver.add(p.parse("(a | b) & (c => d)"));
+      final List<Variable> projection = Arrays.asList(f.variable("a"), f.variable("c"), f.variable("x"), f.variable("a"));
+      final ModelIterator iterator = solver.modelIterator(projection);
+      Assert.assertEquals(Arrays.asList(f.variable("a"), f.variable("c")), iterator.variables());
+      Assert.assertEquals(4, countModels(iterator));
+      final ModelIterator allIterator = solver.modelIterator();
+      Assert.assertEquals(4, allIterator.variables().size());
+      final List<Assignment> models = new ArrayList<Assignment>();
+      while (allIterator.hasNext())
+        models.add(allIterator.next());
+      Assert.assertEquals(9, models.size());
+      for (final Assignment model : models)
+        Assert.assertTrue(p.parse("(a | b) & (c => d)").evaluate(model));
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testUnsatAndEmptyProjection() throws ParserException {
+    for (final SATSolver solver : this.solvers) {
+      solver.add(p.parse("a | b"));
+      final ModelIterator iterator = solver.modelIterator(new ArrayList<Variable>());
+      Assert.assertTrue(iterator.hasNext());
+      Assert.assertEquals(new Assignment(), iterator.next());
+      Assert.assertFalse(iterator.hasNext());
+      Assert.assertEquals(TRUE, solver.sat());
+      solver.add(p.parse("~a & ~b"));
+      Assert.assertEquals(0, countModels(solver.modelIterator()));
+      Assert.assertEquals(FALSE, solver.sat());
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testScopes() throws ParserException {
+    for (final SATSolver solver : this.solvers) {
+      solver.add(p.parse("a | b | c"));
+      solver.push();
+      solver.add(p.parse("~a"));
+      final ModelIterator iterator = solver.modelIterator();
+      Assert.assertEquals(3, iterator.variables().size());
+      Assert.assertEquals(3, countModels(iterator));
+      Assert.assertEquals(1, solver.scopeLevel());
+      solver.pop();
+      Assert.assertEquals(7, countModels(solver.modelIterator()));
+      Assert.assertEquals(0, solver.scopeLevel());
+      solver.reset();
+    }
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testNoMoreModels() throws ParserException {
+    final SATSolver solver = this.solvers[0];
+    solver.add(p.parse("a & b"));
+    final ModelIterator iterator = solver.modelIterator();
+    iterator.next();
+    iterator.next();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testRemove() throws ParserException {
+    final SATSolver solver = this.solvers[4];
+    solver.add(p.parse("a | b"));
+    final ModelIterator iterator = solver.modelIterator();
+    iterator.next();
+    iterator.remove();
+  }
+
+  private static int countModels(final ModelIterator iterator) {
+    int count = 0;
+    while (iterator.hasNext()) {
+      iterator.nextValues();
+      count++;
+    }
+    return count;
+  }
+
+  private Variable[] variables(int n) {
+    final Variable[] vars = new Variable[n];
+    for (int i = 0; i < n; i++)
+      vars[i] = f.variable("v" + i);
+    return vars;
+  }
+}
@@ -0,0 +1,191 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.CType;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.ModelEnumerationHandler;
+import org.logicng.handlers.NumberOfModelsHandler;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SolverState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for the parallel model enumeration.
+ * @version 1.2
+ * @since 1.2
+ */
+public class ParallelEnumerationTest {
+
+  private final FormulaFactory f;
+  private final PropositionalParser p;
+  private final MiniSat[] solvers;
+
+  public ParallelEnumerationTest() {
+    this.f = new FormulaFactory();
+    this.p = new PropositionalParser(f);
+    this.solvers = new MiniSat[4];
+    this.solvers[0] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[1] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(false).build());
+    this.solvers[2] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(), new GlucoseConfig.Builder().build());
+    this.solvers[3] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(true).build());
+  }
+
+  @Test
+  public void testSameModelsAsSequential() {
+    final Variable[] vars = this.variables(10);
+    for (final MiniSat solver : this.solvers) {
+      solver.add(f.cc(CType.EQ, 2, vars));
+      final List<Set<Set<Literal>>> parallel = new ArrayList<Set<Set<Literal>>>();
+      for (int threads = 1; threads <= 4; threads++) {
+        final CollectingHandler handler = new CollectingHandler();
+        Assert.assertEquals(45, solver.enumerateAllModelsInParallel(Arrays.asList(vars), handler, threads));
+        Assert.assertEquals(45, handler.models.size());
+        parallel.add(literals(handler.models));
+      }
+      final Set<Set<Literal>> expected = literals(solver.enumerateAllModels(vars));
+      Assert.assertEquals(45, expected.size());
+      for (final Set<Set<Literal>> models : parallel)
+        Assert.assertEquals(expected, models);
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testAllVariables() throws ParserException {
+    for (final MiniSat solver : this.solvers) {
+      solver.add(p.parse("(a | b | c) & (~a | ~b)"));
+      final CollectingHandler handler = new CollectingHandler();
+      Assert.assertEquals(5, solver.enumerateAllModelsInParallel(null, handler, 2));
+      Assert.assertEquals(literals(solver.enumerateAllModels()), literals(handler.models));
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testProjection() throws ParserException {
+    for (final MiniSat solver : this.solvers) {
+      solver.add(p.parse("(a | b) & (c => d) & (e | ~e)"));
+      final List<Variable> projection = Arrays.asList(f.variable("a"), f.variable("c"), f.variable("x"));
+      final CollectingHandler handler = new CollectingHandler();
+      Assert.assertEquals(4, solver.enumerateAllModelsInParallel(projection, handler, 3));
+      for (final Assignment model : handler.models)
+        Assert.assertEquals(2, model.size());
+      Assert.assertEquals(4, literals(handler.models).size());
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testHandler() {
+    final Variable[] vars = this.variables(12);
+    for (final MiniSat solver : this.solvers) {
+      solver.add(f.cc(CType.LE, 3, vars));
+      Assert.assertEquals(10, solver.enumerateAllModelsInParallel(Arrays.asList(vars), new NumberOfModelsHandler(10), 4));
+      Assert.assertEquals(299, solver.enumerateAllModelsInParallel(Arrays.asList(vars), null, 4));
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testSolverUnchanged() throws ParserException {
+    for (final MiniSat solver : this.solvers) {
+      solver.add(p.parse("a | b"));
+      Assert.assertEquals(3, solver.enumerateAllModelsInParallel(null, null, 2));
+      Assert.assertEquals(3, solver.enumerateAllModelsInParallel(null, null, 2));
+      Assert.assertEquals(3, solver.enumerateAllModels().size());
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testUnsatAndEmptyProjection() throws ParserException {
+    for (final MiniSat solver : this.solvers) {
+      solver.add(p.parse("a & ~a"));
+      Assert.assertEquals(0, solver.enumerateAllModelsInParallel(null, null, 2));
+      solver.reset();
+      solver.add(p.parse("a | b"));
+      final CollectingHandler handler = new CollectingHandler();
+      Assert.assertEquals(1, solver.enumerateAllModelsInParallel(new ArrayList<Variable>(), handler, 2));
+      Assert.assertEquals(new Assignment(), handler.models.get(0));
+      solver.reset();
+    }
+  }
+
+  @Test
+  public void testScopes() throws ParserException {
+    final MiniSat solver = this.solvers[0];
+    solver.add(p.parse("a | b | c"));
+    final SolverState state = solver.saveState();
+    solver.add(p.parse("~a & ~b"));
+    Assert.assertEquals(1, solver.enumerateAllModelsInParallel(null, null, 2));
+    solver.loadState(state);
+    Assert.assertEquals(7, solver.enumerateAllModelsInParallel(null, null, 2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalNumberOfThreads() {
+    this.solvers[0].enumerateAllModelsInParallel(null, null, 0);
+  }
+
+  private Variable[] variables(int n) {
+    final Variable[] vars = new Variable[n];
+    for (int i = 0; i < n; i++)
+      vars[i] = f.variable("v" + i);
+    return vars;
+  }
+
+  private static Set<Set<Literal>> literals(final List<Assignment> models) {
+    final Set<Set<Literal>> result = new HashSet<Set<Literal>>();
+    for (final Assignment model : models)
+      result.add(new HashSet<Literal>(model.literals()));
+    return result;
+  }
+
+  private static final class CollectingHandler implements ModelEnumerationHandler {
+    private final List<Assignment> models = new ArrayList<Assignment>();
+
+    @Override
+    public boolean foundModel(final Assignment assignment) {
+      this.models.add(assignment);
+      return true;
+    }
+  }
+}
@@ -0,0 +1,229 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.CType;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.CleaneLing;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SATSolver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.logicng.datastructures.Tristate.FALSE;
+import static org.logicng.datastructures.Tristate.TRUE;
+
+/**
+ * Tests for the push/pop interface of the SAT solvers.
+ * @version 1.2
+ * @since 1.2
+ */
+public class PushPopTest {
+
+  private final FormulaFactory f;
+  private final SATSolver[] solvers;
+  private final PigeonHoleGenerator pg;
+  private final PropositionalParser p;
+
+  public PushPopTest() {
+    this.f = new FormulaFactory();
+    this.pg = new PigeonHoleGenerator(f);
+    this.p = new PropositionalParser(f);
+    this.solvers = new SATSolver[9];
+    this.solvers[0] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[1] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(false).build());
+    this.solvers[2] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(),
+            new GlucoseConfig.Builder().build());
+    this.solvers[3] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(true).build(),
+            new GlucoseConfig.Builder().inprocessing(true).inprocessingInterval(1).tieredLearnts(true).build());
+    this.solvers[4] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[5] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(false).build());
+    this.solvers[6] = CleaneLing.minimalistic(f);
+    this.solvers[7] = CleaneLing.full(f, new CleaneLingConfig.Builder().plain(true).build());
+    this.solvers[8] = CleaneLing.full(f);
+  }
+
+  @Test
+  public void testPushPop() {
+    for (final SATSolver s : this.solvers) {
+      s.add(f.variable("a"));
+      Assert.assertEquals(0, s.scopeLevel());
+      s.push();
+      Assert.assertEquals(1, s.scopeLevel());
+      s.add(pg.generate(5));
+      Assert.assertEquals(FALSE, s.sat());
+      s.pop();
+      Assert.assertEquals(0, s.scopeLevel());
+      Assert.assertEquals(TRUE, s.sat());
+      s.push();
+      s.add(f.literal("a", false));
+      Assert.assertEquals(FALSE, s.sat());
+      s.pop();
+      Assert.assertEquals(TRUE, s.sat());
+      Assert.assertTrue(s.model().evaluateLit(f.variable("a")));
+      s.reset();
+    }
+  }
+
+  @Test
+  public void testNestedScopes() throws ParserException {
+    for (final SATSolver s : this.solvers) {
+      s.add(p.parse("a | b | c"));
+      s.push();
+      s.add(p.parse("~a"));
+      s.push();
+      s.add(p.parse("~b"));
+      Assert.assertEquals(TRUE, s.sat());
+      Assert.assertTrue(s.model().evaluateLit(f.variable("c")));
+      s.push();
+      s.add(p.parse("~c"));
+      Assert.assertEquals(FALSE, s.sat());
+      s.pop();
+      Assert.assertEquals(TRUE, s.sat());
+      s.pop();
+      s.add(p.parse("~b"));
+      s.add(p.parse("~c"));
+      Assert.assertEquals(FALSE, s.sat());
+      s.pop();
+      s.push();
+      s.add(p.parse("~b & ~c"));
+      Assert.assertEquals(TRUE, s.sat());
+      Assert.assertTrue(s.model().evaluateLit(f.variable("a")));
+      s.pop();
+      Assert.assertEquals(TRUE, s.sat());
+      s.reset();
+    }
+  }
+
+  @Test
+  public void testScopedModelsAndEnumeration() throws ParserException {
+    final List<Variable> vars = Arrays.asList(f.variable("a"), f.variable("b"));
+    for (final SATSolver s : this.solvers) {
+      s.add(p.parse("a | b"));
+      s.push();
+      s.add(p.parse("a => b"));
+      Assert.assertEquals(TRUE, s.sat());
+      final Assignment model = s.model();
+      Assert.assertEquals(2, model.size());
+      for (final Literal lit : model.literals())
+        Assert.assertFalse(lit.name().startsWith(SATSolver.SCOPE_PREFIX));
+      Assert.assertEquals(2, s.enumerateAllModels(vars).size());
+      s.pop();
+      Assert.assertEquals(3, s.enumerateAllModels(vars).size());
+      s.reset();
+    }
+  }
+
+  @Test
+  public void testScopedCardinalityConstraints() {
+    final Variable[] vars = new Variable[]{f.variable("a"), f.variable("b"), f.variable("c"), f.variable("d")};
+    for (final SATSolver s : this.solvers) {
+      s.add(f.cc(CType.GE, 3, vars));
+      s.push();
+      s.add(f.cc(CType.LE, 1, vars));
+      Assert.assertEquals(FALSE, s.sat());
+      s.pop();
+      s.push();
+      s.add(f.cc(CType.LE, 3, vars));
+      Assert.assertEquals(TRUE, s.sat());
+      Assert.assertEquals(3, s.model(vars).positiveLiterals().size());
+      s.pop();
+      Assert.assertEquals(TRUE, s.sat());
+      s.reset();
+    }
+  }
+
+  @Test
+  public void testScopesWithAssumptions() throws ParserException {
+    for (final SATSolver s : this.solvers) {
+      s.add(p.parse("a | b"));
+      s.push();
+      s.add(p.parse("~a"));
+      Assert.assertEquals(TRUE, s.sat(f.literal("b", true)));
+      Assert.assertEquals(FALSE, s.sat(f.literal("b", false)));
+      Assert.assertEquals(FALSE, s.sat(Collections.<Literal>singletonList(f.literal("b", false))));
+      s.pop();
+      Assert.assertEquals(TRUE, s.sat(f.literal("b", false)));
+      s.reset();
+    }
+  }
+
+  @Test
+  public void testWithRelaxation() throws ParserException {
+    for (final SATSolver s : this.solvers) {
+      s.push();
+      s.addWithRelaxation(f.variable("r"), p.parse("a & ~a"));
+      Assert.assertEquals(TRUE, s.sat());
+      Assert.assertTrue(s.model().evaluateLit(f.variable("r")));
+      s.add(f.literal("r", false));
+      Assert.assertEquals(FALSE, s.sat());
+      s.pop();
+      Assert.assertEquals(TRUE, s.sat());
+      s.reset();
+    }
+  }
+
+  @Test
+  public void testRetiredClausesAreRemoved() throws ParserException {
+    for (int i = 0; i < 6; i++) {
+      final MiniSat s = (MiniSat) this.solvers[i];
+      s.add(p.parse("(a | b | c) & (~a | ~b) & (~b | ~c)"));
+      final int baseClauses = s.underlyingSolver().nClauses();
+      for (int j = 0; j < 200; j++) {
+        s.push();
+        s.add(p.parse("(a | x" + j + " | y" + j + ") & (~c | ~x" + j + " | y" + j + ")"));
+        Assert.assertEquals(TRUE, s.sat());
+        s.pop();
+      }
+      Assert.assertTrue("solver " + i + ": " + s.underlyingSolver().nClauses(), s.underlyingSolver().nClauses() <= baseClauses + 2 * 64);
+      Assert.assertEquals(TRUE, s.sat());
+      s.reset();
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPopWithoutPush() {
+    this.solvers[0].pop();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testIncrementalCCInScope() {
+    this.solvers[0].push();
+    this.solvers[0].addIncrementalCC(f.cc(CType.LE, 2, f.variable("a"), f.variable("b"), f.variable("c")));
+  }
+}
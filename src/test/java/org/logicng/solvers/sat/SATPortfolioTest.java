@@ -0,0 +1,276 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.CType;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.TimeoutSATHandler;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SATPortfolio;
+import org.logicng.solvers.SolverState;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.logicng.datastructures.Tristate.FALSE;
+import static org.logicng.datastructures.Tristate.TRUE;
+import static org.logicng.datastructures.Tristate.UNDEF;
+
+/**
+ * Unit tests for the parallel SAT solver portfolio.
+ * @version 1.2
+ * @since 1.2
+ */
+public class SATPortfolioTest {
+
+  private final FormulaFactory f;
+  private final PigeonHoleGenerator pg;
+  private final PropositionalParser p;
+
+  public SATPortfolioTest() {
+    this.f = new FormulaFactory();
+    this.pg = new PigeonHoleGenerator(f);
+    this.p = new PropositionalParser(f);
+  }
+
+  @Test
+  public void testSimple() throws ParserException {
+    final SATPortfolio portfolio = SATPortfolio.portfolio(f);
+    portfolio.add(p.parse("(a | b) & (~a | c) & (~b | c)"));
+    Assert.assertEquals(TRUE, portfolio.sat());
+    Assert.assertNotNull(portfolio.winner());
+    Assert.assertTrue(portfolio.model().evaluateLit(f.variable("c")));
+    portfolio.add(p.parse("~c"));
+    Assert.assertEquals(FALSE, portfolio.sat());
+    Assert.assertNull(portfolio.model());
+  }
+
+  @Test
+  public void testAllSizes() {
+    for (int i = 1; i <= 8; i++) {
+      final SATPortfolio portfolio = SATPortfolio.portfolio(f, i);
+      Assert.assertEquals(i, portfolio.solvers().size());
+      portfolio.add(pg.generate(6));
+      Assert.assertEquals(FALSE, portfolio.sat());
+      portfolio.reset();
+      portfolio.add(f.exo(f.variable("a"), f.variable("b"), f.variable("c")));
+      Assert.assertEquals(TRUE, portfolio.sat());
+      Assert.assertEquals(1, portfolio.model(Arrays.asList(f.variable("a"), f.variable("b"), f.variable("c"))).positiveLiterals().size());
+    }
+  }
+
+  @Test
+  public void testDimacsFiles() throws IOException {
+    final Map<String, Boolean> expectedResults = DimacsReader.readResults();
+    final SATPortfolio portfolio = SATPortfolio.portfolio(f, 2);
+    for (final File file : new File("tests/sat").listFiles()) {
+      if (!file.getName().endsWith(".cnf"))
+        continue;
+      portfolio.reset();
+      portfolio.add(DimacsReader.readCNF(file, f));
+      final Tristate res = portfolio.sat();
+      Assert.assertEquals(expectedResults.get(file.getName()), res == TRUE);
+    }
+  }
+
+  @Test
+  public void testAssumptionsAndScopes() throws ParserException {
+    final SATPortfolio portfolio = SATPortfolio.portfolio(f, 4);
+    portfolio.add(p.parse("a | b"));
+    Assert.assertEquals(TRUE, portfolio.sat(f.literal("a", false)));
+    Assert.assertTrue(portfolio.model().evaluateLit(f.variable("b")));
+    Assert.assertEquals(FALSE, portfolio.sat(Arrays.asList(f.literal("a", false), f.literal("b", false))));
+    portfolio.push();
+    Assert.assertEquals(1, portfolio.scopeLevel());
+    portfolio.add(p.parse("~a & ~b"));
+    Assert.assertEquals(FALSE, portfolio.sat());
+    portfolio.pop();
+    Assert.assertEquals(TRUE, portfolio.sat());
+  }
+
+  @Test
+  public void testEnumeration() {
+    final SATPortfolio portfolio = SATPortfolio.portfolio(f, 4);
+    final Variable[] vars = new Variable[10];
+    for (int i = 0; i < vars.length; i++)
+      vars[i] = f.variable("x" + i);
+    portfolio.add(f.cc(CType.EQ, 2, vars));
+    final List<Assignment> models = portfolio.enumerateAllModels(vars);
+    Assert.assertEquals(45, models.size());
+    Assert.assertEquals(TRUE, portfolio.sat());
+  }
+
+  @Test
+  public void testStates() {
+    final SATPortfolio portfolio = SATPortfolio.portfolio(f, 4);
+    portfolio.add(f.variable("a"));
+    final SolverState state = portfolio.saveState();
+    portfolio.add(pg.generate(5));
+    Assert.assertEquals(FALSE, portfolio.sat());
+    portfolio.loadState(state);
+    Assert.assertEquals(TRUE, portfolio.sat());
+    portfolio.add(f.literal("a", false));
+    Assert.assertEquals(FALSE, portfolio.sat());
+    portfolio.loadState(state);
+    Assert.assertEquals(TRUE, portfolio.sat());
+  }
+
+  @Test
+  public void testTimeoutHandler() {
+    final SATPortfolio portfolio = SATPortfolio.portfolio(f, 2);
+    portfolio.add(pg.generate(10));
+    Assert.assertEquals(UNDEF, portfolio.sat(new TimeoutSATHandler(100)));
+    Assert.assertNull(portfolio.winner());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDifferentFactories() {
+    SATPortfolio.portfolio(f, MiniSat.miniSat(f), MiniSat.miniSat(new FormulaFactory()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalSize() {
+    SATPortfolio.portfolio(f, 0);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testIncrementalCC() {
+    SATPortfolio.portfolio(f, 2).addIncrementalCC(f.cc(CType.LE, 1, f.variable("a"), f.variable("b")));
+  }
+
+  @Test
+  public void testCubeAndConquerSimple() throws ParserException {
+    final SATPortfolio portfolio = SATPortfolio.cubeAndConquer(f, 2);
+    Assert.assertEquals(2, portfolio.solvers().size());
+    Assert.assertNotNull(portfolio.exchange());
+    portfolio.add(p.parse("(a | b) & (~a | c) & (~b | c)"));
+    Assert.assertEquals(TRUE, portfolio.sat());
+    Assert.assertTrue(portfolio.model().evaluateLit(f.variable("c")));
+    portfolio.add(p.parse("~c"));
+    Assert.assertEquals(FALSE, portfolio.sat());
+    Assert.assertNull(portfolio.model());
+  }
+
+  @Test
+  public void testCubeAndConquerSplitting() {
+    for (int i = 1; i <= 3; i++) {
+      final MiniSat[] solvers = new MiniSat[i];
+      for (int j = 0; j < i; j++)
+        solvers[j] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build());
+      final SATPortfolio portfolio = SATPortfolio.cubeAndConquer(f, null, 10, solvers);
+      portfolio.add(pg.generate(7));
+      Assert.assertEquals(FALSE, portfolio.sat());
+      portfolio.reset();
+      final Variable[] vars = new Variable[20];
+      for (int j = 0; j < vars.length; j++)
+        vars[j] = f.variable("x" + j);
+      portfolio.add(f.cc(CType.EQ, 3, vars));
+      portfolio.add(f.or(f.literal("x0", false), f.literal("x19", false)));
+      Assert.assertEquals(TRUE, portfolio.sat());
+      final Assignment model = portfolio.model(Arrays.asList(vars));
+      Assert.assertEquals(3, model.positiveLiterals().size());
+      Assert.assertFalse(model.evaluateLit(f.variable("x0")) && model.evaluateLit(f.variable("x19")));
+    }
+  }
+
+  @Test
+  public void testCubeAndConquerDimacsFiles() throws IOException {
+    final Map<String, Boolean> expectedResults = DimacsReader.readResults();
+    final SATPortfolio portfolio = SATPortfolio.cubeAndConquer(f, new ClauseExchange(), 200,
+            MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(true).build(), new GlucoseConfig.Builder().build()),
+            MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build()));
+    for (final File file : new File("tests/sat").listFiles()) {
+      if (!file.getName().endsWith(".cnf") || file.length() > 100000)
+        continue;
+      portfolio.reset();
+      portfolio.add(DimacsReader.readCNF(file, f));
+      final Tristate res = portfolio.sat();
+      Assert.assertEquals(expectedResults.get(file.getName()), res == TRUE);
+    }
+  }
+
+  @Test
+  public void testCubeAndConquerAssumptionsAndScopes() throws ParserException {
+    final SATPortfolio portfolio = SATPortfolio.cubeAndConquer(f, 3);
+    portfolio.add(p.parse("a | b"));
+    Assert.assertEquals(TRUE, portfolio.sat(f.literal("a", false)));
+    Assert.assertTrue(portfolio.model().evaluateLit(f.variable("b")));
+    Assert.assertEquals(FALSE, portfolio.sat(Arrays.asList(f.literal("a", false), f.literal("b", false))));
+    portfolio.push();
+    portfolio.add(p.parse("~a & ~b"));
+    Assert.assertEquals(FALSE, portfolio.sat());
+    portfolio.pop();
+    Assert.assertEquals(TRUE, portfolio.sat());
+  }
+
+  @Test
+  public void testCubeAndConquerEnumeration() {
+    final SATPortfolio portfolio = SATPortfolio.cubeAndConquer(f, null, 1, MiniSat.miniSat(f), MiniSat.miniSat(f));
+    final Variable[] vars = new Variable[10];
+    for (int i = 0; i < vars.length; i++)
+      vars[i] = f.variable("x" + i);
+    portfolio.add(f.cc(CType.EQ, 2, vars));
+    final List<Assignment> models = portfolio.enumerateAllModels(vars);
+    Assert.assertEquals(45, models.size());
+    Assert.assertEquals(TRUE, portfolio.sat());
+  }
+
+  @Test
+  public void testCubeAndConquerTimeoutHandler() {
+    final SATPortfolio portfolio = SATPortfolio.cubeAndConquer(f, 2);
+    portfolio.add(pg.generate(10));
+    Assert.assertEquals(UNDEF, portfolio.sat(new TimeoutSATHandler(100)));
+    Assert.assertNull(portfolio.winner());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCubeAndConquerIllegalSize() {
+    SATPortfolio.cubeAndConquer(f, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCubeAndConquerIllegalBudget() {
+    SATPortfolio.cubeAndConquer(f, null, 0, MiniSat.miniSat(f));
+  }
+
+  @Test
+  public void testToString() {
+    Assert.assertEquals("SATPortfolio{result=UNDEF, solvers=3}", SATPortfolio.portfolio(f, 3).toString());
+  }
+}
@@ -210,8 +210,7 @@ public class SATTest {
 
   @Test
   public void testFormula2() throws ParserException {
-    for (int i = 0; i < this.solvers.length - 1; i++) {
-      final SATSolver s = this.solvers[i];
+    for (final SATSolver s : this.solvers) {
       s.add(parser.parse("(x => y) & (~x => y) & (y => z) & (z => ~x)"));
       final List<Assignment> models = s.enumerateAllModels();
       Assert.assertEquals(1, models.size());
@@ -227,8 +226,7 @@ public class SATTest {
 
   @Test
   public void testCC1() throws InterruptedException {
-    for (int i = 0; i < this.solvers.length - 1; i++) {
-      final SATSolver s = this.solvers[i];
+    for (final SATSolver s : this.solvers) {
       final Variable[] lits = new Variable[100];
       for (int j = 0; j < lits.length; j++)
         lits[j] = f.variable("x" + j);
@@ -317,14 +315,17 @@ public class SATTest {
     }
   }
 
-  @Test(expected = UnsupportedOperationException.class)
-  public void testIllegalEnumeration() {
+  @Test
+  public void testEnumerationWithSimplifications() {
     final SATSolver s = this.solvers[7];
     final Variable[] lits = new Variable[100];
     for (int j = 0; j < lits.length; j++)
       lits[j] = f.variable("x" + j);
     s.add(f.exo(lits));
-    s.enumerateAllModels(lits);
+    final List<Assignment> models = s.enumerateAllModels(lits);
+    Assert.assertEquals(100, models.size());
+    for (final Assignment m : models)
+      Assert.assertEquals(1, m.positiveLiterals().size());
   }
 
   @Test
@@ -426,12 +427,7 @@ public class SATTest {
 
   @Test
   public void testDimacsFiles() throws IOException {
-    final Map<String, Boolean> expectedResults = new HashMap<String, Boolean>();
-    final BufferedReader reader = new BufferedReader(new FileReader("tests/sat/results.txt"));
-    while (reader.ready()) {
-      final String[] tokens = reader.readLine().split(";");
-      expectedResults.put(tokens[0], Boolean.valueOf(tokens[1]));
-    }
+    final Map<String, Boolean> expectedResults = readExpectedResults();
     final File testFolder = new File("tests/sat");
     final File[] files = testFolder.listFiles();
     assert files != null;
@@ -448,31 +444,137 @@ public class SATTest {
     }
   }
 
-  private void readCNF(final SATSolver solver, final File file) throws IOException {
-    solver.reset();
+  @Test
+  public void testDimacsFilesWithInprocessing() throws IOException {
+    checkDimacsFiles(
+            MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(),
+                    new GlucoseConfig.Builder().inprocessing(true).inprocessingInterval(1).build()),
+            MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(true).build(),
+                    new GlucoseConfig.Builder().inprocessing(true).inprocessingInterval(1).build()));
+  }
+
+  @Test
+  public void testDimacsFilesWithTieredLearnts() throws IOException {
+    checkDimacsFiles(
+            MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(),
+                    new GlucoseConfig.Builder().tieredLearnts(true).tier2ReduceInterval(500).localReduceInterval(700).build()),
+            MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(),
+                    new GlucoseConfig.Builder().tieredLearnts(true).tier2ReduceInterval(500).localReduceInterval(700)
+                            .inprocessing(true).inprocessingInterval(2).build()));
+  }
+
+  @Test
+  public void testInprocessingStatistics() {
+    final MiniSat solver = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(),
+            new GlucoseConfig.Builder().inprocessing(true).inprocessingInterval(1).build());
+    solver.add(pg.generate(7));
+    Assert.assertEquals(FALSE, solver.sat());
+    final GlucoseSyrup glucose = (GlucoseSyrup) solver.underlyingSolver();
+    Assert.assertTrue(glucose.inprocessingRounds() > 0);
+    Assert.assertTrue(glucose.subsumedLearnts() > 0);
+    Assert.assertTrue(glucose.vivifiedLearnts() > 0);
+  }
+
+  @Test
+  public void testTieredLearntsStatistics() {
+    final MiniSat solver = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(),
+            new GlucoseConfig.Builder().tieredLearnts(true).tier2ReduceInterval(500).localReduceInterval(700).build());
+    solver.add(pg.generate(7));
+    Assert.assertEquals(FALSE, solver.sat());
+    final GlucoseSyrup glucose = (GlucoseSyrup) solver.underlyingSolver();
+    Assert.assertTrue(glucose.promotedLearnts() > 0);
+    Assert.assertTrue(glucose.demotedLearnts() > 0);
+    Assert.assertTrue(solver.statistics().reductions() > 0);
+  }
+
+  private void checkDimacsFiles(final SATSolver... solvers) throws IOException {
+    final Map<String, Boolean> expectedResults = readExpectedResults();
+    final File[] files = new File("tests/sat").listFiles();
+    assert files != null;
+    for (final SATSolver solver : solvers) {
+      for (final File file : files) {
+        final String fileName = file.getName();
+        if (fileName.endsWith(".cnf")) {
+          readCNF(solver, file);
+          final Tristate res = solver.sat();
+          Assert.assertEquals(expectedResults.get(fileName), res == TRUE);
+          if (res == TRUE)
+            verifyCNF(solver.model(), file);
+        }
+      }
+      solver.reset();
+    }
+  }
+
+  private Map<String, Boolean> readExpectedResults() throws IOException {
+    final Map<String, Boolean> expectedResults = new HashMap<String, Boolean>();
+    final BufferedReader reader = new BufferedReader(new FileReader("tests/sat/results.txt"));
+    try {
+      while (reader.ready()) {
+        final String[] tokens = reader.readLine().split(";");
+        expectedResults.put(tokens[0], Boolean.valueOf(tokens[1]));
+      }
+    } finally {
+      reader.close();
+    }
+    return expectedResults;
+  }
+
+  private void verifyCNF(final Assignment model, final File file) throws IOException {
     final BufferedReader reader = new BufferedReader(new FileReader(file));
-    while (reader.ready()) {
-      final String line = reader.readLine();
-      if (line.startsWith("p cnf"))
-        break;
-    }
-    String[] tokens;
-    final List<Literal> literals = new ArrayList<Literal>();
-    while (reader.ready()) {
-      tokens = reader.readLine().split("\\s+");
-      if (tokens.length >= 2) {
-        assert "0".equals(tokens[tokens.length - 1]);
-        literals.clear();
+    try {
+      while (reader.ready()) {
+        final String line = reader.readLine();
+        if (line.startsWith("p cnf"))
+          break;
+      }
+      while (reader.ready()) {
+        final String[] tokens = reader.readLine().split("\\s+");
+        boolean satisfied = false;
+        boolean empty = true;
         for (int i = 0; i < tokens.length - 1; i++) {
           if (!tokens[i].isEmpty()) {
-            int parsedLit = Integer.parseInt(tokens[i]);
-            String var = "v" + Math.abs(parsedLit);
-            literals.add(parsedLit > 0 ? f.literal(var, true) : f.literal(var, false));
+            empty = false;
+            final int parsedLit = Integer.parseInt(tokens[i]);
+            satisfied |= model.evaluateLit(f.literal("v" + Math.abs(parsedLit), parsedLit > 0));
           }
         }
-        if (!literals.isEmpty())
-          solver.add(f.or(literals));
+        Assert.assertTrue(empty || satisfied);
       }
+    } finally {
+      reader.close();
+    }
+  }
+
+  private void readCNF(final SATSolver solver, final File file) throws IOException {
+    solver.reset();
+    final BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      while (reader.ready()) {
+        final String line = reader.readLine();
+        if (line.startsWith("p cnf"))
+          break;
+      }
+      String[] tokens;
+      final List<Literal> literals = new ArrayList<Literal>();
+      while (reader.ready()) {
+        tokens = reader.readLine().split("\\s+");
+        if (tokens.length >= 2) {
+          assert "0".equals(tokens[tokens.length - 1]);
+          literals.clear();
+          for (int i = 0; i < tokens.length - 1; i++) {
+            if (!tokens[i].isEmpty()) {
+              int parsedLit = Integer.parseInt(tokens[i]);
+              String var = "v" + Math.abs(parsedLit);
+              literals.add(parsedLit > 0 ? f.literal(var, true) : f.literal(var, false));
+            }
+          }
+          if (!literals.isEmpty())
+            solver.add(f.or(literals));
+        }
+      }
+    } finally {
+      reader.close();
     }
   }
 
@@ -496,8 +598,7 @@ public class SATTest {
 
   @Test
   public void testNumberOfModelHandler() {
-    for (int i = 0; i < this.solvers.length - 1; i++) {
-      final SATSolver s = this.solvers[i];
+    for (final SATSolver s : this.solvers) {
       final Variable[] lits = new Variable[100];
       for (int j = 0; j < lits.length; j++)
         lits[j] = f.variable("x" + j);
@@ -564,42 +665,107 @@ public class SATTest {
     solver.model();
   }
 
-  @Test(expected = UnsupportedOperationException.class)
+  @Test
   public void testCLSatWithLit() {
-    CleaneLing solver = CleaneLing.minimalistic(f);
-    solver.add(F.AND1);
-    solver.sat(new TimeoutSATHandler(10000), F.A);
+    for (final CleaneLing solver : Arrays.asList(CleaneLing.minimalistic(f), CleaneLing.full(f))) {
+      solver.add(F.AND1);
+      Assert.assertEquals(TRUE, solver.sat(new TimeoutSATHandler(10000), F.A));
+      Assert.assertTrue(solver.model().evaluateLit(F.B));
+      Assert.assertEquals(FALSE, solver.sat(new TimeoutSATHandler(10000), F.NA));
+    }
   }
 
-  @Test(expected = UnsupportedOperationException.class)
+  @Test
   public void testCLSaveState() {
-    CleaneLing solver = CleaneLing.minimalistic(f);
-    solver.add(F.AND1);
-    solver.saveState();
+    for (final CleaneLing solver : Arrays.asList(CleaneLing.minimalistic(f), CleaneLing.full(f))) {
+      solver.add(F.AND1);
+      final SolverState state = solver.saveState();
+      Assert.assertEquals("SolverState{id=0, state=[1]}", state.toString());
+      solver.add(F.NA);
+      Assert.assertEquals(FALSE, solver.sat());
+      solver.loadState(state);
+      Assert.assertEquals(TRUE, solver.sat());
+      solver.add(F.NB);
+      Assert.assertEquals(FALSE, solver.sat());
+      solver.loadState(state);
+      Assert.assertEquals(TRUE, solver.sat());
+      final int vars = solver.underlyingSolver().model().size();
+      for (int i = 0; i < 10; i++) {
+        solver.loadState(state);
+        Assert.assertEquals(TRUE, solver.sat());
+      }
+      Assert.assertEquals(vars, solver.underlyingSolver().model().size());
+    }
   }
 
-  @Test(expected = UnsupportedOperationException.class)
+  @Test(expected = IllegalArgumentException.class)
   public void testCLLoadState() {
     CleaneLing solver = CleaneLing.minimalistic(f);
     solver.add(F.AND1);
     solver.loadState(new SolverState(27, new int[3]));
   }
 
-  @Test(expected = UnsupportedOperationException.class)
+  @Test
   public void testCLSatWithLitCollection() {
-    CleaneLing solver = CleaneLing.minimalistic(f);
-    solver.add(F.AND1);
-    List<Literal> lits = new ArrayList<Literal>();
-    lits.add(F.A);
-    lits.add(F.B);
-    solver.sat(new TimeoutSATHandler(10000), lits);
+    for (final CleaneLing solver : Arrays.asList(CleaneLing.minimalistic(f), CleaneLing.full(f))) {
+      solver.add(F.AND1);
+      List<Literal> lits = new ArrayList<Literal>();
+      lits.add(F.A);
+      lits.add(F.B);
+      Assert.assertEquals(TRUE, solver.sat(new TimeoutSATHandler(10000), lits));
+      lits.add(F.NB);
+      Assert.assertEquals(FALSE, solver.sat(new TimeoutSATHandler(10000), lits));
+    }
   }
 
-  @Test(expected = UnsupportedOperationException.class)
-  public void testCLEnumerateWithWrongConfig() {
+  @Test
+  public void testCLEnumerateWithSimplifications() {
     CleaneLing solver = CleaneLing.full(f, new CleaneLingConfig.Builder().plain(false).build());
     solver.add(F.AND1);
-    solver.enumerateAllModels();
+    Assert.assertEquals(1, solver.enumerateAllModels().size());
+  }
+
+  @Test
+  public void testCLIncrementalWithSimplifications() throws IOException {
+    final Map<String, Boolean> expectedResults = readExpectedResults();
+    final CleaneLing solver = CleaneLing.full(f);
+    for (final File file : new File("tests/sat").listFiles()) {
+      if (!file.getName().endsWith(".cnf"))
+        continue;
+      readCNF(solver, file);
+      Tristate res = solver.sat();
+      Assert.assertEquals(expectedResults.get(file.getName()), res == TRUE);
+      if (res == TRUE) {
+        final Assignment model = solver.model();
+        verifyCNF(model, file);
+        Assert.assertEquals(TRUE, solver.sat(model.literals()));
+        verifyCNF(solver.model(), file);
+        solver.add(model.blockingClause(f, null));
+        res = solver.sat();
+        if (res == TRUE) {
+          Assert.assertNotEquals(model, solver.model());
+          verifyCNF(solver.model(), file);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCLFreezeAndMelt() {
+    final CleaneLingSolver solver = new CleaneLingSolver(new CleaneLingConfig.Builder().build());
+    Assert.assertFalse(solver.frozen(3));
+    solver.freeze(3);
+    solver.freeze(-3);
+    Assert.assertTrue(solver.frozen(-3));
+    solver.melt(3);
+    Assert.assertTrue(solver.frozen(3));
+    solver.melt(3);
+    Assert.assertFalse(solver.frozen(3));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCLMeltUnfrozen() {
+    new CleaneLingSolver(new CleaneLingConfig.Builder().build()).melt(1);
   }
 
   @Test
@@ -0,0 +1,194 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.CType;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SolverState;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.logicng.datastructures.Tristate.FALSE;
+import static org.logicng.datastructures.Tristate.TRUE;
+
+/**
+ * Unit tests for copying MiniSAT-style solvers.
+ * @version 1.2
+ * @since 1.2
+ */
+public class SolverCopyTest {
+
+  private final FormulaFactory f;
+  private final PropositionalParser p;
+  private final MiniSat[] solvers;
+
+  public SolverCopyTest() {
+    this.f = new FormulaFactory();
+    this.p = new PropositionalParser(f);
+    this.solvers = new MiniSat[6];
+    this.solvers[0] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[1] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(false).build());
+    this.solvers[2] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(true).build(), new GlucoseConfig.Builder().build());
+    this.solvers[3] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(), new GlucoseConfig.Builder().tieredLearnts(true).build());
+    this.solvers[4] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[5] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(false).build());
+  }
+
+  @Test
+  public void testIndependence() throws ParserException {
+    for (final MiniSat solver : this.solvers) {
+      solver.add(p.parse("(a | b) & (~a | c)"));
+      final MiniSat copy = solver.copy();
+      Assert.assertEquals(TRUE, copy.sat());
+      copy.add(p.parse("~c & ~b"));
+      Assert.assertEquals(FALSE, copy.sat());
+      Assert.assertEquals(TRUE, solver.sat());
+      solver.add(p.parse("~b"));
+      Assert.assertEquals(TRUE, solver.sat());
+      Assert.assertTrue(solver.model().evaluateLit(f.variable("c")));
+      final MiniSat secondCopy = solver.copy();
+      Assert.assertEquals(TRUE, secondCopy.sat());
+      Assert.assertEquals(solver.model(), secondCopy.model());
+      secondCopy.add(p.parse("~a"));
+      Assert.assertEquals(FALSE, secondCopy.sat());
+      Assert.assertEquals(FALSE, copy.sat());
+      Assert.assertEquals(TRUE, solver.sat());
+    }
+  }
+
+  @Test
+  public void testCardinalityConstraints() {
+    for (final MiniSat solver : this.solvers) {
+      final Variable[] vars = new Variable[10];
+      for (int i = 0; i < vars.length; i++)
+        vars[i] = f.variable("v" + i);
+      solver.add(f.cc(CType.EQ, 3, vars));
+      Assert.assertEquals(TRUE, solver.sat());
+      final MiniSat copy = solver.copy();
+      Assert.assertEquals(120, copy.enumerateAllModels(vars).size());
+      copy.add(f.cc(CType.LE, 2, vars));
+      Assert.assertEquals(FALSE, copy.sat());
+      Assert.assertEquals(120, solver.enumerateAllModels(vars).size());
+    }
+  }
+
+  @Test
+  public void testDimacsFiles() throws IOException {
+    final Map<String, Boolean> expectedResults = DimacsReader.readResults();
+    final MiniSat template = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(true).build(), new GlucoseConfig.Builder().build());
+    for (final File file : new File("tests/sat").listFiles()) {
+      if (!file.getName().endsWith(".cnf") || file.length() > 100000)
+        continue;
+      template.reset();
+      template.add(DimacsReader.readCNF(file, f));
+      final MiniSat copy = template.copy();
+      Assert.assertEquals(expectedResults.get(file.getName()), copy.sat() == TRUE);
+      Assert.assertEquals(expectedResults.get(file.getName()), template.sat() == TRUE);
+      Assert.assertEquals(expectedResults.get(file.getName()), template.copy().sat() == TRUE);
+    }
+  }
+
+  @Test
+  public void testScopesAndStates() throws ParserException {
+    for (final MiniSat solver : this.solvers) {
+      solver.add(p.parse("a | b"));
+      if (isIncremental(solver)) {
+        final SolverState state = solver.saveState();
+        solver.add(p.parse("~a"));
+        final MiniSat copy = solver.copy();
+        copy.add(p.parse("~b"));
+        Assert.assertEquals(FALSE, copy.sat());
+        copy.loadState(state);
+        Assert.assertEquals(TRUE, copy.sat(f.literal("b", false)));
+        Assert.assertEquals(FALSE, solver.sat(f.literal("b", false)));
+      }
+      solver.push();
+      solver.add(p.parse("~a & ~b"));
+      final MiniSat copy = solver.copy();
+      Assert.assertEquals(1, copy.scopeLevel());
+      Assert.assertEquals(FALSE, copy.sat());
+      copy.pop();
+      Assert.assertEquals(0, copy.scopeLevel());
+      Assert.assertEquals(TRUE, copy.sat());
+      Assert.assertEquals(1, solver.scopeLevel());
+      Assert.assertEquals(FALSE, solver.sat());
+    }
+  }
+
+  @Test
+  public void testParallelWorkers() throws Exception {
+    final PigeonHoleGenerator pg = new PigeonHoleGenerator(f);
+    final MiniSat template = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build());
+    template.add(f.or(pg.generate(6), f.variable("x")));
+    Assert.assertEquals(FALSE, template.sat(f.literal("x", false)));
+    final List<List<Literal>> assumptions = new ArrayList<List<Literal>>();
+    assumptions.add(Collections.<Literal>singletonList(f.literal("x", false)));
+    assumptions.add(Collections.<Literal>singletonList(f.variable("x")));
+    assumptions.add(Arrays.<Literal>asList(f.literal("x", false), f.variable("v1")));
+    final ExecutorService executor = Executors.newFixedThreadPool(assumptions.size());
+    try {
+      final List<Future<Tristate>> futures = new ArrayList<Future<Tristate>>();
+      for (final List<Literal> cube : assumptions) {
+        final MiniSat worker = template.copy();
+        futures.add(executor.submit(new Callable<Tristate>() {
+          @Override
+          public Tristate call() {
+            return worker.sat(cube);
+          }
+        }));
+      }
+      for (int i = 0; i < assumptions.size(); i++)
+        Assert.assertEquals(template.sat(assumptions.get(i)), futures.get(i).get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static boolean isIncremental(final MiniSat solver) {
+    return solver.underlyingSolver().incremental;
+  }
+}
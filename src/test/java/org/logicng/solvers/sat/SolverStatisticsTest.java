@@ -0,0 +1,185 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-2016 Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.solvers.CleaneLing;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SATPortfolio;
+import org.logicng.solvers.SATSolver;
+
+import static org.logicng.datastructures.Tristate.FALSE;
+import static org.logicng.datastructures.Tristate.TRUE;
+
+/**
+ * Unit tests for the solver statistics.
+ * @version 1.2
+ * @since 1.2
+ */
+public class SolverStatisticsTest {
+
+  private final FormulaFactory f;
+  private final PigeonHoleGenerator pg;
+  private final SATSolver[] solvers;
+
+  public SolverStatisticsTest() {
+    this.f = new FormulaFactory();
+    this.pg = new PigeonHoleGenerator(f);
+    this.solvers = new SATSolver[7];
+    this.solvers[0] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[1] = MiniSat.miniSat(f, new MiniSatConfig.Builder().incremental(false).build());
+    this.solvers[2] = MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).build(), new GlucoseConfig.Builder().build());
+    this.solvers[3] = MiniSat.miniCard(f, new MiniSatConfig.Builder().incremental(true).build());
+    this.solvers[4] = CleaneLing.minimalistic(f);
+    this.solvers[5] = CleaneLing.full(f, new CleaneLingConfig.Builder().gluered(true).build());
+    this.solvers[6] = CleaneLing.full(f);
+  }
+
+  @Test
+  public void testEmptyStatistics() {
+    for (final SATSolver solver : this.solvers) {
+      solver.reset();
+      Assert.assertEquals(SolverStatistics.empty(), solver.statistics());
+    }
+  }
+
+  @Test
+  public void testUnsatFormula() {
+    for (final SATSolver solver : this.solvers) {
+      solver.reset();
+      solver.add(pg.generate(6));
+      Assert.assertEquals(FALSE, solver.sat());
+      final SolverStatistics stats = solver.statistics();
+      Assert.assertTrue(stats.decisions() > 0);
+      Assert.assertTrue(stats.propagations() >= stats.decisions());
+      Assert.assertTrue(stats.conflicts() > 0);
+      Assert.assertTrue(stats.learntClauses() > 0);
+      Assert.assertTrue(stats.learntClauses() <= stats.conflicts());
+      Assert.assertTrue(stats.learntLiterals() >= stats.learntClauses());
+      Assert.assertEquals(0, stats.propagationTime());
+      Assert.assertEquals(0, stats.analysisTime());
+      Assert.assertTrue(stats.peakMemory() > 0);
+      solver.reset();
+      Assert.assertEquals(SolverStatistics.empty(), solver.statistics());
+    }
+  }
+
+  @Test
+  public void testMeasureTimes() {
+    final MiniSatConfig miniSatConfig = new MiniSatConfig.Builder().measureTimes(true).build();
+    final CleaneLingConfig cleaneLingConfig = new CleaneLingConfig.Builder().measureTimes(true).build();
+    final SATSolver[] timedSolvers = new SATSolver[]{MiniSat.miniSat(f, miniSatConfig),
+            MiniSat.glucose(f, new MiniSatConfig.Builder().incremental(false).measureTimes(true).build(),
+                    new GlucoseConfig.Builder().build()), MiniSat.miniCard(f, miniSatConfig),
+            CleaneLing.minimalistic(f, cleaneLingConfig), CleaneLing.full(f, cleaneLingConfig)};
+    for (final SATSolver solver : timedSolvers) {
+      solver.add(pg.generate(6));
+      Assert.assertEquals(FALSE, solver.sat());
+      final SolverStatistics stats = solver.statistics();
+      Assert.assertTrue(stats.propagationTime() > 0);
+      Assert.assertTrue(stats.analysisTime() > 0);
+    }
+  }
+
+  @Test
+  public void testAccumulation() throws ParserException {
+    final PropositionalParser p = new PropositionalParser(f);
+    for (final SATSolver solver : this.solvers) {
+      solver.reset();
+      solver.add(p.parse("(a | b | c) & (~a | ~b) & (~a | ~c) & (d => e)"));
+      Assert.assertEquals(TRUE, solver.sat());
+      final SolverStatistics first = solver.statistics();
+      Assert.assertTrue(first.decisions() > 0);
+      Assert.assertEquals(TRUE, solver.sat(f.literal("a", true)));
+      final SolverStatistics second = solver.statistics();
+      Assert.assertTrue(second.decisions() >= first.decisions());
+      Assert.assertTrue(second.propagations() > first.propagations());
+      Assert.assertTrue(second.peakMemory() >= first.peakMemory());
+    }
+  }
+
+  @Test
+  public void testReductionsAndRestarts() {
+    final SATSolver[] nonIncremental = new SATSolver[]{this.solvers[1], this.solvers[2], this.solvers[6]};
+    for (final SATSolver solver : nonIncremental) {
+      solver.reset();
+      solver.add(pg.generate(7));
+      Assert.assertEquals(FALSE, solver.sat());
+      final SolverStatistics stats = solver.statistics();
+      Assert.assertTrue(stats.restarts() > 0);
+      Assert.assertTrue(stats.reductions() > 0);
+    }
+  }
+
+  @Test
+  public void testCopy() {
+    final MiniSat solver = MiniSat.glucose(f);
+    solver.add(pg.generate(6));
+    Assert.assertEquals(FALSE, solver.sat());
+    final SolverStatistics before = solver.statistics();
+    final MiniSat copy = solver.copy();
+    final SolverStatistics stats = copy.statistics();
+    Assert.assertEquals(0, stats.decisions());
+    Assert.assertEquals(0, stats.conflicts());
+    Assert.assertEquals(0, stats.learntClauses());
+    Assert.assertTrue(stats.peakMemory() > 0);
+    Assert.assertTrue(stats.peakMemory() <= before.peakMemory());
+    Assert.assertEquals(FALSE, copy.sat());
+    Assert.assertEquals(before, solver.statistics());
+  }
+
+  @Test
+  public void testPortfolio() {
+    final SATPortfolio portfolio = SATPortfolio.portfolio(f, 2);
+    portfolio.add(pg.generate(6));
+    Assert.assertEquals(FALSE, portfolio.sat());
+    SolverStatistics sum = SolverStatistics.empty();
+    for (final SATSolver solver : portfolio.solvers())
+      sum = sum.add(solver.statistics());
+    Assert.assertEquals(sum, portfolio.statistics());
+    Assert.assertTrue(portfolio.statistics().conflicts() > 0);
+  }
+
+  @Test
+  public void testToString() {
+    Assert.assertEquals("SolverStatistics{#decisions=0, #propagations=0, #conflicts=0, #restarts=0, #learnt clauses=0, " +
+            "#learnt literals=0, #reductions=0, propagation time=0.00ms, analysis time=0.00ms, peak memory=0}",
+            SolverStatistics.empty().toString());
+    final SolverStatistics stats = new SolverStatistics(1, 2, 3, 4, 5, 6, 7, 1500000, 2500000, 1024);
+    Assert.assertEquals("SolverStatistics{#decisions=1, #propagations=2, #conflicts=3, #restarts=4, #learnt clauses=5, " +
+            "#learnt literals=6, #reductions=7, propagation time=1.50ms, analysis time=2.50ms, peak memory=1024}",
+            stats.toString());
+    Assert.assertEquals(new SolverStatistics(2, 4, 6, 8, 10, 12, 14, 3000000, 5000000, 2048), stats.add(stats));
+    Assert.assertEquals(stats.hashCode(), new SolverStatistics(1, 2, 3, 4, 5, 6, 7, 1500000, 2500000, 1024).hashCode());
+    Assert.assertNotEquals(stats, SolverStatistics.empty());
+  }
+}